@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -11,6 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
@@ -28,13 +32,19 @@ public class BookingClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size,
+                                              boolean withTotalCount) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
-                "size", size
+                "size", size,
+                "count", withTotalCount
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?state={state}&from={from}&size={size}&count={count}", userId, parameters);
+    }
+
+    public void streamBookings(long userId, BookingState state, HttpServletResponse response) throws IOException {
+        stream("?state={state}", userId, Map.of("state", state.name()), response);
     }
 
     public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
@@ -50,8 +60,29 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getByOwnerAndState(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of("state", state);
-        return get("/owner", userId, parameters);
+    public ResponseEntity<Object> approveAll(long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
+
+    public ResponseEntity<Object> getByOwnerAndState(long userId, BookingState state, String cursor, Integer size) {
+        if (cursor == null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "size", size
+            );
+            return get("/owner?state={state}&size={size}", userId, parameters);
+        }
+
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public void streamByOwnerAndState(long userId, BookingState state, HttpServletResponse response)
+            throws IOException {
+        stream("/owner?state={state}", userId, Map.of("state", state.name()), response);
     }
 }
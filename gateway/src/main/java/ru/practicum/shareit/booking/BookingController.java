@@ -1,21 +1,30 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.ErrorResponse;
 import ru.practicum.shareit.constants.AppConstants;
 
+import java.io.IOException;
+import java.util.List;
+
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -32,6 +41,15 @@ public class BookingController {
 		return bookingClient.bookItem(userId, requestDto);
 	}
 
+	@PatchMapping("/batch")
+	public ResponseEntity<Object> approveAll(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+											 @RequestBody @NotEmpty(message = "Список решений не может быть пустым")
+											 @Size(max = 100, message = "За один запрос можно обработать не более 100 бронирований")
+											 List<@Valid BookingDecisionDto> decisions) {
+		log.info("От пользователя {} получен запрос PATCH /bookings/batch: {}", userId, decisions);
+		return bookingClient.approveAll(userId, decisions);
+	}
+
 	@PatchMapping("/{bookingId}")
 	public ResponseEntity<Object> approve(@PathVariable("bookingId") long bookingId,
 										  @RequestParam(value = "approved") boolean isApproved,
@@ -51,21 +69,49 @@ public class BookingController {
 	public ResponseEntity<Object> getBookings(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
 			@RequestParam(name = "state", defaultValue = "all") String stateParam,
 											  @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-											  @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
+											  @RequestParam(name = "size", defaultValue = "10") @Positive Integer size,
+											  @RequestParam(name = "count", defaultValue = "false") boolean withTotalCount) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getBookings(userId, state, from, size);
+		log.info("Get booking with state {}, userId={}, from={}, size={}, count={}", stateParam, userId, from, size,
+				withTotalCount);
+		return bookingClient.getBookings(userId, state, from, size, withTotalCount);
+	}
+
+	@GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public void streamBookings(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+							   @RequestParam(name = "state", defaultValue = "all") String stateParam,
+							   HttpServletResponse response) throws IOException {
+		// Обработчики ниже отвечают JSON, который не подходит под Accept выгрузки: ошибка уходит через sendError
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown state: " + stateParam));
+		log.info("От пользователя {} получен запрос GET /bookings?state={} в формате NDJSON", userId, stateParam);
+		bookingClient.streamBookings(userId, state, response);
 	}
 
 	@GetMapping("/owner")
 	public ResponseEntity<Object> getByOwnerAndState(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
-													 @RequestParam(value = "state", required = false, defaultValue = "ALL") String stateParam) {
-		log.info("От пользователя {} получен запрос GET /bookings/owner?state={}", userId, stateParam);
+													 @RequestParam(value = "state", required = false, defaultValue = "ALL") String stateParam,
+													 @RequestParam(value = "cursor", required = false) String cursor,
+													 @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
+		log.info("От пользователя {} получен запрос GET /bookings/owner?state={}&cursor={}&size={}", userId, stateParam,
+				cursor, size);
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 
-		return bookingClient.getByOwnerAndState(userId, state);
+		return bookingClient.getByOwnerAndState(userId, state, cursor, size);
+	}
+
+	@GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public void streamByOwnerAndState(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+									  @RequestParam(value = "state", required = false, defaultValue = "ALL")
+									  String stateParam,
+									  HttpServletResponse response) throws IOException {
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown state: " + stateParam));
+		log.info("От пользователя {} получен запрос GET /bookings/owner?state={} в формате NDJSON", userId,
+				stateParam);
+		bookingClient.streamByOwnerAndState(userId, state, response);
 	}
 
 	@ExceptionHandler
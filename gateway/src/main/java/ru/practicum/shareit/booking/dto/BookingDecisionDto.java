@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record BookingDecisionDto(
+		@NotNull(message = "Не указан id бронирования") @Positive(message = "id бронирования должен быть положительным") Long bookingId,
+		@NotNull(message = "Не указано решение по бронированию") Boolean approved) {
+}
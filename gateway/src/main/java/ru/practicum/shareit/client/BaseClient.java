@@ -1,8 +1,12 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -11,10 +15,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 import ru.practicum.shareit.constants.AppConstants;
 
 public class BaseClient {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     protected final RestTemplate rest;
 
     public BaseClient(RestTemplate rest) {
@@ -81,6 +89,55 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected void stream(String path, Long userId, @Nullable Map<String, Object> parameters,
+                          HttpServletResponse response) throws IOException {
+        stream(path, userId, parameters, MediaType.APPLICATION_NDJSON, response);
+    }
+
+    /**
+     * Проксирует GET-запрос с заданным {@code Accept}, например NDJSON: тело ответа сервера копируется в ответ шлюза
+     * по мере поступления и сбрасывается клиенту после каждого чтения, не собираясь в памяти целиком. Поток и
+     * соединение из пула заняты до конца ответа, поэтому долгие подписки идут через {@link ServerSentEventsProxy}.
+     */
+    protected void stream(String path, Long userId, @Nullable Map<String, Object> parameters, MediaType accept,
+                          HttpServletResponse response) throws IOException {
+        RequestCallback requestCallback = request -> {
+            request.getHeaders().setAccept(List.of(accept));
+            if (userId != null) {
+                request.getHeaders().set(AppConstants.USER_ID_HEADER, String.valueOf(userId));
+            }
+        };
+        ResponseExtractor<Void> responseExtractor = shareitServerResponse -> {
+            response.setStatus(shareitServerResponse.getStatusCode().value());
+            MediaType contentType = shareitServerResponse.getHeaders().getContentType();
+            if (contentType != null) {
+                response.setContentType(contentType.toString());
+            }
+            copyFlushing(shareitServerResponse.getBody(), response.getOutputStream());
+            return null;
+        };
+
+        try {
+            rest.execute(path, HttpMethod.GET, requestCallback, responseExtractor,
+                    CollectionUtils.isEmpty(parameters) ? Map.of() : parameters);
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getStatusCode().value());
+            if (e.getResponseHeaders() != null && e.getResponseHeaders().getContentType() != null) {
+                response.setContentType(e.getResponseHeaders().getContentType().toString());
+            }
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
+    private static void copyFlushing(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            out.flush();
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
@@ -0,0 +1,215 @@
+package ru.practicum.shareit.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.constants.AppConstants;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проксирует подписки Server-Sent Events на сервер. В отличие от {@link BaseClient#stream}, не занимает ни поток
+ * сервлета, ни соединение из пула клиента на всё время подписки: запрос к серверу отправляется асинхронно, строки
+ * событий пересылаются клиенту по мере поступления. Пока событий нет, клиенту отправляются комментарии-пинги:
+ * они не дают промежуточным прокси закрыть соединение и позволяют заметить отключившегося клиента.
+ */
+@Component
+@Slf4j
+public class ServerSentEventsProxy {
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final String serverUrl;
+    private final Duration heartbeatInterval;
+    private final long timeoutMillis;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sse-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ServerSentEventsProxy(@Value("${shareit-server.url}") String serverUrl,
+                                 @Value("${shareit-server.events.heartbeat-interval:PT15S}") Duration heartbeatInterval,
+                                 @Value("${shareit-server.events.timeout:PT30M}") Duration timeout) {
+        this.serverUrl = serverUrl;
+        this.heartbeatInterval = heartbeatInterval;
+        this.timeoutMillis = timeout.toMillis();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Подписывается на события сервера по пути {@code path}. Результат готов, когда сервер ответил заголовками:
+     * при успехе тело ответа — поток событий, при ошибке — статус и тело ошибки сервера.
+     */
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> subscribe(String path, long userId) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(serverUrl + path))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .header(AppConstants.USER_ID_HEADER, String.valueOf(userId))
+                .GET()
+                .build();
+
+        CompletableFuture<ResponseEntity<ResponseBodyEmitter>> result = new CompletableFuture<>();
+        httpClient.sendAsync(request, responseInfo -> {
+            if (HttpStatus.valueOf(responseInfo.statusCode()).is2xxSuccessful()) {
+                EventForwarder forwarder = new EventForwarder(new ResponseBodyEmitter(timeoutMillis));
+                result.complete(ResponseEntity.ok()
+                        .contentType(MediaType.TEXT_EVENT_STREAM)
+                        .body(forwarder.emitter));
+                return HttpResponse.BodySubscribers.fromLineSubscriber(forwarder);
+            }
+
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), body -> {
+                result.complete(error(responseInfo, body));
+                return null;
+            });
+        }).whenComplete((response, e) -> {
+            if (e != null && !result.isDone()) {
+                log.warn("Не удалось подписаться на {}: {}", path, e.getMessage());
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        httpClient.shutdownNow();
+    }
+
+    private static ResponseEntity<ResponseBodyEmitter> error(HttpResponse.ResponseInfo responseInfo, byte[] body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(responseInfo.statusCode());
+        responseInfo.headers().firstValue(HttpHeaders.CONTENT_TYPE)
+                .ifPresent(contentType -> builder.contentType(MediaType.parseMediaType(contentType)));
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        try {
+            emitter.send(body);
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return builder.body(emitter);
+    }
+
+    /**
+     * Пересылает строки ответа сервера клиенту. Пинг отправляется только между событиями, чтобы не разорвать
+     * событие из нескольких строк.
+     */
+    private final class EventForwarder implements Flow.Subscriber<String> {
+        private final ResponseBodyEmitter emitter;
+        private Flow.Subscription subscription;
+        private ScheduledFuture<?> heartbeat;
+        private boolean betweenEvents = true;
+        private boolean closed;
+
+        private EventForwarder(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(error -> close());
+        }
+
+        @Override
+        public synchronized void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (closed) {
+                subscription.cancel();
+                return;
+            }
+
+            // Первый пинг сразу: заголовки ответа уходят клиенту только с первой записью
+            heartbeat = heartbeats.scheduleAtFixedRate(this::sendHeartbeat, 0, heartbeatInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public synchronized void onNext(String line) {
+            if (closed) {
+                return;
+            }
+
+            try {
+                emitter.send((line + "\n").getBytes(StandardCharsets.UTF_8));
+                betweenEvents = line.isEmpty();
+            } catch (IOException | IllegalStateException e) {
+                disconnected(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            log.debug("Поток событий сервера прерван: {}", throwable.getMessage());
+            if (close()) {
+                emitter.complete();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (close()) {
+                emitter.complete();
+            }
+        }
+
+        private synchronized void sendHeartbeat() {
+            if (closed || !betweenEvents) {
+                return;
+            }
+
+            try {
+                emitter.send(HEARTBEAT);
+            } catch (IOException | IllegalStateException e) {
+                disconnected(e);
+            }
+        }
+
+        private void disconnected(Exception e) {
+            // Клиент отключился: соединение с сервером больше не нужно
+            log.debug("Клиент отключился от потока событий: {}", e.getMessage());
+            if (close()) {
+                emitter.completeWithError(e);
+            }
+        }
+
+        /**
+         * Закрывает пересылку; возвращает false, если она уже была закрыта.
+         */
+        private synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+
+            closed = true;
+            if (heartbeat != null) {
+                heartbeat.cancel(false);
+            }
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            return true;
+        }
+    }
+}
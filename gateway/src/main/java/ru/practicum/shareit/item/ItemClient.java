@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -10,8 +11,14 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 
 @Service
@@ -36,17 +43,83 @@ public class ItemClient extends BaseClient {
         return patch("/" + itemId, userId, itemDto);
     }
 
+    public ResponseEntity<Object> updateAll(long userId, List<ItemUpdateDto> updates) {
+        return patch("/batch", userId, updates);
+    }
+
+    public ResponseEntity<Object> setAvailability(long userId, boolean available) {
+        Map<String, Object> parameters = Map.of("available", available);
+        return post("/availability?available={available}", userId, parameters, null);
+    }
+
     public ResponseEntity<Object> getByIdWithBookingsAndComments(long userId, long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAllByUser(long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getAvailability(long userId, long itemId, LocalDate from, LocalDate to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getAllByUser(long userId, Integer from, Integer size, boolean withDetails) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size,
+                "details", withDetails
+        );
+        return get("?from={from}&size={size}&details={details}", userId, parameters);
+    }
+
+    public void streamAllByUser(long userId, HttpServletResponse response) throws IOException {
+        stream("", userId, null, response);
+    }
+
+    public ResponseEntity<Object> searchAvailable(long userId, String text, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+    }
+
+    public void streamAvailable(long userId, String text, HttpServletResponse response) throws IOException {
+        stream("/search?text={text}", userId, Map.of("text", text), response);
     }
 
-    public ResponseEntity<Object> searchAvailable(long userId, String text) {
-        Map<String, Object> parameters = Map.of("text", text);
-        return get("/search?text={text}", userId, parameters);
+    public ResponseEntity<Object> autocomplete(long userId, String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/autocomplete?prefix={prefix}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> searchByFacets(long userId, Map<String, Object> facets, Integer from,
+                                                 Integer size) {
+        Map<String, Object> parameters = new LinkedHashMap<>(facets);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        String query = parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&"));
+        return get("/facets?" + query, userId, parameters);
+    }
+
+    public ResponseEntity<Object> getComments(long userId, long itemId, String cursor, Integer size) {
+        if (cursor == null) {
+            Map<String, Object> parameters = Map.of("size", size);
+            return get("/" + itemId + "/comments?size={size}", userId, parameters);
+        }
+
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/" + itemId + "/comments?cursor={cursor}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> addComment(long userId, long itemId, CommentDto commentDto) {
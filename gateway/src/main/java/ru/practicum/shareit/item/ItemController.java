@@ -1,16 +1,34 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.ErrorResponse;
 import ru.practicum.shareit.constants.AppConstants;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Controller
 @RequestMapping("/items")
@@ -36,6 +54,23 @@ public class ItemController {
         return itemClient.update(userId, itemId, itemDto);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateAll(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                            @RequestBody
+                                            @NotEmpty(message = "Список изменений не может быть пустым")
+                                            @Size(max = 100, message = "За один запрос можно изменить до 100 вещей")
+                                            List<@Valid ItemUpdateDto> updates) {
+        log.info("От пользователя {} получен запрос PATCH /items/batch: {}", userId, updates);
+        return itemClient.updateAll(userId, updates);
+    }
+
+    @PostMapping("/availability")
+    public ResponseEntity<Object> setAvailability(@RequestParam("available") boolean available,
+                                                  @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос POST /items/availability?available={}", userId, available);
+        return itemClient.setAvailability(userId, available);
+    }
+
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> get(@PathVariable long itemId,
                                       @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
@@ -43,17 +78,105 @@ public class ItemController {
         return itemClient.getByIdWithBookingsAndComments(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable long itemId,
+                                                  @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                  LocalDate from,
+                                                  @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                  LocalDate to,
+                                                  @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос GET /items/{}/availability?from={}&to={}", userId, itemId, from,
+                to);
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping
-    public ResponseEntity<Object> getAllByUser(@RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
-        log.info("От пользователя {} получен запрос GET /items", userId);
-        return itemClient.getAllByUser(userId);
+    public ResponseEntity<Object> getAllByUser(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                               @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero
+                                               Integer from,
+                                               @RequestParam(name = "size", defaultValue = "10") @Positive @Max(100)
+                                               Integer size,
+                                               @RequestParam(name = "details", defaultValue = "false")
+                                               boolean withDetails) {
+        log.info("От пользователя {} получен запрос GET /items?from={}&size={}&details={}", userId, from, size,
+                withDetails);
+        return itemClient.getAllByUser(userId, from, size, withDetails);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllByUser(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                HttpServletResponse response) throws IOException {
+        log.info("От пользователя {} получен запрос GET /items в формате NDJSON", userId);
+        itemClient.streamAllByUser(userId, response);
     }
 
     @GetMapping("/search")
     public ResponseEntity<Object> searchItemsForBooking(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
-                                               @RequestParam("text") String text) {
-        log.info("От пользователя {} получен запрос GET /items/search с параметром поиска = {}", userId, text);
-        return itemClient.searchAvailable(userId, text);
+                                                        @RequestParam("text") String text,
+                                                        @RequestParam(name = "from", defaultValue = "0")
+                                                        @PositiveOrZero Integer from,
+                                                        @RequestParam(name = "size", defaultValue = "10") @Positive
+                                                        Integer size) {
+        log.info("От пользователя {} получен запрос GET /items/search с параметром поиска = {}, from={}, size={}",
+                userId, text, from, size);
+        return itemClient.searchAvailable(userId, text, from, size);
+    }
+
+    @GetMapping(path = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamItemsForBooking(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                      @RequestParam("text") String text,
+                                      HttpServletResponse response) throws IOException {
+        log.info("От пользователя {} получен запрос GET /items/search в формате NDJSON с параметром поиска = {}",
+                userId, text);
+        itemClient.streamAvailable(userId, text, response);
+    }
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<Object> autocomplete(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                               @RequestParam("prefix") String prefix,
+                                               @RequestParam(name = "size", defaultValue = "10") @Positive @Max(10)
+                                               Integer size) {
+        log.info("От пользователя {} получен запрос GET /items/autocomplete?prefix={}&size={}", userId, prefix, size);
+        return itemClient.autocomplete(userId, prefix, size);
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<Object> searchByFacets(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                                 @RequestParam(name = "owner", required = false) @Positive
+                                                 Long ownerId,
+                                                 @RequestParam(name = "available", required = false)
+                                                 Boolean available,
+                                                 @RequestParam(name = "openRequest", required = false)
+                                                 Boolean openRequest,
+                                                 @RequestParam(name = "bookedSoon", required = false)
+                                                 Boolean bookedSoon,
+                                                 @RequestParam(name = "hasComments", required = false)
+                                                 Boolean hasComments,
+                                                 @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero
+                                                 Integer from,
+                                                 @RequestParam(name = "size", defaultValue = "10") @Positive
+                                                 Integer size) {
+        Map<String, Object> facets = new LinkedHashMap<>();
+        facets.put("owner", ownerId);
+        facets.put("available", available);
+        facets.put("openRequest", openRequest);
+        facets.put("bookedSoon", bookedSoon);
+        facets.put("hasComments", hasComments);
+        facets.values().removeIf(Objects::isNull);
+        log.info("От пользователя {} получен запрос GET /items/facets: {}, from={}, size={}", userId, facets, from,
+                size);
+        return itemClient.searchByFacets(userId, facets, from, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable long itemId,
+                                              @RequestParam(name = "cursor", required = false) String cursor,
+                                              @RequestParam(name = "size", defaultValue = "10") @Positive @Max(100)
+                                              Integer size,
+                                              @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос GET /items/{}/comments?cursor={}&size={}", userId, itemId,
+                cursor, size);
+        return itemClient.getComments(userId, itemId, cursor, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -66,4 +189,11 @@ public class ItemController {
         return itemClient.addComment(userId, itemId, comment);
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public ErrorResponse handleConstraintViolationException(final ConstraintViolationException e) {
+        log.debug("Error ", e);
+        return new ErrorResponse(e.getMessage());
+    }
 }
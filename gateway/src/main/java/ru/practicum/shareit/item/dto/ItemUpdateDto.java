@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+public record ItemUpdateDto(
+        @NotNull(message = "Не указан id вещи") @Positive(message = "id вещи должен быть положительным") Long itemId,
+        @Pattern(regexp = "(?s).*\\S.*", message = "Название не может быть пустым") String name,
+        @Pattern(regexp = "(?s).*\\S.*", message = "Описание не может быть пустым") String description,
+        Boolean available) {
+}
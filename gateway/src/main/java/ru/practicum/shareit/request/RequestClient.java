@@ -1,39 +1,84 @@
 package ru.practicum.shareit.request;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerSentEventsProxy;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
+    private final ServerSentEventsProxy eventsProxy;
+
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ServerSentEventsProxy eventsProxy) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
                         .build()
         );
+        this.eventsProxy = eventsProxy;
     }
 
     public ResponseEntity<Object> add(long userId, ItemRequestDto newItemRequestDto) {
         return post("", userId, newItemRequestDto);
     }
 
-    public ResponseEntity<Object> getAllForUser(long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getAllForUser(long userId, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getAllForOtherUsers(long userId, String cursor, Integer size) {
+        if (cursor == null) {
+            Map<String, Object> parameters = Map.of("size", size);
+            return get("/all?size={size}", userId, parameters);
+        }
+
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/all?cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public void streamAllForOtherUsers(long userId, HttpServletResponse response) throws IOException {
+        stream("/all", userId, null, response);
+    }
+
+    public ResponseEntity<Object> getMatches(long userId, String cursor, Integer size) {
+        if (cursor == null) {
+            Map<String, Object> parameters = Map.of("size", size);
+            return get("/matches?size={size}", userId, parameters);
+        }
+
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/matches?cursor={cursor}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllForOtherUsers(long userId) {
-        return get("/all", userId);
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> subscribeToMatches(long userId) {
+        return eventsProxy.subscribe(API_PREFIX + "/matches", userId);
     }
 
     public ResponseEntity<Object> getById(long userId, long requestId) {
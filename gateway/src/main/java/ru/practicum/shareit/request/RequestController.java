@@ -1,15 +1,24 @@
 package ru.practicum.shareit.request;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import ru.practicum.shareit.constants.AppConstants;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping("/requests")
@@ -29,15 +38,43 @@ public class RequestController {
 
     @GetMapping
     public ResponseEntity<Object> getUserRequests(
+            @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(name = "size", defaultValue = "10") @Positive @Max(100) Integer size,
             @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
-        log.info("От пользователя {} получен запрос GET /requests", userId);
-        return requestClient.getAllForUser(userId);
+        log.info("От пользователя {} получен запрос GET /requests?from={}&size={}", userId, from, size);
+        return requestClient.getAllForUser(userId, from, size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllItemsRequests(@RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
-        log.info("От пользователя {} получен запрос GET /requests/all", userId);
-        return requestClient.getAllForOtherUsers(userId);
+    public ResponseEntity<Object> getAllItemsRequests(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10") @Positive @Max(100) Integer size,
+            @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос GET /requests/all?cursor={}&size={}", userId, cursor, size);
+        return requestClient.getAllForOtherUsers(userId, cursor, size);
+    }
+
+    @GetMapping(path = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllItemsRequests(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                       HttpServletResponse response) throws IOException {
+        log.info("От пользователя {} получен запрос GET /requests/all в формате NDJSON", userId);
+        requestClient.streamAllForOtherUsers(userId, response);
+    }
+
+    @GetMapping("/matches")
+    public ResponseEntity<Object> getMatches(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10") @Positive @Max(100) Integer size,
+            @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос GET /requests/matches?cursor={}&size={}", userId, cursor, size);
+        return requestClient.getMatches(userId, cursor, size);
+    }
+
+    @GetMapping(path = "/matches", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> subscribeToMatches(
+            @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос на подписку GET /requests/matches", userId);
+        return requestClient.subscribeToMatches(userId);
     }
 
     @GetMapping("/{requestId}")
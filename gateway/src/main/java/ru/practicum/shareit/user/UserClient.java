@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -10,6 +11,8 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
@@ -28,6 +31,10 @@ public class UserClient extends BaseClient {
         return get("");
     }
 
+    public void streamAll(HttpServletResponse response) throws IOException {
+        stream("", null, null, response);
+    }
+
     public ResponseEntity<Object> getById(long userId) {
         return get("/" + userId);
     }
@@ -1,15 +1,19 @@
 package ru.practicum.shareit.user;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
+
 @Controller
 @RequestMapping("/users")
 @RequiredArgsConstructor
@@ -24,6 +28,12 @@ public class UserController {
         return userClient.getAll();
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllUsers(HttpServletResponse response) throws IOException {
+        log.info("Получен запрос GET /users в формате NDJSON");
+        userClient.streamAll(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Object> get(@PathVariable long id) {
         log.info("Получен запрос GET /users/{}", id);
@@ -17,6 +17,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.RequestBuilder;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.constants.AppConstants;
 
@@ -25,9 +26,12 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -44,6 +48,21 @@ class BookingControllerTest {
         }
     }
 
+    static class BadDecisionsArgumentsProvider implements ArgumentsProvider {
+
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext extensionContext) throws Exception {
+            return Stream.of(
+                    Arguments.of(List.of()),
+                    Arguments.of(List.of(new BookingDecisionDto(null, true))),
+                    Arguments.of(List.of(new BookingDecisionDto(-1L, true))),
+                    Arguments.of(List.of(new BookingDecisionDto(1L, null))),
+                    Arguments.of(LongStream.rangeClosed(1, 101)
+                            .mapToObj(id -> new BookingDecisionDto(id, true))
+                            .toList()));
+        }
+    }
+
     @MockitoBean
     BookingClient bookingClient;
 
@@ -133,6 +152,45 @@ class BookingControllerTest {
         verifyNoInteractions(bookingClient);
     }
 
+    @Test
+    @DisplayName("approveAll должна передавать список решений в сервер")
+    void shouldApproveBookingsInBatch() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false));
+        when(bookingClient.approveAll(7L, decisions))
+                .thenReturn(ResponseEntity.ok().body(List.of()));
+
+        RequestBuilder request = patch("/bookings/batch")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 7L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(decisions));
+
+        mvc.perform(request)
+                .andExpect(status().isOk());
+
+        verify(bookingClient, times(1)).approveAll(7L, decisions);
+        verifyNoMoreInteractions(bookingClient);
+    }
+
+    @ParameterizedTest
+    @DisplayName("approveAll не должна передавать в сервер некорректный список решений")
+    @ArgumentsSource(BadDecisionsArgumentsProvider.class)
+    void shouldNotApproveBookingsInBatchWhenDecisionsInvalid(List<BookingDecisionDto> decisions) throws Exception {
+        RequestBuilder request = patch("/bookings/batch")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 7L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(decisions));
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingClient);
+    }
+
     @Test
     @DisplayName("getBooking должна возвращать бронирование по id")
     void shouldGetBookingById() throws Exception {
@@ -170,7 +228,7 @@ class BookingControllerTest {
     @Test
     @DisplayName("getBookings должна возвращать бронирования указанного пользователя")
     void shouldGetBookingsByBookerId() throws Exception {
-        when(bookingClient.getBookings(2, BookingState.ALL, 5, 15))
+        when(bookingClient.getBookings(2, BookingState.ALL, 5, 15, false))
                 .thenReturn(ResponseEntity.ok().body(bookings));
 
         RequestBuilder request = get("/bookings?from=5&size=15")
@@ -185,7 +243,27 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].itemId", is(bookings.get(0).getItemId()), Long.class))
                 .andExpect(jsonPath("$[1].itemId", is(bookings.get(1).getItemId()), Long.class));
 
-        verify(bookingClient, times(1)).getBookings(2, BookingState.ALL, 5, 15);
+        verify(bookingClient, times(1)).getBookings(2, BookingState.ALL, 5, 15, false);
+        verifyNoMoreInteractions(bookingClient);
+    }
+
+    @Test
+    @DisplayName("getBookings должна передавать запрос общего количества бронирований")
+    void shouldGetBookingsWithTotalCount() throws Exception {
+        when(bookingClient.getBookings(2, BookingState.PAST, 0, 10, true))
+                .thenReturn(ResponseEntity.ok().header("X-Total-Count", "2").body(bookings));
+
+        RequestBuilder request = get("/bookings?state=past&count=true")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 2L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "2"))
+                .andExpect(jsonPath("$").isArray());
+
+        verify(bookingClient, times(1)).getBookings(2, BookingState.PAST, 0, 10, true);
         verifyNoMoreInteractions(bookingClient);
     }
 
@@ -211,7 +289,7 @@ class BookingControllerTest {
     @Test
     @DisplayName("getByOwnerAndState должна возвращать бронирования вещей указанного пользователя")
     void shouldGetBookingsByOwnerId() throws Exception {
-        when(bookingClient.getByOwnerAndState(2, BookingState.ALL))
+        when(bookingClient.getByOwnerAndState(2, BookingState.ALL, null, 10))
                 .thenReturn(ResponseEntity.ok().body(bookings));
 
         RequestBuilder request = get("/bookings/owner")
@@ -226,10 +304,57 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].itemId", is(bookings.get(0).getItemId()), Long.class))
                 .andExpect(jsonPath("$[1].itemId", is(bookings.get(1).getItemId()), Long.class));
 
-        verify(bookingClient, times(1)).getByOwnerAndState(2, BookingState.ALL);
+        verify(bookingClient, times(1)).getByOwnerAndState(2, BookingState.ALL, null, 10);
+        verifyNoMoreInteractions(bookingClient);
+    }
+
+    @Test
+    @DisplayName("getByOwnerAndState должна передавать курсор продолжения")
+    void shouldGetBookingsByOwnerIdWithCursor() throws Exception {
+        when(bookingClient.getByOwnerAndState(2, BookingState.FUTURE, "abc", 5))
+                .thenReturn(ResponseEntity.ok().header("X-Next-Cursor", "def").body(bookings));
+
+        RequestBuilder request = get("/bookings/owner?state=future&cursor=abc&size=5")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 2L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"))
+                .andExpect(jsonPath("$").isArray());
+
+        verify(bookingClient, times(1)).getByOwnerAndState(2, BookingState.FUTURE, "abc", 5);
         verifyNoMoreInteractions(bookingClient);
     }
 
+    @Test
+    @DisplayName("getByOwnerAndState должна передавать серверу запрос выгрузки в формате NDJSON")
+    void shouldStreamBookingsByOwnerId() throws Exception {
+        RequestBuilder request = get("/bookings/owner?state=future")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header(AppConstants.USER_ID_HEADER, 2L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk());
+
+        verify(bookingClient, times(1)).streamByOwnerAndState(eq(2L), eq(BookingState.FUTURE), any());
+        verifyNoMoreInteractions(bookingClient);
+    }
+
+    @Test
+    @DisplayName("getBookings не должна выгружать данные в формате NDJSON при некорректном статусе в запросе")
+    void shouldNotStreamBookingsWhenStatusInvalid() throws Exception {
+        RequestBuilder request = get("/bookings?state=NONE")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header(AppConstants.USER_ID_HEADER, 2L);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingClient);
+    }
+
     @Test
     @DisplayName("getByOwnerAndState не должна возвращать данные при некорректном статусе в запросе")
     void shouldNotGetGetBookingsByOwnerIdWhenStatusInvalid() throws Exception {
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.constants.AppConstants;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+    private static final String SERVER_URL = "http://localhost:9090/bookings";
+
+    private MockRestServiceServer server;
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL));
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new BaseClient(rest);
+    }
+
+    @Test
+    @DisplayName("stream должна передавать ответ сервера в формате NDJSON без изменений")
+    void streamShouldPassNdjsonBodyThrough() throws Exception {
+        String body = "{\"id\":1}\n{\"id\":2}\n";
+        server.expect(requestTo(SERVER_URL + "/owner?state=ALL"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("Accept", MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(header(AppConstants.USER_ID_HEADER, "2"))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_NDJSON));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.stream("/owner?state={state}", 2L, Map.of("state", "ALL"), response);
+
+        server.verify();
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType());
+        assertEquals(body, response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("stream должна возвращать статус и тело ошибки сервера")
+    void streamShouldPassErrorThrough() throws Exception {
+        String body = "{\"error\":\"Пользователь 7 не найден\"}";
+        server.expect(requestTo(SERVER_URL))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(body));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.stream("", 7L, null, response);
+
+        server.verify();
+        assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertEquals(body, response.getContentAsString());
+    }
+}
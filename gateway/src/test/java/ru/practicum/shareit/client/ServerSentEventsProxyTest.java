@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.constants.AppConstants;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ServerSentEventsProxyTest {
+    private static final String EVENT = "id:1\nevent:match\ndata:{\"id\":1}\n\n";
+
+    private HttpServer server;
+    private ServerSentEventsProxy proxy;
+    private MockMvc mvc;
+    private final Map<String, String> receivedHeaders = new ConcurrentHashMap<>();
+    private final CountDownLatch closeStream = new CountDownLatch(1);
+
+    @RestController
+    static class SubscriptionController {
+        private final ServerSentEventsProxy proxy;
+
+        SubscriptionController(ServerSentEventsProxy proxy) {
+            this.proxy = proxy;
+        }
+
+        @GetMapping("/{path}")
+        public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> subscribe(@PathVariable String path) {
+            return proxy.subscribe("/" + path, 2L);
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/events", this::events);
+        server.createContext("/missing", exchange -> {
+            byte[] body = "{\"error\":\"Пользователь 2 не найден\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(404, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        proxy = new ServerSentEventsProxy("http://localhost:" + server.getAddress().getPort(), Duration.ofMillis(50),
+                Duration.ofMinutes(1));
+        mvc = MockMvcBuilders.standaloneSetup(new SubscriptionController(proxy)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        closeStream.countDown();
+        proxy.shutdown();
+        server.stop(0);
+    }
+
+    private void events(HttpExchange exchange) throws IOException {
+        receivedHeaders.put("Accept", exchange.getRequestHeaders().getFirst("Accept"));
+        receivedHeaders.put(AppConstants.USER_ID_HEADER,
+                exchange.getRequestHeaders().getFirst(AppConstants.USER_ID_HEADER));
+        exchange.getResponseHeaders().set("Content-Type", MediaType.TEXT_EVENT_STREAM_VALUE);
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(EVENT.getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            closeStream.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    @Test
+    @DisplayName("subscribe должна пересылать события сервера и пинги между ними")
+    void subscribeShouldForwardEventsAndHeartbeats() throws Exception {
+        MvcResult started = mvc.perform(get("/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult streaming = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String content = awaitContent(streaming, EVENT + ":\n\n");
+        assertTrue(content.contains(EVENT + ":\n\n"), "Событие или пинг не переданы: " + content);
+        assertEquals(MediaType.TEXT_EVENT_STREAM_VALUE, streaming.getResponse().getContentType());
+        assertEquals(MediaType.TEXT_EVENT_STREAM_VALUE, receivedHeaders.get("Accept"));
+        assertEquals("2", receivedHeaders.get(AppConstants.USER_ID_HEADER));
+    }
+
+    @Test
+    @DisplayName("subscribe должна возвращать статус и тело ошибки сервера")
+    void subscribeShouldPassErrorThrough() throws Exception {
+        MvcResult started = mvc.perform(get("/missing").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("{\"error\":\"Пользователь 2 не найден\"}"));
+    }
+}
@@ -19,10 +19,14 @@ import org.springframework.test.web.servlet.RequestBuilder;
 import ru.practicum.shareit.constants.AppConstants;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.mockito.Mockito.*;
@@ -182,7 +186,7 @@ class ItemControllerTest {
     @Test
     @DisplayName("getAllByUser должна возвращать все вещи указанного полльзователя")
     void shouldGetAllItemsByUserId() throws Exception {
-        when(itemClient.getAllByUser(1))
+        when(itemClient.getAllByUser(1, 0, 10, false))
                 .thenReturn(ResponseEntity.ok().body(items));
 
         RequestBuilder request = get("/items")
@@ -199,10 +203,187 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[1].id").value(2L))
                 .andExpect(jsonPath("$[2].id").value(3L));
 
-        verify(itemClient, times(1)).getAllByUser(1);
+        verify(itemClient, times(1)).getAllByUser(1, 0, 10, false);
         verifyNoMoreInteractions(itemClient);
     }
 
+    @Test
+    @DisplayName("getAllByUser должна передавать параметры страницы и признак подробного ответа")
+    void shouldGetItemsPageWithDetails() throws Exception {
+        when(itemClient.getAllByUser(1, 20, 5, true))
+                .thenReturn(ResponseEntity.ok().body(List.of()));
+
+        RequestBuilder request = get("/items?from=20&size=5&details=true")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk());
+
+        verify(itemClient, times(1)).getAllByUser(1, 20, 5, true);
+        verifyNoMoreInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("getAllByUser не должна принимать некорректные параметры страницы")
+    void shouldNotGetItemsWhenPageParametersInvalid() throws Exception {
+        RequestBuilder request = get("/items?from=-1&size=0")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("getAvailability должна передавать период в сервер")
+    void shouldGetItemAvailability() throws Exception {
+        LocalDate from = LocalDate.of(2026, 11, 1);
+        LocalDate to = LocalDate.of(2026, 11, 30);
+        when(itemClient.getAvailability(1, 5, from, to))
+                .thenReturn(ResponseEntity.ok().body(Map.of("itemId", 5, "available", true)));
+
+        RequestBuilder request = get("/items/5/availability?from=2026-11-01&to=2026-11-30")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(5))
+                .andExpect(jsonPath("$.available").value(true));
+
+        verify(itemClient, times(1)).getAvailability(1, 5, from, to);
+        verifyNoMoreInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("getAvailability не должна принимать даты не в формате ISO")
+    void shouldNotGetItemAvailabilityWhenDateInvalid() throws Exception {
+        RequestBuilder request = get("/items/5/availability?from=01.11.2026&to=2026-11-30")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("autocomplete должна передавать префикс и размер выдачи")
+    void shouldAutocompleteItemNames() throws Exception {
+        when(itemClient.autocomplete(1, "дре", 5))
+                .thenReturn(ResponseEntity.ok().body(List.of(items.getFirst())));
+
+        RequestBuilder request = get("/items/autocomplete")
+                .param("prefix", "дре")
+                .param("size", "5")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L));
+
+        verify(itemClient, times(1)).autocomplete(1, "дре", 5);
+        verifyNoMoreInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("autocomplete не должна принимать слишком большой размер выдачи")
+    void shouldNotAutocompleteWhenSizeTooLarge() throws Exception {
+        RequestBuilder request = get("/items/autocomplete?prefix=dr&size=11")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("searchByFacets должна передавать только указанные фасеты")
+    void shouldSearchByFacets() throws Exception {
+        Map<String, Object> facets = new LinkedHashMap<>();
+        facets.put("owner", 2L);
+        facets.put("bookedSoon", false);
+        when(itemClient.searchByFacets(1, facets, 0, 10))
+                .thenReturn(ResponseEntity.ok().body(Map.of("total", 1)));
+
+        RequestBuilder request = get("/items/facets")
+                .param("owner", "2")
+                .param("bookedSoon", "false")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1));
+
+        verify(itemClient, times(1)).searchByFacets(1, facets, 0, 10);
+        verifyNoMoreInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("searchByFacets не должна принимать некорректного владельца")
+    void shouldNotSearchByFacetsWhenOwnerInvalid() throws Exception {
+        RequestBuilder request = get("/items/facets?owner=0")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("searchItemsForBooking должна передавать текст и параметры страницы")
+    void shouldSearchItemsByPages() throws Exception {
+        when(itemClient.searchAvailable(1, "дрель", 10, 5))
+                .thenReturn(ResponseEntity.ok().body(List.of(items.getFirst())));
+
+        RequestBuilder request = get("/items/search")
+                .param("text", "дрель")
+                .param("from", "10")
+                .param("size", "5")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L));
+
+        verify(itemClient, times(1)).searchAvailable(1, "дрель", 10, 5);
+        verifyNoMoreInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("searchItemsForBooking не должна принимать некорректные параметры страницы")
+    void shouldNotSearchItemsWhenPageParametersInvalid() throws Exception {
+        RequestBuilder request = get("/items/search?text=drill&from=-1&size=0")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
     @Test
     @DisplayName("getAllByUser не должна возвращать данные, если не указан id пользователя")
     void shouldNotGetItemsWhenNoUserId() throws Exception {
@@ -275,4 +456,85 @@ class ItemControllerTest {
 
         verifyNoInteractions(itemClient);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("getAllByUser не должна запрашивать слишком большую страницу вещей")
+    void shouldNotGetTooLargeItemsPage() throws Exception {
+        RequestBuilder request = get("/items?size=101&details=true")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("getComments не должна запрашивать слишком большую страницу комментариев")
+    void shouldNotGetTooLargeCommentsPage() throws Exception {
+        RequestBuilder request = get("/items/1/comments?size=101")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("updateAll не должна отправлять пустой пакет изменений")
+    void shouldNotUpdateEmptyBatch() throws Exception {
+        RequestBuilder request = patch("/items/batch")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]");
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("updateAll не должна принимать пустое название вещи")
+    void shouldNotUpdateBatchWithBlankName() throws Exception {
+        List<ItemUpdateDto> updates = List.of(new ItemUpdateDto(1L, " ", null, null));
+
+        RequestBuilder request = patch("/items/batch")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(updates));
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("setAvailability должна передавать на сервер доступность всех вещей владельца")
+    void shouldSetAvailabilityForAllOwnerItems() throws Exception {
+        when(itemClient.setAvailability(1L, false))
+                .thenReturn(ResponseEntity.ok(Map.of("available", false, "updated", 3)));
+
+        RequestBuilder request = post("/items/availability?available=false")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(3));
+
+        verify(itemClient, times(1)).setAvailability(1L, false);
+        verifyNoMoreInteractions(itemClient);
+    }
+}
@@ -17,18 +17,22 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import ru.practicum.shareit.constants.AppConstants;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -125,7 +129,7 @@ class RequestControllerTest {
     @Test
     @DisplayName("getUserRequests должна вернуть все запросы указанного пользователя")
     void shouldGetAllRequestsByUserId() throws Exception {
-        when(requestClient.getAllForUser(2))
+        when(requestClient.getAllForUser(2, 0, 10))
                 .thenReturn(ResponseEntity.ok().body(requests));
 
         RequestBuilder request = get("/requests")
@@ -140,7 +144,25 @@ class RequestControllerTest {
                 .andExpect(jsonPath("$[0].description", is(requests.get(0).description())))
                 .andExpect(jsonPath("$[1].description", is(requests.get(1).description())));
 
-        verify(requestClient, times(1)).getAllForUser(2);
+        verify(requestClient, times(1)).getAllForUser(2, 0, 10);
+        verifyNoMoreInteractions(requestClient);
+    }
+
+    @Test
+    @DisplayName("getUserRequests должна передавать параметры страницы")
+    void shouldGetRequestsPageByUserId() throws Exception {
+        when(requestClient.getAllForUser(2, 20, 5))
+                .thenReturn(ResponseEntity.ok().body(requests));
+
+        RequestBuilder request = get("/requests?from=20&size=5")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 2L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk());
+
+        verify(requestClient, times(1)).getAllForUser(2, 20, 5);
         verifyNoMoreInteractions(requestClient);
     }
 
@@ -160,7 +182,7 @@ class RequestControllerTest {
     @Test
     @DisplayName("getAllItemsRequests должна вернуть все запросы других пользователей")
     void shouldGetAllRequestsForOtherUserId() throws Exception {
-        when(requestClient.getAllForOtherUsers(2))
+        when(requestClient.getAllForOtherUsers(2, null, 10))
                 .thenReturn(ResponseEntity.ok().body(requests));
 
         RequestBuilder request = get("/requests/all")
@@ -175,7 +197,25 @@ class RequestControllerTest {
                 .andExpect(jsonPath("$[0].description", is(requests.get(0).description())))
                 .andExpect(jsonPath("$[1].description", is(requests.get(1).description())));
 
-        verify(requestClient, times(1)).getAllForOtherUsers(2);
+        verify(requestClient, times(1)).getAllForOtherUsers(2, null, 10);
+        verifyNoMoreInteractions(requestClient);
+    }
+
+    @Test
+    @DisplayName("getAllItemsRequests должна передавать курсор и размер страницы")
+    void shouldGetRequestsPageForOtherUserIdByCursor() throws Exception {
+        when(requestClient.getAllForOtherUsers(2, "next", 5))
+                .thenReturn(ResponseEntity.ok().body(requests));
+
+        RequestBuilder request = get("/requests/all?cursor=next&size=5")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 2L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk());
+
+        verify(requestClient, times(1)).getAllForOtherUsers(2, "next", 5);
         verifyNoMoreInteractions(requestClient);
     }
 
@@ -192,6 +232,49 @@ class RequestControllerTest {
         verifyNoInteractions(requestClient);
     }
 
+    @Test
+    @DisplayName("getMatches должна передавать курсор и размер страницы")
+    void shouldGetMatchesPageByCursor() throws Exception {
+        when(requestClient.getMatches(2, "next", 5))
+                .thenReturn(ResponseEntity.ok().body(List.of()));
+
+        RequestBuilder request = get("/requests/matches?cursor=next&size=5")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 2L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+
+        verify(requestClient, times(1)).getMatches(2, "next", 5);
+        verifyNoMoreInteractions(requestClient);
+    }
+
+    @Test
+    @DisplayName("subscribeToMatches должна проксировать подписку при Accept: text/event-stream")
+    void shouldSubscribeToMatchesWhenEventStreamAccepted() throws Exception {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        emitter.send("event:match\ndata:{}\n\n".getBytes(StandardCharsets.UTF_8));
+        emitter.complete();
+        when(requestClient.subscribeToMatches(2L)).thenReturn(CompletableFuture.completedFuture(
+                ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter)));
+        RequestBuilder request = get("/requests/matches")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header(AppConstants.USER_ID_HEADER, 2L);
+
+        MvcResult result = mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string("event:match\ndata:{}\n\n"));
+        verify(requestClient, times(1)).subscribeToMatches(2L);
+        verifyNoMoreInteractions(requestClient);
+    }
+
     @Test
     @DisplayName("getItemRequestById должна вернуть запрос по указанному id")
     void shouldGetRequestById() throws Exception {
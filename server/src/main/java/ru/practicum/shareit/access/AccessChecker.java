@@ -0,0 +1,89 @@
+package ru.practicum.shareit.access;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+
+/**
+ * Проверяет права пользователя на бронирования и вещи по скалярным проекциям, не загружая граф сущностей.
+ * Участники бронирования и хозяин вещи после создания не меняются, поэтому найденные значения кэшируются
+ * и вытесняются только при удалении; отсутствующие записи не кэшируются.
+ */
+@Component
+public class AccessChecker {
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final Cache<Long, BookingParticipants> bookingParticipants;
+    private final Cache<Long, Long> itemOwners;
+
+    public AccessChecker(BookingRepository bookingRepository,
+                         ItemRepository itemRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${shareit.access.cache.max-size:10000}") long maxSize) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.bookingParticipants = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.itemOwners = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bookingParticipants, "shareit.access.booking");
+        CaffeineCacheMetrics.monitor(meterRegistry, itemOwners, "shareit.access.item");
+    }
+
+    /**
+     * Проверяет, что пользователь — автор бронирования или хозяин вещи.
+     */
+    public BookingParticipants checkBookingParticipant(long bookingId, long userId) {
+        BookingParticipants participants = getBookingParticipants(bookingId);
+        if (participants.bookerId() != userId && participants.ownerId() != userId) {
+            throw new AccessDeniedException("Пользователю " + userId + " доступ к бронированию запрещён");
+        }
+        return participants;
+    }
+
+    /**
+     * Проверяет, что пользователь — хозяин забронированной вещи.
+     */
+    public BookingParticipants checkBookingItemOwner(long bookingId, long userId) {
+        BookingParticipants participants = getBookingParticipants(bookingId);
+        if (participants.ownerId() != userId) {
+            throw new AccessDeniedException("Пользователь " + userId + " не является хозяином вещи");
+        }
+        return participants;
+    }
+
+    public void checkItemOwner(long itemId, long userId) {
+        Long ownerId = itemOwners.get(itemId, id -> itemRepository.findOwnerIdById(id).orElse(null));
+        if (ownerId == null) {
+            throw new NotFoundException("Вещь " + itemId + " не найдена");
+        }
+        if (ownerId != userId) {
+            throw new AccessDeniedException("Пользователь " + userId + " не является хозяином вещи");
+        }
+    }
+
+    public void evictItem(long itemId) {
+        itemOwners.invalidate(itemId);
+        bookingParticipants.asMap().values().removeIf(participants -> participants.itemId() == itemId);
+    }
+
+    private BookingParticipants getBookingParticipants(long bookingId) {
+        BookingParticipants participants = bookingParticipants.get(bookingId,
+                id -> bookingRepository.findParticipantsById(id).orElse(null));
+        if (participants == null) {
+            throw new NotFoundException("Бронирование " + bookingId + " не найдено");
+        }
+        return participants;
+    }
+}
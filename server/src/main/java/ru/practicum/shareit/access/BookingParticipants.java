@@ -0,0 +1,4 @@
+package ru.practicum.shareit.access;
+
+public record BookingParticipants(long itemId, long bookerId, long ownerId) {
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Подтверждает бронирования одним UPDATE. Если его отклонило ограничение ex_booking_approved_overlap, бронирования
+ * подтверждаются по одному, каждое под своей точкой сохранения, и не прошедшие ограничение возвращаются
+ * вызывающему. Запросы идут через JDBC в соединении текущей транзакции: исключение из JPA пометило бы на откат всю
+ * транзакцию вместе с уже применёнными решениями, а откат к точке сохранения оставляет её рабочей.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingApprovalWriter {
+    static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    /**
+     * Подтверждает бронирования и возвращает id тех, что пересеклись с уже подтверждёнными.
+     */
+    public Set<Long> approve(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return Set.of();
+        }
+
+        entityManager.flush();
+        return jdbcTemplate.execute((ConnectionCallback<Set<Long>>) connection -> {
+            if (tryApprove(connection, bookingIds)) {
+                return Set.of();
+            }
+
+            Set<Long> conflicting = new HashSet<>();
+            for (long bookingId : bookingIds) {
+                if (!tryApprove(connection, List.of(bookingId))) {
+                    conflicting.add(bookingId);
+                }
+            }
+            return conflicting;
+        });
+    }
+
+    static boolean isExclusionViolation(DataIntegrityViolationException e) {
+        return e.getMostSpecificCause() instanceof SQLException sqlException &&
+                EXCLUSION_VIOLATION_SQL_STATE.equals(sqlException.getSQLState());
+    }
+
+    private boolean tryApprove(Connection connection, Collection<Long> bookingIds) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(bookingIds.size(), "?"));
+        Object[] parameters = new Object[bookingIds.size() + 1];
+        parameters[0] = BookingStatus.APPROVED.name();
+        int index = 1;
+        for (Long bookingId : bookingIds) {
+            parameters[index++] = bookingId;
+        }
+
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            jdbcTemplate.update("UPDATE bookings SET status = ? WHERE id IN (" + placeholders + ")", parameters);
+        } catch (DataIntegrityViolationException e) {
+            connection.rollback(savepoint);
+            if (isExclusionViolation(e)) {
+                return false;
+            }
+            throw e;
+        }
+        connection.releaseSavepoint(savepoint);
+        return true;
+    }
+}
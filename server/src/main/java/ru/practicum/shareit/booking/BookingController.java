@@ -1,13 +1,21 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.constants.AppConstants;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.streaming.NdjsonWriter;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -16,6 +24,7 @@ import java.util.List;
 @Slf4j
 public class BookingController {
     private final BookingService bookingService;
+    private final NdjsonWriter ndjsonWriter;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -25,6 +34,13 @@ public class BookingController {
         return bookingService.create(newBookingDto, userId);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> approveAll(@RequestBody List<BookingDecisionDto> decisions,
+                                                     @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос PATCH /bookings/batch: {}", userId, decisions);
+        return bookingService.approveAll(decisions, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approve(@PathVariable("bookingId") long bookingId,
                               @RequestParam(value = "approved") boolean isApproved,
@@ -41,16 +57,56 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getByState(@RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
-                                       @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
-        log.info("От пользователя {} получен запрос GET /bookings?state={}", userId, state);
-        return bookingService.getByState(state, userId);
+    public ResponseEntity<List<BookingDto>> getByState(
+            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+            @RequestParam(value = "from", defaultValue = "0") int from,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "count", defaultValue = "false") boolean withTotalCount,
+            @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос GET /bookings?state={}&from={}&size={}&count={}",
+                userId, state, from, size, withTotalCount);
+        List<BookingDto> bookings = bookingService.getByState(state, userId, from, size);
+        if (!withTotalCount) {
+            return ResponseEntity.ok(bookings);
+        }
+
+        return ResponseEntity.ok()
+                .header(AppConstants.TOTAL_COUNT_HEADER, String.valueOf(bookingService.countByState(state, userId)))
+                .body(bookings);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamByState(@RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+                              @RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                              HttpServletResponse response) throws IOException {
+        log.info("От пользователя {} получен запрос GET /bookings?state={} в формате NDJSON", userId, state);
+        ndjsonWriter.write(response, sink -> bookingService.streamByState(state, userId, sink));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getByOwnerAndState(@RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
-                                               @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
-        log.info("От пользователя {} получен запрос GET /bookings/owner?state={}", userId, state);
-        return bookingService.getByOwnerAndState(state, userId);
+    public ResponseEntity<List<BookingDto>> getByOwnerAndState(
+            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос GET /bookings/owner?state={}&cursor={}&size={}",
+                userId, state, cursor, size);
+        CursorPage<BookingDto> page = bookingService.getByOwnerAndState(state, userId, cursor, size);
+        if (page.nextCursor() == null) {
+            return ResponseEntity.ok(page.content());
+        }
+
+        return ResponseEntity.ok()
+                .header(AppConstants.NEXT_CURSOR_HEADER, page.nextCursor())
+                .body(page.content());
+    }
+
+    @GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamByOwnerAndState(
+            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+            @RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+            HttpServletResponse response) throws IOException {
+        log.info("От пользователя {} получен запрос GET /bookings/owner?state={} в формате NDJSON", userId, state);
+        ndjsonWriter.write(response, sink -> bookingService.streamByOwnerAndState(state, userId, sink));
     }
 }
@@ -1,31 +1,103 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.access.BookingParticipants;
+import ru.practicum.shareit.booking.availability.BookingPeriod;
+import ru.practicum.shareit.booking.availability.ItemBookingPeriod;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingApprovalTarget;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.phase.PhaseTransition;
+import ru.practicum.shareit.item.facet.ItemBookingId;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBooker_Id(long bookerId, Sort sort);
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+    boolean existsByBooker_IdAndItem_IdAndStatusAndEndBefore(long bookerId, long itemId, BookingStatus status,
+                                                             LocalDateTime end);
 
-    List<Booking> findAllByBooker_IdAndStartIsBeforeAndEndIsAfter(long bookerId, LocalDateTime start,
-                                                                  LocalDateTime end, Sort sort);
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = :itemId and b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "and b.id <> :excludedId and b.end > :start and b.start = (" +
+            "select max(b2.start) from Booking b2 where b2.item.id = :itemId " +
+            "and b2.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "and b2.id <> :excludedId and b2.start < :end)")
+    boolean existsApprovedOverlap(@Param("itemId") long itemId, @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end, @Param("excludedId") long excludedId);
 
-    List<Booking> findAllByBooker_IdAndEndIsBefore(long bookerId, LocalDateTime end, Sort sort);
+    @Query("select b from Booking b join fetch b.booker join fetch b.item i join fetch i.owner " +
+            "left join fetch i.request r left join fetch r.requester " +
+            "where i.id in :itemIds and b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED and (" +
+            "b.start = (select max(b2.start) from Booking b2 where b2.item = b.item " +
+            "and b2.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED and b2.start <= :now) " +
+            "or b.start = (select min(b2.start) from Booking b2 where b2.item = b.item " +
+            "and b2.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED and b2.start > :now))")
+    List<Booking> findLastAndNextApprovedByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                   @Param("now") LocalDateTime now);
 
-    List<Booking> findAllByBooker_IdAndStartIsAfter(long bookerId, LocalDateTime start, Sort sort);
+    @Query("select new ru.practicum.shareit.booking.phase.PhaseTransition(b.id, b.end) from Booking b " +
+            "where b.phase in :phases and b.end < :now order by b.end limit :limit")
+    List<PhaseTransition> findPhaseTransitionsEndedBefore(@Param("phases") Collection<BookingPhase> phases,
+                                                          @Param("now") LocalDateTime now,
+                                                          @Param("limit") int limit);
 
-    List<Booking> findAllByBooker_IdAndStatus(long bookerId, BookingStatus status, Sort sort);
+    @Query("select new ru.practicum.shareit.booking.phase.PhaseTransition(b.id, b.start) from Booking b " +
+            "where b.phase = :phase and b.start < :now order by b.start limit :limit")
+    List<PhaseTransition> findPhaseTransitionsStartedBefore(@Param("phase") BookingPhase phase,
+                                                            @Param("now") LocalDateTime now,
+                                                            @Param("limit") int limit);
 
-    @Query("select b from Booking b join fetch b.item as i join fetch i.owner as o where o.id = :ownerId")
-    List<Booking> findAllByOwner(@Param("ownerId") long ownerId, Sort sort);
+    @Modifying
+    @Query("update Booking b set b.phase = :target where b.id in :bookingIds and b.phase in :sources")
+    int updatePhase(@Param("bookingIds") Collection<Long> bookingIds,
+                    @Param("sources") Collection<BookingPhase> sources,
+                    @Param("target") BookingPhase target);
 
-    Booking findByItem_IdAndStartIsBeforeOrderByStartDesc(long itemId, LocalDateTime start);
+    @Query("select min(b.start) from Booking b where b.phase = :phase")
+    LocalDateTime findMinStartByPhase(@Param("phase") BookingPhase phase);
 
-    Booking findByItem_IdAndEndIsAfterOrderByEnd(long itemId, LocalDateTime end);
+    @Query("select min(b.end) from Booking b where b.phase = :phase")
+    LocalDateTime findMinEndByPhase(@Param("phase") BookingPhase phase);
+
+    @Query("select new ru.practicum.shareit.item.facet.ItemBookingId(b.item.id, b.id) from Booking b " +
+            "where b.status = :status")
+    List<ItemBookingId> findItemBookingIdsByStatus(@Param("status") BookingStatus status);
+
+    @Query("select distinct b.item.id from Booking b " +
+            "where b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "and b.start < :to and b.end > :from")
+    List<Long> findItemIdsWithApprovedBookingBetween(@Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to);
+
+    @Query("select new ru.practicum.shareit.booking.availability.BookingPeriod(b.start, b.end) from Booking b " +
+            "where b.item.id = :itemId and b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED")
+    List<BookingPeriod> findApprovedPeriodsByItemId(@Param("itemId") long itemId);
+
+    @Query("select new ru.practicum.shareit.booking.availability.ItemBookingPeriod(b.item.id, b.start, b.end) " +
+            "from Booking b where b.item.id in :itemIds " +
+            "and b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "and b.start < :to and b.end > :from")
+    List<ItemBookingPeriod> findApprovedPeriodsByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                                          @Param("from") LocalDateTime from,
+                                                          @Param("to") LocalDateTime to);
+
+    @Query("select new ru.practicum.shareit.booking.model.BookingApprovalTarget(b.id, i.id, i.owner.id, b.start, " +
+            "b.end, b.status) from Booking b join b.item i where b.id in :bookingIds")
+    List<BookingApprovalTarget> findApprovalTargets(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Booking b set b.status = :status where b.id in :bookingIds")
+    int updateStatus(@Param("bookingIds") Collection<Long> bookingIds, @Param("status") BookingStatus status);
+
+    @Query("select new ru.practicum.shareit.access.BookingParticipants(i.id, b.booker.id, i.owner.id) " +
+            "from Booking b join b.item i where b.id = :bookingId")
+    Optional<BookingParticipants> findParticipantsById(@Param("bookingId") long bookingId);
 }
@@ -1,21 +1,33 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto create(NewBookingDto newBookingDto, long ownerId);
 
     BookingDto approve(long bookingId, boolean isAvailable, long userId);
 
+    List<BookingDecisionResultDto> approveAll(List<BookingDecisionDto> decisions, long userId);
+
     Booking findBookingById(long bookingId);
 
     BookingDto findById(long bookingId, long userId);
 
-    List<BookingDto> getByState(String status, long userId);
+    List<BookingDto> getByState(String state, long userId, int from, int size);
+
+    void streamByState(String state, long userId, Consumer<? super BookingDto> sink);
+
+    long countByState(String state, long userId);
+
+    CursorPage<BookingDto> getByOwnerAndState(String state, long userId, String cursor, int size);
 
-    List<BookingDto> getByOwnerAndState(String status, long userId);
+    void streamByOwnerAndState(String state, long userId, Consumer<? super BookingDto> sink);
 }
@@ -1,32 +1,71 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.access.AccessChecker;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.lock.ItemLockStripes;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingApprovalTarget;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.booking.phase.BookingPhaseScheduler;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.InvalidBookingDateException;
 import ru.practicum.shareit.exception.ItemUnavailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final Sort BOOKINGS_SORT = Sort.by("start", "id");
+    private static final int STREAM_CLEAR_EVERY = 500;
+
     private final BookingRepository bookingRepository;
+    private final AccessChecker accessChecker;
     private final UserService userService;
     private final ItemService itemService;
     private final BookingMapper bookingMapper;
+    private final ItemLockStripes itemLockStripes;
+    private final BookingApprovalWriter bookingApprovalWriter;
+    private final BookingPhaseScheduler bookingPhaseScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Override
     public BookingDto create(NewBookingDto newBookingDto, long bookerId) {
@@ -41,27 +80,78 @@ public class BookingServiceImpl implements BookingService {
             throw new ItemUnavailableException("Вещь " + item.getId() + " уже забронирована");
         }
 
-        Booking booking = new Booking();
-        booking.setStart(newBookingDto.start());
-        booking.setEnd(newBookingDto.end());
-        booking.setBooker(booker);
-        booking.setItem(item);
-        booking.setStatus(BookingStatus.WAITING);
+        return itemLockStripes.withItemLock(item.getId(), () -> {
+            checkNoApprovedOverlap(item.getId(), newBookingDto.start(), newBookingDto.end(), 0);
+
+            Booking booking = new Booking();
+            booking.setStart(newBookingDto.start());
+            booking.setEnd(newBookingDto.end());
+            booking.setBooker(booker);
+            booking.setItem(item);
+            booking.setStatus(BookingStatus.WAITING);
+            booking.setPhase(BookingPhase.at(booking.getStart(), booking.getEnd(), LocalDateTime.now()));
 
-        return bookingMapper.toBookingDto(bookingRepository.save(booking));
+            BookingDto bookingDto = bookingMapper.toBookingDto(saveBooking(booking));
+            bookingPhaseScheduler.scheduleAt(booking.getStart());
+            publishStatusChanged(booking, null);
+            return bookingDto;
+        });
     }
 
     @Override
     public BookingDto approve(long bookingId, boolean isAvailable, long userId) {
-        Booking booking = findBookingById(bookingId);
-        if (booking.getItem().getOwner().getId() != userId) {
-            throw new AccessDeniedException("Пользователь " + userId + " не является хозяином вещи");
+        long itemId = accessChecker.checkBookingItemOwner(bookingId, userId).itemId();
+
+        return itemLockStripes.withItemLock(itemId, () -> {
+            Booking booking = findBookingById(bookingId);
+            if (isAvailable) {
+                checkNoApprovedOverlap(itemId, booking.getStart(), booking.getEnd(), booking.getId());
+            }
+
+            BookingStatus previousStatus = booking.getStatus();
+            booking.setStatus(isAvailable ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+            saveBooking(booking);
+            publishStatusChanged(booking, previousStatus);
+
+            return bookingMapper.toBookingDto(booking);
+        });
+    }
+
+    @Override
+    public List<BookingDecisionResultDto> approveAll(List<BookingDecisionDto> decisions, long userId) {
+        Map<Long, Boolean> approvals = new LinkedHashMap<>();
+        decisions.forEach(decision -> approvals.putIfAbsent(decision.bookingId(), decision.approved()));
+
+        Map<Long, BookingApprovalTarget> targets = bookingRepository.findApprovalTargets(approvals.keySet()).stream()
+                .collect(Collectors.toMap(BookingApprovalTarget::id, Function.identity()));
+
+        Map<Long, BookingDecisionResultDto> results = new HashMap<>();
+        List<Long> ownedBookingIds = new ArrayList<>();
+        Set<Long> itemIds = new HashSet<>();
+        for (long bookingId : approvals.keySet()) {
+            BookingApprovalTarget target = targets.get(bookingId);
+            if (target == null) {
+                results.put(bookingId, BookingDecisionResultDto.failed(bookingId,
+                        "Бронирование " + bookingId + " не найдено"));
+            } else if (target.ownerId() != userId) {
+                results.put(bookingId, BookingDecisionResultDto.failed(bookingId,
+                        "Пользователь " + userId + " не является хозяином вещи"));
+            } else {
+                ownedBookingIds.add(bookingId);
+                itemIds.add(target.itemId());
+            }
         }
 
-        booking.setStatus(isAvailable ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        bookingRepository.save(booking);
+        if (!ownedBookingIds.isEmpty()) {
+            results.putAll(itemLockStripes.withItemLocks(itemIds, () -> applyDecisions(ownedBookingIds, approvals)));
+        }
 
-        return bookingMapper.toBookingDto(booking);
+        Set<Long> answered = new HashSet<>();
+        return decisions.stream()
+                .map(decision -> answered.add(decision.bookingId()) ? results.get(decision.bookingId())
+                        : BookingDecisionResultDto.failed(decision.bookingId(),
+                        "Бронирование " + decision.bookingId() + " указано в запросе повторно"))
+                .toList();
     }
 
     @Override
@@ -72,71 +162,198 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public BookingDto findById(long bookingId, long userId) {
-        Booking booking = findBookingById(bookingId);
+        accessChecker.checkBookingParticipant(bookingId, userId);
+        return bookingMapper.toBookingDto(findBookingById(bookingId));
+    }
 
-        if ((booking.getBooker().getId() != userId) && (booking.getItem().getOwner().getId() != userId)) {
-            throw new AccessDeniedException("Пользователю " + userId + " доступ к бронированию запрещён");
+    @Override
+    public List<BookingDto> getByState(String state, long userId, int from, int size) {
+        Optional<BookingState> bookingState = BookingState.from(state);
+        if (bookingState.isEmpty()) {
+            return List.of();
         }
 
-        return bookingMapper.toBookingDto(booking);
+        Specification<Booking> specification = BookingSpecifications.byBooker(userId)
+                .and(BookingSpecifications.inState(bookingState.get(), LocalDateTime.now()))
+                .and(BookingSpecifications.fetchItemAndBooker());
+
+        return bookingRepository.findBy(specification, query -> query
+                        .sortBy(BOOKINGS_SORT)
+                        .limit(size)
+                        .scroll(offsetPosition(from)))
+                .stream()
+                .map(bookingMapper::toBookingDto)
+                .toList();
     }
 
     @Override
-    public List<BookingDto> getByState(String status, long userId) {
-        List<Booking> bookings;
-        final Sort sort = Sort.by("start");
-        bookings = bookingRepository.findAllByBooker_Id(userId, sort);
+    @Transactional(readOnly = true)
+    public void streamByState(String state, long userId, Consumer<? super BookingDto> sink) {
+        BookingState.from(state).ifPresent(bookingState -> streamBookings(BookingSpecifications.byBooker(userId)
+                .and(BookingSpecifications.inState(bookingState, LocalDateTime.now())), sink));
+    }
 
-        return filterAndMapBookings(bookings, status);
+    @Override
+    public long countByState(String state, long userId) {
+        return BookingState.from(state)
+                .map(bookingState -> bookingRepository.count(BookingSpecifications.byBooker(userId)
+                        .and(BookingSpecifications.inState(bookingState, LocalDateTime.now()))))
+                .orElse(0L);
     }
 
     @Override
-    public List<BookingDto> getByOwnerAndState(String status, long userId) {
-        List<Booking> bookings;
-        final Sort sort = Sort.by("start");
+    public CursorPage<BookingDto> getByOwnerAndState(String state, long userId, String cursor, int size) {
+        Optional<BookingState> bookingState = BookingState.from(state);
+        if (bookingState.isEmpty()) {
+            return CursorPage.empty();
+        }
+
+        Specification<Booking> specification = BookingSpecifications.byItemOwner(userId)
+                .and(BookingSpecifications.inState(bookingState.get(), LocalDateTime.now()))
+                .and(BookingSpecifications.fetchItemAndBooker());
+        ScrollPosition position = (cursor == null) ? ScrollPosition.keyset() : keysetPosition(Cursor.decode(cursor));
 
-        bookings = bookingRepository.findAllByOwner(userId, sort);
+        Window<Booking> window = bookingRepository.findBy(specification, query -> query
+                .sortBy(BOOKINGS_SORT)
+                .limit(size)
+                .scroll(position));
+
+        List<BookingDto> bookings = window.stream()
+                .map(bookingMapper::toBookingDto)
+                .toList();
+        String nextCursor = (window.hasNext() && !window.isEmpty())
+                ? new Cursor(window.getContent().getLast().getStart(), window.getContent().getLast().getId()).encode()
+                : null;
+
+        return new CursorPage<>(bookings, nextCursor);
+    }
 
-        if (bookings.isEmpty()) {
-            throw new NotFoundException("Бронирований не найдено");
+    @Override
+    @Transactional(readOnly = true)
+    public void streamByOwnerAndState(String state, long userId, Consumer<? super BookingDto> sink) {
+        BookingState.from(state).ifPresent(bookingState -> streamBookings(BookingSpecifications.byItemOwner(userId)
+                .and(BookingSpecifications.inState(bookingState, LocalDateTime.now())), sink));
+    }
+
+    private void streamBookings(Specification<Booking> specification, Consumer<? super BookingDto> sink) {
+        try (Stream<Booking> bookings = bookingRepository.findBy(
+                specification.and(BookingSpecifications.fetchItemAndBooker()),
+                query -> query.sortBy(BOOKINGS_SORT).stream())) {
+            Iterator<Booking> iterator = bookings.iterator();
+            for (int read = 1; iterator.hasNext(); read++) {
+                sink.accept(bookingMapper.toBookingDto(iterator.next()));
+                if (read % STREAM_CLEAR_EVERY == 0) {
+                    // Отданные бронирования не нужны, а контекст персистентности держал бы их до конца транзакции
+                    entityManager.clear();
+                }
+            }
         }
+    }
+
+    private static ScrollPosition keysetPosition(Cursor cursor) {
+        return ScrollPosition.forward(Map.of("start", cursor.timestamp(), "id", cursor.id()));
+    }
+
+    private Map<Long, BookingDecisionResultDto> applyDecisions(List<Long> bookingIds, Map<Long, Boolean> approvals) {
+        // Статусы перечитываются под блокировкой вещей: до её взятия их мог изменить другой запрос
+        Map<Long, BookingApprovalTarget> targets = bookingRepository.findApprovalTargets(bookingIds).stream()
+                .collect(Collectors.toMap(BookingApprovalTarget::id, Function.identity()));
+
+        Map<Long, BookingDecisionResultDto> results = new HashMap<>();
+        List<BookingApprovalTarget> toReject = new ArrayList<>();
+        List<BookingApprovalTarget> toApprove = new ArrayList<>();
+        for (long bookingId : bookingIds) {
+            BookingApprovalTarget target = targets.get(bookingId);
+            if (target == null) {
+                results.put(bookingId, BookingDecisionResultDto.failed(bookingId,
+                        "Бронирование " + bookingId + " не найдено"));
+            } else if (approvals.get(bookingId)) {
+                toApprove.add(target);
+            } else {
+                toReject.add(target);
+            }
+        }
+
+        // Отклонения применяются первыми, чтобы освобождённые ими периоды не мешали подтверждениям
+        updateStatus(toReject, BookingStatus.REJECTED, results);
+
+        List<BookingApprovalTarget> approved = new ArrayList<>();
+        for (BookingApprovalTarget target : toApprove) {
+            if (approved.stream().anyMatch(target::overlaps) || bookingRepository.existsApprovedOverlap(
+                    target.itemId(), target.start(), target.end(), target.id())) {
+                results.put(target.id(), BookingDecisionResultDto.failed(target.id(),
+                        conflictMessage(target.itemId(), target.start(), target.end())));
+            } else {
+                approved.add(target);
+            }
+        }
+        // Ограничение в БД может отклонить подтверждение, которое не заметила проверка выше, например
+        // бронирование, подтверждённое в обход блокировок; такие бронирования отмечаются как неудавшиеся
+        Set<Long> conflicting = bookingApprovalWriter.approve(approved.stream()
+                .map(BookingApprovalTarget::id)
+                .toList());
+        List<BookingApprovalTarget> applied = new ArrayList<>();
+        for (BookingApprovalTarget target : approved) {
+            if (conflicting.contains(target.id())) {
+                results.put(target.id(), BookingDecisionResultDto.failed(target.id(),
+                        conflictMessage(target.itemId(), target.start(), target.end())));
+            } else {
+                applied.add(target);
+            }
+        }
+        publishApplied(applied, BookingStatus.APPROVED, results);
+
+        return results;
+    }
+
+    private void updateStatus(List<BookingApprovalTarget> targets, BookingStatus status,
+                              Map<Long, BookingDecisionResultDto> results) {
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        bookingRepository.updateStatus(targets.stream().map(BookingApprovalTarget::id).toList(), status);
+        publishApplied(targets, status, results);
+    }
+
+    private void publishApplied(List<BookingApprovalTarget> targets, BookingStatus status,
+                                Map<Long, BookingDecisionResultDto> results) {
+        for (BookingApprovalTarget target : targets) {
+            results.put(target.id(), BookingDecisionResultDto.applied(target.id(), status));
+            eventPublisher.publishEvent(new BookingStatusChangedEvent(target.id(), target.itemId(), target.start(),
+                    target.end(), target.status(), status));
+        }
+    }
+
+    private void checkNoApprovedOverlap(long itemId, LocalDateTime start, LocalDateTime end, long excludedBookingId) {
+        if (bookingRepository.existsApprovedOverlap(itemId, start, end, excludedBookingId)) {
+            throw new BookingConflictException(conflictMessage(itemId, start, end));
+        }
+    }
+
+    private static String conflictMessage(long itemId, LocalDateTime start, LocalDateTime end) {
+        return "Вещь " + itemId + " уже забронирована на период с " + start + " по " + end;
+    }
+
+    private void publishStatusChanged(Booking booking, BookingStatus previousStatus) {
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(booking.getId(), booking.getItem().getId(),
+                booking.getStart(), booking.getEnd(), previousStatus, booking.getStatus()));
+    }
+
+    private Booking saveBooking(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (BookingApprovalWriter.isExclusionViolation(e)) {
+                throw new BookingConflictException(conflictMessage(booking.getItem().getId(), booking.getStart(),
+                        booking.getEnd()));
+            }
+            throw e;
+        }
+    }
 
-        return filterAndMapBookings(bookings, status);
-    }
-
-    private List<BookingDto> filterAndMapBookings(List<Booking> bookings, String status) {
-        return switch (status.toUpperCase()) {
-            case "ALL" -> bookings
-                    .stream()
-                    .map(bookingMapper::toBookingDto)
-                    .toList();
-            case "CURRENT" -> bookings
-                    .stream()
-                    .filter(booking -> (booking.getStart().isBefore(LocalDateTime.now()) &&
-                            (!booking.getEnd().isBefore(LocalDateTime.now()))))
-                    .map(bookingMapper::toBookingDto)
-                    .toList();
-            case "PAST" -> bookings
-                    .stream()
-                    .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
-                    .map(bookingMapper::toBookingDto)
-                    .toList();
-            case "FUTURE" -> bookings
-                    .stream()
-                    .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                    .map(bookingMapper::toBookingDto)
-                    .toList();
-            case "WAITING" -> bookings
-                    .stream()
-                    .filter(booking -> booking.getStatus() == BookingStatus.WAITING)
-                    .map(bookingMapper::toBookingDto)
-                    .toList();
-            case "REJECTED" -> bookings
-                    .stream()
-                    .filter(booking -> booking.getStatus() == BookingStatus.REJECTED)
-                    .map(bookingMapper::toBookingDto)
-                    .toList();
-            default -> List.of();
-        };
+    private static ScrollPosition offsetPosition(int from) {
+        // Смещённая позиция указывает на последний уже выданный элемент, а не на первый запрашиваемый
+        return from == 0 ? ScrollPosition.offset() : ScrollPosition.offset(from - 1L);
     }
 }
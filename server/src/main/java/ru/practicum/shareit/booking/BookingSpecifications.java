@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.criteria.Fetch;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookingSpecifications {
+    public static Specification<Booking> byBooker(long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> byItemOwner(long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("owner").get("id"), ownerId);
+    }
+
+    // Фаза может отставать от времени, пока планировщик не обработал переход, поэтому такие строки
+    // отбираются дополнительным условием по датам
+    public static Specification<Booking> inState(BookingState state, LocalDateTime now) {
+        return switch (state) {
+            case ALL -> (root, query, cb) -> cb.conjunction();
+            case CURRENT -> (root, query, cb) -> cb.and(
+                    cb.greaterThanOrEqualTo(root.get("end"), now),
+                    cb.or(
+                            cb.equal(root.get("phase"), BookingPhase.CURRENT),
+                            cb.and(
+                                    cb.equal(root.get("phase"), BookingPhase.FUTURE),
+                                    cb.lessThan(root.get("start"), now))));
+            case PAST -> (root, query, cb) -> cb.or(
+                    cb.equal(root.get("phase"), BookingPhase.PAST),
+                    cb.and(
+                            root.get("phase").in(BookingPhase.FUTURE, BookingPhase.CURRENT),
+                            cb.lessThan(root.get("end"), now)));
+            case FUTURE -> (root, query, cb) -> cb.and(
+                    cb.equal(root.get("phase"), BookingPhase.FUTURE),
+                    cb.greaterThan(root.get("start"), now));
+            case WAITING -> (root, query, cb) -> cb.equal(root.get("status"), BookingStatus.WAITING);
+            case REJECTED -> (root, query, cb) -> cb.equal(root.get("status"), BookingStatus.REJECTED);
+        };
+    }
+
+    public static Specification<Booking> fetchItemAndBooker() {
+        return (root, query, cb) -> {
+            if (query != null && query.getResultType() != Long.class && query.getResultType() != long.class) {
+                Fetch<Booking, Item> item = root.fetch("item");
+                item.fetch("owner");
+                root.fetch("booker");
+            }
+            return null;
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.util.BitSet;
+
+/**
+ * Битовая карта занятых дней одной вещи. Номер бита — номер дня от 1970-01-01
+ * ({@link java.time.LocalDate#toEpochDay()}), хранятся только слова между первым и последним занятым днём.
+ */
+final class DayBitmap {
+    private static final int WORD_SIZE = Long.SIZE;
+
+    private long firstWord;
+    private long[] words = new long[0];
+
+    synchronized void set(long fromDay, long toDay) {
+        long fromWord = wordOf(fromDay);
+        long toWord = wordOf(toDay);
+        ensureCapacity(fromWord, toWord);
+
+        for (long word = fromWord; word <= toWord; word++) {
+            words[(int) (word - firstWord)] |= mask(word, fromDay, toDay);
+        }
+    }
+
+    /**
+     * Возвращает занятые дни периода [fromDay, toDay]; бит 0 результата соответствует fromDay.
+     */
+    synchronized BitSet get(long fromDay, long toDay) {
+        BitSet result = new BitSet((int) (toDay - fromDay + 1));
+        long fromWord = Math.max(wordOf(fromDay), firstWord);
+        long toWord = Math.min(wordOf(toDay), firstWord + words.length - 1);
+
+        for (long word = fromWord; word <= toWord; word++) {
+            long bits = words[(int) (word - firstWord)] & mask(word, fromDay, toDay);
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                result.set((int) (word * WORD_SIZE + bit - fromDay));
+                bits &= bits - 1;
+            }
+        }
+        return result;
+    }
+
+    synchronized int sizeInWords() {
+        return words.length;
+    }
+
+    private void ensureCapacity(long fromWord, long toWord) {
+        if (words.length == 0) {
+            firstWord = fromWord;
+            words = new long[(int) (toWord - fromWord + 1)];
+            return;
+        }
+
+        long lastWord = firstWord + words.length - 1;
+        if (fromWord >= firstWord && toWord <= lastWord) {
+            return;
+        }
+
+        long newFirstWord = Math.min(firstWord, fromWord);
+        long[] newWords = new long[(int) (Math.max(lastWord, toWord) - newFirstWord + 1)];
+        System.arraycopy(words, 0, newWords, (int) (firstWord - newFirstWord), words.length);
+        firstWord = newFirstWord;
+        words = newWords;
+    }
+
+    private static long wordOf(long day) {
+        return Math.floorDiv(day, WORD_SIZE);
+    }
+
+    private static long mask(long word, long fromDay, long toDay) {
+        long mask = -1L;
+        if (word == wordOf(fromDay)) {
+            mask &= -1L << Math.floorMod(fromDay, WORD_SIZE);
+        }
+        if (word == wordOf(toDay)) {
+            mask &= -1L >>> (WORD_SIZE - 1 - Math.floorMod(toDay, WORD_SIZE));
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.BitSet;
+
+/**
+ * Календарь занятости вещей по подтверждённым бронированиям. Для каждой вещи хранится {@link DayBitmap},
+ * который строится из БД при первом обращении и затем дополняется после фиксации подтверждений.
+ * Общий объём карт ограничен в словах, давно не запрашиваемые вещи вытесняются.
+ */
+@Component
+@Slf4j
+public class ItemAvailabilityCalendar {
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final Cache<Long, DayBitmap> bitmaps;
+
+    public ItemAvailabilityCalendar(BookingRepository bookingRepository,
+                                    ItemRepository itemRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${shareit.availability.max-words:1000000}") long maxWords) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.bitmaps = Caffeine.newBuilder()
+                .maximumWeight(maxWords)
+                .weigher((Long itemId, DayBitmap bitmap) -> bitmap.sizeInWords() + 1)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bitmaps, "shareit.item.availability");
+    }
+
+    /**
+     * Возвращает занятые дни периода [from, to]; бит 0 результата соответствует дню from.
+     */
+    public BitSet bookedDays(long itemId, LocalDate from, LocalDate to) {
+        return bitmaps.get(itemId, this::load).get(from.toEpochDay(), to.toEpochDay());
+    }
+
+    @TransactionalEventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (event.status() == BookingStatus.APPROVED) {
+            bitmaps.asMap().computeIfPresent(event.itemId(), (itemId, bitmap) -> {
+                bitmap.set(firstDay(event.start()), lastDay(event.end()));
+                return bitmap;
+            });
+        } else if (event.previousStatus() == BookingStatus.APPROVED) {
+            // Снять биты нельзя: тот же день может быть занят соседним бронированием
+            bitmaps.invalidate(event.itemId());
+        }
+    }
+
+    private DayBitmap load(long itemId) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь " + itemId + " не найдена");
+        }
+
+        DayBitmap bitmap = new DayBitmap();
+        for (BookingPeriod period : bookingRepository.findApprovedPeriodsByItemId(itemId)) {
+            bitmap.set(firstDay(period.start()), lastDay(period.end()));
+        }
+        log.debug("Построен календарь занятости вещи {}: {} слов", itemId, bitmap.sizeInWords());
+        return bitmap;
+    }
+
+    private static long firstDay(LocalDateTime start) {
+        return start.toLocalDate().toEpochDay();
+    }
+
+    private static long lastDay(LocalDateTime end) {
+        // Бронирование, закончившееся ровно в полночь, следующий день не занимает
+        long day = end.toLocalDate().toEpochDay();
+        return end.toLocalTime().equals(LocalTime.MIDNIGHT) ? day - 1 : day;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+public record BookingDecisionResultDto(long bookingId, BookingStatus status, String error) {
+    public static BookingDecisionResultDto applied(long bookingId, BookingStatus status) {
+        return new BookingDecisionResultDto(bookingId, status, null);
+    }
+
+    public static BookingDecisionResultDto failed(long bookingId, String error) {
+        return new BookingDecisionResultDto(bookingId, null, error);
+    }
+}
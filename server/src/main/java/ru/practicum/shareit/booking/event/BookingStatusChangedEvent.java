@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.event;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public record BookingStatusChangedEvent(long bookingId, long itemId, LocalDateTime start, LocalDateTime end,
+                                        BookingStatus previousStatus, BookingStatus status) {
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class ItemLockStripes {
+    private static final String POSTGRESQL = "PostgreSQL";
+    private static final String ADVISORY_LOCK_SQL = "select pg_advisory_xact_lock(?)";
+
+    private final ReentrantLock[] stripes;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean advisoryLocksEnabled;
+    private final Timer waitTimer;
+    private final Counter contendedCounter;
+
+    public ItemLockStripes(PlatformTransactionManager transactionManager,
+                           JdbcTemplate jdbcTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.booking.lock.stripes:64}") int stripeCount,
+                           @Value("${shareit.booking.lock.advisory:true}") boolean advisoryLocks) {
+        if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Количество полос блокировки должно быть степенью двойки: " +
+                    stripeCount);
+        }
+
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.advisoryLocksEnabled = advisoryLocks && isPostgres(jdbcTemplate);
+
+        this.waitTimer = Timer.builder("shareit.booking.item_lock.wait")
+                .description("Время ожидания блокировки вещи при записи бронирования")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.contendedCounter = Counter.builder("shareit.booking.item_lock.contended")
+                .description("Количество захватов блокировки вещи, которым пришлось ждать")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.item_lock.queue_length", this, ItemLockStripes::queueLength)
+                .description("Количество потоков, ожидающих блокировки вещей")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.item_lock.max_stripe_queue_length", this, ItemLockStripes::maxStripeQueueLength)
+                .description("Длина самой загруженной очереди ожидания")
+                .register(meterRegistry);
+
+        log.info("Блокировки вещей: {} полос, advisory-блокировки PostgreSQL {}", stripeCount,
+                advisoryLocksEnabled ? "включены" : "выключены");
+    }
+
+    public <T> T withItemLock(long itemId, Supplier<T> action) {
+        return withItemLocks(List.of(itemId), action);
+    }
+
+    public <T> T withItemLocks(Collection<Long> itemIds, Supplier<T> action) {
+        long[] sortedItemIds = itemIds.stream()
+                .mapToLong(Long::longValue)
+                .distinct()
+                .sorted()
+                .toArray();
+        // Полосы захватываются по возрастанию индекса, чтобы пакетные операции не могли взаимно заблокироваться
+        int[] stripeIndexes = Arrays.stream(sortedItemIds)
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        long waitStart = System.nanoTime();
+        int locked = 0;
+        try {
+            for (int stripeIndex : stripeIndexes) {
+                lockStripe(stripeIndex, sortedItemIds);
+                locked++;
+            }
+            waitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+
+            return transactionTemplate.execute(status -> {
+                if (advisoryLocksEnabled) {
+                    for (long itemId : sortedItemIds) {
+                        jdbcTemplate.query(ADVISORY_LOCK_SQL, (ResultSetExtractor<Object>) rs -> null, itemId);
+                    }
+                }
+                return action.get();
+            });
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[stripeIndexes[i]].unlock();
+            }
+        }
+    }
+
+    int stripeIndex(long itemId) {
+        int hash = Long.hashCode(itemId);
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    int queueLength() {
+        return Arrays.stream(stripes)
+                .mapToInt(ReentrantLock::getQueueLength)
+                .sum();
+    }
+
+    int maxStripeQueueLength() {
+        return Arrays.stream(stripes)
+                .mapToInt(ReentrantLock::getQueueLength)
+                .max()
+                .orElse(0);
+    }
+
+    private void lockStripe(int stripeIndex, long[] itemIds) {
+        ReentrantLock stripe = stripes[stripeIndex];
+        if (stripe.tryLock()) {
+            return;
+        }
+
+        contendedCounter.increment();
+        log.debug("Ожидание блокировки полосы {} для вещей {}, в очереди {}", stripeIndex,
+                Arrays.toString(itemIds), stripe.getQueueLength());
+        stripe.lock();
+    }
+
+    private static boolean isPostgres(JdbcTemplate jdbcTemplate) {
+        String productName = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return POSTGRESQL.equals(productName);
+    }
+}
@@ -38,4 +38,13 @@ public class Booking {
 
     @Enumerated(EnumType.STRING)
     BookingStatus status;
+
+    // Фазу продвигает BookingPhaseScheduler массовыми обновлениями, сохранение сущности её не перезаписывает
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
+    BookingPhase phase;
+
+    public Booking(long id, LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status) {
+        this(id, start, end, item, booker, status, BookingPhase.at(start, end, LocalDateTime.now()));
+    }
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+public record BookingApprovalTarget(long id, long itemId, long ownerId, LocalDateTime start, LocalDateTime end,
+                                    BookingStatus status) {
+    public boolean overlaps(BookingApprovalTarget other) {
+        return itemId == other.itemId && start.isBefore(other.end) && other.start.isBefore(end);
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.booking.phase;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingPhase;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Переводит бронирования между фазами FUTURE → CURRENT → PAST по мере наступления их начала и окончания.
+ * Очередью с приоритетом служат индексы (phase, start_date) и (phase, end_date): каждый проход забирает
+ * только просроченную голову очереди пачками, а время следующего прохода берётся из минимального срока.
+ */
+@Component
+@Slf4j
+public class BookingPhaseScheduler {
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration maxIdle;
+    private final AtomicReference<NextRun> nextRun = new AtomicReference<>(new NextRun(LocalDateTime.MIN, 0));
+    private final Timer lagTimer;
+    private final Map<BookingPhase, Counter> transitionCounters = new EnumMap<>(BookingPhase.class);
+
+    public BookingPhaseScheduler(BookingRepository bookingRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${shareit.booking.phase.batch-size:500}") int batchSize,
+                                 @Value("${shareit.booking.phase.max-idle:PT1M}") Duration maxIdle) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxIdle = maxIdle;
+
+        this.lagTimer = Timer.builder("shareit.booking.phase.lag")
+                .description("Задержка перевода бронирования в новую фазу относительно срока")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        for (BookingPhase phase : List.of(BookingPhase.CURRENT, BookingPhase.PAST)) {
+            transitionCounters.put(phase, Counter.builder("shareit.booking.phase.transitions")
+                    .description("Количество бронирований, переведённых в фазу")
+                    .tag("phase", phase.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("shareit.booking.phase.overdue_seconds", this, BookingPhaseScheduler::overdueSeconds)
+                .description("На сколько секунд просрочен ближайший ещё не выполненный переход")
+                .register(meterRegistry);
+    }
+
+    public void scheduleAt(LocalDateTime dueAt) {
+        nextRun.updateAndGet(run -> new NextRun(earliest(run.dueAt(), dueAt), run.version() + 1));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.phase.tick:1000}")
+    public void advanceIfDue() {
+        if (!LocalDateTime.now().isBefore(nextRun.get().dueAt())) {
+            advance();
+        }
+    }
+
+    public void advance() {
+        LocalDateTime now = LocalDateTime.now();
+        NextRun observed = nextRun.get();
+
+        int finished = advanceInBatches(BookingPhase.PAST, Set.of(BookingPhase.FUTURE, BookingPhase.CURRENT),
+                () -> bookingRepository.findPhaseTransitionsEndedBefore(
+                        Set.of(BookingPhase.FUTURE, BookingPhase.CURRENT), now, batchSize), now);
+        int started = advanceInBatches(BookingPhase.CURRENT, Set.of(BookingPhase.FUTURE),
+                () -> bookingRepository.findPhaseTransitionsStartedBefore(BookingPhase.FUTURE, now, batchSize), now);
+
+        // scheduleAt мог сработать во время прохода, в том числе для бронирования, транзакция которого ещё не
+        // зафиксирована и не видна findNextDueAt, поэтому найденный срок объединяется с назначенным, а не затирает его
+        LocalDateTime found = findNextDueAt(now);
+        NextRun next = nextRun.updateAndGet(run -> run.version() == observed.version()
+                ? new NextRun(found, run.version())
+                : new NextRun(earliest(found, run.dueAt()), run.version()));
+        if (finished + started > 0) {
+            log.debug("Фазы бронирований обновлены: {} начались, {} завершились, следующий переход в {}", started,
+                    finished, next.dueAt());
+        }
+    }
+
+    double overdueSeconds() {
+        LocalDateTime dueAt = nextRun.get().dueAt();
+        if (dueAt.equals(LocalDateTime.MIN)) {
+            return 0;
+        }
+        return Math.max(0, Duration.between(dueAt, LocalDateTime.now()).toMillis() / 1000.0);
+    }
+
+    private int advanceInBatches(BookingPhase target, Set<BookingPhase> sources,
+                                 Supplier<List<PhaseTransition>> dueTransitions, LocalDateTime now) {
+        int total = 0;
+        int advanced;
+        do {
+            advanced = transactionTemplate.execute(status -> {
+                List<PhaseTransition> transitions = dueTransitions.get();
+                if (transitions.isEmpty()) {
+                    return 0;
+                }
+
+                List<Long> bookingIds = transitions.stream()
+                        .map(PhaseTransition::bookingId)
+                        .toList();
+                int updated = bookingRepository.updatePhase(bookingIds, sources, target);
+                transitions.forEach(transition -> lagTimer.record(Duration.between(transition.dueAt(), now)));
+                transitionCounters.get(target).increment(updated);
+                return transitions.size();
+            });
+            total += advanced;
+        } while (advanced == batchSize);
+
+        return total;
+    }
+
+    private LocalDateTime findNextDueAt(LocalDateTime now) {
+        LocalDateTime idleUntil = now.plus(maxIdle);
+        LocalDateTime nextStart = bookingRepository.findMinStartByPhase(BookingPhase.FUTURE);
+        LocalDateTime nextEnd = bookingRepository.findMinEndByPhase(BookingPhase.CURRENT);
+
+        LocalDateTime next = idleUntil;
+        if (nextStart != null && nextStart.isBefore(next)) {
+            next = nextStart;
+        }
+        if (nextEnd != null && nextEnd.isBefore(next)) {
+            next = nextEnd;
+        }
+        return next;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        return second.isBefore(first) ? second : first;
+    }
+
+    private record NextRun(LocalDateTime dueAt, long version) {
+    }
+}
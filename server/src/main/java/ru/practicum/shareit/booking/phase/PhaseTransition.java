@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking.phase;
+
+import java.time.LocalDateTime;
+
+public record PhaseTransition(long bookingId, LocalDateTime dueAt) {
+}
@@ -0,0 +1,446 @@
+package ru.practicum.shareit.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.ItemBookingPeriod;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.phase.BookingPhaseScheduler;
+import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.importing.dto.BookingImportRow;
+import ru.practicum.shareit.importing.dto.ImportErrorDto;
+import ru.practicum.shareit.importing.dto.ImportReportDto;
+import ru.practicum.shareit.importing.dto.ItemImportRow;
+import ru.practicum.shareit.importing.dto.UserImportRow;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsChangedEvent;
+import ru.practicum.shareit.item.model.ItemOwner;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт пользователей, вещей и бронирований. Входные данные читаются потоком и обрабатываются
+ * пачками по {@code shareit.import.chunk-size} строк, каждая в своей транзакции: строки пачки проверяются
+ * несколькими запросами на всю пачку сразу, а прошедшие проверку вставляются одной командой. Ошибочные строки
+ * пропускаются и попадают в отчёт, не мешая остальным. Если базе не удалось записать пачку, отклоняется
+ * вся пачка, а уже записанные пачки остаются. Импорт обходит проверки прав обычных запросов, поэтому доступен
+ * только пользователям из {@code shareit.import.admin-ids}; по умолчанию список пуст и импорт закрыт.
+ */
+@Service
+@Slf4j
+public class BulkImportService {
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_EMAIL_LENGTH = 512;
+    private static final List<String> USER_COLUMNS = List.of("name", "email");
+    private static final List<String> ITEM_COLUMNS =
+            List.of("name", "description", "available", "owner_id", "request_id");
+    private static final List<String> BOOKING_COLUMNS =
+            List.of("start_date", "end_date", "item_id", "booker_id", "status", "phase");
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final BookingRepository bookingRepository;
+    private final BulkInserter bulkInserter;
+    private final BookingPhaseScheduler bookingPhaseScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final Set<Long> adminIds;
+
+    public BulkImportService(UserRepository userRepository,
+                             ItemRepository itemRepository,
+                             ItemRequestRepository itemRequestRepository,
+                             BookingRepository bookingRepository,
+                             BulkInserter bulkInserter,
+                             BookingPhaseScheduler bookingPhaseScheduler,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${shareit.import.chunk-size:1000}") int chunkSize,
+                             @Value("${shareit.import.max-errors:1000}") int maxErrors,
+                             @Value("${shareit.import.admin-ids:}") Set<Long> adminIds) {
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.bookingRepository = bookingRepository;
+        this.bulkInserter = bulkInserter;
+        this.bookingPhaseScheduler = bookingPhaseScheduler;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.adminIds = Set.copyOf(adminIds);
+    }
+
+    public ImportReportDto importUsers(long userId, Reader input, ImportFormat format) {
+        checkAdmin(userId);
+        return run("users", input, format, UserImportRow.class, this::importUserChunk);
+    }
+
+    public ImportReportDto importItems(long userId, Reader input, ImportFormat format) {
+        checkAdmin(userId);
+        return run("items", input, format, ItemImportRow.class, this::importItemChunk);
+    }
+
+    public ImportReportDto importBookings(long userId, Reader input, ImportFormat format) {
+        checkAdmin(userId);
+        return run("bookings", input, format, BookingImportRow.class, this::importBookingChunk);
+    }
+
+    private void checkAdmin(long userId) {
+        if (!adminIds.contains(userId)) {
+            throw new AccessDeniedException("Пользователю " + userId + " импорт данных запрещён");
+        }
+    }
+
+    private <R> ImportReportDto run(String entity, Reader input, ImportFormat format, Class<R> rowType,
+                                    ChunkImporter<R> importer) {
+        long startedAt = System.nanoTime();
+        ImportRowReader<R> reader = new ImportRowReader<>(input, format, objectMapper, rowType);
+        Progress progress = new Progress();
+        List<ImportRow<R>> chunk = new ArrayList<>(chunkSize);
+
+        try {
+            for (ImportRow<R> row = reader.next(); row != null; row = reader.next()) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, importer, progress);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            // Прочитанное до обрыва всё равно импортируется, а сам обрыв попадает в отчёт
+            log.warn("Импорт {} прерван ошибкой чтения: {}", entity, e.getMessage());
+            progress.fail(reader.line(), "Ошибка чтения входных данных: " + e.getMessage());
+        }
+        importChunk(chunk, importer, progress);
+
+        long elapsedNanos = Math.max(System.nanoTime() - startedAt, 1);
+        meterRegistry.counter("shareit.import.rows", "entity", entity, "result", "imported")
+                .increment(progress.imported);
+        meterRegistry.counter("shareit.import.rows", "entity", entity, "result", "failed")
+                .increment(progress.failed);
+
+        ImportReportDto report = new ImportReportDto(entity, progress.rows, progress.imported, progress.failed,
+                elapsedNanos / 1_000_000, progress.rows * 1_000_000_000L / elapsedNanos, progress.errors);
+        log.info("Импорт {}: строк {}, импортировано {}, отклонено {}, {} мс, {} строк/с", entity, report.rows(),
+                report.imported(), report.failed(), report.durationMillis(), report.rowsPerSecond());
+        return report;
+    }
+
+    private <R> void importChunk(List<ImportRow<R>> chunk, ChunkImporter<R> importer, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        progress.rows += chunk.size();
+
+        SortedMap<Long, String> errors = new TreeMap<>();
+        List<ImportRow<R>> parsed = new ArrayList<>(chunk.size());
+        for (ImportRow<R> row : chunk) {
+            if (row.error() != null) {
+                errors.put(row.line(), row.error());
+            } else {
+                parsed.add(row);
+            }
+        }
+
+        int imported;
+        try {
+            imported = parsed.isEmpty() ? 0 : transactionTemplate.execute(status -> importer.apply(parsed, errors));
+        } catch (DataAccessException e) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("Пачка строк {}–{} отклонена базой данных: {}", chunk.getFirst().line(),
+                    chunk.getLast().line(), cause);
+            for (ImportRow<R> row : parsed) {
+                errors.put(row.line(), "Пачка отклонена базой данных: " + cause);
+            }
+            imported = 0;
+        }
+
+        progress.imported += imported;
+        errors.forEach(progress::fail);
+    }
+
+    private int importUserChunk(List<ImportRow<UserImportRow>> rows, Map<Long, String> errors) {
+        Set<String> existingEmails = new HashSet<>(userRepository.findExistingEmails(
+                distinct(rows, UserImportRow::email)));
+        Set<String> chunkEmails = new HashSet<>();
+
+        List<Object[]> values = new ArrayList<>();
+        for (ImportRow<UserImportRow> row : rows) {
+            UserImportRow user = row.value();
+            String error = validateUser(user);
+            if (error == null && existingEmails.contains(user.email())) {
+                error = "Пользователь с email " + user.email() + " уже существует";
+            } else if (error == null && !chunkEmails.add(user.email())) {
+                error = "Email " + user.email() + " повторяется в импорте";
+            }
+
+            if (error != null) {
+                errors.put(row.line(), error);
+            } else {
+                values.add(new Object[]{user.name(), user.email()});
+            }
+        }
+
+        bulkInserter.insert("users", USER_COLUMNS, values);
+        return values.size();
+    }
+
+    private static String validateUser(UserImportRow user) {
+        if (isBlank(user.name())) {
+            return "Не указано имя";
+        }
+        if (user.name().length() > MAX_NAME_LENGTH) {
+            return "Имя длиннее " + MAX_NAME_LENGTH + " символов";
+        }
+        if (isBlank(user.email())) {
+            return "Не указан email";
+        }
+        if (user.email().length() > MAX_EMAIL_LENGTH || !EMAIL.matcher(user.email()).matches()) {
+            return "Некорректный email " + user.email();
+        }
+        return null;
+    }
+
+    private int importItemChunk(List<ImportRow<ItemImportRow>> rows, Map<Long, String> errors) {
+        Set<Long> existingOwners = new HashSet<>(userRepository.findExistingIds(
+                distinct(rows, ItemImportRow::ownerId)));
+        Set<Long> existingRequests = new HashSet<>(itemRequestRepository.findExistingIds(
+                distinct(rows, ItemImportRow::requestId)));
+
+        List<ItemImportRow> accepted = new ArrayList<>();
+        for (ImportRow<ItemImportRow> row : rows) {
+            ItemImportRow item = row.value();
+            String error = validateItem(item);
+            if (error == null && !existingOwners.contains(item.ownerId())) {
+                error = "Пользователь " + item.ownerId() + " не найден";
+            } else if (error == null && item.requestId() != null && !existingRequests.contains(item.requestId())) {
+                error = "Запрос " + item.requestId() + " не найден";
+            }
+
+            if (error != null) {
+                errors.put(row.line(), error);
+            } else {
+                accepted.add(item);
+            }
+        }
+
+        long[] ids = bulkInserter.insert("items", ITEM_COLUMNS, accepted.stream()
+                .map(item -> new Object[]{item.name(), item.description(), item.available() ? 1 : 0, item.ownerId(),
+                        item.requestId()})
+                .toList());
+
+        if (!accepted.isEmpty()) {
+            List<ItemChangedEvent> changes = new ArrayList<>(accepted.size());
+            for (int i = 0; i < ids.length; i++) {
+                ItemImportRow item = accepted.get(i);
+                changes.add(new ItemChangedEvent(ids[i], item.ownerId(), item.name(), item.description(),
+                        item.available()));
+            }
+            eventPublisher.publishEvent(new ItemsChangedEvent(changes));
+        }
+        return accepted.size();
+    }
+
+    private static String validateItem(ItemImportRow item) {
+        if (isBlank(item.name())) {
+            return "Не указано название";
+        }
+        if (item.name().length() > MAX_NAME_LENGTH) {
+            return "Название длиннее " + MAX_NAME_LENGTH + " символов";
+        }
+        if (isBlank(item.description())) {
+            return "Не указано описание";
+        }
+        if (item.description().length() > MAX_NAME_LENGTH) {
+            return "Описание длиннее " + MAX_NAME_LENGTH + " символов";
+        }
+        if (item.available() == null) {
+            return "Не указана доступность";
+        }
+        if (item.ownerId() == null) {
+            return "Не указан владелец";
+        }
+        return null;
+    }
+
+    private int importBookingChunk(List<ImportRow<BookingImportRow>> rows, Map<Long, String> errors) {
+        Map<Long, Long> owners = itemRepository.findOwnersByIdIn(distinct(rows, BookingImportRow::itemId)).stream()
+                .collect(Collectors.toMap(ItemOwner::itemId, ItemOwner::ownerId));
+        Set<Long> existingBookers = new HashSet<>(userRepository.findExistingIds(
+                distinct(rows, BookingImportRow::bookerId)));
+
+        List<ImportRow<BookingImportRow>> valid = new ArrayList<>();
+        for (ImportRow<BookingImportRow> row : rows) {
+            BookingImportRow booking = row.value();
+            String error = validateBooking(booking);
+            if (error == null && !owners.containsKey(booking.itemId())) {
+                error = "Вещь " + booking.itemId() + " не найдена";
+            } else if (error == null && !existingBookers.contains(booking.bookerId())) {
+                error = "Пользователь " + booking.bookerId() + " не найден";
+            } else if (error == null && owners.get(booking.itemId()).equals(booking.bookerId())) {
+                error = "Владелец не может бронировать свою вещь";
+            }
+
+            if (error != null) {
+                errors.put(row.line(), error);
+            } else {
+                valid.add(row);
+            }
+        }
+
+        Map<Long, List<ItemBookingPeriod>> approvedPeriods = findApprovedPeriods(valid);
+        List<BookingImportRow> accepted = new ArrayList<>();
+        for (ImportRow<BookingImportRow> row : valid) {
+            BookingImportRow booking = row.value();
+            if (status(booking) != BookingStatus.APPROVED) {
+                accepted.add(booking);
+                continue;
+            }
+
+            List<ItemBookingPeriod> periods = approvedPeriods.computeIfAbsent(booking.itemId(),
+                    itemId -> new ArrayList<>());
+            if (periods.stream().anyMatch(period -> period.overlaps(booking.start(), booking.end()))) {
+                errors.put(row.line(), "Вещь " + booking.itemId() + " уже забронирована на период с "
+                        + booking.start() + " по " + booking.end());
+            } else {
+                periods.add(new ItemBookingPeriod(booking.itemId(), booking.start(), booking.end()));
+                accepted.add(booking);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingPhase> phases = accepted.stream()
+                .map(booking -> BookingPhase.at(booking.start(), booking.end(), now))
+                .toList();
+        List<Object[]> values = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            BookingImportRow booking = accepted.get(i);
+            values.add(new Object[]{booking.start(), booking.end(), booking.itemId(), booking.bookerId(),
+                    status(booking), phases.get(i)});
+        }
+        long[] ids = bulkInserter.insert("bookings", BOOKING_COLUMNS, values);
+
+        for (int i = 0; i < ids.length; i++) {
+            BookingImportRow booking = accepted.get(i);
+            if (phases.get(i) != BookingPhase.PAST) {
+                bookingPhaseScheduler.scheduleAt(phases.get(i) == BookingPhase.FUTURE ? booking.start()
+                        : booking.end());
+            }
+            eventPublisher.publishEvent(new BookingStatusChangedEvent(ids[i], booking.itemId(), booking.start(),
+                    booking.end(), null, status(booking)));
+        }
+        return accepted.size();
+    }
+
+    private static String validateBooking(BookingImportRow booking) {
+        if (booking.start() == null || booking.end() == null) {
+            return "Не указаны даты бронирования";
+        }
+        if (!booking.start().isBefore(booking.end())) {
+            return "Дата завершения бронирования должна быть позже даты начала";
+        }
+        if (booking.itemId() == null) {
+            return "Не указана вещь";
+        }
+        if (booking.bookerId() == null) {
+            return "Не указан арендатор";
+        }
+        return null;
+    }
+
+    /**
+     * Подтверждённые бронирования вещей пачки, пересекающие общий период подтверждённых строк пачки.
+     */
+    private Map<Long, List<ItemBookingPeriod>> findApprovedPeriods(List<ImportRow<BookingImportRow>> rows) {
+        List<BookingImportRow> approved = rows.stream()
+                .map(ImportRow::value)
+                .filter(booking -> status(booking) == BookingStatus.APPROVED)
+                .toList();
+        if (approved.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        LocalDateTime from = approved.stream().map(BookingImportRow::start).min(LocalDateTime::compareTo).get();
+        LocalDateTime to = approved.stream().map(BookingImportRow::end).max(LocalDateTime::compareTo).get();
+        return bookingRepository.findApprovedPeriodsByItemIdIn(
+                        approved.stream().map(BookingImportRow::itemId).collect(Collectors.toSet()), from, to)
+                .stream()
+                .collect(Collectors.groupingBy(ItemBookingPeriod::itemId, HashMap::new, Collectors.toList()));
+    }
+
+    private static BookingStatus status(BookingImportRow booking) {
+        return booking.status() == null ? BookingStatus.WAITING : booking.status();
+    }
+
+    private static <R, V> Collection<V> distinct(List<ImportRow<R>> rows, Function<R, V> field) {
+        return rows.stream()
+                .map(row -> field.apply(row.value()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    @FunctionalInterface
+    private interface ChunkImporter<R> {
+        /**
+         * Проверяет и вставляет разобранные строки пачки, складывая ошибки по номерам строк в {@code errors}.
+         * Возвращает число вставленных строк.
+         */
+        int apply(List<ImportRow<R>> rows, Map<Long, String> errors);
+    }
+
+    private final class Progress {
+        private final List<ImportErrorDto> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long failed;
+
+        private void fail(long line, String error) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportErrorDto(line, error));
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.importing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Вставляет пачку строк в таблицу в текущей транзакции и возвращает присвоенные им id. В PostgreSQL id заранее
+ * берутся из последовательности, а строки передаются командой COPY. На других СУБД, например H2 в тестах,
+ * выполняется пакетный INSERT с возвратом сгенерированных ключей.
+ */
+@Component
+@Slf4j
+public class BulkInserter {
+    private static final String POSTGRESQL = "PostgreSQL";
+    private static final String ALLOCATE_IDS_SQL =
+            "select nextval(pg_get_serial_sequence(?, 'id')) from generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean copySupported;
+
+    public BulkInserter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.copySupported = POSTGRESQL.equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName()));
+        log.info("Массовая вставка: {}", copySupported ? "COPY" : "пакетный INSERT");
+    }
+
+    public long[] insert(String table, List<String> columns, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return new long[0];
+        }
+        return jdbcTemplate.execute((ConnectionCallback<long[]>) connection -> copySupported
+                ? copy(connection, table, columns, rows)
+                : insertBatch(connection, table, columns, rows));
+    }
+
+    private static long[] copy(Connection connection, String table, List<String> columns, List<Object[]> rows)
+            throws SQLException {
+        long[] ids = allocateIds(connection, table, rows.size());
+
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < rows.size(); i++) {
+            data.append(ids[i]);
+            for (Object value : rows.get(i)) {
+                data.append(',');
+                appendCsv(data, value);
+            }
+            data.append('\n');
+        }
+
+        String sql = "COPY " + table + " (id, " + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(data.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ids;
+    }
+
+    private static long[] allocateIds(Connection connection, String table, int count) throws SQLException {
+        long[] ids = new long[count];
+        try (PreparedStatement statement = connection.prepareStatement(ALLOCATE_IDS_SQL)) {
+            statement.setString(1, table);
+            statement.setInt(2, count);
+            try (ResultSet keys = statement.executeQuery()) {
+                for (int i = 0; keys.next(); i++) {
+                    ids[i] = keys.getLong(1);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void appendCsv(StringBuilder data, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof LocalDateTime dateTime ? Timestamp.valueOf(dateTime).toString()
+                : value.toString();
+        data.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+
+    private static long[] insertBatch(Connection connection, String table, List<String> columns, List<Object[]> rows)
+            throws SQLException {
+        String sql = "insert into " + table + " (" + String.join(", ", columns) + ") values (" +
+                String.join(", ", columns.stream().map(column -> "?").toList()) + ")";
+
+        long[] ids = new long[rows.size()];
+        try (PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"})) {
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    statement.setObject(i + 1, row[i] instanceof Enum<?> value ? value.name() : row[i]);
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                for (int i = 0; keys.next(); i++) {
+                    ids[i] = keys.getLong(1);
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.importing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.constants.AppConstants;
+import ru.practicum.shareit.importing.dto.ImportReportDto;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/import")
+@RequiredArgsConstructor
+@Slf4j
+public class ImportController {
+    private final BulkImportService bulkImportService;
+
+    @PostMapping(value = "/users", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ImportFormat.TEXT_CSV_VALUE})
+    public ImportReportDto importUsers(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                       HttpServletRequest request) throws IOException {
+        log.info("От пользователя {} получен запрос POST /import/users в формате {}", userId,
+                request.getContentType());
+        return bulkImportService.importUsers(userId, reader(request), format(request));
+    }
+
+    @PostMapping(value = "/items", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ImportFormat.TEXT_CSV_VALUE})
+    public ImportReportDto importItems(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                       HttpServletRequest request) throws IOException {
+        log.info("От пользователя {} получен запрос POST /import/items в формате {}", userId,
+                request.getContentType());
+        return bulkImportService.importItems(userId, reader(request), format(request));
+    }
+
+    @PostMapping(value = "/bookings", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ImportFormat.TEXT_CSV_VALUE})
+    public ImportReportDto importBookings(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                          HttpServletRequest request) throws IOException {
+        log.info("От пользователя {} получен запрос POST /import/bookings в формате {}", userId,
+                request.getContentType());
+        return bulkImportService.importBookings(userId, reader(request), format(request));
+    }
+
+    private static Reader reader(HttpServletRequest request) throws IOException {
+        Charset charset = request.getCharacterEncoding() == null ? StandardCharsets.UTF_8
+                : Charset.forName(request.getCharacterEncoding());
+        return new InputStreamReader(request.getInputStream(), charset);
+    }
+
+    private static ImportFormat format(HttpServletRequest request) {
+        return ImportFormat.of(MediaType.parseMediaType(request.getContentType()));
+    }
+}
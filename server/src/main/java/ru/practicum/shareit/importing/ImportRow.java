@@ -0,0 +1,15 @@
+package ru.practicum.shareit.importing;
+
+/**
+ * Строка входных данных: разобранное значение либо текст ошибки разбора. Номер строки считается от начала
+ * входных данных, включая заголовок CSV.
+ */
+record ImportRow<R>(long line, R value, String error) {
+    static <R> ImportRow<R> parsed(long line, R value) {
+        return new ImportRow<>(line, value, null);
+    }
+
+    static <R> ImportRow<R> failed(long line, String error) {
+        return new ImportRow<>(line, null, error);
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Читает входные данные импорта построчно, не загружая их целиком. NDJSON разбирается по одному объекту на
+ * строку. Первая строка CSV содержит названия полей строки импорта. Значения в кавычках могут содержать
+ * запятые и удвоенные кавычки, но не переводы строк. Пустое значение читается как отсутствующее.
+ */
+class ImportRowReader<R> {
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private final Class<R> rowType;
+    private List<String> header;
+    private long line;
+
+    ImportRowReader(Reader reader, ImportFormat format, ObjectMapper objectMapper, Class<R> rowType) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.rowType = rowType;
+    }
+
+    /**
+     * Возвращает следующую непустую строку или {@code null}, если данные закончились.
+     */
+    ImportRow<R> next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank() || (format == ImportFormat.CSV && header == null && readHeader(text)));
+
+        return format == ImportFormat.NDJSON ? parseJson(text) : parseCsv(text);
+    }
+
+    /**
+     * Номер последней прочитанной строки.
+     */
+    long line() {
+        return line;
+    }
+
+    private boolean readHeader(String text) {
+        header = parseCsvLine(text).stream()
+                .map(String::strip)
+                .toList();
+        return true;
+    }
+
+    private ImportRow<R> parseJson(String text) {
+        try {
+            R row = objectMapper.readValue(text, rowType);
+            if (row == null) {
+                return ImportRow.failed(line, "Ожидался JSON-объект");
+            }
+            return ImportRow.parsed(line, row);
+        } catch (JsonProcessingException e) {
+            return ImportRow.failed(line, "Некорректный JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private ImportRow<R> parseCsv(String text) {
+        List<String> values;
+        try {
+            values = parseCsvLine(text);
+        } catch (IllegalArgumentException e) {
+            return ImportRow.failed(line, e.getMessage());
+        }
+        if (values.size() != header.size()) {
+            return ImportRow.failed(line, "Ожидалось полей: " + header.size() + ", получено: " + values.size());
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            fields.put(header.get(i), values.get(i).isEmpty() ? null : values.get(i));
+        }
+        try {
+            return ImportRow.parsed(line, objectMapper.convertValue(fields, rowType));
+        } catch (IllegalArgumentException e) {
+            return ImportRow.failed(line, "Некорректное значение поля: " + e.getMessage());
+        }
+    }
+
+    static List<String> parseCsvLine(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Не закрыта кавычка");
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
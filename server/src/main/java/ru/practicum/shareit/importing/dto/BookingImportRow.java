@@ -0,0 +1,9 @@
+package ru.practicum.shareit.importing.dto;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public record BookingImportRow(LocalDateTime start, LocalDateTime end, Long itemId, Long bookerId,
+                               BookingStatus status) {
+}
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.importing.dto;
+
+public record ImportErrorDto(long line, String error) {
+}
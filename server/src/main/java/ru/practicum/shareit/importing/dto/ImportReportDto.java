@@ -0,0 +1,10 @@
+package ru.practicum.shareit.importing.dto;
+
+import java.util.List;
+
+/**
+ * Итог импорта. В {@code errors} попадают только первые ошибки, остальные учитываются в {@code failed}.
+ */
+public record ImportReportDto(String entity, long rows, long imported, long failed, long durationMillis,
+                              long rowsPerSecond, List<ImportErrorDto> errors) {
+}
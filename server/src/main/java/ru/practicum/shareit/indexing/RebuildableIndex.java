@@ -0,0 +1,87 @@
+package ru.practicum.shareit.indexing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Индекс в памяти, который строится из БД и затем обновляется событиями. Пока новый индекс строится, приложение
+ * уже принимает запросы, и события применяются к старому индексу; чтобы они не потерялись при замене, изменения,
+ * применённые с начала перестроения, запоминаются и повторяются на новом индексе перед заменой.
+ * Изменение, уже учтённое при чтении из БД, повторяется ещё раз, поэтому изменения должны быть идемпотентными.
+ *
+ * @param <T> структура индекса; не обязана быть потокобезопасной, доступ к ней защищён блокировкой
+ */
+public final class RebuildableIndex<T> {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildMonitor = new Object();
+    private T current;
+    private List<Consumer<T>> pending;
+
+    public RebuildableIndex(T initial) {
+        this.current = initial;
+    }
+
+    public <R> R read(Function<T, R> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(current);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void update(Consumer<T> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(current);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Строит новый индекс вне блокировки, повторяет на нём изменения, пришедшие во время построения, и заменяет им
+     * текущий. Возвращает новый индекс.
+     */
+    public T rebuild(Supplier<T> builder) {
+        synchronized (rebuildMonitor) {
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            T rebuilt;
+            try {
+                rebuilt = builder.get();
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pending = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                pending.forEach(change -> change.accept(rebuilt));
+                pending = null;
+                current = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return rebuilt;
+        }
+    }
+}
@@ -1,10 +1,36 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItem_Id(long itemId);
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, c.item.id, a.name, c.created) " +
+            "from Comment c join c.author a where c.item.id = :itemId " +
+            "order by c.created desc, c.id desc limit :size")
+    List<CommentDto> findLatestDtoByItemId(@Param("itemId") long itemId, @Param("size") int size);
+
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, c.item.id, a.name, c.created) " +
+            "from Comment c join c.author a where c.item.id = :itemId " +
+            "and (c.created < :created or (c.created = :created and c.id < :id)) " +
+            "order by c.created desc, c.id desc limit :size")
+    List<CommentDto> findDtoByItemIdBefore(@Param("itemId") long itemId, @Param("created") LocalDateTime created,
+                                           @Param("id") long id, @Param("size") int size);
+
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, c.item.id, a.name, c.created) " +
+            "from Comment c join c.author a where c.id in (" +
+            "select latest.id from (select lc.id as id, row_number() over (partition by lc.item.id " +
+            "order by lc.created desc, lc.id desc) as position from Comment lc where lc.item.id in :itemIds) latest " +
+            "where latest.position <= :size) " +
+            "order by c.created desc, c.id desc")
+    List<CommentDto> findLatestDtoByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("size") int size);
+
+    @Query("select distinct c.item.id from Comment c")
+    List<Long> findCommentedItemIds();
 }
@@ -1,15 +1,30 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.constants.AppConstants;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemFacetSearchDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.ItemUpdateResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
 import ru.practicum.shareit.item.dto.NewCommentDto;
+import ru.practicum.shareit.item.dto.OwnerItemsAvailabilityDto;
+import ru.practicum.shareit.item.facet.ItemFacetFilter;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.streaming.NdjsonWriter;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,6 +33,7 @@ import java.util.List;
 @Slf4j
 public class ItemController {
     private final ItemService itemService;
+    private final NdjsonWriter ndjsonWriter;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -35,6 +51,20 @@ public class ItemController {
         return itemService.update(userId, itemId, itemDto);
     }
 
+    @PatchMapping("/batch")
+    public List<ItemUpdateResultDto> updateAll(@RequestBody List<ItemUpdateDto> updates,
+                                               @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос PATCH /items/batch: {}", userId, updates);
+        return itemService.updateAll(userId, updates);
+    }
+
+    @PostMapping("/availability")
+    public OwnerItemsAvailabilityDto setAvailability(@RequestParam("available") boolean available,
+                                                     @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос POST /items/availability?available={}", userId, available);
+        return itemService.setAvailabilityForOwner(userId, available);
+    }
+
     @GetMapping("/{itemId}")
     public ItemWithBookingAndCommentsDto get(@PathVariable long itemId,
                                              @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
@@ -42,17 +72,101 @@ public class ItemController {
         return itemService.getByIdWithBookingsAndComments(itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable long itemId,
+                                               @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                               LocalDate from,
+                                               @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                               LocalDate to,
+                                               @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос GET /items/{}/availability?from={}&to={}", userId, itemId, from,
+                to);
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @GetMapping
-    public List<ItemDto> getAllByUser(@RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
-        log.info("От пользователя {} получен запрос GET /items", userId);
-        return itemService.getAllByUser(userId);
+    public List<ItemDto> getAllByUser(@RequestParam(value = "from", defaultValue = "0") int from,
+                                      @RequestParam(value = "size", defaultValue = "10") int size,
+                                      @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос GET /items?from={}&size={}", userId, from, size);
+        return itemService.getAllByUser(userId, from, size);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllByUser(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                HttpServletResponse response) throws IOException {
+        log.info("От пользователя {} получен запрос GET /items в формате NDJSON", userId);
+        ndjsonWriter.write(response, sink -> itemService.streamAllByUser(userId, sink));
+    }
+
+    @GetMapping(params = "details=true")
+    public List<ItemWithBookingAndCommentsDto> getAllByUserWithDetails(
+            @RequestParam(value = "from", defaultValue = "0") int from,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос GET /items?details=true&from={}&size={}", userId, from, size);
+        return itemService.getAllByUserWithBookingsAndComments(userId, from, size);
     }
 
     @GetMapping("/search")
     public List<ItemDto> searchItemsForBooking(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
-                                               @RequestParam("text") String text) {
-        log.info("От пользователя {} получен запрос GET /items/search с параметром поиска = {}", userId, text);
-        return itemService.searchAvailable(text);
+                                               @RequestParam("text") String text,
+                                               @RequestParam(value = "from", defaultValue = "0") int from,
+                                               @RequestParam(value = "size", defaultValue = "10") int size) {
+        log.info("От пользователя {} получен запрос GET /items/search с параметром поиска = {}, from={}, size={}",
+                userId, text, from, size);
+        return itemService.searchAvailable(text, from, size);
+    }
+
+    @GetMapping(path = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamItemsForBooking(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                      @RequestParam("text") String text,
+                                      HttpServletResponse response) throws IOException {
+        log.info("От пользователя {} получен запрос GET /items/search в формате NDJSON с параметром поиска = {}",
+                userId, text);
+        ndjsonWriter.write(response, sink -> itemService.streamAvailable(text, sink));
+    }
+
+    @GetMapping("/autocomplete")
+    public List<ItemSuggestionDto> autocomplete(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                                @RequestParam("prefix") String prefix,
+                                                @RequestParam(value = "size", defaultValue = "10") int size) {
+        log.info("От пользователя {} получен запрос GET /items/autocomplete?prefix={}&size={}", userId, prefix, size);
+        return itemService.autocomplete(prefix, size);
+    }
+
+    @GetMapping("/facets")
+    public ItemFacetSearchDto searchByFacets(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                             @RequestParam(value = "owner", required = false) Long ownerId,
+                                             @RequestParam(value = "available", required = false) Boolean available,
+                                             @RequestParam(value = "openRequest", required = false)
+                                             Boolean openRequest,
+                                             @RequestParam(value = "bookedSoon", required = false) Boolean bookedSoon,
+                                             @RequestParam(value = "hasComments", required = false)
+                                             Boolean hasComments,
+                                             @RequestParam(value = "from", defaultValue = "0") int from,
+                                             @RequestParam(value = "size", defaultValue = "10") int size) {
+        ItemFacetFilter filter = new ItemFacetFilter(ownerId, available, openRequest, bookedSoon, hasComments);
+        log.info("От пользователя {} получен запрос GET /items/facets: {}, from={}, size={}", userId, filter, from,
+                size);
+        return itemService.searchByFacets(filter, from, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable long itemId,
+                                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                                        @RequestParam(value = "size", defaultValue = "10") int size,
+                                                        @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос GET /items/{}/comments?cursor={}&size={}", userId, itemId,
+                cursor, size);
+        CursorPage<CommentDto> page = itemService.getComments(itemId, cursor, size);
+        if (page.nextCursor() == null) {
+            return ResponseEntity.ok(page.content());
+        }
+
+        return ResponseEntity.ok()
+                .header(AppConstants.NEXT_CURSOR_HEADER, page.nextCursor())
+                .body(page.content());
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.ItemWithBookings;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Собирает карточку вещи для {@link ItemServiceImpl} при промахе кэша. Вещь с бронированиями и комментарии
+ * читаются в одной транзакции, чтобы карточка была согласованной; отдельный бин нужен, потому что вызов
+ * транзакционного метода внутри самого сервиса прошёл бы мимо прокси.
+ */
+@Component
+@RequiredArgsConstructor
+class ItemDetailLoader {
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemMapper itemMapper;
+    private final BookingMapper bookingMapper;
+
+    @Transactional(readOnly = true)
+    public ItemWithBookingAndCommentsDto load(long id) {
+        ItemWithBookings itemWithBookings = itemRepository.findWithLastAndNextBooking(id, LocalDateTime.now())
+                .orElseThrow(() -> new NotFoundException("Вещь " + id + " не найдена"));
+
+        BookingDto lastBookingDto = (itemWithBookings.lastBooking() == null) ? null
+                : bookingMapper.toBookingDto(itemWithBookings.lastBooking());
+        BookingDto nextBookingDto = (itemWithBookings.nextBooking() == null) ? null
+                : bookingMapper.toBookingDto(itemWithBookings.nextBooking());
+
+        List<CommentDto> comments = commentRepository.findLatestDtoByItemId(id, ItemServiceImpl.LATEST_COMMENTS_SIZE);
+
+        return itemMapper.toItemWithBookingAndCommentsDto(itemWithBookings.item(), lastBookingDto, nextBookingDto,
+                comments);
+    }
+}
@@ -1,24 +1,113 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.autocomplete.ItemPopularity;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.facet.ItemFacetSource;
 import ru.practicum.shareit.item.dto.RequestAnswerDto;
+import ru.practicum.shareit.item.dto.RequestAnswerWithRequestIdDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemCommentsCount;
+import ru.practicum.shareit.item.model.ItemOwner;
+import ru.practicum.shareit.item.model.ItemWithBookings;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query("select i from Item i join fetch i.owner as ow where ow.id=:ownerId")
-    List<Item> findByOwner(@Param("ownerId") long ownerId);
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "from Item i left join i.request r where i.owner.id = :ownerId order by i.id limit :size offset :from")
+    List<ItemDto> findDtoByOwnerId(@Param("ownerId") long ownerId, @Param("from") int from, @Param("size") int size);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "from Item i left join i.request r where i.owner.id = :ownerId order by i.id")
+    Stream<ItemDto> streamDtoByOwnerId(@Param("ownerId") long ownerId);
 
     Optional<Item> findById(long itemId);
 
-    @Query("select i from Item i where (upper(i.name) like upper(concat('%', :text, '%')) " +
+    @Query("select i.owner.id from Item i where i.id = :itemId")
+    Optional<Long> findOwnerIdById(@Param("itemId") long itemId);
+
+    @Query("select new ru.practicum.shareit.item.model.ItemWithBookings(i, lb, nb) from Item i " +
+            "join fetch i.owner " +
+            "left join fetch i.request r " +
+            "left join fetch r.requester " +
+            "left join Booking lb on lb.item = i " +
+            "and lb.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "and lb.start = (select max(b.start) from Booking b where b.item = i " +
+            "and b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED and b.start <= :now) " +
+            "left join fetch lb.booker " +
+            "left join Booking nb on nb.item = i " +
+            "and nb.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "and nb.start = (select min(b.start) from Booking b where b.item = i " +
+            "and b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED and b.start > :now) " +
+            "left join fetch nb.booker " +
+            "where i.id = :itemId")
+    Optional<ItemWithBookings> findWithLastAndNextBooking(@Param("itemId") long itemId,
+                                                          @Param("now") LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "from Item i left join i.request r where (upper(i.name) like upper(concat('%', :text, '%')) " +
+            "or upper(i.description) like upper(concat('%', :text, '%'))) " +
+            "and i.available = true order by i.id limit :size offset :from")
+    List<ItemDto> searchAvailable(@Param("text") String text, @Param("from") int from, @Param("size") int size);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "from Item i left join i.request r where (upper(i.name) like upper(concat('%', :text, '%')) " +
             "or upper(i.description) like upper(concat('%', :text, '%'))) " +
-            "and i.available = :isAvailable")
-    List<Item> search(@Param("text") String text, @Param("isAvailable") boolean isAvailable);
+            "and i.available = true order by i.id")
+    Stream<ItemDto> streamAvailable(@Param("text") String text);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "from Item i left join i.request r where i.id in :ids")
+    List<ItemDto> findDtoByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "from Item i left join i.request r where i.available = true")
+    List<ItemDto> findAllAvailableDto();
+
+    @Query("select new ru.practicum.shareit.item.autocomplete.ItemPopularity(i.id, i.name, i.available, count(b.id)) " +
+            "from Item i left join Booking b on b.item = i " +
+            "and b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "group by i.id, i.name, i.available")
+    List<ItemPopularity> findPopularity();
+
+    @Query("select new ru.practicum.shareit.item.facet.ItemFacetSource(i.id, i.owner.id, i.available) from Item i")
+    List<ItemFacetSource> findFacetSources();
+
+    @Query("select new ru.practicum.shareit.item.model.ItemCommentsCount(i.id, i.commentsCount) " +
+            "from Item i where i.id in :itemIds")
+    List<ItemCommentsCount> findCommentsCounts(@Param("itemIds") Collection<Long> itemIds);
+
+    @Modifying
+    @Query("update Item i set i.commentsCount = i.commentsCount + 1 where i.id = :itemId")
+    void incrementCommentsCount(@Param("itemId") long itemId);
+
+    @Query("select i from Item i join fetch i.owner left join fetch i.request r left join fetch r.requester " +
+            "where i.id in :ids")
+    List<Item> findAllWithOwnerByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "from Item i left join i.request r where i.owner.id = :ownerId and i.available <> :available")
+    List<ItemDto> findDtoByOwnerIdAndAvailableNot(@Param("ownerId") long ownerId,
+                                                  @Param("available") boolean available);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Item i set i.available = :available where i.owner.id = :ownerId and i.available <> :available")
+    int updateAvailableByOwnerId(@Param("ownerId") long ownerId, @Param("available") boolean available);
+
+    @Query("select new ru.practicum.shareit.item.model.ItemOwner(i.id, i.owner.id) from Item i where i.id in :ids")
+    List<ItemOwner> findOwnersByIdIn(@Param("ids") Collection<Long> ids);
 
     List<RequestAnswerDto> findByRequest_id(long requestId);
+
+    @Query("select i.request.id as requestId, i.id as id, i.name as name, i.owner.id as ownerId from Item i " +
+            "where i.request.id in :requestIds order by i.id")
+    List<RequestAnswerWithRequestIdDto> findAnswersByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
 }
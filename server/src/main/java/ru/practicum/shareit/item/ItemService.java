@@ -1,28 +1,56 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemFacetSearchDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.ItemUpdateResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
+import ru.practicum.shareit.item.dto.OwnerItemsAvailabilityDto;
+import ru.practicum.shareit.item.facet.ItemFacetFilter;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
-    List<ItemDto> getAllByUser(long userId);
+    List<ItemDto> getAllByUser(long userId, int from, int size);
+
+    void streamAllByUser(long userId, Consumer<? super ItemDto> sink);
+
+    List<ItemWithBookingAndCommentsDto> getAllByUserWithBookingsAndComments(long userId, int from, int size);
 
     ItemWithBookingAndCommentsDto getByIdWithBookingsAndComments(long id);
 
     ItemDto getById(long id);
 
+    ItemAvailabilityDto getAvailability(long itemId, LocalDate from, LocalDate to);
+
     ItemDto create(long ownerId, ItemDto itemDto);
 
     ItemDto update(long userId, long itemId, ItemDto itemDto);
 
+    List<ItemUpdateResultDto> updateAll(long userId, List<ItemUpdateDto> updates);
+
+    OwnerItemsAvailabilityDto setAvailabilityForOwner(long userId, boolean available);
+
     void delete(long id);
 
-    List<ItemDto> searchAvailable(String searchString);
+    List<ItemDto> searchAvailable(String searchString, int from, int size);
+
+    void streamAvailable(String searchString, Consumer<? super ItemDto> sink);
+
+    List<ItemSuggestionDto> autocomplete(String prefix, int size);
+
+    ItemFacetSearchDto searchByFacets(ItemFacetFilter filter, int from, int size);
 
     Item getItemById(long id);
 
+    CursorPage<CommentDto> getComments(long itemId, String cursor, int size);
+
     CommentDto addComment(long itemId, long authorId, String text);
 }
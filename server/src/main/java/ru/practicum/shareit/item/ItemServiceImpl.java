@@ -1,33 +1,75 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.access.AccessChecker;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityCalendar;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exception.InvalidAddCommentRequestException;
+import ru.practicum.shareit.exception.InvalidBookingDateException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.autocomplete.ItemAutocompleteIndex;
+import ru.practicum.shareit.item.detail.ItemDetailCache;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemFacetSearchDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.ItemUpdateResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
+import ru.practicum.shareit.item.dto.OwnerItemsAvailabilityDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemCreatedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemsChangedEvent;
+import ru.practicum.shareit.item.facet.ItemFacetFilter;
+import ru.practicum.shareit.item.facet.ItemFacetIndex;
+import ru.practicum.shareit.item.facet.ItemFacetPage;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemCommentsCount;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_AVAILABILITY_DAYS = 366;
+    static final int LATEST_COMMENTS_SIZE = 10;
+
     private final ItemRepository itemRepository;
+    private final AccessChecker accessChecker;
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
@@ -35,31 +77,63 @@ public class ItemServiceImpl implements ItemService {
     private final ItemMapper itemMapper;
     private final BookingMapper bookingMapper;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemAvailabilityCalendar itemAvailabilityCalendar;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemAutocompleteIndex itemAutocompleteIndex;
+    private final ItemFacetIndex itemFacetIndex;
+    private final ItemDetailCache itemDetailCache;
+    private final ItemDetailLoader itemDetailLoader;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public List<ItemDto> getAllByUser(long userId) {
-        return itemRepository.findByOwner(userId).stream()
-                .map(itemMapper::toItemDto)
-                .toList();
+    public List<ItemDto> getAllByUser(long userId, int from, int size) {
+        return itemRepository.findDtoByOwnerId(userId, from, size);
     }
 
     @Override
-    public ItemWithBookingAndCommentsDto getByIdWithBookingsAndComments(long id) {
-        Item item = getItemById(id);
+    @Transactional(readOnly = true)
+    public void streamAllByUser(long userId, Consumer<? super ItemDto> sink) {
+        try (Stream<ItemDto> items = itemRepository.streamDtoByOwnerId(userId)) {
+            items.forEach(sink);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemWithBookingAndCommentsDto> getAllByUserWithBookingsAndComments(long userId, int from, int size) {
+        List<ItemDto> items = getAllByUser(userId, from, size);
+        if (items.isEmpty()) {
+            return List.of();
+        }
 
-        Booking lastBooking = bookingRepository.findByItem_IdAndStartIsBeforeOrderByStartDesc(item.getId(),
-                LocalDateTime.now().minusSeconds(10));
-        BookingDto lastBookingDto = (lastBooking == null) ? null : bookingMapper.toBookingDto(lastBooking);
+        List<Long> itemIds = items.stream()
+                .map(ItemDto::id)
+                .toList();
+        LocalDateTime now = LocalDateTime.now();
 
-        Booking nextBooking = bookingRepository.findByItem_IdAndEndIsAfterOrderByEnd(item.getId(),
-                LocalDateTime.now().plusSeconds(10));
-        BookingDto nextBookingDto = (nextBooking == null) ? null : bookingMapper.toBookingDto(nextBooking);
+        Map<Long, BookingDto> lastBookings = new HashMap<>();
+        Map<Long, BookingDto> nextBookings = new HashMap<>();
+        for (Booking booking : bookingRepository.findLastAndNextApprovedByItemIds(itemIds, now)) {
+            Map<Long, BookingDto> bookings = booking.getStart().isAfter(now) ? nextBookings : lastBookings;
+            bookings.put(booking.getItem().getId(), bookingMapper.toBookingDto(booking));
+        }
 
-        List<CommentDto> comments = commentRepository.findAllByItem_Id(id).stream()
-                .map(commentMapper::toCommentDto)
+        Map<Long, List<CommentDto>> comments = commentRepository.findLatestDtoByItemIdIn(itemIds,
+                        LATEST_COMMENTS_SIZE).stream()
+                .collect(Collectors.groupingBy(CommentDto::itemId));
+        Map<Long, Long> commentsCounts = itemRepository.findCommentsCounts(itemIds).stream()
+                .collect(Collectors.toMap(ItemCommentsCount::itemId, ItemCommentsCount::commentsCount));
+
+        return items.stream()
+                .map(item -> itemMapper.itemDtoToItemWithBookingAndCommentsDto(item, lastBookings.get(item.id()),
+                        nextBookings.get(item.id()), comments.getOrDefault(item.id(), List.of()),
+                        commentsCounts.getOrDefault(item.id(), 0L)))
                 .toList();
+    }
 
-        return itemMapper.toItemWithBookingAndCommentsDto(item, lastBookingDto, nextBookingDto, comments);
+    @Override
+    public ItemWithBookingAndCommentsDto getByIdWithBookingsAndComments(long id) {
+        return itemDetailCache.get(id, itemDetailLoader::load);
     }
 
     @Override
@@ -68,6 +142,23 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NotFoundException("Вещь " + id + " не найдена")));
     }
 
+    @Override
+    public ItemAvailabilityDto getAvailability(long itemId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new InvalidBookingDateException("Дата окончания периода должна быть не раньше даты начала");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_AVAILABILITY_DAYS) {
+            throw new InvalidBookingDateException("Период не может быть длиннее " + MAX_AVAILABILITY_DAYS + " дней");
+        }
+
+        BitSet booked = itemAvailabilityCalendar.bookedDays(itemId, from, to);
+        List<LocalDate> bookedDays = booked.stream()
+                .mapToObj(from::plusDays)
+                .toList();
+
+        return new ItemAvailabilityDto(itemId, from, to, bookedDays.isEmpty(), bookedDays);
+    }
+
     @Override
     public ItemDto create(long ownerId, ItemDto itemDto) {
         Item item = itemMapper.toItem(itemDto);
@@ -77,46 +168,117 @@ public class ItemServiceImpl implements ItemService {
             itemRequestRepository.findById(itemDto.requestId())
                     .ifPresent(item::setRequest);
         }
-        return itemMapper.toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        publishChanged(savedItem);
+        eventPublisher.publishEvent(new ItemCreatedEvent(savedItem.getId(), ownerId, savedItem.getName(),
+                savedItem.getDescription(), savedItem.getRequest() == null ? null : savedItem.getRequest().getId()));
+        return itemMapper.toItemDto(savedItem);
     }
 
     @Override
     public ItemDto update(long userId, long itemId, ItemDto itemDto) {
+        accessChecker.checkItemOwner(itemId, userId);
         Item item = getItemById(itemId);
+        applyChanges(item, itemDto.name(), itemDto.description(), itemDto.available());
 
-        if (item.getOwner().getId() != userId) {
-            throw new AccessDeniedException("Пользователь " + userId + " не является хозяином вещи");
-        }
+        itemRepository.save(item);
+        publishChanged(item);
+        return itemMapper.toItemDto(item);
+    }
+
+    @Override
+    @Transactional
+    public List<ItemUpdateResultDto> updateAll(long userId, List<ItemUpdateDto> updates) {
+        Map<Long, ItemUpdateDto> updatesById = new LinkedHashMap<>();
+        updates.forEach(update -> updatesById.putIfAbsent(update.itemId(), update));
+
+        Map<Long, Item> items = itemRepository.findAllWithOwnerByIdIn(updatesById.keySet()).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
 
-        if (itemDto.name() != null) {
-            item.setName(itemDto.name());
+        Map<Long, ItemUpdateResultDto> results = new HashMap<>();
+        List<ItemChangedEvent> changes = new ArrayList<>();
+        for (ItemUpdateDto update : updatesById.values()) {
+            Item item = items.get(update.itemId());
+            if (item == null) {
+                results.put(update.itemId(), ItemUpdateResultDto.failed(update.itemId(),
+                        "Вещь " + update.itemId() + " не найдена"));
+            } else if (item.getOwner().getId() != userId) {
+                results.put(update.itemId(), ItemUpdateResultDto.failed(update.itemId(),
+                        "Пользователь " + userId + " не является хозяином вещи"));
+            } else {
+                applyChanges(item, update.name(), update.description(), update.available());
+                results.put(update.itemId(), ItemUpdateResultDto.applied(itemMapper.toItemDto(item)));
+                changes.add(changedEvent(item));
+            }
         }
 
-        if (itemDto.description() != null) {
-            item.setDescription(itemDto.description());
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new ItemsChangedEvent(changes));
         }
 
-        if (itemDto.available() != null) {
-            item.setAvailable(itemDto.available());
+        Set<Long> answered = new HashSet<>();
+        return updates.stream()
+                .map(update -> answered.add(update.itemId()) ? results.get(update.itemId())
+                        : ItemUpdateResultDto.failed(update.itemId(),
+                        "Вещь " + update.itemId() + " указана в запросе повторно"))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public OwnerItemsAvailabilityDto setAvailabilityForOwner(long userId, boolean available) {
+        userService.getUserById(userId);
+
+        List<ItemDto> items = itemRepository.findDtoByOwnerIdAndAvailableNot(userId, available);
+        if (items.isEmpty()) {
+            return new OwnerItemsAvailabilityDto(available, 0);
         }
 
-        itemRepository.save(item);
-        return itemMapper.toItemDto(item);
+        itemRepository.updateAvailableByOwnerId(userId, available);
+        eventPublisher.publishEvent(new ItemsChangedEvent(items.stream()
+                .map(item -> new ItemChangedEvent(item.id(), userId, item.name(), item.description(), available))
+                .toList()));
+        return new OwnerItemsAvailabilityDto(available, items.size());
     }
 
     @Override
     public void delete(long id) {
         Item item = getItemById(id);
         itemRepository.delete(item);
+        accessChecker.evictItem(id);
+        eventPublisher.publishEvent(new ItemDeletedEvent(id, item.getOwner().getId()));
     }
 
     @Override
-    public List<ItemDto> searchAvailable(String searchString) {
-        if (searchString.isEmpty())
+    public List<ItemDto> searchAvailable(String searchString, int from, int size) {
+        if (searchString.isBlank())
             return List.of();
-        return itemRepository.search(searchString, true).stream()
-                .map(itemMapper::toItemDto)
+        return itemSearchCache.search(searchString, from, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAvailable(String searchString, Consumer<? super ItemDto> sink) {
+        if (!searchString.isBlank()) {
+            itemSearchCache.stream(searchString, sink);
+        }
+    }
+
+    @Override
+    public List<ItemSuggestionDto> autocomplete(String prefix, int size) {
+        if (prefix.isBlank())
+            return List.of();
+        return itemAutocompleteIndex.suggest(prefix, size);
+    }
+
+    @Override
+    public ItemFacetSearchDto searchByFacets(ItemFacetFilter filter, int from, int size) {
+        ItemFacetPage page = itemFacetIndex.search(filter, from, size);
+        List<ItemDto> items = page.itemIds().isEmpty() ? List.of()
+                : itemRepository.findDtoByIdIn(page.itemIds()).stream()
+                .sorted(Comparator.comparingLong(ItemDto::id))
                 .toList();
+        return new ItemFacetSearchDto(page.total(), items, page.counts());
     }
 
     @Override
@@ -126,16 +288,37 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    public CursorPage<CommentDto> getComments(long itemId, String cursor, int size) {
+        List<CommentDto> comments;
+        if (cursor == null) {
+            comments = commentRepository.findLatestDtoByItemId(itemId, size + 1);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            comments = commentRepository.findDtoByItemIdBefore(itemId, position.timestamp(), position.id(), size + 1);
+        }
+
+        if (comments.isEmpty() && !itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь " + itemId + " не найдена");
+        }
+        if (comments.size() <= size) {
+            return new CursorPage<>(comments, null);
+        }
+
+        List<CommentDto> page = comments.subList(0, size);
+        return new CursorPage<>(List.copyOf(page), new Cursor(page.getLast().created(), page.getLast().id()).encode());
+    }
+
+    @Override
+    @Transactional
     public CommentDto addComment(long itemId, long authorId, String text) {
         User author = userService.getUserById(authorId);
         Item item = getItemById(itemId);
 
-        bookingRepository.findAllByBooker_IdAndEndIsBefore(author.getId(), LocalDateTime.now(), Sort.by("end"))
-                .stream()
-                .filter(booking -> booking.getItem().getId() == item.getId())
-                .findFirst()
-                .orElseThrow(() -> new InvalidAddCommentRequestException("У пользователя " + author.getId() +
-                        " нет завершённых бронирований вещи " + item.getId()));
+        if (!bookingRepository.existsByBooker_IdAndItem_IdAndStatusAndEndBefore(author.getId(), item.getId(),
+                BookingStatus.APPROVED, LocalDateTime.now())) {
+            throw new InvalidAddCommentRequestException("У пользователя " + author.getId() +
+                    " нет завершённых бронирований вещи " + item.getId());
+        }
 
         Comment comment = new Comment();
         comment.setText(text);
@@ -143,6 +326,32 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(author);
         comment.setCreated(LocalDateTime.now());
 
-        return commentMapper.toCommentDto(commentRepository.save(comment));
+        Comment savedComment = commentRepository.save(comment);
+        itemRepository.incrementCommentsCount(item.getId());
+        eventPublisher.publishEvent(new CommentAddedEvent(savedComment.getId(), item.getId()));
+        return commentMapper.toCommentDto(savedComment);
+    }
+
+    private static void applyChanges(Item item, String name, String description, Boolean available) {
+        if (name != null) {
+            item.setName(name);
+        }
+
+        if (description != null) {
+            item.setDescription(description);
+        }
+
+        if (available != null) {
+            item.setAvailable(available);
+        }
+    }
+
+    private void publishChanged(Item item) {
+        eventPublisher.publishEvent(changedEvent(item));
+    }
+
+    private static ItemChangedEvent changedEvent(Item item) {
+        return new ItemChangedEvent(item.getId(), item.getOwner().getId(), item.getName(), item.getDescription(),
+                item.isAvailable());
     }
 }
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.autocomplete;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.indexing.RebuildableIndex;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Подсказки по названиям доступных вещей. Индекс строится из БД при старте приложения, затем обновляется
+ * событиями изменения вещей и бронирований; сами подсказки выдаются без обращения к БД.
+ * Вещи ранжируются по числу подтверждённых бронирований. Подтверждение, пришедшее во время перестроения индекса,
+ * может быть учтено дважды; это сказывается только на порядке подсказок до следующего перестроения.
+ */
+@Component
+@Slf4j
+public class ItemAutocompleteIndex {
+    private final ItemRepository itemRepository;
+    private final int maxSuggestions;
+    private final RebuildableIndex<Suggestions> index;
+
+    public ItemAutocompleteIndex(ItemRepository itemRepository,
+                                 @Value("${shareit.autocomplete.max-suggestions:10}") int maxSuggestions) {
+        this.itemRepository = itemRepository;
+        this.maxSuggestions = maxSuggestions;
+        this.index = new RebuildableIndex<>(new Suggestions(new SuggestionTrie(maxSuggestions), new HashMap<>()));
+    }
+
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        String normalized = SuggestionTrie.normalize(prefix);
+        return index.read(suggestions -> suggestions.trie().find(normalized, Math.min(limit, maxSuggestions)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Suggestions rebuilt = index.rebuild(() -> {
+            Suggestions suggestions = new Suggestions(new SuggestionTrie(maxSuggestions), new HashMap<>());
+            for (ItemPopularity item : itemRepository.findPopularity()) {
+                suggestions.approvedBookings().put(item.itemId(), item.approvedBookings());
+                if (item.available()) {
+                    suggestions.trie().put(item.itemId(), item.name(), item.approvedBookings());
+                }
+            }
+            return suggestions;
+        });
+        log.info("Построен индекс подсказок: {} вещей", rebuilt.trie().size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        index.update(suggestions -> {
+            if (event.available()) {
+                suggestions.trie().put(event.itemId(), event.name(),
+                        suggestions.approvedBookings().getOrDefault(event.itemId(), 0L));
+            } else {
+                suggestions.trie().remove(event.itemId());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        index.update(suggestions -> {
+            suggestions.trie().remove(event.itemId());
+            suggestions.approvedBookings().remove(event.itemId());
+        });
+    }
+
+    @TransactionalEventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        boolean approved = event.status() == BookingStatus.APPROVED;
+        boolean wasApproved = event.previousStatus() == BookingStatus.APPROVED;
+        if (approved == wasApproved) {
+            return;
+        }
+
+        index.update(suggestions -> {
+            long count = suggestions.approvedBookings().merge(event.itemId(), approved ? 1L : -1L, Long::sum);
+            suggestions.trie().updatePopularity(event.itemId(), count);
+        });
+    }
+
+    private record Suggestions(SuggestionTrie trie, Map<Long, Long> approvedBookings) {
+    }
+}
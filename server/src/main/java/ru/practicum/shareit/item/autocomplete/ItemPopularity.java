@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.autocomplete;
+
+public record ItemPopularity(long itemId, String name, boolean available, long approvedBookings) {
+}
@@ -0,0 +1,197 @@
+package ru.practicum.shareit.item.autocomplete;
+
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Префиксное дерево названий вещей. Ключами служат нормализованное название и все его хвосты, начинающиеся
+ * с очередного слова, поэтому префикс находит вещь по началу любого слова названия. В каждом узле хранится
+ * готовый список лучших подсказок поддерева, так что поиск сводится к спуску по префиксу.
+ * Класс не потокобезопасен.
+ */
+final class SuggestionTrie {
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::popularity).reversed()
+            .thenComparing(Entry::name)
+            .thenComparingLong(Entry::itemId);
+
+    private final int maxSuggestions;
+    private final Node root = new Node();
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    SuggestionTrie(int maxSuggestions) {
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    void put(long itemId, String name, long popularity) {
+        remove(itemId);
+        Entry entry = new Entry(itemId, name, popularity);
+        entries.put(itemId, entry);
+        for (String key : keys(name)) {
+            insert(key, entry);
+        }
+    }
+
+    void remove(long itemId) {
+        Entry entry = entries.remove(itemId);
+        if (entry == null) {
+            return;
+        }
+        for (String key : keys(entry.name())) {
+            delete(key, entry);
+        }
+    }
+
+    void updatePopularity(long itemId, long popularity) {
+        Entry entry = entries.get(itemId);
+        if (entry != null && entry.popularity() != popularity) {
+            put(itemId, entry.name(), popularity);
+        }
+    }
+
+    List<ItemSuggestionDto> find(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        return Arrays.stream(node.top)
+                .limit(limit)
+                .map(entry -> new ItemSuggestionDto(entry.itemId(), entry.name()))
+                .toList();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    static String normalize(String text) {
+        return text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> keys(String name) {
+        String normalized = normalize(name);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    private void insert(String key, Entry entry) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].childOrCreate(key.charAt(i));
+        }
+        path[key.length()].terminals.add(entry);
+        for (int i = key.length(); i >= 0; i--) {
+            refreshTop(path[i]);
+        }
+    }
+
+    private void delete(String key, Entry entry) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+        }
+        path[key.length()].terminals.remove(entry);
+        for (int i = key.length(); i >= 0; i--) {
+            if (i > 0 && path[i].isEmpty()) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+            } else {
+                refreshTop(path[i]);
+            }
+        }
+    }
+
+    private void refreshTop(Node node) {
+        List<Entry> candidates = new ArrayList<>(node.terminals);
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        node.top = candidates.stream()
+                .distinct()
+                .sorted(RANKING)
+                .limit(maxSuggestions)
+                .toArray(Entry[]::new);
+    }
+
+    private record Entry(long itemId, String name, long popularity) {
+    }
+
+    /**
+     * Узел хранит метки и потомков в отсортированных массивах: для коротких списков это компактнее хеш-таблицы.
+     */
+    private static final class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Entry[] NO_ENTRIES = new Entry[0];
+
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        List<Entry> terminals = new ArrayList<>(0);
+        Entry[] top = NO_ENTRIES;
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            int insertAt = -index - 1;
+            Node child = new Node();
+            labels = insert(labels, insertAt, label);
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newChildren[insertAt] = child;
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return children.length == 0 && terminals.isEmpty();
+        }
+
+        private static char[] insert(char[] array, int index, char value) {
+            char[] result = new char[array.length + 1];
+            System.arraycopy(array, 0, result, 0, index);
+            result[index] = value;
+            System.arraycopy(array, index, result, index + 1, array.length - index);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item.detail;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Кэш карточек вещей с ближайшими бронированиями и последними комментариями. Запись сбрасывается событиями
+ * об изменении вещи, её комментариев, подтверждённых бронирований и пользователей, чьи данные входят в
+ * карточку. Кроме того, запись живёт только до начала следующего бронирования: в этот момент оно
+ * становится последним, и карточку нужно собрать заново.
+ */
+@Component
+public class ItemDetailCache {
+    private static final long MAX_SECONDS = Long.MAX_VALUE / 1_000_000_000L;
+
+    private final Cache<Long, ItemWithBookingAndCommentsDto> details;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemDetailCache(MeterRegistry meterRegistry,
+                           @Value("${shareit.item.details.cache.max-size:10000}") long maxSize) {
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilNextBooking())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, "shareit.item.details");
+    }
+
+    public ItemWithBookingAndCommentsDto get(long itemId, LongFunction<ItemWithBookingAndCommentsDto> loader) {
+        ItemWithBookingAndCommentsDto cached = details.getIfPresent(itemId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long startedAt = generation.get();
+        ItemWithBookingAndCommentsDto loaded = loader.apply(itemId);
+        details.put(itemId, loaded);
+        if (generation.get() != startedAt) {
+            // Пока карточка собиралась, пришло событие: сброс мог пройти раньше, чем она попала в кэш
+            details.invalidate(itemId);
+        }
+        return loaded;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        details.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidate(event.itemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        invalidate(event.itemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentAdded(CommentAddedEvent event) {
+        invalidate(event.itemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        // В карточку попадают только подтверждённые бронирования
+        if (event.status() == BookingStatus.APPROVED || event.previousStatus() == BookingStatus.APPROVED) {
+            invalidate(event.itemId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        // Имя пользователя может входить в любую карточку: как владельца, арендатора или автора комментария
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidateAll();
+    }
+
+    private void invalidate(long itemId) {
+        generation.incrementAndGet();
+        details.invalidate(itemId);
+    }
+
+    private static final class UntilNextBooking implements Expiry<Long, ItemWithBookingAndCommentsDto> {
+        @Override
+        public long expireAfterCreate(Long itemId, ItemWithBookingAndCommentsDto item, long currentTime) {
+            if (item.nextBooking() == null) {
+                return Long.MAX_VALUE;
+            }
+
+            Duration untilStart = Duration.between(LocalDateTime.now(), item.nextBooking().getStart());
+            if (untilStart.isNegative()) {
+                return 0;
+            }
+            return untilStart.getSeconds() >= MAX_SECONDS ? Long.MAX_VALUE : untilStart.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long itemId, ItemWithBookingAndCommentsDto item, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(itemId, item, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long itemId, ItemWithBookingAndCommentsDto item, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record ItemAvailabilityDto(long itemId, LocalDate from, LocalDate to, boolean available,
+                                  List<LocalDate> bookedDays) {
+}
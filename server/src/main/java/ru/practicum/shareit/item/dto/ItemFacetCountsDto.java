@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.Map;
+
+public record ItemFacetCountsDto(long available, long openRequest, long bookedSoon, long hasComments,
+                                 Map<Long, Long> owners) {
+}
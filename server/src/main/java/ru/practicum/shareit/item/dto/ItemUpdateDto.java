@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.dto;
+
+public record ItemUpdateDto(long itemId, String name, String description, Boolean available) {
+}
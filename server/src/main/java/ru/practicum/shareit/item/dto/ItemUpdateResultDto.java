@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dto;
+
+public record ItemUpdateResultDto(long itemId, ItemDto item, String error) {
+    public static ItemUpdateResultDto applied(ItemDto item) {
+        return new ItemUpdateResultDto(item.id(), item, null);
+    }
+
+    public static ItemUpdateResultDto failed(long itemId, String error) {
+        return new ItemUpdateResultDto(itemId, null, error);
+    }
+}
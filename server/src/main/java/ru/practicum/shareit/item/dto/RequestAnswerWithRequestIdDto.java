@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Ответ на запрос вместе с id запроса, по которому ответы группируются после общей выборки.
+ */
+public interface RequestAnswerWithRequestIdDto extends RequestAnswerDto {
+    @JsonIgnore
+    long getRequestId();
+}
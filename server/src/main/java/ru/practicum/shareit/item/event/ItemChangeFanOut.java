@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Раздаёт массовые изменения вещей слушателям {@link ItemChangedEvent}. Событие по каждой вещи публикуется перед
+ * фиксацией транзакции, поэтому слушатели получают его после фиксации в том же потоке и в том же порядке, что
+ * и изменения отдельных вещей. Раздача в отдельном потоке могла применить устаревший снимок вещи поверх её
+ * более позднего изменения или удаления.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemChangeFanOut {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onItemsChanged(ItemsChangedEvent event) {
+        event.items().forEach(eventPublisher::publishEvent);
+        log.debug("Разосланы изменения {} вещей", event.items().size());
+    }
+}
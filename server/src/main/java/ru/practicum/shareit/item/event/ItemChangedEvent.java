@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.event;
+
+public record ItemChangedEvent(long itemId, long ownerId, String name, String description, boolean available) {
+}
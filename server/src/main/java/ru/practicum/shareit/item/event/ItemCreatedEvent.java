@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.event;
+
+public record ItemCreatedEvent(long itemId, long ownerId, String name, String description, Long requestId) {
+}
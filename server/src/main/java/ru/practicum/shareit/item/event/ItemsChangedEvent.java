@@ -0,0 +1,6 @@
+package ru.practicum.shareit.item.event;
+
+import java.util.List;
+
+public record ItemsChangedEvent(List<ItemChangedEvent> items) {
+}
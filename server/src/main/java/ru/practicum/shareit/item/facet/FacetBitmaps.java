@@ -0,0 +1,229 @@
+package ru.practicum.shareit.item.facet;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import ru.practicum.shareit.item.dto.ItemFacetCountsDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Сжатые битовые карты id вещей по значениям фасетов. Фильтр вычисляется пересечением карт, количество вещей
+ * по фасетам — мощностью пересечения с результатом, без обхода самих вещей. Карты 32-битные: вещи с id больше
+ * {@link Integer#MAX_VALUE} в индекс не попадают, {@link #putItem} сообщает об этом результатом.
+ * Ожидающие решения бронирования хранятся по id, а не счётчиком, чтобы повторное применение изменения
+ * ничего не ломало.
+ * Класс не потокобезопасен.
+ */
+final class FacetBitmaps {
+    private static final int MAX_OWNER_COUNTS = 10;
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final RoaringBitmap available = new RoaringBitmap();
+    private final RoaringBitmap openRequest = new RoaringBitmap();
+    private final RoaringBitmap hasComments = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byOwner = new HashMap<>();
+    private final Map<Integer, Long> ownerByItem = new HashMap<>();
+    private final Map<Long, Set<Long>> waitingBookings = new HashMap<>();
+    private RoaringBitmap bookedSoon = new RoaringBitmap();
+
+    /**
+     * Добавляет или обновляет вещь; возвращает false, если id вещи не помещается в индекс.
+     */
+    boolean putItem(long itemId, long ownerId, boolean isAvailable) {
+        if (!fits(itemId)) {
+            return false;
+        }
+
+        int id = (int) itemId;
+        Long previousOwner = ownerByItem.put(id, ownerId);
+        if (previousOwner != null && previousOwner != ownerId) {
+            removeOwned(previousOwner, id);
+        }
+        all.add(id);
+        byOwner.computeIfAbsent(ownerId, key -> new RoaringBitmap()).add(id);
+        set(available, id, isAvailable);
+        return true;
+    }
+
+    void removeItem(long itemId) {
+        if (!fits(itemId)) {
+            return;
+        }
+
+        int id = (int) itemId;
+        all.remove(id);
+        available.remove(id);
+        openRequest.remove(id);
+        hasComments.remove(id);
+        bookedSoon.remove(id);
+        waitingBookings.remove(itemId);
+
+        Long ownerId = ownerByItem.remove(id);
+        if (ownerId != null) {
+            removeOwned(ownerId, id);
+        }
+    }
+
+    void addWaitingBooking(long itemId, long bookingId) {
+        if (!fits(itemId)) {
+            return;
+        }
+
+        waitingBookings.computeIfAbsent(itemId, key -> new HashSet<>()).add(bookingId);
+        openRequest.add((int) itemId);
+    }
+
+    void removeWaitingBooking(long itemId, long bookingId) {
+        Set<Long> bookingIds = waitingBookings.get(itemId);
+        if (bookingIds == null) {
+            return;
+        }
+
+        bookingIds.remove(bookingId);
+        if (bookingIds.isEmpty()) {
+            waitingBookings.remove(itemId);
+            openRequest.remove((int) itemId);
+        }
+    }
+
+    void setHasComments(long itemId) {
+        if (fits(itemId)) {
+            hasComments.add((int) itemId);
+        }
+    }
+
+    void setBookedSoon(long itemId, boolean isBookedSoon) {
+        if (fits(itemId)) {
+            set(bookedSoon, (int) itemId, isBookedSoon);
+        }
+    }
+
+    void replaceBookedSoon(Iterable<Long> itemIds) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (long itemId : itemIds) {
+            if (fits(itemId)) {
+                bitmap.add((int) itemId);
+            }
+        }
+        bitmap.and(all);
+        bitmap.runOptimize();
+        bookedSoon = bitmap;
+    }
+
+    boolean contains(long itemId) {
+        return fits(itemId) && all.contains((int) itemId);
+    }
+
+    static boolean fits(long itemId) {
+        return itemId >= 0 && itemId <= Integer.MAX_VALUE;
+    }
+
+    void optimize() {
+        all.runOptimize();
+        available.runOptimize();
+        openRequest.runOptimize();
+        hasComments.runOptimize();
+        bookedSoon.runOptimize();
+        byOwner.values().forEach(RoaringBitmap::runOptimize);
+    }
+
+    ItemFacetPage search(ItemFacetFilter filter, int from, int size) {
+        RoaringBitmap result = all.clone();
+        if (filter.ownerId() != null) {
+            result.and(byOwner.getOrDefault(filter.ownerId(), EMPTY));
+        }
+        apply(result, available, filter.available());
+        apply(result, openRequest, filter.openRequest());
+        apply(result, bookedSoon, filter.bookedSoon());
+        apply(result, hasComments, filter.hasComments());
+
+        ItemFacetCountsDto counts = new ItemFacetCountsDto(
+                RoaringBitmap.andCardinality(result, available),
+                RoaringBitmap.andCardinality(result, openRequest),
+                RoaringBitmap.andCardinality(result, bookedSoon),
+                RoaringBitmap.andCardinality(result, hasComments),
+                countOwners(result, filter.ownerId()));
+        return new ItemFacetPage(page(result, from, size), result.getLongCardinality(), counts);
+    }
+
+    private Map<Long, Long> countOwners(RoaringBitmap result, Long ownerId) {
+        Map<Long, Long> counts = new HashMap<>();
+        long resultSize = result.getLongCardinality();
+        if (resultSize == 0) {
+            return counts;
+        }
+        if (ownerId != null) {
+            // Результат уже ограничен вещами владельца
+            counts.put(ownerId, resultSize);
+        } else if (resultSize <= byOwner.size()) {
+            // Вещей в результате меньше, чем владельцев: дешевле пройти по самим вещам
+            result.forEach((int id) -> counts.merge(ownerByItem.get(id), 1L, Long::sum));
+        } else {
+            byOwner.forEach((owner, owned) -> {
+                long count = RoaringBitmap.andCardinality(result, owned);
+                if (count > 0) {
+                    counts.put(owner, count);
+                }
+            });
+        }
+
+        Map<Long, Long> topOwners = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())))
+                .limit(MAX_OWNER_COUNTS)
+                .forEach(entry -> topOwners.put(entry.getKey(), entry.getValue()));
+        return topOwners;
+    }
+
+    private static List<Long> page(RoaringBitmap result, int from, int size) {
+        List<Long> itemIds = new ArrayList<>();
+        if (from >= result.getLongCardinality()) {
+            return itemIds;
+        }
+
+        PeekableIntIterator iterator = result.getIntIterator();
+        iterator.advanceIfNeeded(result.select(from));
+        while (iterator.hasNext() && itemIds.size() < size) {
+            itemIds.add((long) iterator.next());
+        }
+        return itemIds;
+    }
+
+    private static void apply(RoaringBitmap result, RoaringBitmap facet, Boolean value) {
+        if (value == null) {
+            return;
+        }
+        if (value) {
+            result.and(facet);
+        } else {
+            result.andNot(facet);
+        }
+    }
+
+    private void removeOwned(long ownerId, int id) {
+        RoaringBitmap owned = byOwner.get(ownerId);
+        if (owned != null) {
+            owned.remove(id);
+            if (owned.isEmpty()) {
+                byOwner.remove(ownerId);
+            }
+        }
+    }
+
+    private static void set(RoaringBitmap bitmap, int id, boolean value) {
+        if (value) {
+            bitmap.add(id);
+        } else {
+            bitmap.remove(id);
+        }
+    }
+}
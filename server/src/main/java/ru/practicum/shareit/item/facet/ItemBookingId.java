@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.facet;
+
+public record ItemBookingId(long itemId, long bookingId) {
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.facet;
+
+/**
+ * Условия фасетного поиска; значение null означает, что фасет не ограничивает выборку.
+ */
+public record ItemFacetFilter(Long ownerId, Boolean available, Boolean openRequest, Boolean bookedSoon,
+                              Boolean hasComments) {
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.item.facet;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.indexing.RebuildableIndex;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Фасеты вещей: владелец, доступность, наличие ожидающих решения запросов на бронирование, подтверждённое
+ * бронирование в ближайшие дни и наличие отзывов. Карты строятся из БД при старте приложения и обновляются
+ * событиями изменения вещей, бронирований и отзывов. Окно «ближайших дней» сдвигается со временем, поэтому
+ * этот фасет дополнительно пересчитывается по расписанию. События, пришедшие во время перестроения,
+ * повторяются на новых картах.
+ */
+@Component
+@Slf4j
+public class ItemFacetIndex {
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final Duration bookedSoonWindow;
+    private final RebuildableIndex<FacetBitmaps> index = new RebuildableIndex<>(new FacetBitmaps());
+
+    public ItemFacetIndex(ItemRepository itemRepository,
+                          BookingRepository bookingRepository,
+                          CommentRepository commentRepository,
+                          @Value("${shareit.facets.booked-soon-window:P7D}") Duration bookedSoonWindow) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.bookedSoonWindow = bookedSoonWindow;
+    }
+
+    public ItemFacetPage search(ItemFacetFilter filter, int from, int size) {
+        return index.read(bitmaps -> bitmaps.search(filter, from, size));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        index.rebuild(() -> {
+            FacetBitmaps bitmaps = new FacetBitmaps();
+            for (ItemFacetSource item : itemRepository.findFacetSources()) {
+                putItem(bitmaps, item.itemId(), item.ownerId(), item.available());
+            }
+            for (ItemBookingId waiting : bookingRepository.findItemBookingIdsByStatus(BookingStatus.WAITING)) {
+                bitmaps.addWaitingBooking(waiting.itemId(), waiting.bookingId());
+            }
+            commentRepository.findCommentedItemIds().forEach(bitmaps::setHasComments);
+            bitmaps.replaceBookedSoon(findBookedSoonItemIds());
+            bitmaps.optimize();
+            return bitmaps;
+        });
+        log.info("Построены фасеты вещей");
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.facets.booked-soon-refresh:PT1H}")
+    public void refreshBookedSoon() {
+        List<Long> itemIds = findBookedSoonItemIds();
+        index.update(bitmaps -> bitmaps.replaceBookedSoon(itemIds));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        index.update(bitmaps -> putItem(bitmaps, event.itemId(), event.ownerId(), event.available()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        index.update(bitmaps -> bitmaps.removeItem(event.itemId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentAdded(CommentAddedEvent event) {
+        index.update(bitmaps -> bitmaps.setHasComments(event.itemId()));
+    }
+
+    @TransactionalEventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        boolean waitingChanged = event.status() != event.previousStatus()
+                && (event.status() == BookingStatus.WAITING || event.previousStatus() == BookingStatus.WAITING);
+        Boolean bookedSoon = null;
+        if (event.status() == BookingStatus.APPROVED) {
+            if (isBookedSoon(event)) {
+                bookedSoon = true;
+            }
+        } else if (event.previousStatus() == BookingStatus.APPROVED) {
+            // У вещи может остаться другое подтверждённое бронирование в том же окне
+            LocalDateTime now = LocalDateTime.now();
+            bookedSoon = bookingRepository.existsApprovedOverlap(event.itemId(), now, now.plus(bookedSoonWindow),
+                    event.bookingId());
+        }
+        if (!waitingChanged && bookedSoon == null) {
+            return;
+        }
+
+        Boolean isBookedSoon = bookedSoon;
+        index.update(bitmaps -> {
+            if (event.status() == BookingStatus.WAITING) {
+                bitmaps.addWaitingBooking(event.itemId(), event.bookingId());
+            } else if (event.previousStatus() == BookingStatus.WAITING) {
+                bitmaps.removeWaitingBooking(event.itemId(), event.bookingId());
+            }
+            if (isBookedSoon != null) {
+                bitmaps.setBookedSoon(event.itemId(), isBookedSoon);
+            }
+        });
+    }
+
+    private static void putItem(FacetBitmaps target, long itemId, long ownerId, boolean available) {
+        if (!target.putItem(itemId, ownerId, available)) {
+            log.warn("Вещь {} не добавлена в фасеты: id больше {}", itemId, Integer.MAX_VALUE);
+        }
+    }
+
+    private boolean isBookedSoon(BookingStatusChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        return event.start().isBefore(now.plus(bookedSoonWindow)) && event.end().isAfter(now);
+    }
+
+    private List<Long> findBookedSoonItemIds() {
+        LocalDateTime now = LocalDateTime.now();
+        return bookingRepository.findItemIdsWithApprovedBookingBetween(now, now.plus(bookedSoonWindow));
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.facet;
+
+import ru.practicum.shareit.item.dto.ItemFacetCountsDto;
+
+import java.util.List;
+
+public record ItemFacetPage(List<Long> itemIds, long total, ItemFacetCountsDto counts) {
+}
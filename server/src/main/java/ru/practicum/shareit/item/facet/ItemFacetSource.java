@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.facet;
+
+public record ItemFacetSource(long itemId, long ownerId, boolean available) {
+}
@@ -18,6 +18,7 @@ public interface ItemMapper {
 
     @Mapping(target = "request", ignore = true)
     @Mapping(target = "owner", ignore = true)
+    @Mapping(target = "commentsCount", ignore = true)
     Item toItem(ItemDto itemDto);
 
     @Mapping(target = "requestId", source = "item.request.id")
@@ -25,4 +26,10 @@ public interface ItemMapper {
     ItemWithBookingAndCommentsDto toItemWithBookingAndCommentsDto(Item item, BookingDto lastBooking,
                                                                   BookingDto nextBooking,
                                                                   List<CommentDto> comments);
+
+    @Mapping(target = "id", source = "item.id")
+    ItemWithBookingAndCommentsDto itemDtoToItemWithBookingAndCommentsDto(ItemDto item, BookingDto lastBooking,
+                                                                         BookingDto nextBooking,
+                                                                         List<CommentDto> comments,
+                                                                         long commentsCount);
 }
@@ -35,4 +35,11 @@ public class Item {
     @ManyToOne
     @JoinColumn(name = "request_id")
     ItemRequest request;
+
+    /**
+     * Число отзывов о вещи. Обновляется только запросом {@link ru.practicum.shareit.item.ItemRepository}
+     * при добавлении отзыва, поэтому при сохранении вещи не перезаписывается.
+     */
+    @Column(name = "comments_count", insertable = false, updatable = false)
+    long commentsCount;
 }
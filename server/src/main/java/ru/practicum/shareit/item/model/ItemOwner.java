@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.model;
+
+public record ItemOwner(long itemId, long ownerId) {
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.item.model;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+public record ItemWithBookings(Item item, Booking lastBooking, Booking nextBooking) {
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Полнотекстовый поиск по колонке items.search_vector с GIN-индексом (см. schema-postgresql.sql).
+ * Запрос разбирается в русской и английской конфигурациях, результаты упорядочены по релевантности.
+ * На других СУБД, например H2 в тестах, поиск откатывается к сравнению по подстроке.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "fulltext")
+@Slf4j
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private static final String POSTGRESQL = "PostgreSQL";
+    private static final int SHARED_PREFIX_LENGTH = 3;
+    private static final String SEARCH_SQL = """
+            select i.id, i.name, i.description, i.available, i.request_id
+            from items i,
+                 (select websearch_to_tsquery('russian', :text) || websearch_to_tsquery('english', :text) as query) q
+            where i.available = 1 and i.search_vector @@ q.query
+            order by ts_rank_cd(i.search_vector, q.query) desc, i.id
+            limit :size offset :from""";
+    private static final String STREAM_SQL = """
+            select i.id, i.name, i.description, i.available, i.request_id
+            from items i,
+                 (select websearch_to_tsquery('russian', ?) || websearch_to_tsquery('english', ?) as query) q
+            where i.available = 1 and i.search_vector @@ q.query
+            order by ts_rank_cd(i.search_vector, q.query) desc, i.id""";
+    private static final RowMapper<ItemDto> ITEM_DTO_MAPPER = (rs, rowNum) -> new ItemDto(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("description"),
+            rs.getInt("available") == 1,
+            rs.getObject("request_id", Long.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ItemRepository itemRepository;
+    private final boolean fullTextSupported;
+
+    public FullTextItemSearchEngine(NamedParameterJdbcTemplate jdbcTemplate, ItemRepository itemRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.itemRepository = itemRepository;
+        this.fullTextSupported = POSTGRESQL.equals(jdbcTemplate.getJdbcTemplate()
+                .execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+
+        if (!fullTextSupported) {
+            log.warn("Полнотекстовый поиск доступен только в PostgreSQL, используется поиск по подстроке");
+        }
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        if (!fullTextSupported) {
+            return itemRepository.searchAvailable(text, from, size);
+        }
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("text", text)
+                .addValue("from", from)
+                .addValue("size", size);
+        return jdbcTemplate.query(SEARCH_SQL, parameters, ITEM_DTO_MAPPER);
+    }
+
+    /**
+     * Результат читается одним запросом без LIMIT/OFFSET: драйвер PostgreSQL получает строки порциями
+     * по {@link #STREAM_PAGE_SIZE} через курсор, который работает только внутри транзакции.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void stream(String text, Consumer<? super ItemDto> sink) {
+        if (!fullTextSupported) {
+            try (Stream<ItemDto> items = itemRepository.streamAvailable(text)) {
+                items.forEach(sink);
+            }
+            return;
+        }
+
+        jdbcTemplate.getJdbcTemplate().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(STREAM_SQL);
+            statement.setString(1, text);
+            statement.setString(2, text);
+            statement.setFetchSize(STREAM_PAGE_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> sink.accept(ITEM_DTO_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * Стемминг PostgreSQL здесь не воспроизводится. Основа слова может быть заметно короче самого слова
+     * («палатками» и «палатку», «running» и «run»), поэтому подстрокой ищутся только первые три буквы слова запроса.
+     * Каждая конфигурация websearch_to_tsquery требует всех слов запроса, но стоп-слова из запроса выбрасываются,
+     * а какие слова стоп-слова, здесь не известно; поэтому достаточно совпадения по любому слову.
+     */
+    @Override
+    public boolean matches(String text, String name, String description) {
+        if (!fullTextSupported) {
+            return LikeItemSearchEngine.containsIgnoreCase(name, text)
+                    || LikeItemSearchEngine.containsIgnoreCase(description, text);
+        }
+
+        return Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word.substring(0, Math.min(word.length(), SHARED_PREFIX_LENGTH)))
+                .anyMatch(prefix -> LikeItemSearchEngine.containsIgnoreCase(name, prefix)
+                        || LikeItemSearchEngine.containsIgnoreCase(description, prefix));
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.indexing.RebuildableIndex;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Поиск с учётом опечаток по словам названий и описаний доступных вещей. Индекс {@link FuzzyTermIndex}
+ * строится из БД при старте приложения и обновляется событиями изменения вещей; из БД читается только
+ * найденная страница.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "fuzzy")
+@Slf4j
+public class FuzzyItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final RebuildableIndex<FuzzyTermIndex> index = new RebuildableIndex<>(new FuzzyTermIndex());
+
+    public FuzzyItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        List<Long> found = index.read(termIndex -> termIndex.search(text));
+
+        List<Long> page = found.stream()
+                .skip(from)
+                .limit(size)
+                .toList();
+        if (page.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> positions = IntStream.range(0, page.size())
+                .boxed()
+                .collect(Collectors.toMap(page::get, Function.identity()));
+        return itemRepository.findDtoByIdIn(page).stream()
+                .sorted(Comparator.comparing(item -> positions.get(item.id())))
+                .toList();
+    }
+
+    @Override
+    public boolean matches(String text, String name, String description) {
+        FuzzyTermIndex itemIndex = new FuzzyTermIndex();
+        itemIndex.put(0, name, description);
+        return !itemIndex.search(text).isEmpty();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        FuzzyTermIndex newIndex = index.rebuild(() -> {
+            FuzzyTermIndex termIndex = new FuzzyTermIndex();
+            for (ItemDto item : itemRepository.findAllAvailableDto()) {
+                termIndex.put(item.id(), item.name(), item.description());
+            }
+            return termIndex;
+        });
+        log.info("Построен индекс поиска с опечатками: {} вещей", newIndex.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        index.update(termIndex -> {
+            if (event.available()) {
+                termIndex.put(event.itemId(), event.name(), event.description());
+            } else {
+                termIndex.remove(event.itemId());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        index.update(termIndex -> termIndex.remove(event.itemId()));
+    }
+}
@@ -0,0 +1,199 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Инвертированный индекс слов из названий и описаний вещей с поиском по расстоянию Левенштейна.
+ * Кандидаты для сравнения отбираются по общим триграммам: каждая правка разрушает не более трёх триграмм
+ * слова, поэтому слова с малым числом общих триграмм отбрасываются без вычисления расстояния.
+ * Слова, начинающиеся с искомого, считаются точным совпадением. Класс не потокобезопасен.
+ */
+final class FuzzyTermIndex {
+    private static final char BOUNDARY = '$';
+    private static final int EXACT = 0;
+
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    private final Map<Long, Set<String>> termsByItem = new HashMap<>();
+
+    void put(long itemId, String... texts) {
+        remove(itemId);
+        Set<String> terms = new HashSet<>();
+        for (String text : texts) {
+            terms.addAll(terms(text));
+        }
+        termsByItem.put(itemId, terms);
+
+        for (String term : terms) {
+            postings.computeIfAbsent(term, key -> {
+                for (String trigram : trigrams(key)) {
+                    termsByTrigram.computeIfAbsent(trigram, ignored -> new HashSet<>()).add(key);
+                }
+                return new HashSet<>();
+            }).add(itemId);
+        }
+    }
+
+    void remove(long itemId) {
+        Set<String> terms = termsByItem.remove(itemId);
+        if (terms == null) {
+            return;
+        }
+
+        for (String term : terms) {
+            Set<Long> itemIds = postings.get(term);
+            itemIds.remove(itemId);
+            if (itemIds.isEmpty()) {
+                postings.remove(term);
+                for (String trigram : trigrams(term)) {
+                    Set<String> trigramTerms = termsByTrigram.get(trigram);
+                    trigramTerms.remove(term);
+                    if (trigramTerms.isEmpty()) {
+                        termsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает вещи, в которых найдено каждое слово запроса с допустимым числом опечаток, упорядоченные
+     * по суммарному числу опечаток, затем по id.
+     */
+    List<Long> search(String text) {
+        Map<Long, Integer> distances = null;
+        for (String queryTerm : new HashSet<>(terms(text))) {
+            Map<Long, Integer> termDistances = match(queryTerm);
+            if (distances == null) {
+                distances = termDistances;
+            } else {
+                distances.keySet().retainAll(termDistances.keySet());
+                distances.replaceAll((itemId, distance) -> distance + termDistances.get(itemId));
+            }
+            if (distances.isEmpty()) {
+                return List.of();
+            }
+        }
+        if (distances == null) {
+            return List.of();
+        }
+
+        Map<Long, Integer> result = distances;
+        return result.keySet().stream()
+                .sorted(Comparator.comparing((Long itemId) -> result.get(itemId))
+                        .thenComparing(Comparator.naturalOrder()))
+                .toList();
+    }
+
+    int size() {
+        return termsByItem.size();
+    }
+
+    private Map<Long, Integer> match(String queryTerm) {
+        Map<Long, Integer> distances = new HashMap<>();
+        for (Set<Long> itemIds : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).values()) {
+            itemIds.forEach(itemId -> distances.put(itemId, EXACT));
+        }
+
+        int maxDistance = maxDistance(queryTerm);
+        if (maxDistance == EXACT) {
+            return distances;
+        }
+
+        for (String term : candidates(queryTerm, maxDistance)) {
+            int distance = distance(queryTerm, term, maxDistance);
+            if (distance <= maxDistance) {
+                for (Long itemId : postings.get(term)) {
+                    distances.merge(itemId, distance, Math::min);
+                }
+            }
+        }
+        return distances;
+    }
+
+    private List<String> candidates(String queryTerm, int maxDistance) {
+        Map<String, Integer> sharedTrigrams = new HashMap<>();
+        for (String trigram : trigrams(queryTerm)) {
+            for (String term : termsByTrigram.getOrDefault(trigram, Set.of())) {
+                if (Math.abs(term.length() - queryTerm.length()) <= maxDistance) {
+                    sharedTrigrams.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<String> candidates = new ArrayList<>();
+        sharedTrigrams.forEach((term, shared) -> {
+            // Слово длины n даёт n триграмм с учётом границ, каждая правка затрагивает не больше трёх
+            if (shared >= Math.max(term.length(), queryTerm.length()) - 3 * maxDistance) {
+                candidates.add(term);
+            }
+        });
+        return candidates;
+    }
+
+    /**
+     * Допустимое число опечаток растёт с длиной слова; короткие слова ищутся только точно.
+     */
+    private static int maxDistance(String term) {
+        if (term.length() <= 3) {
+            return 0;
+        }
+        return term.length() <= 7 ? 1 : 2;
+    }
+
+    /**
+     * Расстояние Левенштейна с отсечением: если оно больше max, возвращается max + 1.
+     */
+    static int distance(String first, String second, int max) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= second.length(); j++) {
+                int substitution = previous[j - 1] + (first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[second.length()], max + 1);
+    }
+
+    private static List<String> terms(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .toList();
+    }
+
+    private static List<String> trigrams(String term) {
+        String padded = BOUNDARY + term + BOUNDARY;
+        List<String> trigrams = new ArrayList<>(term.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Кэш страниц результатов поиска по нормализованному тексту запроса. Объём ограничен оценкой занимаемой
+ * памяти, вытеснение учитывает частоту обращений (W-TinyLFU). При изменении или удалении вещи сбрасываются
+ * все страницы тех запросов, в результатах которых вещь есть или может появиться.
+ */
+@Component
+public class ItemSearchCache {
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+    private static final int ITEM_OVERHEAD_BYTES = 64;
+
+    private final ItemSearchEngine itemSearchEngine;
+    private final Cache<SearchKey, List<ItemDto>> results;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemSearchCache(ItemSearchEngine itemSearchEngine,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.search.cache.max-bytes:16777216}") long maxBytes) {
+        this.itemSearchEngine = itemSearchEngine;
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher(ItemSearchCache::estimateBytes)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "shareit.item.search");
+        Gauge.builder("shareit.item.search.cache.memory", this, ItemSearchCache::estimatedBytes)
+                .description("Оценка памяти, занятой кэшем результатов поиска")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public List<ItemDto> search(String text, int from, int size) {
+        SearchKey key = new SearchKey(normalize(text), from, size);
+        List<ItemDto> cached = results.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long startedAt = generation.get();
+        List<ItemDto> found = List.copyOf(itemSearchEngine.search(key.text(), from, size));
+        results.put(key, found);
+        if (generation.get() != startedAt) {
+            // Пока шёл поиск, вещи менялись: инвалидация могла пройти раньше, чем результат попал в кэш
+            results.invalidate(key);
+        }
+        return found;
+    }
+
+    /**
+     * Полная выгрузка результатов в кэш не попадает и всегда читается из поискового движка.
+     */
+    public void stream(String text, Consumer<? super ItemDto> sink) {
+        itemSearchEngine.stream(normalize(text), sink);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidate(event.itemId(),
+                text -> event.available() && itemSearchEngine.matches(text, event.name(), event.description()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        invalidate(event.itemId(), text -> false);
+    }
+
+    long estimatedBytes() {
+        // Вес записей учитывается асинхронно, перед снятием показания применяем накопленные изменения
+        results.cleanUp();
+        return results.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    private void invalidate(long itemId, Predicate<String> mayMatch) {
+        generation.incrementAndGet();
+        Map<String, Boolean> matchedQueries = new HashMap<>();
+        Set<String> staleQueries = new HashSet<>();
+        results.asMap().forEach((key, items) -> {
+            if (items.stream().anyMatch(item -> item.id() == itemId)
+                    || matchedQueries.computeIfAbsent(key.text(), mayMatch::test)) {
+                staleQueries.add(key.text());
+            }
+        });
+        results.asMap().keySet().removeIf(key -> staleQueries.contains(key.text()));
+    }
+
+    private static String normalize(String text) {
+        return text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static int estimateBytes(SearchKey key, List<ItemDto> items) {
+        int bytes = ENTRY_OVERHEAD_BYTES + 2 * key.text().length();
+        for (ItemDto item : items) {
+            bytes += ITEM_OVERHEAD_BYTES + 2 * (length(item.name()) + length(item.description()));
+        }
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private record SearchKey(String text, int from, int size) {
+    }
+}
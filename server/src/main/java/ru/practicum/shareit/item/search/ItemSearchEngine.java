@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Поиск доступных для бронирования вещей по тексту названия и описания.
+ * Реализация выбирается свойством {@code shareit.search.mode}.
+ */
+public interface ItemSearchEngine {
+    int STREAM_PAGE_SIZE = 500;
+
+    List<ItemDto> search(String text, int from, int size);
+
+    /**
+     * Отдаёт все найденные вещи по одной, не собирая результат в памяти целиком. По умолчанию результат
+     * читается страницами по {@link #STREAM_PAGE_SIZE}; движки, которые могут прочитать результат одним запросом,
+     * переопределяют этот метод.
+     */
+    default void stream(String text, Consumer<? super ItemDto> sink) {
+        int from = 0;
+        List<ItemDto> page;
+        do {
+            page = search(text, from, STREAM_PAGE_SIZE);
+            page.forEach(sink);
+            from += STREAM_PAGE_SIZE;
+        } while (page.size() == STREAM_PAGE_SIZE);
+    }
+
+    /**
+     * Может ли доступная вещь с такими названием и описанием попасть в результаты запроса. Используется для
+     * инвалидации кэша результатов, поэтому лишнее совпадение допустимо, а пропущенное — нет.
+     */
+    boolean matches(String text, String name, String description);
+}
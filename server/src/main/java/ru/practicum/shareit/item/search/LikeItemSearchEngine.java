@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "like", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LikeItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        return itemRepository.searchAvailable(text, from, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void stream(String text, Consumer<? super ItemDto> sink) {
+        try (Stream<ItemDto> items = itemRepository.streamAvailable(text)) {
+            items.forEach(sink);
+        }
+    }
+
+    @Override
+    public boolean matches(String text, String name, String description) {
+        return containsIgnoreCase(name, text) || containsIgnoreCase(description, text);
+    }
+
+    static boolean containsIgnoreCase(String field, String text) {
+        return field != null && field.toLowerCase(Locale.ROOT).contains(text.toLowerCase(Locale.ROOT));
+    }
+}
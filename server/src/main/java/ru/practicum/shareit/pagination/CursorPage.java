@@ -0,0 +1,9 @@
+package ru.practicum.shareit.pagination;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> content, String nextCursor) {
+    public static <T> CursorPage<T> empty() {
+        return new CursorPage<>(List.of(), null);
+    }
+}
@@ -1,14 +1,22 @@
 package ru.practicum.shareit.request;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.constants.AppConstants;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
 import ru.practicum.shareit.request.dto.NewItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.streaming.NdjsonWriter;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -17,6 +25,7 @@ import java.util.List;
 @Slf4j
 public class ItemRequestController {
     private final ItemRequestService itemRequestService;
+    private final NdjsonWriter ndjsonWriter;
 
     @PostMapping
     @ResponseStatus(value = HttpStatus.CREATED)
@@ -30,15 +39,56 @@ public class ItemRequestController {
 
     @GetMapping
     public List<ItemRequestWithAnswersDto> getUserRequests(
+            @RequestParam(value = "from", defaultValue = "0") int from,
+            @RequestParam(value = "size", defaultValue = "10") int size,
             @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
-        log.info("От пользователя {} получен запрос GET /requests", userId);
-        return itemRequestService.getAllForUser(userId);
+        log.info("От пользователя {} получен запрос GET /requests?from={}&size={}", userId, from, size);
+        return itemRequestService.getAllForUser(userId, from, size);
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllItemsRequests(@RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
-        log.info("От пользователя {} получен запрос GET /requests/all", userId);
-        return itemRequestService.getAllForOtherUsers(userId);
+    public ResponseEntity<List<ItemRequestDto>> getAllItemsRequests(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос GET /requests/all?cursor={}&size={}", userId, cursor, size);
+        CursorPage<ItemRequestDto> page = itemRequestService.getAllForOtherUsers(userId, cursor, size);
+        if (page.nextCursor() == null) {
+            return ResponseEntity.ok(page.content());
+        }
+
+        return ResponseEntity.ok()
+                .header(AppConstants.NEXT_CURSOR_HEADER, page.nextCursor())
+                .body(page.content());
+    }
+
+    @GetMapping(path = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllItemsRequests(@RequestHeader(AppConstants.USER_ID_HEADER) long userId,
+                                       HttpServletResponse response) throws IOException {
+        log.info("От пользователя {} получен запрос GET /requests/all в формате NDJSON", userId);
+        ndjsonWriter.write(response, sink -> itemRequestService.streamAllForOtherUsers(userId, sink));
+    }
+
+    @GetMapping("/matches")
+    public ResponseEntity<List<RequestMatchDto>> getMatches(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос GET /requests/matches?cursor={}&size={}", userId, cursor, size);
+        CursorPage<RequestMatchDto> page = itemRequestService.getMatches(userId, cursor, size);
+        if (page.nextCursor() == null) {
+            return ResponseEntity.ok(page.content());
+        }
+
+        return ResponseEntity.ok()
+                .header(AppConstants.NEXT_CURSOR_HEADER, page.nextCursor())
+                .body(page.content());
+    }
+
+    @GetMapping(path = "/matches", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToMatches(@RequestHeader(AppConstants.USER_ID_HEADER) long userId) {
+        log.info("От пользователя {} получен запрос на подписку GET /requests/matches", userId);
+        return itemRequestService.subscribeToMatches(userId);
     }
 
     @GetMapping("/{requestId}")
@@ -1,12 +1,53 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dedup.RecentItemRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.matching.OpenItemRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findByRequester_id(long requesterId);
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.created) " +
+            "from ItemRequest r where r.requester.id = :requesterId " +
+            "order by r.created desc, r.id desc limit :size offset :from")
+    List<ItemRequestDto> findDtoByRequesterId(@Param("requesterId") long requesterId, @Param("from") int from,
+                                              @Param("size") int size);
 
-    List<ItemRequest> findByRequester_idNot(long requesterId);
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.created) " +
+            "from ItemRequest r where r.requester.id <> :requesterId " +
+            "order by r.created desc, r.id desc limit :size")
+    List<ItemRequestDto> findLatestDtoByRequesterIdNot(@Param("requesterId") long requesterId,
+                                                       @Param("size") int size);
+
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.created) " +
+            "from ItemRequest r where r.requester.id <> :requesterId " +
+            "and (r.created < :created or (r.created = :created and r.id < :id)) " +
+            "order by r.created desc, r.id desc limit :size")
+    List<ItemRequestDto> findDtoByRequesterIdNotBefore(@Param("requesterId") long requesterId,
+                                                       @Param("created") LocalDateTime created,
+                                                       @Param("id") long id,
+                                                       @Param("size") int size);
+
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.created) " +
+            "from ItemRequest r where r.requester.id <> :requesterId order by r.id")
+    Stream<ItemRequestDto> streamDtoByRequesterIdNot(@Param("requesterId") long requesterId);
+
+    @Query("select new ru.practicum.shareit.request.matching.OpenItemRequest(r.id, r.requester.id, r.description) " +
+            "from ItemRequest r where not exists (select i.id from Item i where i.request = r)")
+    List<OpenItemRequest> findOpen();
+
+    @Query("select new ru.practicum.shareit.request.dedup.RecentItemRequest(r.id, r.requester.id, r.description, " +
+            "r.created) from ItemRequest r where r.created >= :after " +
+            "and not exists (select i.id from Item i where i.request = r)")
+    List<RecentItemRequest> findOpenCreatedAfter(@Param("after") LocalDateTime after);
+
+    @Query("select r.id from ItemRequest r where r.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,17 +1,27 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
 import ru.practicum.shareit.request.dto.NewItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemRequestService {
     ItemRequestDto add(long userId, NewItemRequestDto newItemRequestDto);
 
-    List<ItemRequestWithAnswersDto> getAllForUser(long userId);
+    List<ItemRequestWithAnswersDto> getAllForUser(long userId, int from, int size);
 
-    List<ItemRequestDto> getAllForOtherUsers(long userId);
+    CursorPage<ItemRequestDto> getAllForOtherUsers(long userId, String cursor, int size);
+
+    void streamAllForOtherUsers(long userId, Consumer<? super ItemRequestDto> sink);
+
+    CursorPage<RequestMatchDto> getMatches(long userId, String cursor, int size);
+
+    SseEmitter subscribeToMatches(long userId);
 
     ItemRequestWithAnswersDto getById(long requestId);
 }
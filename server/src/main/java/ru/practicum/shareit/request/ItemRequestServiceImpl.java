@@ -1,20 +1,37 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.exception.AlreadyExistException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.RequestAnswerDto;
+import ru.practicum.shareit.item.dto.RequestAnswerWithRequestIdDto;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.request.dedup.RequestDuplicate;
+import ru.practicum.shareit.request.dedup.RequestDuplicateDetector;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
 import ru.practicum.shareit.request.dto.NewItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.RequestMatchNotifier;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -23,38 +40,119 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserService userService;
     private final ItemRequestMapper itemRequestMapper;
     private final ItemRepository itemRepository;
+    private final RequestMatchRepository requestMatchRepository;
+    private final RequestMatchNotifier requestMatchNotifier;
+    private final RequestDuplicateDetector requestDuplicateDetector;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public ItemRequestDto add(long userId, NewItemRequestDto newItemRequestDto) {
         User requester = userService.getUserById(userId);
 
+        Optional<RequestDuplicate> duplicate =
+                requestDuplicateDetector.findDuplicate(userId, newItemRequestDto.description());
+        Long duplicateOf = null;
+        if (duplicate.isPresent()) {
+            long duplicateId = duplicate.get().requestId();
+            switch (requestDuplicateDetector.policy()) {
+                case WARN -> duplicateOf = duplicateId;
+                case REPORT -> throw new AlreadyExistException("Похожий запрос " + duplicateId + " уже создан");
+                case MERGE -> {
+                    Optional<ItemRequest> existing = itemRequestRepository.findById(duplicateId);
+                    if (existing.isPresent()) {
+                        return itemRequestMapper.toItemRequestDto(existing.get());
+                    }
+                }
+            }
+        }
+
         ItemRequest newItemRequest = new ItemRequest();
         newItemRequest.setDescription(newItemRequestDto.description());
         newItemRequest.setRequester(requester);
         newItemRequest.setCreated(LocalDateTime.now());
 
-        return itemRequestMapper.toItemRequestDto(itemRequestRepository.save(newItemRequest));
+        ItemRequest savedItemRequest = itemRequestRepository.save(newItemRequest);
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(savedItemRequest.getId(), userId,
+                savedItemRequest.getDescription(), savedItemRequest.getCreated()));
+        ItemRequestDto savedDto = itemRequestMapper.toItemRequestDto(savedItemRequest);
+        return duplicateOf == null ? savedDto
+                : new ItemRequestDto(savedDto.id(), savedDto.description(), savedDto.created(), duplicateOf);
     }
 
     @Override
-    public List<ItemRequestWithAnswersDto> getAllForUser(long userId) {
-        List<ItemRequest> requests = itemRequestRepository.findByRequester_id(userId);
+    public List<ItemRequestWithAnswersDto> getAllForUser(long userId, int from, int size) {
+        List<ItemRequestDto> requests = itemRequestRepository.findDtoByRequesterId(userId, from, size);
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+
+        // Ответы на все запросы страницы выбираются одним запросом и раскладываются по запросам в памяти
+        Map<Long, List<RequestAnswerDto>> answers = itemRepository.findAnswersByRequestIdIn(requests.stream()
+                        .map(ItemRequestDto::id)
+                        .toList())
+                .stream()
+                .collect(Collectors.groupingBy(RequestAnswerWithRequestIdDto::getRequestId,
+                        Collectors.mapping(RequestAnswerDto.class::cast, Collectors.toList())));
 
         return requests.stream()
-                .map(itemRequest -> {
-                    List<RequestAnswerDto> requestAnswers = itemRepository.findByRequest_id(itemRequest.getId());
-                    return itemRequestMapper.toItemRequestWithAnswersDto(itemRequest, requestAnswers);
-                })
+                .map(request -> new ItemRequestWithAnswersDto(request.id(), request.description(), request.created(),
+                        answers.getOrDefault(request.id(), List.of())))
                 .toList();
     }
 
     @Override
-    public List<ItemRequestDto> getAllForOtherUsers(long userId) {
-        List<ItemRequest> requests = itemRequestRepository.findByRequester_idNot(userId);
+    public CursorPage<ItemRequestDto> getAllForOtherUsers(long userId, String cursor, int size) {
+        List<ItemRequestDto> requests;
+        if (cursor == null) {
+            requests = itemRequestRepository.findLatestDtoByRequesterIdNot(userId, size + 1);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            requests = itemRequestRepository.findDtoByRequesterIdNotBefore(userId, position.timestamp(),
+                    position.id(), size + 1);
+        }
 
-        return requests.stream()
-                .map(itemRequestMapper::toItemRequestDto)
-                .toList();
+        if (requests.size() <= size) {
+            return new CursorPage<>(requests, null);
+        }
+
+        List<ItemRequestDto> page = requests.subList(0, size);
+        return new CursorPage<>(List.copyOf(page), new Cursor(page.getLast().created(), page.getLast().id()).encode());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllForOtherUsers(long userId, Consumer<? super ItemRequestDto> sink) {
+        try (Stream<ItemRequestDto> requests = itemRequestRepository.streamDtoByRequesterIdNot(userId)) {
+            requests.forEach(sink);
+        }
+    }
+
+    @Override
+    public CursorPage<RequestMatchDto> getMatches(long userId, String cursor, int size) {
+        List<RequestMatchDto> matches;
+        if (cursor == null) {
+            matches = requestMatchRepository.findLatestDtoByRequesterId(userId, size + 1);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            matches = requestMatchRepository.findDtoByRequesterIdBefore(userId, position.timestamp(), position.id(),
+                    size + 1);
+        }
+
+        if (matches.isEmpty()) {
+            userService.getUserById(userId);
+        }
+        if (matches.size() <= size) {
+            return new CursorPage<>(matches, null);
+        }
+
+        List<RequestMatchDto> page = matches.subList(0, size);
+        return new CursorPage<>(List.copyOf(page), new Cursor(page.getLast().created(), page.getLast().id()).encode());
+    }
+
+    @Override
+    public SseEmitter subscribeToMatches(long userId) {
+        userService.getUserById(userId);
+        return requestMatchNotifier.subscribe(userId);
     }
 
     @Override
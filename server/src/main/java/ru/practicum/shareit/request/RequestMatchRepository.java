@@ -0,0 +1,32 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.model.RequestMatch;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface RequestMatchRepository extends JpaRepository<RequestMatch, Long> {
+    @Query("select new ru.practicum.shareit.request.dto.RequestMatchDto(m.id, r.id, i.id, i.name, i.owner.id, " +
+            "m.score, m.created) from RequestMatch m join m.request r join m.item i " +
+            "where m.requester.id = :requesterId order by m.created desc, m.id desc limit :size")
+    List<RequestMatchDto> findLatestDtoByRequesterId(@Param("requesterId") long requesterId, @Param("size") int size);
+
+    @Query("select new ru.practicum.shareit.request.dto.RequestMatchDto(m.id, r.id, i.id, i.name, i.owner.id, " +
+            "m.score, m.created) from RequestMatch m join m.request r join m.item i " +
+            "where m.requester.id = :requesterId " +
+            "and (m.created < :created or (m.created = :created and m.id < :id)) " +
+            "order by m.created desc, m.id desc limit :size")
+    List<RequestMatchDto> findDtoByRequesterIdBefore(@Param("requesterId") long requesterId,
+                                                     @Param("created") LocalDateTime created,
+                                                     @Param("id") long id,
+                                                     @Param("size") int size);
+
+    @Query("select new ru.practicum.shareit.request.dto.RequestMatchDto(m.id, r.id, i.id, i.name, i.owner.id, " +
+            "m.score, m.created) from RequestMatch m join m.request r join m.item i where m.id in :ids")
+    List<RequestMatchDto> findDtoByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request.dedup;
+
+/**
+ * Что делать с новым запросом, похожим на открытый запрос того же автора.
+ */
+public enum DuplicateRequestPolicy {
+    /**
+     * Создать новый запрос и указать в ответе похожий.
+     */
+    WARN,
+    /**
+     * Отклонить новый запрос с указанием похожего.
+     */
+    REPORT,
+    /**
+     * Не создавать новый запрос и вернуть похожий.
+     */
+    MERGE
+}
@@ -0,0 +1,195 @@
+package ru.practicum.shareit.request.dedup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * LSH-индекс MinHash-сигнатур описаний запросов. Описание разбивается на шинглы — подстроки из трёх символов
+ * нормализованного текста; доля совпавших позиций двух сигнатур оценивает меру Жаккара их множеств шинглов.
+ * Сигнатура делится на {@value #BANDS} полос по {@value #ROWS} хешей. Кандидатами в дубликаты становятся только
+ * запросы того же автора, совпавшие с новым описанием хотя бы в одной полосе, поэтому проверка не перебирает
+ * весь индекс. Класс не потокобезопасен.
+ */
+final class MinHashIndex {
+    static final int BANDS = 20;
+    static final int ROWS = 5;
+    private static final int SIGNATURE_SIZE = BANDS * ROWS;
+    private static final int SHINGLE_LENGTH = 3;
+    private static final long PRIME = (1L << 31) - 1;
+    private static final long SEED = 20250315L;
+    private static final long[] A = new long[SIGNATURE_SIZE];
+    private static final long[] B = new long[SIGNATURE_SIZE];
+
+    static {
+        Random random = new Random(SEED);
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            A[i] = 1 + random.nextLong(PRIME - 1);
+            B[i] = random.nextLong(PRIME);
+        }
+    }
+
+    private final Map<BucketKey, Set<Long>> buckets = new HashMap<>();
+    private final Map<Long, Entry> requests = new HashMap<>();
+
+    void put(long requestId, long requesterId, String description, LocalDateTime created) {
+        remove(requestId);
+        int[] signature = signature(description);
+        if (signature == null) {
+            return;
+        }
+
+        Entry entry = new Entry(requesterId, signature, created);
+        requests.put(requestId, entry);
+        for (BucketKey key : bucketKeys(requesterId, signature)) {
+            buckets.computeIfAbsent(key, k -> new HashSet<>()).add(requestId);
+        }
+    }
+
+    void remove(long requestId) {
+        Entry entry = requests.remove(requestId);
+        if (entry == null) {
+            return;
+        }
+
+        for (BucketKey key : bucketKeys(entry.requesterId(), entry.signature())) {
+            Set<Long> requestIds = buckets.get(key);
+            requestIds.remove(requestId);
+            if (requestIds.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    void removeByRequester(long requesterId) {
+        removeIf(entry -> entry.requesterId() == requesterId);
+    }
+
+    void removeCreatedBefore(LocalDateTime time) {
+        removeIf(entry -> entry.created().isBefore(time));
+    }
+
+    /**
+     * Возвращает самый похожий запрос автора, созданный не раньше {@code notBefore}, если оценка меры Жаккара
+     * с переданным описанием не меньше {@code threshold}.
+     */
+    Optional<RequestDuplicate> findDuplicate(long requesterId, String description, double threshold,
+                                             LocalDateTime notBefore) {
+        int[] signature = signature(description);
+        if (signature == null) {
+            return Optional.empty();
+        }
+
+        Set<Long> candidates = new HashSet<>();
+        for (BucketKey key : bucketKeys(requesterId, signature)) {
+            candidates.addAll(buckets.getOrDefault(key, Set.of()));
+        }
+
+        RequestDuplicate best = null;
+        for (Long requestId : candidates) {
+            Entry entry = requests.get(requestId);
+            if (entry.requesterId() != requesterId || entry.created().isBefore(notBefore)) {
+                continue;
+            }
+            double similarity = similarity(signature, entry.signature());
+            if (similarity >= threshold && (best == null || similarity > best.similarity()
+                    || similarity == best.similarity() && requestId > best.requestId())) {
+                best = new RequestDuplicate(requestId, similarity);
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    int size() {
+        return requests.size();
+    }
+
+    static Set<String> shingles(String text) {
+        if (text == null) {
+            return Set.of();
+        }
+        String normalized = text.toLowerCase(Locale.ROOT)
+                .replace('ё', 'е')
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .strip();
+        if (normalized.isEmpty()) {
+            return Set.of();
+        }
+        if (normalized.length() <= SHINGLE_LENGTH) {
+            return Set.of(normalized);
+        }
+
+        Set<String> shingles = new HashSet<>();
+        for (int i = 0; i + SHINGLE_LENGTH <= normalized.length(); i++) {
+            shingles.add(normalized.substring(i, i + SHINGLE_LENGTH));
+        }
+        return shingles;
+    }
+
+    static double similarity(int[] first, int[] second) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+
+    static int[] signature(String text) {
+        Set<String> shingles = shingles(text);
+        if (shingles.isEmpty()) {
+            return null;
+        }
+
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String shingle : shingles) {
+            long x = (shingle.hashCode() & 0x7fffffffL) % PRIME;
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int hash = (int) ((A[i] * x + B[i]) % PRIME);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private void removeIf(Predicate<Entry> condition) {
+        List<Long> requestIds = new ArrayList<>();
+        requests.forEach((requestId, entry) -> {
+            if (condition.test(entry)) {
+                requestIds.add(requestId);
+            }
+        });
+        requestIds.forEach(this::remove);
+    }
+
+    private static List<BucketKey> bucketKeys(long requesterId, int[] signature) {
+        List<BucketKey> keys = new ArrayList<>(BANDS);
+        for (int band = 0; band < BANDS; band++) {
+            int hash = 1;
+            for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+                hash = 31 * hash + signature[row];
+            }
+            keys.add(new BucketKey(requesterId, band, hash));
+        }
+        return keys;
+    }
+
+    private record BucketKey(long requesterId, int band, int hash) {
+    }
+
+    private record Entry(long requesterId, int[] signature, LocalDateTime created) {
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.request.dedup;
+
+import java.time.LocalDateTime;
+
+public record RecentItemRequest(long id, long requesterId, String description, LocalDateTime created) {
+}
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.request.dedup;
+
+public record RequestDuplicate(long requestId, double similarity) {
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.request.dedup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.indexing.RebuildableIndex;
+import ru.practicum.shareit.item.event.ItemCreatedEvent;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Ищет среди недавних открытых запросов автора запрос, почти совпадающий по описанию с новым. В индекс попадают
+ * запросы за последние {@code shareit.request.dedup.window}, на которые ещё не ответили; индекс строится из БД
+ * при старте приложения и обновляется событиями. Два запроса, одновременно отправленные одним автором, могут
+ * оба пройти проверку: новый запрос попадает в индекс только после фиксации транзакции.
+ * События, пришедшие во время перестроения индекса, повторяются на новом индексе.
+ */
+@Component
+@Slf4j
+public class RequestDuplicateDetector {
+    private final ItemRequestRepository itemRequestRepository;
+    private final DuplicateRequestPolicy policy;
+    private final double threshold;
+    private final Duration window;
+    private final Counter duplicateCounter;
+    private final RebuildableIndex<MinHashIndex> index = new RebuildableIndex<>(new MinHashIndex());
+
+    public RequestDuplicateDetector(ItemRequestRepository itemRequestRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${shareit.request.dedup.policy:WARN}") DuplicateRequestPolicy policy,
+                                    @Value("${shareit.request.dedup.threshold:0.8}") double threshold,
+                                    @Value("${shareit.request.dedup.window:P30D}") Duration window) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.policy = policy;
+        this.threshold = threshold;
+        this.window = window;
+        this.duplicateCounter = Counter.builder("shareit.request.dedup.duplicates")
+                .description("Количество новых запросов, похожих на открытые запросы того же автора")
+                .tag("policy", policy.name())
+                .register(meterRegistry);
+    }
+
+    public DuplicateRequestPolicy policy() {
+        return policy;
+    }
+
+    public Optional<RequestDuplicate> findDuplicate(long requesterId, String description) {
+        LocalDateTime createdAfter = LocalDateTime.now().minus(window);
+        Optional<RequestDuplicate> duplicate = index.read(requests ->
+                requests.findDuplicate(requesterId, description, threshold, createdAfter));
+
+        duplicate.ifPresent(found -> {
+            duplicateCounter.increment();
+            log.debug("Новый запрос пользователя {} похож на запрос {}: {}", requesterId, found.requestId(),
+                    found.similarity());
+        });
+        return duplicate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        MinHashIndex newIndex = index.rebuild(() -> {
+            MinHashIndex requests = new MinHashIndex();
+            for (RecentItemRequest request : itemRequestRepository.findOpenCreatedAfter(
+                    LocalDateTime.now().minus(window))) {
+                requests.put(request.id(), request.requesterId(), request.description(), request.created());
+            }
+            return requests;
+        });
+        log.info("Построен индекс недавних открытых запросов: {} запросов", newIndex.size());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.request.dedup.purge-interval:PT1H}")
+    public void purge() {
+        LocalDateTime createdBefore = LocalDateTime.now().minus(window);
+        index.update(requests -> requests.removeCreatedBefore(createdBefore));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestCreated(ItemRequestCreatedEvent event) {
+        index.update(requests ->
+                requests.put(event.requestId(), event.requesterId(), event.description(), event.created()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemCreated(ItemCreatedEvent event) {
+        if (event.requestId() == null) {
+            return;
+        }
+
+        index.update(requests -> requests.remove(event.requestId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        index.update(requests -> requests.removeByRequester(event.userId()));
+    }
+}
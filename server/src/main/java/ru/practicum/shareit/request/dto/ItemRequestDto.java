@@ -1,6 +1,16 @@
 package ru.practicum.shareit.request.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
 
-public record ItemRequestDto(long id, String description, LocalDateTime created) {
+/**
+ * Запрос вещи. {@code duplicateOf} заполняется только в ответе на создание запроса, если у автора уже есть
+ * похожий открытый запрос.
+ */
+public record ItemRequestDto(long id, String description, LocalDateTime created,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) Long duplicateOf) {
+    public ItemRequestDto(long id, String description, LocalDateTime created) {
+        this(id, description, created, null);
+    }
 }
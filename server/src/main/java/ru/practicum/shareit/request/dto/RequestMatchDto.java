@@ -0,0 +1,7 @@
+package ru.practicum.shareit.request.dto;
+
+import java.time.LocalDateTime;
+
+public record RequestMatchDto(long id, long requestId, long itemId, String itemName, long ownerId, double score,
+                              LocalDateTime created) {
+}
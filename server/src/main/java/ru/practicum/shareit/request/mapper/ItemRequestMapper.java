@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import ru.practicum.shareit.item.dto.RequestAnswerDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -11,6 +12,7 @@ import java.util.List;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface ItemRequestMapper {
+    @Mapping(target = "duplicateOf", ignore = true)
     ItemRequestDto toItemRequestDto(ItemRequest itemRequest);
 
     ItemRequestWithAnswersDto toItemRequestWithAnswersDto(ItemRequest itemRequest, List<RequestAnswerDto> items);
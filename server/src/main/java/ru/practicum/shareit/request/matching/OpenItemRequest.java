@@ -0,0 +1,4 @@
+package ru.practicum.shareit.request.matching;
+
+public record OpenItemRequest(long id, long requesterId, String description) {
+}
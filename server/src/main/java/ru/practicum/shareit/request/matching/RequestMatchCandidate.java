@@ -0,0 +1,4 @@
+package ru.practicum.shareit.request.matching;
+
+public record RequestMatchCandidate(long requestId, long requesterId, double score) {
+}
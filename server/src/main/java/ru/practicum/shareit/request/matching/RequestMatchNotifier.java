@@ -0,0 +1,102 @@
+package ru.practicum.shareit.request.matching;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Доставляет найденные совпадения авторам запросов через Server-Sent Events. У пользователя может быть
+ * несколько открытых подписок, например из разных вкладок; каждая получает все его совпадения. Совпадения,
+ * найденные без открытой подписки, не теряются: они сохранены в БД и отдаются GET /requests/matches.
+ * Пока совпадений нет, подпискам отправляются пустые комментарии: так закрытое клиентом соединение
+ * обнаруживается и освобождается, не дожидаясь истечения подписки.
+ */
+@Component
+@Slf4j
+public class RequestMatchNotifier {
+    static final String EVENT_NAME = "match";
+
+    private final Map<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    public RequestMatchNotifier(MeterRegistry meterRegistry,
+                                @Value("${shareit.request.matching.subscription-timeout:PT30M}") Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+        Gauge.builder("shareit.request.matching.subscriptions", this, RequestMatchNotifier::subscriptions)
+                .description("Количество открытых подписок на совпадения")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        // Добавление внутри compute: иначе remove() последней подписки мог бы убрать множество из карты
+        // между его получением и добавлением в него новой подписки, и она никогда не получила бы событий
+        emitters.compute(userId, (key, userEmitters) -> {
+            Set<SseEmitter> result = userEmitters == null ? ConcurrentHashMap.newKeySet() : userEmitters;
+            result.add(emitter);
+            return result;
+        });
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(error -> remove(userId, emitter));
+        return emitter;
+    }
+
+    public void notify(long userId, RequestMatchDto match) {
+        Set<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+
+        for (SseEmitter emitter : userEmitters) {
+            send(userId, emitter, SseEmitter.event()
+                    .id(String.valueOf(match.id()))
+                    .name(EVENT_NAME)
+                    .data(match));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.request.matching.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        emitters.forEach((userId, userEmitters) -> {
+            for (SseEmitter emitter : userEmitters) {
+                send(userId, emitter, SseEmitter.event().comment(""));
+            }
+        });
+    }
+
+    int subscriptions() {
+        return emitters.values().stream()
+                .mapToInt(Set::size)
+                .sum();
+    }
+
+    private void send(long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Клиент отключился: подписка закрывается, совпадения останутся доступными в БД
+            log.debug("Подписка пользователя {} закрыта: {}", userId, e.getMessage());
+            remove(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (key, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.request.matching;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.indexing.RebuildableIndex;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.event.ItemCreatedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.RequestMatchRepository;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Подбирает новые вещи к открытым запросам, то есть к запросам, на которые ещё не ответили ни одной вещью.
+ * Индекс слов запросов строится из БД при старте приложения и обновляется событиями. Новая вещь сверяется
+ * с индексом без обращения к БД; найденные совпадения сохраняются и отправляются авторам запросов.
+ * События, пришедшие во время перестроения индекса, повторяются на новом индексе.
+ */
+@Component
+@Slf4j
+public class RequestMatchingEngine {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final RequestMatchRepository requestMatchRepository;
+    private final UserRepository userRepository;
+    private final RequestMatchNotifier requestMatchNotifier;
+    private final TransactionTemplate transactionTemplate;
+    private final double minScore;
+    private final int maxMatches;
+    private final Timer matchTimer;
+    private final RebuildableIndex<RequestTermIndex> index = new RebuildableIndex<>(new RequestTermIndex());
+
+    public RequestMatchingEngine(ItemRequestRepository itemRequestRepository,
+                                 ItemRepository itemRepository,
+                                 RequestMatchRepository requestMatchRepository,
+                                 UserRepository userRepository,
+                                 RequestMatchNotifier requestMatchNotifier,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${shareit.request.matching.min-score:0.5}") double minScore,
+                                 @Value("${shareit.request.matching.max-matches:20}") int maxMatches) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRepository = itemRepository;
+        this.requestMatchRepository = requestMatchRepository;
+        this.userRepository = userRepository;
+        this.requestMatchNotifier = requestMatchNotifier;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minScore = minScore;
+        this.maxMatches = maxMatches;
+        this.matchTimer = Timer.builder("shareit.request.matching.duration")
+                .description("Время сверки новой вещи с индексом открытых запросов")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        RequestTermIndex newIndex = index.rebuild(() -> {
+            RequestTermIndex requests = new RequestTermIndex();
+            for (OpenItemRequest request : itemRequestRepository.findOpen()) {
+                requests.put(request.id(), request.requesterId(), request.description());
+            }
+            return requests;
+        });
+        log.info("Построен индекс открытых запросов: {} запросов", newIndex.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestCreated(ItemRequestCreatedEvent event) {
+        index.update(requests -> requests.put(event.requestId(), event.requesterId(), event.description()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        index.update(requests -> requests.removeByRequester(event.userId()));
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemCreated(ItemCreatedEvent event) {
+        List<RequestMatchCandidate> candidates = match(event);
+        if (event.requestId() != null) {
+            // Запрос, на который ответили этой вещью, больше не открыт
+            index.update(requests -> requests.remove(event.requestId()));
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        List<RequestMatchDto> matches;
+        try {
+            matches = record(event.itemId(), candidates);
+        } catch (DataIntegrityViolationException e) {
+            // Вещь или запрос успели удалить, пока шла сверка
+            log.warn("Не удалось сохранить совпадения вещи {}: {}", event.itemId(), e.getMessage());
+            return;
+        }
+
+        Map<Long, Long> requesters = candidates.stream()
+                .collect(Collectors.toMap(RequestMatchCandidate::requestId, RequestMatchCandidate::requesterId));
+        for (RequestMatchDto match : matches) {
+            requestMatchNotifier.notify(requesters.get(match.requestId()), match);
+        }
+        log.debug("Вещь {} подходит к запросам {}", event.itemId(), requesters.keySet());
+    }
+
+    List<RequestMatchCandidate> match(ItemCreatedEvent event) {
+        long startedAt = System.nanoTime();
+        try {
+            return index.read(requests -> requests.match(minScore, event.name(), event.description())).stream()
+                    .filter(candidate -> candidate.requesterId() != event.ownerId())
+                    .filter(candidate -> !Objects.equals(candidate.requestId(), event.requestId()))
+                    .limit(maxMatches)
+                    .toList();
+        } finally {
+            matchTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<RequestMatchDto> record(long itemId, List<RequestMatchCandidate> candidates) {
+        return transactionTemplate.execute(status -> {
+            Item item = itemRepository.getReferenceById(itemId);
+            LocalDateTime now = LocalDateTime.now();
+            List<RequestMatch> matches = candidates.stream()
+                    .map(candidate -> {
+                        RequestMatch match = new RequestMatch();
+                        match.setRequest(itemRequestRepository.getReferenceById(candidate.requestId()));
+                        match.setRequester(userRepository.getReferenceById(candidate.requesterId()));
+                        match.setItem(item);
+                        match.setScore(candidate.score());
+                        match.setCreated(now);
+                        return match;
+                    })
+                    .toList();
+
+            List<Long> ids = requestMatchRepository.saveAll(matches).stream()
+                    .map(RequestMatch::getId)
+                    .toList();
+            return requestMatchRepository.findDtoByIdIn(ids);
+        });
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.request.matching;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс слов из описаний открытых запросов. Слова приводятся к нижнему регистру, от них
+ * отрезаются конечные гласные, мягкий знак и «s», чтобы «дрель», «дрели» и «дрелью» совпадали. Служебные слова
+ * вроде «нужна» и «для» не индексируются. Класс не потокобезопасен.
+ */
+final class RequestTermIndex {
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final String STRIPPED_ENDINGS = "аеиоуыэюяьйs";
+    private static final Set<String> STOP_WORDS = Set.of("нужна", "нужен", "нужно", "нужны", "ищу", "ищем", "хочу",
+            "хотим", "хотел", "хотела", "для", "кто", "как", "что", "или", "есть", "можно", "пожалуйста", "очень",
+            "the", "for", "and", "need", "want", "with", "looking");
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Entry> requests = new HashMap<>();
+
+    void put(long requestId, long requesterId, String description) {
+        remove(requestId);
+        Set<String> terms = terms(description);
+        if (terms.isEmpty()) {
+            return;
+        }
+
+        requests.put(requestId, new Entry(requesterId, terms));
+        for (String term : terms) {
+            postings.computeIfAbsent(term, key -> new HashSet<>()).add(requestId);
+        }
+    }
+
+    void remove(long requestId) {
+        Entry entry = requests.remove(requestId);
+        if (entry == null) {
+            return;
+        }
+
+        for (String term : entry.terms()) {
+            Set<Long> requestIds = postings.get(term);
+            requestIds.remove(requestId);
+            if (requestIds.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    void removeByRequester(long requesterId) {
+        List<Long> requestIds = requests.entrySet().stream()
+                .filter(entry -> entry.getValue().requesterId() == requesterId)
+                .map(Map.Entry::getKey)
+                .toList();
+        requestIds.forEach(this::remove);
+    }
+
+    /**
+     * Возвращает запросы, не меньшая доля слов которых, чем {@code minScore}, встречается в переданных текстах,
+     * по убыванию этой доли, затем по id.
+     */
+    List<RequestMatchCandidate> match(double minScore, String... texts) {
+        Map<Long, Integer> matchedTerms = new HashMap<>();
+        Set<String> terms = new HashSet<>();
+        for (String text : texts) {
+            terms.addAll(terms(text));
+        }
+        for (String term : terms) {
+            for (Long requestId : postings.getOrDefault(term, Set.of())) {
+                matchedTerms.merge(requestId, 1, Integer::sum);
+            }
+        }
+
+        List<RequestMatchCandidate> candidates = new ArrayList<>();
+        matchedTerms.forEach((requestId, matched) -> {
+            Entry entry = requests.get(requestId);
+            double score = (double) matched / entry.terms().size();
+            if (score >= minScore) {
+                candidates.add(new RequestMatchCandidate(requestId, entry.requesterId(), score));
+            }
+        });
+        candidates.sort(Comparator.comparingDouble(RequestMatchCandidate::score).reversed()
+                .thenComparingLong(RequestMatchCandidate::requestId));
+        return candidates;
+    }
+
+    int size() {
+        return requests.size();
+    }
+
+    static Set<String> terms(String text) {
+        if (text == null) {
+            return Set.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).replace('ё', 'е').split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !STOP_WORDS.contains(word))
+                .map(RequestTermIndex::stem)
+                .filter(term -> term.length() >= MIN_TERM_LENGTH)
+                .collect(Collectors.toSet());
+    }
+
+    private static String stem(String word) {
+        int end = word.length();
+        while (end > MIN_TERM_LENGTH && STRIPPED_ENDINGS.indexOf(word.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return word.substring(0, end);
+    }
+
+    private record Entry(long requesterId, Set<String> terms) {
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Пишет строки в ответ в формате NDJSON: по одному JSON-объекту на строку. Строки сериализуются по мере того, как
+ * источник их отдаёт, а ответ сбрасывается клиенту каждые {@code shareit.streaming.flush-every} строк, поэтому
+ * ни весь результат, ни весь ответ в памяти не собираются.
+ */
+@Component
+public class NdjsonWriter {
+    private static final int LINE_SEPARATOR = '\n';
+
+    private final ObjectMapper objectMapper;
+    private final int flushEvery;
+
+    public NdjsonWriter(ObjectMapper objectMapper,
+                        @Value("${shareit.streaming.flush-every:100}") int flushEvery) {
+        this.objectMapper = objectMapper;
+        this.flushEvery = flushEvery;
+    }
+
+    /**
+     * Передаёт источнику приёмник строк и пишет в ответ всё, что тот в него отдаст.
+     */
+    public <T> void write(HttpServletResponse response, Consumer<Consumer<T>> source) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        RowSink<T> sink = new RowSink<>(response.getOutputStream());
+        source.accept(sink);
+        sink.out.flush();
+    }
+
+    private final class RowSink<T> implements Consumer<T> {
+        private final OutputStream out;
+        private int written;
+
+        private RowSink(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void accept(T row) {
+            try {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write(LINE_SEPARATOR);
+                if (++written % flushEvery == 0) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package ru.practicum.shareit.user;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.streaming.NdjsonWriter;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -16,6 +20,7 @@ import java.util.List;
 @Validated
 public class UserController {
     private final UserService userService;
+    private final NdjsonWriter ndjsonWriter;
 
     @GetMapping
     public List<UserDto> getAllUsers() {
@@ -23,6 +28,12 @@ public class UserController {
         return userService.getAll();
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllUsers(HttpServletResponse response) throws IOException {
+        log.info("Получен запрос GET /users в формате NDJSON");
+        ndjsonWriter.write(response, userService::streamAll);
+    }
+
     @GetMapping("/{id}")
     public UserDto get(@PathVariable long id) {
         log.info("Получен запрос GET /users/{}", id);
@@ -3,10 +3,13 @@ package ru.practicum.shareit.user;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     List<UserDto> getAll();
 
+    void streamAll(Consumer<? super UserDto> sink);
+
     UserDto getById(long userId);
 
     UserDto create(UserDto user);
@@ -1,19 +1,26 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.AlreadyExistException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<UserDto> getAll() {
@@ -22,6 +29,14 @@ public class UserServiceImpl implements UserService {
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<? super UserDto> sink) {
+        try (Stream<UserDto> users = userRepository.streamAllDto()) {
+            users.forEach(sink);
+        }
+    }
+
     @Override
     public UserDto getById(long userId) {
         return userMapper.toUserDto(userRepository.findById(userId)
@@ -48,6 +63,7 @@ public class UserServiceImpl implements UserService {
             user.setEmail(userDto.email());
         }
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
         return userMapper.toUserDto(user);
     }
 
@@ -55,6 +71,7 @@ public class UserServiceImpl implements UserService {
     public void delete(long userId) {
         User user = getUserById(userId);
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId));
     }
 
     private void validateUniqueUser(Long id, String email) {
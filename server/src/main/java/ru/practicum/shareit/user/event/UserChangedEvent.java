@@ -0,0 +1,4 @@
+package ru.practicum.shareit.user.event;
+
+public record UserChangedEvent(long userId) {
+}
@@ -0,0 +1,42 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Подтверждённые бронирования, пересекающиеся с более ранними подтверждёнными бронированиями той же вещи,
+-- отклоняются до создания ограничения, иначе ALTER TABLE не пройдёт и приложение не запустится. Бронирования
+-- обходятся по возрастанию id, поэтому остаётся подтверждённым то, которое создано раньше.
+DO '
+DECLARE
+    booking RECORD;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_booking_approved_overlap'') THEN
+        FOR booking IN SELECT b.id, b.item_id, b.start_date, b.end_date FROM bookings b
+                       WHERE b.status = ''APPROVED'' ORDER BY b.id LOOP
+            IF EXISTS (SELECT 1 FROM bookings o
+                       WHERE o.item_id = booking.item_id AND o.status = ''APPROVED'' AND o.id < booking.id
+                         AND tsrange(o.start_date, o.end_date) && tsrange(booking.start_date, booking.end_date)) THEN
+                UPDATE bookings SET status = ''REJECTED'' WHERE id = booking.id;
+                RAISE WARNING ''Бронирование % вещи % отклонено: пересекается с ранее подтверждённым'',
+                    booking.id, booking.item_id;
+            END IF;
+        END LOOP;
+
+        ALTER TABLE bookings ADD CONSTRAINT ex_booking_approved_overlap EXCLUDE USING gist
+            (item_id WITH =, tsrange(start_date, end_date) WITH &&) WHERE (status = ''APPROVED'');
+    END IF;
+END';
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('russian', coalesce(description, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING gin (search_vector);
+
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_name = ''items'' AND column_name = ''comments_count'') THEN
+        ALTER TABLE items ADD COLUMN comments_count BIGINT DEFAULT 0 NOT NULL;
+        UPDATE items i SET comments_count = (SELECT count(*) FROM comments c WHERE c.item_id = i.id);
+    END IF;
+END';
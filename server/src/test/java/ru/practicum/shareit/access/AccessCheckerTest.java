@@ -0,0 +1,104 @@
+package ru.practicum.shareit.access;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccessCheckerTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ItemRepository itemRepository;
+
+    private AccessChecker accessChecker;
+
+    private final BookingParticipants participants = new BookingParticipants(5, 1, 2);
+
+    @BeforeEach
+    void setUp() {
+        accessChecker = new AccessChecker(bookingRepository, itemRepository, new SimpleMeterRegistry(), 100);
+    }
+
+    @Test
+    void checkBookingParticipantShouldAllowBookerAndOwnerWithOneLookup() {
+        when(bookingRepository.findParticipantsById(1L)).thenReturn(Optional.of(participants));
+
+        assertEquals(participants, accessChecker.checkBookingParticipant(1, 1), "Неверные участники бронирования");
+        assertEquals(participants, accessChecker.checkBookingParticipant(1, 2), "Неверные участники бронирования");
+
+        verify(bookingRepository, times(1)).findParticipantsById(1L);
+        verifyNoMoreInteractions(bookingRepository, itemRepository);
+    }
+
+    @Test
+    void checkBookingParticipantShouldThrowExceptionWhenUserIsStranger() {
+        when(bookingRepository.findParticipantsById(1L)).thenReturn(Optional.of(participants));
+
+        AccessDeniedException exception = assertThrows(AccessDeniedException.class,
+                () -> accessChecker.checkBookingParticipant(1, 3));
+
+        assertEquals("Пользователю 3 доступ к бронированию запрещён", exception.getMessage());
+    }
+
+    @Test
+    void checkBookingItemOwnerShouldThrowExceptionWhenUserIsBooker() {
+        when(bookingRepository.findParticipantsById(1L)).thenReturn(Optional.of(participants));
+
+        assertEquals(participants, accessChecker.checkBookingItemOwner(1, 2), "Неверные участники бронирования");
+        AccessDeniedException exception = assertThrows(AccessDeniedException.class,
+                () -> accessChecker.checkBookingItemOwner(1, 1));
+
+        assertEquals("Пользователь 1 не является хозяином вещи", exception.getMessage());
+    }
+
+    @Test
+    void checkBookingParticipantShouldNotCacheMissingBooking() {
+        when(bookingRepository.findParticipantsById(9L)).thenReturn(Optional.empty())
+                .thenReturn(Optional.of(participants));
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> accessChecker.checkBookingParticipant(9, 1));
+        accessChecker.checkBookingParticipant(9, 1);
+
+        assertEquals("Бронирование 9 не найдено", exception.getMessage());
+        verify(bookingRepository, times(2)).findParticipantsById(9L);
+    }
+
+    @Test
+    void checkItemOwnerShouldCacheOwnerUntilItemEvicted() {
+        when(itemRepository.findOwnerIdById(5L)).thenReturn(Optional.of(2L)).thenReturn(Optional.empty());
+
+        accessChecker.checkItemOwner(5, 2);
+        assertThrows(AccessDeniedException.class, () -> accessChecker.checkItemOwner(5, 1));
+        accessChecker.evictItem(5);
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> accessChecker.checkItemOwner(5, 2));
+
+        assertEquals("Вещь 5 не найдена", exception.getMessage());
+        verify(itemRepository, times(2)).findOwnerIdById(5L);
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    @Test
+    void evictItemShouldDropBookingsOfItem() {
+        when(bookingRepository.findParticipantsById(1L)).thenReturn(Optional.of(participants));
+
+        accessChecker.checkBookingParticipant(1, 1);
+        accessChecker.evictItem(5);
+        accessChecker.checkBookingParticipant(1, 1);
+
+        verify(bookingRepository, times(2)).findParticipantsById(1L);
+    }
+}
@@ -5,23 +5,31 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.constants.AppConstants;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.streaming.NdjsonWriter;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -29,6 +37,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import(NdjsonWriter.class)
 class BookingControllerIT {
     @MockitoBean
     BookingServiceImpl bookingService;
@@ -101,6 +110,34 @@ class BookingControllerIT {
         verifyNoMoreInteractions(bookingService);
     }
 
+    @Test
+    @DisplayName("approveAll должна возвращать результат по каждому бронированию")
+    void shouldApproveBookingsInBatch() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1, true), new BookingDecisionDto(5, false));
+        when(bookingService.approveAll(decisions, 7))
+                .thenReturn(List.of(BookingDecisionResultDto.applied(1, BookingStatus.APPROVED),
+                        BookingDecisionResultDto.failed(5, "Бронирование 5 не найдено")));
+
+        RequestBuilder request = patch("/bookings/batch")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 7L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(decisions));
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].bookingId", is(1L), Long.class))
+                .andExpect(jsonPath("$[0].status", is(BookingStatus.APPROVED.toString())))
+                .andExpect(jsonPath("$[1].bookingId", is(5L), Long.class))
+                .andExpect(jsonPath("$[1].error", is("Бронирование 5 не найдено")));
+
+        verify(bookingService, times(1)).approveAll(decisions, 7);
+        verifyNoMoreInteractions(bookingService);
+    }
+
     @Test
     @DisplayName("getBooking должна возвращать бронирование по id")
     void shouldGetBookingById() throws Exception {
@@ -130,7 +167,7 @@ class BookingControllerIT {
     @Test
     @DisplayName("getBookings должна возвращать бронирования указанного пользователя")
     void shouldGetBookingsByBookerId() throws Exception {
-        when(bookingService.getByState(any(), anyLong()))
+        when(bookingService.getByState(any(), anyLong(), anyInt(), anyInt()))
                 .thenReturn(bookings);
 
         RequestBuilder request = get("/bookings")
@@ -145,15 +182,39 @@ class BookingControllerIT {
                 .andExpect(jsonPath("$[0].id", is(bookings.get(0).getId()), Long.class))
                 .andExpect(jsonPath("$[1].id", is(bookings.get(1).getId()), Long.class));
 
-        verify(bookingService, times(1)).getByState(any(), anyLong());
+        verify(bookingService, times(1)).getByState(any(), anyLong(), anyInt(), anyInt());
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    @DisplayName("getBookings должна возвращать общее количество бронирований, если оно запрошено")
+    void shouldGetBookingsWithTotalCount() throws Exception {
+        when(bookingService.getByState("PAST", 2L, 5, 1))
+                .thenReturn(List.of(bookings.getFirst()));
+        when(bookingService.countByState("PAST", 2L))
+                .thenReturn(6L);
+
+        RequestBuilder request = get("/bookings?state=PAST&from=5&size=1&count=true")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 2L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().string(AppConstants.TOTAL_COUNT_HEADER, "6"))
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].id", is(bookings.get(0).getId()), Long.class));
+
+        verify(bookingService, times(1)).getByState("PAST", 2L, 5, 1);
+        verify(bookingService, times(1)).countByState("PAST", 2L);
         verifyNoMoreInteractions(bookingService);
     }
 
     @Test
     @DisplayName("getByOwnerAndState должна возвращать бронирования вещей указанного пользователя")
     void shouldGetBookingsByOwnerId() throws Exception {
-        when(bookingService.getByOwnerAndState(any(), anyLong()))
-                .thenReturn(bookings);
+        when(bookingService.getByOwnerAndState(any(), anyLong(), any(), anyInt()))
+                .thenReturn(new CursorPage<>(bookings, "next"));
 
         RequestBuilder request = get("/bookings/owner")
                 .characterEncoding(StandardCharsets.UTF_8)
@@ -165,9 +226,33 @@ class BookingControllerIT {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].id", is(bookings.get(0).getId()), Long.class))
-                .andExpect(jsonPath("$[1].id", is(bookings.get(1).getId()), Long.class));
+                .andExpect(jsonPath("$[1].id", is(bookings.get(1).getId()), Long.class))
+                .andExpect(header().string(AppConstants.NEXT_CURSOR_HEADER, "next"));
+
+        verify(bookingService, times(1)).getByOwnerAndState(any(), anyLong(), any(), anyInt());
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    @DisplayName("getByOwnerAndState должна отдавать бронирования построчно в формате NDJSON, если он запрошен")
+    void shouldStreamBookingsByOwnerIdAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<BookingDto> sink = invocation.getArgument(2);
+            bookings.forEach(sink);
+            return null;
+        }).when(bookingService).streamByOwnerAndState(eq("CURRENT"), eq(2L), any());
+
+        RequestBuilder request = get("/bookings/owner?state=CURRENT")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header(AppConstants.USER_ID_HEADER, 2L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(bookings.get(0)) + "\n"
+                        + mapper.writeValueAsString(bookings.get(1)) + "\n"));
 
-        verify(bookingService, times(1)).getByOwnerAndState(any(), anyLong());
+        verify(bookingService, times(1)).streamByOwnerAndState(eq("CURRENT"), eq(2L), any());
         verifyNoMoreInteractions(bookingService);
     }
 
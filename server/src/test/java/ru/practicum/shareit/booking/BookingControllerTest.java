@@ -5,9 +5,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.constants.AppConstants;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -44,6 +49,21 @@ class BookingControllerTest {
         verifyNoMoreInteractions(bookingService);
     }
 
+    @Test
+    void approveAllShouldReturnResultsWhenInvoked() {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1, true), new BookingDecisionDto(2, false));
+        List<BookingDecisionResultDto> results = List.of(
+                BookingDecisionResultDto.applied(1, BookingStatus.APPROVED),
+                BookingDecisionResultDto.applied(2, BookingStatus.REJECTED));
+        when(bookingService.approveAll(decisions, 7)).thenReturn(results);
+
+        List<BookingDecisionResultDto> resultDtos = bookingController.approveAll(decisions, 7);
+
+        assertEquals(results, resultDtos, "Возвращённые данные не соответсвуют ожидаемым");
+        verify(bookingService, times(1)).approveAll(decisions, 7);
+        verifyNoMoreInteractions(bookingService);
+    }
+
     @Test
     void approveShouldReturnBookingDtoWhenInvoked() {
         when(bookingService.approve(2, true, 7))
@@ -70,25 +90,60 @@ class BookingControllerTest {
 
     @Test
     void getByStateShouldReturnListOfBookingDtoWhenInvoked() {
-        when(bookingService.getByState("ALL", 2L))
+        when(bookingService.getByState("ALL", 2L, 0, 10))
                 .thenReturn(bookings);
 
-        List<BookingDto> resultList = bookingController.getByState("ALL", 2L);
+        ResponseEntity<List<BookingDto>> response = bookingController.getByState("ALL", 0, 10, false, 2L);
 
-        assertEquals(bookings, resultList, "Возвращённые данные не соответсвуют ожидаемым");
-        verify(bookingService, times(1)).getByState("ALL", 2L);
+        assertEquals(bookings, response.getBody(), "Возвращённые данные не соответсвуют ожидаемым");
+        assertNull(response.getHeaders().getFirst(AppConstants.TOTAL_COUNT_HEADER),
+                "Общее количество не должно передаваться без запроса");
+        verify(bookingService, times(1)).getByState("ALL", 2L, 0, 10);
         verifyNoMoreInteractions(bookingService);
     }
 
     @Test
-    void getByOwnerAndStateShouldReturnListOfBookingDtoWhenInvoked() {
-        when(bookingService.getByOwnerAndState("ALL", 2L))
+    void getByStateShouldReturnTotalCountHeaderWhenRequested() {
+        when(bookingService.getByState("ALL", 2L, 0, 10))
                 .thenReturn(bookings);
+        when(bookingService.countByState("ALL", 2L))
+                .thenReturn(12L);
+
+        ResponseEntity<List<BookingDto>> response = bookingController.getByState("ALL", 0, 10, true, 2L);
+
+        assertEquals(bookings, response.getBody(), "Возвращённые данные не соответсвуют ожидаемым");
+        assertEquals("12", response.getHeaders().getFirst(AppConstants.TOTAL_COUNT_HEADER),
+                "Общее количество бронирований не соответствует ожидаемому");
+        verify(bookingService, times(1)).getByState("ALL", 2L, 0, 10);
+        verify(bookingService, times(1)).countByState("ALL", 2L);
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    void getByOwnerAndStateShouldReturnListOfBookingDtoWhenInvoked() {
+        when(bookingService.getByOwnerAndState("ALL", 2L, null, 10))
+                .thenReturn(new CursorPage<>(bookings, null));
+
+        ResponseEntity<List<BookingDto>> response = bookingController.getByOwnerAndState("ALL", null, 10, 2L);
+
+        assertEquals(bookings, response.getBody(), "Возвращённые данные не соответсвуют ожидаемым");
+        assertNull(response.getHeaders().getFirst(AppConstants.NEXT_CURSOR_HEADER),
+                "Курсор продолжения не должен передаваться для последней страницы");
+        verify(bookingService, times(1)).getByOwnerAndState("ALL", 2L, null, 10);
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    void getByOwnerAndStateShouldReturnNextCursorHeaderWhenMoreBookingsExist() {
+        when(bookingService.getByOwnerAndState("ALL", 2L, "first", 2))
+                .thenReturn(new CursorPage<>(bookings, "second"));
 
-        List<BookingDto> resultList = bookingController.getByOwnerAndState("ALL", 2L);
+        ResponseEntity<List<BookingDto>> response = bookingController.getByOwnerAndState("ALL", "first", 2, 2L);
 
-        assertEquals(bookings, resultList, "Возвращённые данные не соответсвуют ожидаемым");
-        verify(bookingService, times(1)).getByOwnerAndState("ALL", 2L);
+        assertEquals(bookings, response.getBody(), "Возвращённые данные не соответсвуют ожидаемым");
+        assertEquals("second", response.getHeaders().getFirst(AppConstants.NEXT_CURSOR_HEADER),
+                "Курсор продолжения не соответствует ожидаемому");
+        verify(bookingService, times(1)).getByOwnerAndState("ALL", 2L, "first", 2);
         verifyNoMoreInteractions(bookingService);
     }
-}
\ No newline at end of file
+}
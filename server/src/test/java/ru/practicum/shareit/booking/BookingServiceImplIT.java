@@ -8,13 +8,20 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.phase.BookingPhaseScheduler;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +33,7 @@ class BookingServiceImplIT {
     private final EntityManager em;
     private final BookingServiceImpl bookingService;
     private final BookingMapper bookingMapper;
+    private final BookingPhaseScheduler bookingPhaseScheduler;
 
     private final List<BookingDto> bookings = List.of(
             new BookingDto(1, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2),
@@ -57,4 +65,126 @@ class BookingServiceImplIT {
         assertEquals(newBookingDtoFromDB.getItem().getId(), newBookingDto.itemId());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("create должна отклонять бронирование, пересекающееся с подтверждённым")
+    void createShouldRejectBookingOverlappingApprovedOne() {
+        NewBookingDto newBookingDto = new NewBookingDto(1, LocalDateTime.of(2025, 9, 20, 12, 0),
+                LocalDateTime.of(2025, 10, 1, 12, 0));
+
+        assertThrows(BookingConflictException.class, () -> bookingService.create(newBookingDto, 1L));
+    }
+
+    @Test
+    @DisplayName("approve должна отклонять подтверждение, пересекающееся с подтверждённым бронированием")
+    void approveShouldRejectBookingOverlappingApprovedOne() {
+        BookingDto created = bookingService.create(new NewBookingDto(1, LocalDateTime.of(2025, 9, 27, 20, 0),
+                LocalDateTime.of(2025, 10, 1, 12, 0)), 1L);
+        BookingDto overlapping = bookingService.create(new NewBookingDto(1, LocalDateTime.of(2025, 9, 30, 12, 0),
+                LocalDateTime.of(2025, 10, 5, 12, 0)), 1L);
+
+        bookingService.approve(created.getId(), true, 2L);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.approve(overlapping.getId(), true, 2L));
+        assertEquals(BookingStatus.WAITING, getFromDB(overlapping.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("approveAll должна применять решения хозяина и отклонять чужие и пересекающиеся бронирования")
+    void approveAllShouldApplyOwnerDecisions() {
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        BookingDto first = bookingService.create(new NewBookingDto(1, start, start.plusDays(2)), 1L);
+        BookingDto overlapping = bookingService.create(new NewBookingDto(1, start.plusDays(1), start.plusDays(3)),
+                1L);
+        BookingDto rejected = bookingService.create(new NewBookingDto(1, start.plusDays(5), start.plusDays(6)), 1L);
+
+        List<BookingDecisionResultDto> results = bookingService.approveAll(List.of(
+                new BookingDecisionDto(first.getId(), true),
+                new BookingDecisionDto(overlapping.getId(), true),
+                new BookingDecisionDto(rejected.getId(), false)), 2L);
+        List<BookingDecisionResultDto> foreign = bookingService.approveAll(List.of(
+                new BookingDecisionDto(rejected.getId(), true)), 1L);
+        em.clear();
+
+        assertEquals(List.of(BookingStatus.APPROVED, BookingStatus.REJECTED), List.of(results.get(0).status(),
+                results.get(2).status()));
+        assertNotNull(results.get(1).error());
+        assertNotNull(foreign.getFirst().error());
+        assertEquals(BookingStatus.APPROVED, getFromDB(first.getId()).getStatus());
+        assertEquals(BookingStatus.WAITING, getFromDB(overlapping.getId()).getStatus());
+        assertEquals(BookingStatus.REJECTED, getFromDB(rejected.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("getByOwnerAndState должна постранично отдавать бронирования по курсору")
+    void getByOwnerAndStateShouldPageBookingsWithCursor() {
+        CursorPage<BookingDto> firstPage = bookingService.getByOwnerAndState("ALL", 2L, null, 1);
+        CursorPage<BookingDto> secondPage = bookingService.getByOwnerAndState("ALL", 2L, firstPage.nextCursor(), 1);
+
+        assertEquals(1, firstPage.content().size());
+        assertEquals(1L, firstPage.content().getFirst().getId());
+        assertNotNull(firstPage.nextCursor());
+        assertEquals(1, secondPage.content().size());
+        assertEquals(2L, secondPage.content().getFirst().getId());
+        assertNull(secondPage.nextCursor());
+    }
+
+    @Test
+    @DisplayName("streamByOwnerAndState должна отдавать все бронирования вещей владельца по порядку")
+    void streamByOwnerAndStateShouldEmitAllBookingsInOrder() {
+        List<BookingDto> streamed = new ArrayList<>();
+
+        bookingService.streamByOwnerAndState("ALL", 2L, streamed::add);
+
+        assertEquals(List.of(1L, 2L), streamed.stream().map(BookingDto::getId).toList());
+        assertEquals(1L, streamed.getFirst().getItem().getId());
+        assertEquals(1L, streamed.getFirst().getBooker().getId());
+    }
+
+    @Test
+    @DisplayName("getByOwnerAndState должна возвращать пустую страницу, если бронирований нет")
+    void getByOwnerAndStateShouldReturnEmptyPageWhenNoBookings() {
+        CursorPage<BookingDto> page = bookingService.getByOwnerAndState("ALL", 1L, null, 10);
+
+        assertTrue(page.content().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Фильтр по состоянию должен учитывать бронирования, чей переход фазы ещё не обработан")
+    void getByStateShouldUseFallbackForPendingPhaseTransitions() {
+        BookingDto current = bookingService.create(new NewBookingDto(1, LocalDateTime.now().plusSeconds(1),
+                LocalDateTime.now().plusDays(1)), 1L);
+        em.createQuery("update Booking b set b.start = :start where b.id = :id")
+                .setParameter("start", LocalDateTime.now().minusHours(1))
+                .setParameter("id", current.getId())
+                .executeUpdate();
+        em.clear();
+
+        assertEquals(BookingPhase.FUTURE, getFromDB(1L).getPhase());
+        assertEquals(List.of(1L, 2L), bookingService.getByState("PAST", 1L, 0, 10).stream()
+                .map(BookingDto::getId).toList());
+        assertEquals(List.of(current.getId()), bookingService.getByState("CURRENT", 1L, 0, 10).stream()
+                .map(BookingDto::getId).toList());
+        assertTrue(bookingService.getByState("FUTURE", 1L, 0, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Планировщик должен переводить наступившие бронирования в новую фазу")
+    void phaseSchedulerShouldAdvanceDueBookings() {
+        BookingDto current = bookingService.create(new NewBookingDto(1, LocalDateTime.now().plusSeconds(1),
+                LocalDateTime.now().plusDays(1)), 1L);
+        em.createQuery("update Booking b set b.start = :start where b.id = :id")
+                .setParameter("start", LocalDateTime.now().minusHours(1))
+                .setParameter("id", current.getId())
+                .executeUpdate();
+
+        bookingPhaseScheduler.advance();
+        em.clear();
+
+        assertEquals(BookingPhase.PAST, getFromDB(1L).getPhase());
+        assertEquals(BookingPhase.PAST, getFromDB(2L).getPhase());
+        assertEquals(BookingPhase.CURRENT, getFromDB(current.getId()).getPhase());
+        assertEquals(List.of(current.getId()), bookingService.getByState("CURRENT", 1L, 0, 10).stream()
+                .map(BookingDto::getId).toList());
+    }
+}
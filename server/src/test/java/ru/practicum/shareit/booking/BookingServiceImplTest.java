@@ -1,33 +1,51 @@
 package ru.practicum.shareit.booking;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.access.AccessChecker;
+import ru.practicum.shareit.access.BookingParticipants;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.lock.ItemLockStripes;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingApprovalTarget;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.phase.BookingPhaseScheduler;
 import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.InvalidBookingDateException;
+import ru.practicum.shareit.exception.InvalidCursorException;
 import ru.practicum.shareit.exception.ItemUnavailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,17 +55,29 @@ class BookingServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
     @Mock
+    private AccessChecker accessChecker;
+    @Mock
     private UserService userService;
     @Mock
     private ItemService itemService;
     @Mock
     private BookingMapper bookingMapper;
+    @Mock
+    private ItemLockStripes itemLockStripes;
+    @Mock
+    private BookingApprovalWriter bookingApprovalWriter;
+    @Mock
+    private BookingPhaseScheduler bookingPhaseScheduler;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private BookingServiceImpl bookingService;
 
     @Captor
     private ArgumentCaptor<Booking> bookingArgumentCaptor;
+    @Captor
+    private ArgumentCaptor<BookingStatusChangedEvent> eventArgumentCaptor;
 
     private final List<User> users = List.of(
             new User(1, "First user", "first@mail.ru"),
@@ -57,9 +87,9 @@ class BookingServiceImplTest {
 
     private final List<Item> items = List.of(
             new Item(1, "First item", "First item desc",
-                    true, users.get(1), null),
+                    true, users.get(1), null, 0),
             new Item(2, "Second item", "Not available item desc",
-                    false, users.getFirst(), null)
+                    false, users.getFirst(), null, 0)
     );
 
     private final List<Booking> bookings = List.of(
@@ -81,6 +111,14 @@ class BookingServiceImplTest {
                     items.getFirst(), users.getFirst(), BookingStatus.REJECTED)
     );
 
+    @BeforeEach
+    void runActionsUnderItemLock() {
+        lenient().when(itemLockStripes.withItemLock(anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().when(itemLockStripes.withItemLocks(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
     @Test
     void createShouldCreateBookingWhenInDataValid() {
         NewBookingDto newBookingDto = new NewBookingDto(1, LocalDateTime.now().plusHours(1),
@@ -90,7 +128,7 @@ class BookingServiceImplTest {
 
         bookingService.create(newBookingDto, 1);
 
-        verify(bookingRepository).save(bookingArgumentCaptor.capture());
+        verify(bookingRepository).saveAndFlush(bookingArgumentCaptor.capture());
         Booking createdBooking = bookingArgumentCaptor.getValue();
         assertEquals(newBookingDto.start(), createdBooking.getStart(),
                 "Время начала бронирования не совпадает");
@@ -102,12 +140,36 @@ class BookingServiceImplTest {
                 "id бронирующего пользователя не совпадает");
         assertEquals(BookingStatus.WAITING, createdBooking.getStatus(),
                 "Статус бронирования не WAITING");
+        assertEquals(BookingPhase.FUTURE, createdBooking.getPhase(),
+                "Фаза нового бронирования не FUTURE");
+        verify(bookingPhaseScheduler, times(1)).scheduleAt(newBookingDto.start());
+        verify(eventPublisher).publishEvent(eventArgumentCaptor.capture());
+        assertNull(eventArgumentCaptor.getValue().previousStatus(), "У нового бронирования не было статуса");
+        assertEquals(BookingStatus.WAITING, eventArgumentCaptor.getValue().status(),
+                "В событии передан неверный статус");
         verify(userService, times(1)).getUserById(1);
         verify(itemService, times(1)).getItemById(1);
+        verify(bookingRepository, times(1)).existsApprovedOverlap(1L, newBookingDto.start(), newBookingDto.end(), 0L);
         verify(bookingMapper, times(1)).toBookingDto(any());
         verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper);
     }
 
+    @Test
+    void createShouldThrowExceptionWhenApprovedBookingOverlaps() {
+        NewBookingDto newBookingDto = new NewBookingDto(1, LocalDateTime.now().plusHours(1),
+                LocalDateTime.now().plusHours(2));
+        when(userService.getUserById(1)).thenReturn(users.getFirst());
+        when(itemService.getItemById(1)).thenReturn(items.getFirst());
+        when(bookingRepository.existsApprovedOverlap(1L, newBookingDto.start(), newBookingDto.end(), 0L))
+                .thenReturn(true);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.create(newBookingDto, 1));
+
+        verify(bookingRepository, times(1)).existsApprovedOverlap(1L, newBookingDto.start(), newBookingDto.end(), 0L);
+        verify(bookingRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(bookingMapper);
+    }
+
     @Test
     void createShouldThrowExceptionWhenBookingDateIncorrect() {
         NewBookingDto newBookingDto = new NewBookingDto(1, LocalDateTime.now().plusHours(5),
@@ -142,176 +204,344 @@ class BookingServiceImplTest {
 
     @Test
     void approveShouldSetApproveBookingForItemOwner() {
+        when(accessChecker.checkBookingItemOwner(1, 2)).thenReturn(new BookingParticipants(1, 1, 2));
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(bookings.getFirst()));
 
         bookingService.approve(1, true, 2);
 
-        verify(bookingRepository).save(bookingArgumentCaptor.capture());
+        verify(bookingRepository).saveAndFlush(bookingArgumentCaptor.capture());
         Booking updatingBooking = bookingArgumentCaptor.getValue();
         assertEquals(BookingStatus.APPROVED, updatingBooking.getStatus(),
                 "Статус бронирования установлен не верно");
+        verify(eventPublisher).publishEvent(eventArgumentCaptor.capture());
+        assertEquals(new BookingStatusChangedEvent(1L, 1L, updatingBooking.getStart(), updatingBooking.getEnd(),
+                BookingStatus.WAITING, BookingStatus.APPROVED), eventArgumentCaptor.getValue(),
+                "Событие об изменении статуса не совпадает");
+        verify(accessChecker, times(1)).checkBookingItemOwner(1, 2);
         verify(bookingRepository, times(1)).findById(1L);
+        verify(bookingRepository, times(1)).existsApprovedOverlap(anyLong(), any(), any(), eq(1L));
         verify(bookingMapper, times(1)).toBookingDto(any());
         verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper);
     }
 
     @Test
     void approveShouldRejectBookingForItemOwner() {
+        when(accessChecker.checkBookingItemOwner(1, 2)).thenReturn(new BookingParticipants(1, 1, 2));
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(bookings.getFirst()));
 
         bookingService.approve(1, false, 2);
 
-        verify(bookingRepository).save(bookingArgumentCaptor.capture());
+        verify(bookingRepository).saveAndFlush(bookingArgumentCaptor.capture());
         Booking updatingBooking = bookingArgumentCaptor.getValue();
         assertEquals(BookingStatus.REJECTED, updatingBooking.getStatus(),
                 "Статус бронирования установлен не верно");
+        verify(eventPublisher).publishEvent(eventArgumentCaptor.capture());
+        assertEquals(BookingStatus.WAITING, eventArgumentCaptor.getValue().previousStatus(),
+                "В событии передан неверный прежний статус");
+        assertEquals(BookingStatus.REJECTED, eventArgumentCaptor.getValue().status(),
+                "В событии передан неверный статус");
+        verify(accessChecker, times(1)).checkBookingItemOwner(1, 2);
         verify(bookingRepository, times(1)).findById(1L);
         verify(bookingMapper, times(1)).toBookingDto(any());
         verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper);
     }
 
+    @Test
+    void approveShouldThrowExceptionWhenApprovedBookingOverlaps() {
+        Booking booking = new Booking(4, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2),
+                items.getFirst(), users.getFirst(), BookingStatus.WAITING);
+        when(accessChecker.checkBookingItemOwner(4, 2)).thenReturn(new BookingParticipants(1, 1, 2));
+        when(bookingRepository.findById(4L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.existsApprovedOverlap(1L, booking.getStart(), booking.getEnd(), 4L)).thenReturn(true);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.approve(4, true, 2));
+
+        assertEquals(BookingStatus.WAITING, booking.getStatus(), "Статус бронирования не должен меняться");
+        verify(bookingRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(bookingMapper, eventPublisher);
+    }
+
+    @Test
+    void approveShouldThrowConflictExceptionWhenExclusionConstraintViolated() {
+        Booking booking = new Booking(5, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2),
+                items.getFirst(), users.getFirst(), BookingStatus.WAITING);
+        when(accessChecker.checkBookingItemOwner(5, 2)).thenReturn(new BookingParticipants(1, 1, 2));
+        when(bookingRepository.findById(5L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.saveAndFlush(booking)).thenThrow(new DataIntegrityViolationException("overlap",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        assertThrows(BookingConflictException.class, () -> bookingService.approve(5, true, 2));
+
+        verifyNoInteractions(bookingMapper);
+    }
+
+    @Test
+    void approveShouldRethrowOtherDataIntegrityViolations() {
+        Booking booking = new Booking(6, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2),
+                items.getFirst(), users.getFirst(), BookingStatus.WAITING);
+        when(accessChecker.checkBookingItemOwner(6, 2)).thenReturn(new BookingParticipants(1, 1, 2));
+        when(bookingRepository.findById(6L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.saveAndFlush(booking)).thenThrow(new DataIntegrityViolationException("fk",
+                new SQLException("foreign key violation", "23503")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.approve(6, false, 2));
+    }
+
+    @Test
+    void approveAllShouldApplyDecisionsWithOneUpdatePerStatus() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingApprovalTarget> targets = List.of(
+                new BookingApprovalTarget(1, 1, 2, start, start.plusDays(1), BookingStatus.WAITING),
+                new BookingApprovalTarget(2, 1, 2, start.plusDays(2), start.plusDays(3), BookingStatus.APPROVED),
+                new BookingApprovalTarget(3, 2, 1, start, start.plusDays(1), BookingStatus.WAITING));
+        List<BookingDecisionDto> decisions = List.of(
+                new BookingDecisionDto(1, true),
+                new BookingDecisionDto(2, false),
+                new BookingDecisionDto(3, true),
+                new BookingDecisionDto(4, true),
+                new BookingDecisionDto(1, false));
+        when(bookingRepository.findApprovalTargets(Set.of(1L, 2L, 3L, 4L))).thenReturn(targets);
+        when(bookingRepository.findApprovalTargets(List.of(1L, 2L))).thenReturn(targets.subList(0, 2));
+
+        List<BookingDecisionResultDto> results = bookingService.approveAll(decisions, 2);
+
+        assertEquals(List.of(
+                BookingDecisionResultDto.applied(1, BookingStatus.APPROVED),
+                BookingDecisionResultDto.applied(2, BookingStatus.REJECTED),
+                BookingDecisionResultDto.failed(3, "Пользователь 2 не является хозяином вещи"),
+                BookingDecisionResultDto.failed(4, "Бронирование 4 не найдено"),
+                BookingDecisionResultDto.failed(1, "Бронирование 1 указано в запросе повторно")), results,
+                "Результаты обработки бронирований не совпадают");
+        verify(itemLockStripes, times(1)).withItemLocks(eq(Set.of(1L)), any());
+        verify(bookingRepository, times(1)).findApprovalTargets(Set.of(1L, 2L, 3L, 4L));
+        verify(bookingRepository, times(1)).findApprovalTargets(List.of(1L, 2L));
+        verify(bookingRepository, times(1)).updateStatus(List.of(2L), BookingStatus.REJECTED);
+        verify(bookingRepository, times(1)).existsApprovedOverlap(1L, start, start.plusDays(1), 1L);
+        verify(bookingApprovalWriter, times(1)).approve(List.of(1L));
+        verify(eventPublisher).publishEvent(new BookingStatusChangedEvent(2, 1, start.plusDays(2), start.plusDays(3),
+                BookingStatus.APPROVED, BookingStatus.REJECTED));
+        verify(eventPublisher).publishEvent(new BookingStatusChangedEvent(1, 1, start, start.plusDays(1),
+                BookingStatus.WAITING, BookingStatus.APPROVED));
+        verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper, eventPublisher);
+    }
+
+    @Test
+    void approveAllShouldNotApproveBookingsOverlappingEachOtherOrApprovedOnes() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingApprovalTarget> targets = List.of(
+                new BookingApprovalTarget(1, 1, 2, start, start.plusDays(2), BookingStatus.WAITING),
+                new BookingApprovalTarget(2, 1, 2, start.plusDays(1), start.plusDays(3), BookingStatus.WAITING),
+                new BookingApprovalTarget(3, 1, 2, start.plusDays(5), start.plusDays(6), BookingStatus.WAITING));
+        when(bookingRepository.findApprovalTargets(Set.of(1L, 2L, 3L))).thenReturn(targets);
+        when(bookingRepository.findApprovalTargets(List.of(1L, 2L, 3L))).thenReturn(targets);
+        when(bookingRepository.existsApprovedOverlap(1L, start, start.plusDays(2), 1L)).thenReturn(false);
+        when(bookingRepository.existsApprovedOverlap(1L, start.plusDays(5), start.plusDays(6), 3L)).thenReturn(true);
+
+        List<BookingDecisionResultDto> results = bookingService.approveAll(List.of(
+                new BookingDecisionDto(1, true),
+                new BookingDecisionDto(2, true),
+                new BookingDecisionDto(3, true)), 2);
+
+        assertEquals(BookingStatus.APPROVED, results.get(0).status(), "Бронирование без пересечений не подтверждено");
+        assertNotNull(results.get(1).error(), "Пересекающееся внутри пакета бронирование подтверждено");
+        assertNotNull(results.get(2).error(), "Пересекающееся с подтверждённым бронирование подтверждено");
+        verify(bookingApprovalWriter, times(1)).approve(List.of(1L));
+        verify(bookingRepository, never()).updateStatus(any(), eq(BookingStatus.REJECTED));
+    }
+
+    @Test
+    void approveAllShouldReportOnlyBookingsRejectedByExclusionConstraint() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingApprovalTarget> targets = List.of(
+                new BookingApprovalTarget(1, 1, 2, start, start.plusDays(1), BookingStatus.WAITING),
+                new BookingApprovalTarget(2, 1, 2, start.plusDays(2), start.plusDays(3), BookingStatus.WAITING),
+                new BookingApprovalTarget(3, 1, 2, start.plusDays(4), start.plusDays(5), BookingStatus.WAITING));
+        when(bookingRepository.findApprovalTargets(Set.of(1L, 2L, 3L))).thenReturn(targets);
+        when(bookingRepository.findApprovalTargets(List.of(1L, 2L, 3L))).thenReturn(targets);
+        when(bookingApprovalWriter.approve(List.of(1L, 3L))).thenReturn(Set.of(3L));
+
+        List<BookingDecisionResultDto> results = bookingService.approveAll(List.of(
+                new BookingDecisionDto(1, true),
+                new BookingDecisionDto(2, false),
+                new BookingDecisionDto(3, true)), 2);
+
+        assertEquals(BookingDecisionResultDto.applied(1, BookingStatus.APPROVED), results.get(0));
+        assertEquals(BookingDecisionResultDto.applied(2, BookingStatus.REJECTED), results.get(1),
+                "Отклонение не должно откатываться из-за конфликта другого бронирования");
+        assertNotNull(results.get(2).error(), "Бронирование, отклонённое ограничением, должно быть неудавшимся");
+        verify(bookingRepository, times(1)).updateStatus(List.of(2L), BookingStatus.REJECTED);
+        verify(eventPublisher, never()).publishEvent(new BookingStatusChangedEvent(3, 1, start.plusDays(4),
+                start.plusDays(5), BookingStatus.WAITING, BookingStatus.APPROVED));
+    }
+
+    @Test
+    void approveAllShouldNotTakeLocksWhenNoBookingsOwned() {
+        when(bookingRepository.findApprovalTargets(Set.of(3L))).thenReturn(List.of(
+                new BookingApprovalTarget(3, 2, 1, LocalDateTime.now(), LocalDateTime.now().plusDays(1),
+                        BookingStatus.WAITING)));
+
+        List<BookingDecisionResultDto> results = bookingService.approveAll(List.of(new BookingDecisionDto(3, true)),
+                2);
+
+        assertEquals(List.of(BookingDecisionResultDto.failed(3, "Пользователь 2 не является хозяином вещи")), results,
+                "Результаты обработки бронирований не совпадают");
+        verifyNoInteractions(itemLockStripes, eventPublisher);
+    }
+
     @Test
     void approveShouldThrowExceptionWhenUserIsNotItemOwner() {
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(bookings.getFirst()));
+        when(accessChecker.checkBookingItemOwner(1, 1))
+                .thenThrow(new AccessDeniedException("Пользователь 1 не является хозяином вещи"));
 
         AccessDeniedException exception = assertThrows(AccessDeniedException.class,
                 () -> bookingService.approve(1, false, 1));
 
         assertEquals("Пользователь 1 не является хозяином вещи",
                 exception.getMessage());
-        verify(bookingRepository, times(1)).findById(1L);
-        verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper);
+        verify(accessChecker, times(1)).checkBookingItemOwner(1, 1);
+        verifyNoInteractions(bookingRepository, itemLockStripes, bookingMapper, eventPublisher);
     }
 
     @Test
-    void findBookingByIdShouldThrowExceptionWhenBookingNotFound() {
-        when(bookingRepository.findById(1L)).thenReturn(Optional.empty());
+    void approveShouldThrowExceptionWhenBookingNotFound() {
+        when(accessChecker.checkBookingItemOwner(9, 2))
+                .thenThrow(new NotFoundException("Бронирование 9 не найдено"));
 
         NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> bookingService.findBookingById(1L));
-        assertEquals("Бронирование 1 не найдено", exception.getMessage());
-        verify(bookingRepository, times(1)).findById(1L);
-        verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper);
+                () -> bookingService.approve(9, true, 2));
+
+        assertEquals("Бронирование 9 не найдено", exception.getMessage());
+        verify(accessChecker, times(1)).checkBookingItemOwner(9, 2);
+        verifyNoInteractions(bookingRepository, itemLockStripes);
     }
 
     @Test
-    void findByIdShouldReturnBookingDtoWhenUserIsOwner() {
+    void approveShouldChangeStatusUnderItemLock() {
+        when(accessChecker.checkBookingItemOwner(1, 2)).thenReturn(new BookingParticipants(1, 1, 2));
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(bookings.getFirst()));
-        when(bookingMapper.toBookingDto(bookings.getFirst())).thenReturn(bookingsDtos.getFirst());
 
-        BookingDto resultDto = bookingService.findById(1L, 2L);
+        bookingService.approve(1, false, 2);
 
-        assertEquals(bookingsDtos.getFirst(), resultDto, "Возвращённые данные не соответствуют ожидаемым");
+        verify(itemLockStripes, times(1)).withItemLock(eq(1L), any());
+    }
+
+    @Test
+    void findBookingByIdShouldThrowExceptionWhenBookingNotFound() {
+        when(bookingRepository.findById(1L)).thenReturn(Optional.empty());
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> bookingService.findBookingById(1L));
+        assertEquals("Бронирование 1 не найдено", exception.getMessage());
         verify(bookingRepository, times(1)).findById(1L);
-        verify(bookingMapper, times(1)).toBookingDto(bookings.getFirst());
         verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper);
     }
 
     @Test
-    void findByIdShouldReturnBookingDtoWhenUserIsBooker() {
+    void findByIdShouldReturnBookingDtoWhenUserIsParticipant() {
+        when(accessChecker.checkBookingParticipant(1L, 2L)).thenReturn(new BookingParticipants(1, 1, 2));
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(bookings.getFirst()));
         when(bookingMapper.toBookingDto(bookings.getFirst())).thenReturn(bookingsDtos.getFirst());
 
-        BookingDto resultDto = bookingService.findById(1L, 1L);
+        BookingDto resultDto = bookingService.findById(1L, 2L);
 
         assertEquals(bookingsDtos.getFirst(), resultDto, "Возвращённые данные не соответствуют ожидаемым");
+        verify(accessChecker, times(1)).checkBookingParticipant(1L, 2L);
         verify(bookingRepository, times(1)).findById(1L);
         verify(bookingMapper, times(1)).toBookingDto(bookings.getFirst());
-        verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper);
+        verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper, accessChecker);
     }
 
     @Test
-    void findByIdShouldThrowExceptionWhenUserIsNotBookerAndIsNotOwner() {
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(bookings.getFirst()));
+    void findByIdShouldNotLoadBookingWhenAccessDenied() {
+        when(accessChecker.checkBookingParticipant(1L, 3L))
+                .thenThrow(new AccessDeniedException("Пользователю 3 доступ к бронированию запрещён"));
 
         AccessDeniedException exception = assertThrows(AccessDeniedException.class,
                 () -> bookingService.findById(1L, 3L));
 
         assertEquals("Пользователю 3 доступ к бронированию запрещён", exception.getMessage());
-        verify(bookingRepository, times(1)).findById(1L);
-        verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper);
+        verifyNoInteractions(bookingRepository, bookingMapper);
     }
 
     @Test
+    @SuppressWarnings("unchecked")
     void getByStateShouldReturnListOfBookingDtoWhenInvoked() {
-        when(bookingRepository.findAllByBooker_Id(anyLong(), any())).thenReturn(bookings);
+        when(bookingRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(bookings, ScrollPosition::offset));
         when(bookingMapper.toBookingDto(any())).thenReturn(bookingsDtos.getFirst());
 
-        List<BookingDto> resultBookingsDtos = bookingService.getByState("ALL", 1L);
+        List<BookingDto> resultBookingsDtos = bookingService.getByState("ALL", 1L, 0, 10);
 
         assertEquals(bookings.size(), resultBookingsDtos.size(), "Размер возвращённого списка неверен");
         assertEquals(bookingsDtos.getFirst(), resultBookingsDtos.getFirst(), "Возвращённые данные не соответствуют ожидаемым");
-        verify(bookingRepository, times(1)).findAllByBooker_Id(anyLong(), any());
+        verify(bookingRepository, times(1)).findBy(any(Specification.class), any());
         verify(bookingMapper, times(3)).toBookingDto(any());
         verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper);
     }
 
     @Test
-    void getByOwnerAndStateShouldReturnListOfBookingDtoWhenInvoked() {
-        when(bookingRepository.findAllByOwner(anyLong(), any())).thenReturn(bookings);
-        when(bookingMapper.toBookingDto(any())).thenReturn(bookingsDtos.getFirst());
+    void getByStateShouldReturnEmptyListWhenStateInvalid() {
+        List<BookingDto> resultBookingsDtos = bookingService.getByState("BEST", 1L, 0, 10);
 
-        List<BookingDto> resultBookingsDtos = bookingService.getByOwnerAndState("ALL", 1L);
+        assertTrue(resultBookingsDtos.isEmpty(), "Возвращённый список должен быть пустым");
+        verifyNoInteractions(bookingRepository, userService, itemService, bookingMapper);
+    }
 
-        assertEquals(bookings.size(), resultBookingsDtos.size(), "Размер возвращённого списка неверен");
-        assertEquals(bookingsDtos.getFirst(), resultBookingsDtos.getFirst(), "Возвращённые данные не соответствуют ожидаемым");
-        verify(bookingRepository, times(1)).findAllByOwner(anyLong(), any());
-        verify(bookingMapper, times(3)).toBookingDto(any());
+    @Test
+    @SuppressWarnings("unchecked")
+    void countByStateShouldReturnCountFromRepository() {
+        when(bookingRepository.count(any(Specification.class))).thenReturn(7L);
+
+        assertEquals(7L, bookingService.countByState("past", 1L), "Количество бронирований неверно");
+        assertEquals(0L, bookingService.countByState("BEST", 1L), "Для неизвестного статуса количество равно 0");
+        verify(bookingRepository, times(1)).count(any(Specification.class));
         verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper);
     }
 
     @Test
-    void getByOwnerAndStateShouldThrowExceptionWhenNoBookingsFound() {
-        when(bookingRepository.findAllByOwner(anyLong(), any())).thenReturn(List.of());
+    @SuppressWarnings("unchecked")
+    void getByOwnerAndStateShouldReturnPageWithNextCursorWhenMoreBookingsExist() {
+        when(bookingRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(bookings, ScrollPosition::offset, true));
+        when(bookingMapper.toBookingDto(any())).thenReturn(bookingsDtos.getFirst());
 
-        NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> bookingService.getByOwnerAndState("ALL", 1L));
+        CursorPage<BookingDto> page = bookingService.getByOwnerAndState("ALL", 2L, null, 3);
 
-        assertEquals("Бронирований не найдено", exception.getMessage());
-        verify(bookingRepository, times(1)).findAllByOwner(anyLong(), any());
+        assertEquals(bookings.size(), page.content().size(), "Размер возвращённого списка неверен");
+        assertEquals(new Cursor(bookings.getLast().getStart(), bookings.getLast().getId()),
+                Cursor.decode(page.nextCursor()), "Курсор должен указывать на последнее бронирование страницы");
+        verify(bookingRepository, times(1)).findBy(any(Specification.class), any());
+        verify(bookingMapper, times(3)).toBookingDto(any());
         verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper);
     }
 
-    private Method getFilterAndMapMethod()
-            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        Method method = BookingServiceImpl.class.getDeclaredMethod("filterAndMapBookings",
-                List.class, String.class);
-        method.setAccessible(true);
-        return method;
+    @Test
+    @SuppressWarnings("unchecked")
+    void getByOwnerAndStateShouldReturnEmptyPageWhenNoBookingsFound() {
+        String cursor = new Cursor(LocalDateTime.now(), 5L).encode();
+        when(bookingRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+        CursorPage<BookingDto> page = bookingService.getByOwnerAndState("FUTURE", 1L, cursor, 10);
+
+        assertTrue(page.content().isEmpty(), "Возвращённый список должен быть пустым");
+        assertNull(page.nextCursor(), "Курсор продолжения должен отсутствовать");
+        verify(bookingRepository, times(1)).findBy(any(Specification.class), any());
+        verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper);
     }
 
     @Test
-    void filterAndMapBookingsShouldReturnEmptyListWhenStatusInvalid()
-            throws InvocationTargetException, NoSuchMethodException, IllegalAccessException {
-        Method method = getFilterAndMapMethod();
-
-        @SuppressWarnings("unchecked") List<BookingDto> resultBookingsDtos =
-                (List<BookingDto>) method.invoke(bookingService, bookings, "BEST");
+    void getByOwnerAndStateShouldReturnEmptyPageWhenStateInvalid() {
+        CursorPage<BookingDto> page = bookingService.getByOwnerAndState("BEST", 1L, null, 10);
 
-        assertTrue(resultBookingsDtos.isEmpty(), "Возвращённый список должен быть пустым");
+        assertTrue(page.content().isEmpty(), "Возвращённый список должен быть пустым");
         verifyNoInteractions(bookingRepository, userService, itemService, bookingMapper);
     }
 
-    @ParameterizedTest
-    @CsvSource(value = {
-            "CURRENT, 1",
-            "FUTURE, 0",
-            "PAST, 2",
-            "WAITING, 1",
-            "REJECTED, 2"
-    }, ignoreLeadingAndTrailingWhitespace = true)
-    void filterAndMapBookingsShouldFilterPastBooking(String status, int dtoIndex)
-            throws InvocationTargetException, NoSuchMethodException, IllegalAccessException {
-        Method method = getFilterAndMapMethod();
-
-        when(bookingMapper.toBookingDto(any())).thenReturn(bookingsDtos.get(dtoIndex));
-
-        @SuppressWarnings("unchecked") List<BookingDto> resultBookingsDtos =
-                (List<BookingDto>) method.invoke(bookingService, bookings, status);
-
-        assertEquals(1, resultBookingsDtos.size(), "Размер возвращённого списка неверен");
-        assertEquals(bookingsDtos.get(dtoIndex), resultBookingsDtos.getFirst(), "Возвращённые данные не соответствуют ожидаемым");
-        verify(bookingMapper, times(1)).toBookingDto(any());
-        verifyNoMoreInteractions(bookingRepository, userService, itemService, bookingMapper);
+    @Test
+    void getByOwnerAndStateShouldThrowExceptionWhenCursorInvalid() {
+        assertThrows(InvalidCursorException.class,
+                () -> bookingService.getByOwnerAndState("ALL", 1L, "???", 10));
+        verifyNoInteractions(bookingRepository, userService, itemService, bookingMapper);
     }
-}
\ No newline at end of file
+}
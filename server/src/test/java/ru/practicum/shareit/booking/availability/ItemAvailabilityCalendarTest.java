@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking.availability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityCalendarTest {
+    private static final LocalDate FROM = LocalDate.of(2026, 11, 1);
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemAvailabilityCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new ItemAvailabilityCalendar(bookingRepository, itemRepository, new SimpleMeterRegistry(), 1000);
+    }
+
+    @Test
+    void bookedDaysShouldBuildBitmapFromApprovedBookingsOnce() {
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findApprovedPeriodsByItemId(1L)).thenReturn(List.of(
+                new BookingPeriod(FROM.plusDays(2).atTime(10, 0), FROM.plusDays(4).atTime(9, 0)),
+                new BookingPeriod(FROM.plusDays(6).atTime(12, 0), FROM.plusDays(8).atStartOfDay())));
+
+        BitSet booked = calendar.bookedDays(1, FROM, FROM.plusDays(9));
+        calendar.bookedDays(1, FROM, FROM.plusDays(9));
+
+        assertEquals(days(2, 3, 4, 6, 7), booked, "Неверно определены занятые дни");
+        verify(itemRepository, times(1)).existsById(1L);
+        verify(bookingRepository, times(1)).findApprovedPeriodsByItemId(1L);
+        verifyNoMoreInteractions(itemRepository, bookingRepository);
+    }
+
+    @Test
+    void bookedDaysShouldHandleBookingsSpanningSeveralWords() {
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findApprovedPeriodsByItemId(1L)).thenReturn(List.of(
+                new BookingPeriod(FROM.minusDays(100).atTime(10, 0), FROM.plusDays(200).atTime(10, 0))));
+
+        BitSet booked = calendar.bookedDays(1, FROM.minusDays(101), FROM.plusDays(201));
+
+        assertEquals(301, booked.cardinality(), "Неверное количество занятых дней");
+        assertEquals(1, booked.nextSetBit(0), "Неверный первый занятый день");
+        assertEquals(301, booked.length() - 1, "Неверный последний занятый день");
+    }
+
+    @Test
+    void bookedDaysShouldThrowExceptionWhenItemNotFound() {
+        when(itemRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> calendar.bookedDays(9, FROM, FROM));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void onBookingStatusChangedShouldSetDaysOfApprovedBooking() {
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findApprovedPeriodsByItemId(1L)).thenReturn(List.of());
+        assertTrue(calendar.bookedDays(1, FROM, FROM.plusDays(9)).isEmpty(), "Вещь без бронирований занята");
+
+        calendar.onBookingStatusChanged(event(FROM.plusDays(1).atTime(8, 0), FROM.plusDays(2).atTime(20, 0),
+                BookingStatus.WAITING, BookingStatus.APPROVED));
+
+        assertEquals(days(1, 2), calendar.bookedDays(1, FROM, FROM.plusDays(9)),
+                "Подтверждённое бронирование не учтено");
+        verify(bookingRepository, times(1)).findApprovedPeriodsByItemId(1L);
+    }
+
+    @Test
+    void onBookingStatusChangedShouldRebuildBitmapWhenApprovalRevoked() {
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findApprovedPeriodsByItemId(1L))
+                .thenReturn(List.of(new BookingPeriod(FROM.atTime(8, 0), FROM.atTime(20, 0))))
+                .thenReturn(List.of());
+        assertEquals(days(0), calendar.bookedDays(1, FROM, FROM), "Подтверждённое бронирование не учтено");
+
+        calendar.onBookingStatusChanged(event(FROM.atTime(8, 0), FROM.atTime(20, 0),
+                BookingStatus.APPROVED, BookingStatus.REJECTED));
+
+        assertTrue(calendar.bookedDays(1, FROM, FROM).isEmpty(), "Отклонённое бронирование осталось в календаре");
+        verify(bookingRepository, times(2)).findApprovedPeriodsByItemId(1L);
+    }
+
+    @Test
+    void onBookingStatusChangedShouldIgnoreItemsNotInCache() {
+        calendar.onBookingStatusChanged(event(FROM.atTime(8, 0), FROM.atTime(20, 0),
+                BookingStatus.WAITING, BookingStatus.APPROVED));
+
+        verifyNoInteractions(itemRepository, bookingRepository);
+    }
+
+    private static BookingStatusChangedEvent event(LocalDateTime start, LocalDateTime end,
+                                                   BookingStatus previousStatus, BookingStatus status) {
+        return new BookingStatusChangedEvent(5, 1, start, end, previousStatus, status);
+    }
+
+    private static BitSet days(int... offsets) {
+        BitSet days = new BitSet();
+        for (int offset : offsets) {
+            days.set(offset);
+        }
+        return days;
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking.lock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemLockStripesTest {
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void constructorShouldRejectStripeCountThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ItemLockStripes(transactionManager, jdbcTemplate, meterRegistry, 10, false));
+    }
+
+    @Test
+    void withItemLockShouldSerializeActionsOnSameItem() throws Exception {
+        ItemLockStripes lockStripes = new ItemLockStripes(transactionManager, jdbcTemplate, meterRegistry, 16, false);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<Integer>> futures = executor.invokeAll(Collections.nCopies(32, () ->
+                    lockStripes.withItemLock(7L, () -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        Thread.onSpinWait();
+                        return inside.decrementAndGet();
+                    })));
+            for (Future<Integer> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, maxInside.get(), "Действия над одной вещью должны выполняться по очереди");
+        assertEquals(32L, meterRegistry.get("shareit.booking.item_lock.wait").timer().count(),
+                "Каждый захват блокировки должен попадать в метрику ожидания");
+    }
+
+    @Test
+    void withItemLockShouldNotBlockActionsOnItemsInOtherStripes() throws Exception {
+        ItemLockStripes lockStripes = new ItemLockStripes(transactionManager, jdbcTemplate, meterRegistry, 16, false);
+        assertNotEquals(lockStripes.stripeIndex(1L), lockStripes.stripeIndex(2L));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<Boolean> holder = executor.submit(() -> lockStripes.withItemLock(1L, () -> {
+                holding.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }));
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+            assertEquals("done", lockStripes.withItemLock(2L, () -> "done"),
+                    "Блокировка одной вещи не должна задерживать другую");
+
+            release.countDown();
+            assertTrue(holder.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, lockStripes.queueLength(), "После освобождения очередь ожидания должна быть пустой");
+    }
+
+    @Test
+    void withItemLockShouldReleaseStripeWhenActionFails() {
+        ItemLockStripes lockStripes = new ItemLockStripes(transactionManager, jdbcTemplate, meterRegistry, 16, false);
+
+        assertThrows(IllegalStateException.class, () -> lockStripes.withItemLock(3L, () -> {
+            throw new IllegalStateException("fail");
+        }));
+
+        assertEquals("ok", lockStripes.withItemLock(3L, () -> "ok"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void withItemLocksShouldTakeAdvisoryLocksInItemOrderOnPostgres() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        ItemLockStripes lockStripes = new ItemLockStripes(transactionManager, jdbcTemplate, meterRegistry, 16, true);
+
+        lockStripes.withItemLocks(List.of(5L, 3L, 5L), () -> null);
+
+        var inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), eq(3L));
+        inOrder.verify(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), eq(5L));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void withItemLockShouldSkipAdvisoryLocksOnOtherDatabases() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        ItemLockStripes lockStripes = new ItemLockStripes(transactionManager, jdbcTemplate, meterRegistry, 16, true);
+
+        lockStripes.withItemLock(5L, () -> null);
+
+        verify(jdbcTemplate, never()).query(anyString(), any(ResultSetExtractor.class), any(Object[].class));
+    }
+}
@@ -18,7 +18,7 @@ class BookingMapperTest {
     void toBookingDtoShouldMapBookingToBookingDto() {
         User user = new User(1, "First user", "first@mail.ru");
         Item item = new Item(1, "First item", "First item desc",
-                true, user, null);
+                true, user, null, 0);
         Booking booking =  new Booking(1, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2),
                 item, user, BookingStatus.WAITING);
 
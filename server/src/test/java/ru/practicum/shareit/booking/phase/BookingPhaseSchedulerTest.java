@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.phase;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingPhase;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPhaseSchedulerTest {
+    private static final Set<BookingPhase> NOT_PAST = Set.of(BookingPhase.FUTURE, BookingPhase.CURRENT);
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BookingPhaseScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new BookingPhaseScheduler(bookingRepository, transactionManager, meterRegistry, 2,
+                Duration.ofMinutes(1));
+    }
+
+    @Test
+    void advanceShouldMoveDueBookingsInBatchesUntilQueueHeadIsNotDue() {
+        LocalDateTime due = LocalDateTime.now().minusMinutes(5);
+        when(bookingRepository.findPhaseTransitionsEndedBefore(eq(NOT_PAST), any(), eq(2)))
+                .thenReturn(List.of(new PhaseTransition(1, due), new PhaseTransition(2, due)))
+                .thenReturn(List.of(new PhaseTransition(3, due)));
+        when(bookingRepository.findPhaseTransitionsStartedBefore(eq(BookingPhase.FUTURE), any(), eq(2)))
+                .thenReturn(List.of());
+        when(bookingRepository.updatePhase(any(), any(), any())).thenAnswer(invocation ->
+                invocation.<List<Long>>getArgument(0).size());
+
+        scheduler.advance();
+
+        verify(bookingRepository, times(2)).findPhaseTransitionsEndedBefore(eq(NOT_PAST), any(), eq(2));
+        verify(bookingRepository).updatePhase(List.of(1L, 2L), NOT_PAST, BookingPhase.PAST);
+        verify(bookingRepository).updatePhase(List.of(3L), NOT_PAST, BookingPhase.PAST);
+        verify(bookingRepository, times(1)).findPhaseTransitionsStartedBefore(eq(BookingPhase.FUTURE), any(),
+                eq(2));
+        assertEquals(3L, meterRegistry.get("shareit.booking.phase.lag").timer().count(),
+                "Задержка должна фиксироваться для каждого перехода");
+        assertEquals(3.0, meterRegistry.get("shareit.booking.phase.transitions").tag("phase", "PAST")
+                .counter().count(), "Количество переходов в PAST неверно");
+    }
+
+    @Test
+    void advanceIfDueShouldSkipRunUntilNextDueTime() {
+        when(bookingRepository.findMinStartByPhase(BookingPhase.FUTURE))
+                .thenReturn(LocalDateTime.now().plusHours(1));
+
+        scheduler.advanceIfDue();
+        scheduler.advanceIfDue();
+
+        verify(bookingRepository, times(1)).findPhaseTransitionsEndedBefore(any(), any(), anyInt());
+        assertEquals(0.0, scheduler.overdueSeconds(), "Переход ещё не просрочен");
+    }
+
+    @Test
+    void scheduleAtShouldBringNextRunForward() {
+        scheduler.advance();
+        scheduler.scheduleAt(LocalDateTime.now().minusSeconds(1));
+
+        scheduler.advanceIfDue();
+
+        verify(bookingRepository, times(2)).findPhaseTransitionsStartedBefore(any(), any(), anyInt());
+    }
+
+    @Test
+    void scheduleAtShouldNotPostponeEarlierDueTime() {
+        scheduler.scheduleAt(LocalDateTime.now().plusHours(1));
+
+        scheduler.advanceIfDue();
+
+        verify(bookingRepository, times(1)).findPhaseTransitionsStartedBefore(any(), any(), anyInt());
+    }
+
+    @Test
+    void advanceShouldKeepDueTimeScheduledWhileRunning() {
+        when(bookingRepository.findPhaseTransitionsStartedBefore(any(), any(), anyInt())).thenAnswer(invocation -> {
+            // Бронирование создаётся во время прохода, его транзакция ещё не зафиксирована
+            scheduler.scheduleAt(LocalDateTime.now().minusSeconds(1));
+            return List.of();
+        }).thenReturn(List.of());
+        when(bookingRepository.findMinStartByPhase(BookingPhase.FUTURE))
+                .thenReturn(LocalDateTime.now().plusHours(1));
+
+        scheduler.advance();
+        scheduler.advanceIfDue();
+
+        verify(bookingRepository, times(2)).findPhaseTransitionsStartedBefore(any(), any(), anyInt());
+    }
+
+    @Test
+    void phaseAtShouldFollowBookingBoundaries() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(BookingPhase.FUTURE, BookingPhase.at(now.plusHours(1), now.plusHours(2), now));
+        assertEquals(BookingPhase.CURRENT, BookingPhase.at(now.minusHours(1), now.plusHours(2), now));
+        assertEquals(BookingPhase.PAST, BookingPhase.at(now.minusHours(2), now.minusHours(1), now));
+    }
+}
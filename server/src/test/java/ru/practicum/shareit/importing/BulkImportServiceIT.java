@@ -0,0 +1,108 @@
+package ru.practicum.shareit.importing;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.importing.dto.ImportErrorDto;
+import ru.practicum.shareit.importing.dto.ImportReportDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BulkImportServiceIT {
+    private final EntityManager manager;
+    private final BulkImportService bulkImportService;
+
+    @Test
+    @DisplayName("Должен импортировать пользователей из NDJSON, пропуская повторы и некорректные строки")
+    void shouldImportUsersSkippingDuplicatesAndInvalidRows() {
+        ImportReportDto report = bulkImportService.importUsers(1L, new StringReader(String.join("\n",
+                "{\"name\": \"Иван\", \"email\": \"ivan@mail.ru\"}",
+                "{\"name\": \"Иван-2\", \"email\": \"ivan@mail.ru\"}",
+                "{\"name\": \"Старый\", \"email\": \"first@mail.ru\"}",
+                "{\"name\": \"Без почты\", \"email\": \"nobody\"}",
+                "{\"name\": \"Анна\", \"email\": \"anna@mail.ru\"}")), ImportFormat.NDJSON);
+
+        assertThat(report.rows(), equalTo(5L));
+        assertThat(report.imported(), equalTo(2L));
+        assertThat(report.failed(), equalTo(3L));
+        assertThat(report.errors().stream().map(ImportErrorDto::line).toList(), equalTo(List.of(2L, 3L, 4L)));
+        assertThat(manager.createQuery("select u.name from User u where u.id >= 100 order by u.id", String.class)
+                .getResultList(), equalTo(List.of("Иван", "Анна")));
+    }
+
+    @Test
+    @DisplayName("Должен импортировать вещи из CSV, проверяя владельцев и запросы")
+    void shouldImportItemsFromCsv() {
+        ImportReportDto report = bulkImportService.importItems(1L, new StringReader("""
+                name,description,available,ownerId,requestId
+                Дрель,"Ударная, 800 Вт",true,1,
+                Пила,Цепная,false,2,
+                Лестница,Складная,true,999,
+                Молоток,Обычный,true,1,999
+                """), ImportFormat.CSV);
+
+        assertThat(report.imported(), equalTo(2L));
+        assertThat(report.errors(), equalTo(List.of(new ImportErrorDto(4, "Пользователь 999 не найден"),
+                new ImportErrorDto(5, "Запрос 999 не найден"))));
+        List<Item> items = manager.createQuery("select i from Item i where i.id >= 100 order by i.id", Item.class)
+                .getResultList();
+        assertThat(items.size(), equalTo(2));
+        assertThat(items.get(0).getDescription(), equalTo("Ударная, 800 Вт"));
+        assertThat(items.get(1).isAvailable(), equalTo(false));
+        assertThat(items.get(1).getOwner().getId(), equalTo(2L));
+    }
+
+    @Test
+    @DisplayName("Должен отклонять импортируемые бронирования, пересекающиеся с подтверждёнными")
+    void shouldRejectOverlappingApprovedBookings() {
+        ImportReportDto report = bulkImportService.importBookings(1L, new StringReader("""
+                start,end,itemId,bookerId,status
+                2025-01-20T10:00:00,2025-01-21T10:00:00,1,1,APPROVED
+                2030-01-01T10:00:00,2030-01-05T10:00:00,1,1,APPROVED
+                2030-01-03T10:00:00,2030-01-04T10:00:00,1,1,APPROVED
+                2030-01-03T10:00:00,2030-01-04T10:00:00,1,1,
+                2030-01-03T10:00:00,2030-01-04T10:00:00,1,2,
+                """), ImportFormat.CSV);
+
+        assertThat(report.imported(), equalTo(2L));
+        assertThat(report.errors().stream().map(ImportErrorDto::line).toList(), equalTo(List.of(2L, 4L, 6L)));
+        assertThat(report.errors().get(2).error(), startsWith("Владелец"));
+        List<Booking> bookings = manager.createQuery("select b from Booking b where b.id >= 100 order by b.id",
+                Booking.class).getResultList();
+        assertThat(bookings.get(0).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(bookings.get(0).getPhase(), equalTo(BookingPhase.FUTURE));
+        assertThat(bookings.get(1).getStatus(), equalTo(BookingStatus.WAITING));
+    }
+
+    @Test
+    @DisplayName("Не должен импортировать данные от пользователя, которому импорт не разрешён")
+    void shouldNotImportForNonAdmin() {
+        AccessDeniedException exception = assertThrows(AccessDeniedException.class,
+                () -> bulkImportService.importBookings(2L, new StringReader("""
+                        start,end,itemId,bookerId,status
+                        2030-01-01T10:00:00,2030-01-05T10:00:00,1,2,APPROVED
+                        """), ImportFormat.CSV));
+
+        assertThat(exception.getMessage(), equalTo("Пользователю 2 импорт данных запрещён"));
+        assertThat(manager.createQuery("select count(b) from Booking b where b.id >= 100", Long.class)
+                .getSingleResult(), equalTo(0L));
+    }
+}
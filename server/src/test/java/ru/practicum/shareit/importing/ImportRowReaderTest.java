@@ -0,0 +1,95 @@
+package ru.practicum.shareit.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.importing.dto.BookingImportRow;
+import ru.practicum.shareit.importing.dto.ItemImportRow;
+import ru.practicum.shareit.importing.dto.UserImportRow;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportRowReaderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private <R> ImportRowReader<R> reader(String input, ImportFormat format, Class<R> rowType) {
+        return new ImportRowReader<>(new StringReader(input), format, objectMapper, rowType);
+    }
+
+    @Test
+    void parseCsvLineShouldHandleQuotedCommasAndQuotes() {
+        assertEquals(List.of("Дрель", "Ударная, \"мощная\"", ""),
+                ImportRowReader.parseCsvLine("Дрель,\"Ударная, \"\"мощная\"\"\","));
+    }
+
+    @Test
+    void parseCsvLineShouldRejectUnclosedQuote() {
+        assertThrows(IllegalArgumentException.class, () -> ImportRowReader.parseCsvLine("\"Дрель,Ударная"));
+    }
+
+    @Test
+    void nextShouldMapCsvRowsByHeaderAndReadEmptyValuesAsMissing() throws IOException {
+        ImportRowReader<ItemImportRow> reader = reader("""
+                ownerId,name,description,available,requestId
+                2,Дрель,"Ударная, 800 Вт",true,
+
+                2,Пила,Цепная,false,1
+                """, ImportFormat.CSV, ItemImportRow.class);
+
+        ImportRow<ItemImportRow> first = reader.next();
+        ImportRow<ItemImportRow> second = reader.next();
+
+        assertEquals(new ItemImportRow("Дрель", "Ударная, 800 Вт", true, 2L, null), first.value());
+        assertEquals(2, first.line(), "Номер строки должен учитывать заголовок");
+        assertEquals(new ItemImportRow("Пила", "Цепная", false, 2L, 1L), second.value());
+        assertEquals(4, second.line(), "Номер строки должен учитывать пустые строки");
+        assertNull(reader.next());
+    }
+
+    @Test
+    void nextShouldReportMalformedCsvRowsAndContinue() throws IOException {
+        ImportRowReader<BookingImportRow> reader = reader("""
+                start,end,itemId,bookerId,status
+                2030-01-01T10:00,2030-01-02T10:00,1
+                2030-01-01T10:00,2030-01-02T10:00,1,1,UNKNOWN
+                2030-01-01T10:00,2030-01-02T10:00,1,1,APPROVED
+                """, ImportFormat.CSV, BookingImportRow.class);
+
+        assertNotNull(reader.next().error(), "Строка с недостающими полями должна отклоняться");
+        assertNotNull(reader.next().error(), "Строка с неизвестным статусом должна отклоняться");
+        assertEquals(LocalDateTime.of(2030, 1, 1, 10, 0), reader.next().value().start());
+    }
+
+    @Test
+    void nextShouldReportMalformedJsonLinesAndContinue() throws IOException {
+        ImportRowReader<UserImportRow> reader = reader(String.join("\n",
+                "{\"name\": \"Иван\", \"email\": \"ivan@mail.ru\"}",
+                "{\"name\": \"Пётр\",",
+                "{\"name\": \"Анна\", \"email\": \"anna@mail.ru\"}"), ImportFormat.NDJSON, UserImportRow.class);
+
+        assertEquals(new UserImportRow("Иван", "ivan@mail.ru"), reader.next().value());
+        ImportRow<UserImportRow> failed = reader.next();
+        assertEquals(2, failed.line());
+        assertNotNull(failed.error());
+        assertEquals(new UserImportRow("Анна", "anna@mail.ru"), reader.next().value());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void nextShouldReportNullJsonLineAsRowError() throws IOException {
+        ImportRowReader<UserImportRow> reader = reader(String.join("\n",
+                "null",
+                "{\"name\": \"Анна\", \"email\": \"anna@mail.ru\"}"), ImportFormat.NDJSON, UserImportRow.class);
+
+        ImportRow<UserImportRow> failed = reader.next();
+        assertEquals(1, failed.line());
+        assertEquals("Ожидался JSON-объект", failed.error());
+        assertNull(failed.value());
+        assertEquals(new UserImportRow("Анна", "anna@mail.ru"), reader.next().value());
+    }
+}
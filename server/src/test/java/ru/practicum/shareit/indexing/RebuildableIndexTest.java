@@ -0,0 +1,37 @@
+package ru.practicum.shareit.indexing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RebuildableIndexTest {
+    private final RebuildableIndex<List<String>> index = new RebuildableIndex<>(new ArrayList<>(List.of("old")));
+
+    @Test
+    void rebuildShouldReplayChangesMadeWhileBuilding() {
+        index.update(values -> values.add("before"));
+
+        index.rebuild(() -> {
+            index.update(values -> values.add("during"));
+            return new ArrayList<>(List.of("loaded"));
+        });
+        index.update(values -> values.add("after"));
+
+        assertEquals(List.of("loaded", "during", "after"), index.read(List::copyOf));
+    }
+
+    @Test
+    void rebuildShouldKeepCurrentIndexWhenBuildingFails() {
+        assertThrows(IllegalStateException.class, () -> index.rebuild(() -> {
+            throw new IllegalStateException("БД недоступна");
+        }));
+        index.update(values -> values.add("after"));
+
+        assertEquals(List.of("old", "after"), index.read(List::copyOf));
+        index.rebuild(ArrayList::new);
+        assertEquals(List.of(), index.read(List::copyOf), "После неудачи не должны повторяться старые изменения");
+    }
+}
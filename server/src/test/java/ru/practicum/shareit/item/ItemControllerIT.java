@@ -5,17 +5,21 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.RequestBuilder;
 import ru.practicum.shareit.constants.AppConstants;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
 import ru.practicum.shareit.item.dto.NewCommentDto;
+import ru.practicum.shareit.streaming.NdjsonWriter;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -25,6 +29,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = ItemController.class)
+@Import(NdjsonWriter.class)
 class ItemControllerIT {
     @MockitoBean
     ItemServiceImpl itemService;
@@ -99,7 +104,7 @@ class ItemControllerIT {
     @DisplayName("get должна возвращать информацию о вещи")
     void shouldGetItem() throws Exception {
         ItemWithBookingAndCommentsDto item = new ItemWithBookingAndCommentsDto(2L, "Item",
-                "Description", true, 6L, null, null, null);
+                "Description", true, 6L, null, null, null, 0);
 
         when(itemService.getByIdWithBookingsAndComments(2))
                 .thenReturn(item);
@@ -129,7 +134,7 @@ class ItemControllerIT {
     @Test
     @DisplayName("getAllByUser должна возвращать все вещи указанного полльзователя")
     void shouldGetAllItemsByUserId() throws Exception {
-        when(itemService.getAllByUser(1))
+        when(itemService.getAllByUser(1, 0, 10))
                 .thenReturn(items);
 
         RequestBuilder request = get("/items")
@@ -158,7 +163,54 @@ class ItemControllerIT {
                 .andExpect(jsonPath("$[2].available").value(items.get(2).available()))
                 .andExpect(jsonPath("$[2].requestId").value(items.get(2).requestId()));
 
-        verify(itemService, times(1)).getAllByUser(1);
+        verify(itemService, times(1)).getAllByUser(1, 0, 10);
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @Test
+    @DisplayName("getAllByUser с details=true должна возвращать вещи с бронированиями и комментариями")
+    void shouldGetAllItemsWithDetailsByUserId() throws Exception {
+        CommentDto comment = new CommentDto(1L, "Comment", 1L, "Author", LocalDateTime.now());
+        when(itemService.getAllByUserWithBookingsAndComments(1, 2, 1))
+                .thenReturn(List.of(new ItemWithBookingAndCommentsDto(1L, "First item", "First item desc", true,
+                        null, null, null, List.of(comment), 1)));
+
+        RequestBuilder request = get("/items?details=true&from=2&size=1")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].lastBooking").isEmpty())
+                .andExpect(jsonPath("$[0].comments[0].text").value(comment.text()));
+
+        verify(itemService, times(1)).getAllByUserWithBookingsAndComments(1, 2, 1);
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @Test
+    @DisplayName("getAvailability должна возвращать занятые дни вещи за период")
+    void shouldGetItemAvailability() throws Exception {
+        LocalDate from = LocalDate.of(2026, 11, 1);
+        LocalDate to = LocalDate.of(2026, 11, 5);
+        when(itemService.getAvailability(1, from, to))
+                .thenReturn(new ItemAvailabilityDto(1L, from, to, false, List.of(LocalDate.of(2026, 11, 3))));
+
+        RequestBuilder request = get("/items/1/availability?from=2026-11-01&to=2026-11-05")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AppConstants.USER_ID_HEADER, 1L);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(1L))
+                .andExpect(jsonPath("$.available").value(false))
+                .andExpect(jsonPath("$.bookedDays[0]").value("2026-11-03"));
+
+        verify(itemService, times(1)).getAvailability(1, from, to);
         verifyNoMoreInteractions(itemService);
     }
 
@@ -6,12 +6,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemFacetCountsDto;
+import ru.practicum.shareit.item.dto.ItemFacetSearchDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
 import ru.practicum.shareit.item.dto.NewCommentDto;
+import ru.practicum.shareit.item.facet.ItemFacetFilter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -51,7 +58,7 @@ class ItemControllerTest {
     @Test
     void getShouldReturnDtoWithBookingAndCommentsWhenInvoked() {
         ItemWithBookingAndCommentsDto expectedDto = new ItemWithBookingAndCommentsDto(2L, "Item",
-                "Description", true, 6L, null, null, null);
+                "Description", true, 6L, null, null, null, 0);
         when(itemService.getByIdWithBookingsAndComments(2L)).thenReturn(expectedDto);
 
         ItemWithBookingAndCommentsDto resultDto = itemController.get(2L, 1L);
@@ -64,24 +71,49 @@ class ItemControllerTest {
     @Test
     void getAllByUserShouldReturnUsersItemsListWhenInvoked() {
         List<ItemDto> expectedList = List.of(itemDto);
-        when(itemService.getAllByUser(1L)).thenReturn(expectedList);
+        when(itemService.getAllByUser(1L, 0, 10)).thenReturn(expectedList);
 
-        List<ItemDto> resultList = itemController.getAllByUser(1L);
+        List<ItemDto> resultList = itemController.getAllByUser(0, 10, 1L);
 
         assertEquals(expectedList, resultList, "Возвращённые данные не соответсвуют ожидаемым");
-        verify(itemService, times(1)).getAllByUser(1L);
+        verify(itemService, times(1)).getAllByUser(1L, 0, 10);
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @Test
+    void getAllByUserWithDetailsShouldReturnItemsWithBookingsAndCommentsWhenInvoked() {
+        List<ItemWithBookingAndCommentsDto> expectedList = List.of(new ItemWithBookingAndCommentsDto(1L, "Item",
+                "Item desc", true, null, null, null, List.of(), 0));
+        when(itemService.getAllByUserWithBookingsAndComments(1L, 5, 5)).thenReturn(expectedList);
+
+        List<ItemWithBookingAndCommentsDto> resultList = itemController.getAllByUserWithDetails(5, 5, 1L);
+
+        assertEquals(expectedList, resultList, "Возвращённые данные не соответсвуют ожидаемым");
+        verify(itemService, times(1)).getAllByUserWithBookingsAndComments(1L, 5, 5);
         verifyNoMoreInteractions(itemService);
     }
 
     @Test
     void searchItemsForBookingShouldReturnFoundedItemsListWhenInvoked() {
         List<ItemDto> expectedList = List.of(itemDto);
-        when(itemService.searchAvailable("search text")).thenReturn(expectedList);
+        when(itemService.searchAvailable("search text", 20, 5)).thenReturn(expectedList);
+
+        List<ItemDto> resultList = itemController.searchItemsForBooking(1L, "search text", 20, 5);
+
+        assertEquals(expectedList, resultList, "Возвращённые данные не соответсвуют ожидаемым");
+        verify(itemService, times(1)).searchAvailable("search text", 20, 5);
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @Test
+    void autocompleteShouldReturnSuggestionsWhenInvoked() {
+        List<ItemSuggestionDto> expectedList = List.of(new ItemSuggestionDto(1L, "Дрель"));
+        when(itemService.autocomplete("дре", 5)).thenReturn(expectedList);
 
-        List<ItemDto> resultList = itemController.searchItemsForBooking(1L, "search text");
+        List<ItemSuggestionDto> resultList = itemController.autocomplete(1L, "дре", 5);
 
         assertEquals(expectedList, resultList, "Возвращённые данные не соответсвуют ожидаемым");
-        verify(itemService, times(1)).searchAvailable("search text");
+        verify(itemService, times(1)).autocomplete("дре", 5);
         verifyNoMoreInteractions(itemService);
     }
 
@@ -100,4 +132,32 @@ class ItemControllerTest {
                 .addComment(1L,2L,"Comment text");
         verifyNoMoreInteractions(itemService);
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchByFacetsShouldPassFilterToService() {
+        ItemFacetFilter filter = new ItemFacetFilter(2L, true, null, false, null);
+        ItemFacetSearchDto expectedDto = new ItemFacetSearchDto(1, List.of(itemDto),
+                new ItemFacetCountsDto(1, 0, 0, 1, Map.of(2L, 1L)));
+        when(itemService.searchByFacets(filter, 0, 10)).thenReturn(expectedDto);
+
+        ItemFacetSearchDto resultDto = itemController.searchByFacets(1L, 2L, true, null, false, null, 0, 10);
+
+        assertEquals(expectedDto, resultDto, "Возвращённые данные не соответсвуют ожидаемым");
+        verify(itemService, times(1)).searchByFacets(filter, 0, 10);
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @Test
+    void getAvailabilityShouldReturnDtoWhenInvoked() {
+        LocalDate from = LocalDate.of(2026, 11, 1);
+        LocalDate to = LocalDate.of(2026, 11, 2);
+        ItemAvailabilityDto expectedDto = new ItemAvailabilityDto(2L, from, to, false, List.of(to));
+        when(itemService.getAvailability(2L, from, to)).thenReturn(expectedDto);
+
+        ItemAvailabilityDto resultDto = itemController.getAvailability(2L, from, to, 1L);
+
+        assertEquals(expectedDto, resultDto, "Возвращённые данные не соответсвуют ожидаемым");
+        verify(itemService, times(1)).getAvailability(2L, from, to);
+        verifyNoMoreInteractions(itemService);
+    }
+}
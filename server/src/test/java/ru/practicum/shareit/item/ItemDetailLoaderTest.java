@@ -0,0 +1,142 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemWithBookings;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemDetailLoaderTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private ItemMapper itemMapper;
+    @Mock
+    private BookingMapper bookingMapper;
+
+    @InjectMocks
+    private ItemDetailLoader itemDetailLoader;
+
+    private final List<User> users = List.of(
+            new User(1, "First user", "first@mail.ru"),
+            new User(2, "Second user", "second@mail.ru")
+    );
+
+    private final List<Item> items = List.of(
+            new Item(1, "First item", "First item desc",
+                    true, users.get(1), null, 0)
+    );
+
+    private final List<Booking> bookings = List.of(
+            new Booking(1, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2),
+                    items.getFirst(), users.getFirst(), BookingStatus.WAITING),
+            new Booking(2, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(2),
+                    items.getFirst(), users.getFirst(), BookingStatus.APPROVED)
+    );
+
+    private final List<BookingDto> bookingsDtos = List.of(
+            new BookingDto(1, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2),
+                    items.getFirst(), users.getFirst(), BookingStatus.WAITING),
+            new BookingDto(2, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(2),
+                    items.getFirst(), users.getFirst(), BookingStatus.APPROVED)
+    );
+
+    @Test
+    void loadShouldReturnDtoWhenInvoked() {
+        CommentDto commentDto = new CommentDto(1, "Comment", 1, "First User", LocalDateTime.now());
+        when(itemMapper.toItemWithBookingAndCommentsDto(any(Item.class), any(BookingDto.class),
+                any(BookingDto.class), anyList())).thenAnswer(arguments -> {
+                    Item item = arguments.getArgument(0);
+                    BookingDto last = arguments.getArgument(1);
+                    BookingDto next = arguments.getArgument(2);
+                    List<CommentDto> comments = arguments.getArgument(3);
+                    Long requestId = item.getRequest() == null ? null : item.getRequest().getId();
+
+                    return new ItemWithBookingAndCommentsDto(item.getId(), item.getName(), item.getDescription(),
+                            item.isAvailable(), requestId, last, next, comments, item.getCommentsCount());
+        });
+        when(itemRepository.findWithLastAndNextBooking(eq(1L), any()))
+                .thenReturn(Optional.of(new ItemWithBookings(items.getFirst(), bookings.get(1), bookings.get(0))));
+        when(bookingMapper.toBookingDto(bookings.get(1))).thenReturn(bookingsDtos.get(1));
+        when(bookingMapper.toBookingDto(bookings.get(0))).thenReturn(bookingsDtos.get(0));
+        when(commentRepository.findLatestDtoByItemId(1L, 10)).thenReturn(List.of(commentDto));
+
+        ItemWithBookingAndCommentsDto resultDto = itemDetailLoader.load(1);
+
+        assertEquals(items.getFirst().getId(), resultDto.id(), "id DTO должен быть " + items.getFirst().getId());
+        assertEquals(bookingsDtos.get(1), resultDto.lastBooking(), "Не совпадают данные прошлого бронирования");
+        assertEquals(bookingsDtos.get(0), resultDto.nextBooking(), "Не совпадают данные следующего бронирования");
+        assertEquals(commentDto, resultDto.comments().getFirst(), "Не совпадают данные комментариев");
+
+        verify(itemMapper, times(1)).toItemWithBookingAndCommentsDto(any(), any(), any(), anyList());
+        verify(itemRepository, times(1)).findWithLastAndNextBooking(eq(1L), any());
+        verify(bookingMapper, times(2)).toBookingDto(any());
+        verify(commentRepository, times(1)).findLatestDtoByItemId(1L, 10);
+        verifyNoMoreInteractions(itemMapper, itemRepository, bookingMapper, commentRepository);
+    }
+
+    @Test
+    void loadShouldReturnDtoWithNullBookingsWhenItNotFound() {
+        CommentDto commentDto = new CommentDto(1, "Comment", 1, "First User", LocalDateTime.now());
+        when(itemMapper.toItemWithBookingAndCommentsDto(any(Item.class), any(),
+                any(), anyList())).thenAnswer(arguments -> {
+                    Item item = arguments.getArgument(0);
+                    BookingDto last = arguments.getArgument(1);
+                    BookingDto next = arguments.getArgument(2);
+                    List<CommentDto> comments = arguments.getArgument(3);
+                    Long requestId = item.getRequest() == null ? null : item.getRequest().getId();
+
+                    return new ItemWithBookingAndCommentsDto(item.getId(), item.getName(), item.getDescription(),
+                            item.isAvailable(), requestId, last, next, comments, item.getCommentsCount());
+        });
+        when(itemRepository.findWithLastAndNextBooking(eq(1L), any()))
+                .thenReturn(Optional.of(new ItemWithBookings(items.getFirst(), null, null)));
+        when(commentRepository.findLatestDtoByItemId(1L, 10)).thenReturn(List.of(commentDto));
+
+        ItemWithBookingAndCommentsDto resultDto = itemDetailLoader.load(1);
+
+        assertEquals(items.getFirst().getId(), resultDto.id(), "id DTO должен быть " + items.getFirst().getId());
+        assertNull(resultDto.lastBooking(), "DTO прошлого бронирования должно быть null");
+        assertNull(resultDto.nextBooking(), "DTO будущего бронирования должно быть null");
+        assertEquals(commentDto, resultDto.comments().getFirst(), "Не совпадают данные комментариев");
+
+        verify(itemMapper, times(1)).toItemWithBookingAndCommentsDto(any(), any(), any(), anyList());
+        verify(itemRepository, times(1)).findWithLastAndNextBooking(eq(1L), any());
+        verify(commentRepository, times(1)).findLatestDtoByItemId(1L, 10);
+        verifyNoMoreInteractions(itemMapper, itemRepository, bookingMapper, commentRepository);
+    }
+
+    @Test
+    void loadShouldThrowExceptionWhenItemNotFound() {
+        when(itemRepository.findWithLastAndNextBooking(eq(1L), any())).thenReturn(Optional.empty());
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> itemDetailLoader.load(1));
+
+        assertEquals("Вещь 1 не найдена", exception.getMessage());
+        verify(itemRepository, times(1)).findWithLastAndNextBooking(eq(1L), any());
+        verifyNoMoreInteractions(itemMapper, itemRepository, bookingMapper, commentRepository);
+    }
+}
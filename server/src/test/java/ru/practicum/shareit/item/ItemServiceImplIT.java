@@ -3,11 +3,35 @@ package ru.practicum.shareit.item;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.detail.ItemDetailCache;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemFacetCountsDto;
+import ru.practicum.shareit.item.dto.ItemFacetSearchDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.ItemUpdateResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
+import ru.practicum.shareit.item.dto.OwnerItemsAvailabilityDto;
+import ru.practicum.shareit.item.facet.ItemFacetFilter;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -20,10 +44,42 @@ import static org.hamcrest.Matchers.nullValue;
 class ItemServiceImplIT {
     private final EntityManager manager;
     private final ItemServiceImpl itemService;
+    private final ItemDetailCache itemDetailCache;
+
+    @BeforeEach
+    void clearItemDetails() {
+        itemDetailCache.invalidateAll();
+    }
+
+    private Booking addBooking(LocalDateTime start, BookingStatus status) {
+        return addBooking(manager.find(Item.class, 1L), start, status);
+    }
+
+    private Booking addBooking(Item item, LocalDateTime start, BookingStatus status) {
+        Booking booking = new Booking(0, start, start.plusDays(1), item, manager.find(User.class, 1L), status);
+        manager.persist(booking);
+        return booking;
+    }
+
+    private Item addItem(String name) {
+        Item item = new Item(0, name, name + " desc", true, manager.find(User.class, 2L), null, 0);
+        manager.persist(item);
+        return item;
+    }
+
+    private Statistics freshStatistics() {
+        manager.flush();
+        manager.clear();
+        Statistics statistics = manager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
 
     @Test
     @DisplayName("Должен получать из базы данных информацию о вещи с бронированиями и комментариями")
     void shouldGetByIdWithBookingsAndComments() {
+        addBooking(LocalDateTime.now().plusDays(30), BookingStatus.APPROVED);
+
         ItemWithBookingAndCommentsDto item = itemService.getByIdWithBookingsAndComments(1L);
 
         assertThat(item, notNullValue());
@@ -36,7 +92,218 @@ class ItemServiceImplIT {
         assertThat(item.nextBooking(), notNullValue());
         assertThat(item.comments(), notNullValue());
         assertThat(item.comments().size(), equalTo(2));
-        assertThat(item.comments().get(0).text(), equalTo("First comment text"));
-        assertThat(item.comments().get(1).text(), equalTo("Second comment text"));
+        assertThat(item.comments().get(0).text(), equalTo("Second comment text"));
+        assertThat(item.comments().get(1).text(), equalTo("First comment text"));
+        assertThat(item.commentsCount(), equalTo(2L));
+    }
+
+    @Test
+    @DisplayName("Должен выбирать ближайшие подтверждённые бронирования не более чем двумя запросами")
+    void shouldResolveLastAndNextApprovedBookingsWithTwoStatements() {
+        Booking last = addBooking(LocalDateTime.now().minusHours(2), BookingStatus.APPROVED);
+        addBooking(LocalDateTime.now().minusHours(1), BookingStatus.REJECTED);
+        addBooking(LocalDateTime.now().plusDays(2), BookingStatus.WAITING);
+        Booking next = addBooking(LocalDateTime.now().plusDays(5), BookingStatus.APPROVED);
+        addBooking(LocalDateTime.now().plusDays(10), BookingStatus.APPROVED);
+        Statistics statistics = freshStatistics();
+
+        ItemWithBookingAndCommentsDto item = itemService.getByIdWithBookingsAndComments(1L);
+
+        assertThat(item.lastBooking().getId(), equalTo(last.getId()));
+        assertThat(item.lastBooking().getBooker().getName(), equalTo("First user"));
+        assertThat(item.nextBooking().getId(), equalTo(next.getId()));
+        assertThat(item.comments().size(), equalTo(2));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+    }
+
+    @Test
+    @DisplayName("Должен отдавать повторно запрошенную карточку вещи из кэша без обращения к базе данных")
+    void shouldServeRepeatedItemDetailsFromCache() {
+        ItemWithBookingAndCommentsDto loaded = itemService.getByIdWithBookingsAndComments(1L);
+        Statistics statistics = freshStatistics();
+
+        ItemWithBookingAndCommentsDto cached = itemService.getByIdWithBookingsAndComments(1L);
+
+        assertThat(cached, equalTo(loaded));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+    }
+
+    @Test
+    @DisplayName("Должен возвращать вещь без бронирований, если подтверждённых нет")
+    void shouldReturnItemWithoutBookingsWhenNoneApproved() {
+        manager.createQuery("delete from Booking").executeUpdate();
+        addBooking(LocalDateTime.now().plusDays(2), BookingStatus.WAITING);
+        freshStatistics();
+
+        ItemWithBookingAndCommentsDto item = itemService.getByIdWithBookingsAndComments(1L);
+
+        assertThat(item.id(), equalTo(1L));
+        assertThat(item.lastBooking(), nullValue());
+        assertThat(item.nextBooking(), nullValue());
+    }
+
+    @Test
+    @DisplayName("Должен постранично отдавать вещи владельца с бронированиями и комментариями четырьмя запросами")
+    void shouldGetOwnerItemsPageWithBookingsAndCommentsWithConstantStatements() {
+        Item second = addItem("Second item");
+        Item third = addItem("Third item");
+        addItem("Fourth item");
+        Booking secondLast = addBooking(second, LocalDateTime.now().minusDays(3), BookingStatus.APPROVED);
+        Booking thirdNext = addBooking(third, LocalDateTime.now().plusDays(3), BookingStatus.APPROVED);
+        addBooking(third, LocalDateTime.now().plusDays(1), BookingStatus.WAITING);
+        Statistics statistics = freshStatistics();
+
+        List<ItemWithBookingAndCommentsDto> items = itemService.getAllByUserWithBookingsAndComments(2L, 1, 2);
+
+        assertThat(items.size(), equalTo(2));
+        assertThat(items.get(0).id(), equalTo(second.getId()));
+        assertThat(items.get(0).lastBooking().getId(), equalTo(secondLast.getId()));
+        assertThat(items.get(0).nextBooking(), nullValue());
+        assertThat(items.get(0).comments().isEmpty(), equalTo(true));
+        assertThat(items.get(1).id(), equalTo(third.getId()));
+        assertThat(items.get(1).lastBooking(), nullValue());
+        assertThat(items.get(1).nextBooking().getId(), equalTo(thirdNext.getId()));
+        assertThat(items.get(1).commentsCount(), equalTo(0L));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(4L));
+    }
+
+    @Test
+    @DisplayName("Должен постранично отдавать комментарии к вещи от новых к старым по курсору")
+    void shouldPageCommentsWithCursor() {
+        CursorPage<CommentDto> firstPage = itemService.getComments(1L, null, 1);
+        CursorPage<CommentDto> secondPage = itemService.getComments(1L, firstPage.nextCursor(), 1);
+
+        assertThat(firstPage.content().stream().map(CommentDto::id).toList(), equalTo(List.of(2L)));
+        assertThat(firstPage.nextCursor(), notNullValue());
+        assertThat(secondPage.content().stream().map(CommentDto::id).toList(), equalTo(List.of(1L)));
+        assertThat(secondPage.nextCursor(), nullValue());
+    }
+
+    @Test
+    @DisplayName("Должен увеличивать счётчик комментариев вещи при добавлении комментария")
+    void shouldIncrementCommentsCountOnAddComment() {
+        CommentDto comment = itemService.addComment(1L, 1L, "Third comment text");
+        manager.flush();
+        manager.clear();
+
+        ItemWithBookingAndCommentsDto item = itemService.getByIdWithBookingsAndComments(1L);
+
+        assertThat(item.commentsCount(), equalTo(3L));
+        assertThat(item.comments().getFirst().id(), equalTo(comment.id()));
+    }
+
+    @Test
+    @DisplayName("Должен одним обновлением скрывать все вещи владельца")
+    void shouldHideAllOwnerItemsWithOneUpdate() {
+        Item second = addItem("Second item");
+        Statistics statistics = freshStatistics();
+
+        OwnerItemsAvailabilityDto result = itemService.setAvailabilityForOwner(2L, false);
+        long statements = statistics.getPrepareStatementCount();
+        manager.clear();
+
+        assertThat(result, equalTo(new OwnerItemsAvailabilityDto(false, 2)));
+        assertThat(statements, equalTo(3L));
+        assertThat(manager.find(Item.class, 1L).isAvailable(), equalTo(false));
+        assertThat(manager.find(Item.class, second.getId()).isAvailable(), equalTo(false));
+        assertThat(itemService.setAvailabilityForOwner(2L, false).updated(), equalTo(0));
+    }
+
+    @Test
+    @DisplayName("Должен применять пакет изменений только к вещам владельца")
+    void shouldUpdateOnlyOwnedItemsInBatch() {
+        Item foreign = new Item(0, "Foreign item", "Foreign item desc", true, manager.find(User.class, 1L), null,
+                0);
+        manager.persist(foreign);
+        freshStatistics();
+
+        List<ItemUpdateResultDto> results = itemService.updateAll(2L, List.of(
+                new ItemUpdateDto(1L, "Renamed item", null, null),
+                new ItemUpdateDto(foreign.getId(), "Stolen item", null, false)));
+        manager.flush();
+        manager.clear();
+
+        assertThat(results.get(0).item().name(), equalTo("Renamed item"));
+        assertThat(results.get(1).error(), notNullValue());
+        assertThat(manager.find(Item.class, 1L).getName(), equalTo("Renamed item"));
+        assertThat(manager.find(Item.class, foreign.getId()).getName(), equalTo("Foreign item"));
+    }
+
+    @Test
+    @DisplayName("Должен отдавать страницу вещей владельца без бронирований")
+    void shouldGetOwnerItemsPage() {
+        addItem("Second item");
+
+        List<ItemDto> items = itemService.getAllByUser(2L, 0, 10);
+
+        assertThat(items.size(), equalTo(2));
+        assertThat(items.get(0).id(), equalTo(1L));
+        assertThat(items.get(1).name(), equalTo("Second item"));
+        assertThat(itemService.getAllByUser(2L, 2, 10).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    @DisplayName("Должен строить календарь занятости по подтверждённым бронированиям и затем отвечать без запросов")
+    void shouldGetAvailabilityFromApprovedBookings() {
+        Item item = addItem("Calendar item");
+        addBooking(item, LocalDateTime.of(2026, 3, 10, 12, 0), BookingStatus.APPROVED);
+        addBooking(item, LocalDateTime.of(2026, 3, 20, 12, 0), BookingStatus.WAITING);
+        freshStatistics();
+
+        ItemAvailabilityDto availability = itemService.getAvailability(item.getId(), LocalDate.of(2026, 3, 1),
+                LocalDate.of(2026, 3, 31));
+
+        assertThat(availability.available(), equalTo(false));
+        assertThat(availability.bookedDays(), equalTo(List.of(LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 11))));
+
+        Statistics statistics = freshStatistics();
+        ItemAvailabilityDto cached = itemService.getAvailability(item.getId(), LocalDate.of(2026, 3, 12),
+                LocalDate.of(2026, 3, 25));
+
+        assertThat(cached.available(), equalTo(true));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+    }
+
+    @Test
+    @DisplayName("Должен постранично искать доступные вещи по подстроке без учёта регистра")
+    void shouldSearchAvailableItemsByPages() {
+        Item drill = addItem("Дрель ударная");
+        Item secondDrill = addItem("Аккумуляторная ДРЕЛЬ");
+        Item hidden = addItem("Дрель сломанная");
+        hidden.setAvailable(false);
+        addItem("Перфоратор");
+        freshStatistics();
+
+        List<ItemDto> firstPage = itemService.searchAvailable("дрель", 0, 1);
+        List<ItemDto> secondPage = itemService.searchAvailable("дрель", 1, 1);
+
+        assertThat(firstPage.stream().map(ItemDto::id).toList(), equalTo(List.of(drill.getId())));
+        assertThat(secondPage.stream().map(ItemDto::id).toList(), equalTo(List.of(secondDrill.getId())));
+        assertThat(itemService.searchAvailable("дрель", 2, 10), equalTo(List.of()));
+    }
+
+    @Test
+    @DisplayName("Должен выдавать подсказки по названиям вещей без обращения к базе данных")
+    void shouldAutocompleteWithoutDatabaseQueries() {
+        Statistics statistics = freshStatistics();
+
+        List<ItemSuggestionDto> suggestions = itemService.autocomplete("fir", 10);
+
+        assertThat(suggestions, equalTo(List.of(new ItemSuggestionDto(1L, "First item"))));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+    }
+
+    @Test
+    @DisplayName("Должен искать вещи по фасетам, читая из базы данных только найденную страницу")
+    void shouldSearchByFacets() {
+        Statistics statistics = freshStatistics();
+
+        ItemFacetSearchDto result = itemService.searchByFacets(new ItemFacetFilter(2L, true, false, false, true), 0,
+                10);
+
+        assertThat(result.total(), equalTo(1L));
+        assertThat(result.items().getFirst().name(), equalTo("First item"));
+        assertThat(result.facets(), equalTo(new ItemFacetCountsDto(1, 0, 0, 1, Map.of(2L, 1L))));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
     }
-}
\ No newline at end of file
+}
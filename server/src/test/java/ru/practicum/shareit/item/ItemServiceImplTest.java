@@ -7,29 +7,59 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.access.AccessChecker;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityCalendar;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.InvalidAddCommentRequestException;
+import ru.practicum.shareit.exception.InvalidBookingDateException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.autocomplete.ItemAutocompleteIndex;
+import ru.practicum.shareit.item.detail.ItemDetailCache;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemFacetCountsDto;
+import ru.practicum.shareit.item.dto.ItemFacetSearchDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.ItemUpdateResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
+import ru.practicum.shareit.item.dto.OwnerItemsAvailabilityDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemCreatedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemsChangedEvent;
+import ru.practicum.shareit.item.facet.ItemFacetFilter;
+import ru.practicum.shareit.item.facet.ItemFacetIndex;
+import ru.practicum.shareit.item.facet.ItemFacetPage;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemCommentsCount;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongFunction;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -40,6 +70,8 @@ class ItemServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
+    private AccessChecker accessChecker;
+    @Mock
     private UserService userService;
     @Mock
     private BookingRepository bookingRepository;
@@ -53,6 +85,20 @@ class ItemServiceImplTest {
     private BookingMapper bookingMapper;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemAvailabilityCalendar itemAvailabilityCalendar;
+    @Mock
+    private ItemSearchCache itemSearchCache;
+    @Mock
+    private ItemAutocompleteIndex itemAutocompleteIndex;
+    @Mock
+    private ItemFacetIndex itemFacetIndex;
+    @Mock
+    private ItemDetailCache itemDetailCache;
+    @Mock
+    private ItemDetailLoader itemDetailLoader;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private ItemServiceImpl itemService;
@@ -75,11 +121,11 @@ class ItemServiceImplTest {
 
     private final List<Item> items = List.of(
             new Item(1, "First item", "First item desc",
-                    true, users.get(1), null),
+                    true, users.get(1), null, 0),
             new Item(2, "Second item", "Second item desc",
-                    false, users.getFirst(), null),
+                    false, users.getFirst(), null, 0),
             new Item(2, "Third item", "Third item desc",
-                    false, users.getFirst(), null)
+                    false, users.getFirst(), null, 0)
     );
 
     private final List<ItemDto> itemsDto = List.of(
@@ -108,92 +154,67 @@ class ItemServiceImplTest {
 
     @Test
     void getAllByUserShouldReturnItemDtoListForOwner() {
-        when(itemRepository.findByOwner(2)).thenReturn(List.of(items.getFirst()));
-        when(itemMapper.toItemDto(any())).thenReturn(itemsDto.getFirst());
+        when(itemRepository.findDtoByOwnerId(2L, 0, 10)).thenReturn(List.of(itemsDto.getFirst()));
 
-        List<ItemDto> resultList = itemService.getAllByUser(2);
+        List<ItemDto> resultList = itemService.getAllByUser(2, 0, 10);
 
         assertEquals(1, resultList.size(), "Размер возвращённого списка должен быть равен 1");
         assertEquals(itemsDto.getFirst(), resultList.getFirst(), "Возвращённые данные неравны ожидаемым");
-        verify(itemRepository, times(1)).findByOwner(2);
-        verify(itemMapper, times(1)).toItemDto(any());
+        verify(itemRepository, times(1)).findDtoByOwnerId(2L, 0, 10);
         verifyNoMoreInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository);
     }
 
     @Test
-    void getByIdWithBookingsAndCommentsShouldReturnDtoWhenInvoked() {
+    void getAllByUserWithBookingsAndCommentsShouldAttachBookingsAndCommentsToPageItems() {
         CommentDto commentDto = new CommentDto(1, "Comment", 1, "First User", LocalDateTime.now());
-        when(itemMapper.toItemWithBookingAndCommentsDto(any(Item.class), any(BookingDto.class),
-                any(BookingDto.class), anyList())).thenAnswer(arguments -> {
-                    Item item = arguments.getArgument(0);
-                    BookingDto last = arguments.getArgument(1);
-                    BookingDto next = arguments.getArgument(2);
-                    List<CommentDto> comments = arguments.getArgument(3);
-                    Long requestId = item.getRequest() == null ? null : item.getRequest().getId();
-
-                    return new ItemWithBookingAndCommentsDto(item.getId(), item.getName(), item.getDescription(),
-                            item.isAvailable(), requestId, last, next, comments);
-        });
-        when(itemRepository.findById(1)).thenReturn(Optional.of(items.getFirst()));
-        when(bookingRepository.findByItem_IdAndStartIsBeforeOrderByStartDesc(anyLong(), any()))
-                .thenReturn(bookings.get(1));
-        when(bookingMapper.toBookingDto(bookings.get(1))).thenReturn(bookingsDtos.get(1));
-        when(bookingRepository.findByItem_IdAndEndIsAfterOrderByEnd(anyLong(), any())).thenReturn(bookings.get(0));
+        when(itemRepository.findDtoByOwnerId(2L, 0, 2)).thenReturn(List.of(itemsDto.get(0), itemsDto.get(1)));
+        when(bookingRepository.findLastAndNextApprovedByItemIds(eq(List.of(1L, 2L)), any()))
+                .thenReturn(List.of(bookings.get(0), bookings.get(1)));
         when(bookingMapper.toBookingDto(bookings.get(0))).thenReturn(bookingsDtos.get(0));
-        when(commentRepository.findAllByItem_Id(anyLong())).thenReturn(List.of(new Comment()));
-        when(commentMapper.toCommentDto(any())).thenReturn(commentDto);
-
-        ItemWithBookingAndCommentsDto resultDto = itemService.getByIdWithBookingsAndComments(1);
-
-        assertEquals(items.getFirst().getId(), resultDto.id(), "id DTO должен быть " + items.getFirst().getId());
-        assertEquals(bookingsDtos.get(1), resultDto.lastBooking(), "Не совпадают данные прошлого бронирования");
-        assertEquals(bookingsDtos.get(0), resultDto.nextBooking(), "Не совпадают данные следующего бронирования");
-        assertEquals(commentDto, resultDto.comments().getFirst(), "Не совпадают данные комментариев");
-
-        verify(itemMapper, times(1)).toItemWithBookingAndCommentsDto(any(), any(), any(), anyList());
-        verify(itemRepository, times(1)).findById(1);
-        verify(bookingRepository, times(1)).findByItem_IdAndEndIsAfterOrderByEnd(anyLong(), any());
-        verify(bookingRepository, times(1)).findByItem_IdAndStartIsBeforeOrderByStartDesc(anyLong(), any());
-        verify(bookingMapper, times(2)).toBookingDto(any());
-        verify(commentRepository, times(1)).findAllByItem_Id(1);
-        verify(commentMapper, times(1)).toCommentDto(any());
-        verifyNoMoreInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository);
+        when(bookingMapper.toBookingDto(bookings.get(1))).thenReturn(bookingsDtos.get(1));
+        when(commentRepository.findLatestDtoByItemIdIn(List.of(1L, 2L), 10)).thenReturn(List.of(commentDto));
+        when(itemRepository.findCommentsCounts(List.of(1L, 2L))).thenReturn(List.of(new ItemCommentsCount(1, 25)));
+        when(itemMapper.itemDtoToItemWithBookingAndCommentsDto(any(ItemDto.class), any(), any(), anyList(), anyLong()))
+                .thenAnswer(arguments -> {
+                    ItemDto item = arguments.getArgument(0);
+                    return new ItemWithBookingAndCommentsDto(item.id(), item.name(), item.description(),
+                            item.available(), item.requestId(), arguments.getArgument(1), arguments.getArgument(2),
+                            arguments.getArgument(3), arguments.getArgument(4));
+                });
+
+        List<ItemWithBookingAndCommentsDto> result = itemService.getAllByUserWithBookingsAndComments(2, 0, 2);
+
+        assertEquals(2, result.size(), "Размер возвращённого списка должен быть равен 2");
+        assertEquals(bookingsDtos.get(1), result.get(0).lastBooking(), "Не совпадают данные прошлого бронирования");
+        assertEquals(bookingsDtos.get(0), result.get(0).nextBooking(), "Не совпадают данные следующего бронирования");
+        assertEquals(List.of(commentDto), result.get(0).comments(), "Не совпадают данные комментариев");
+        assertEquals(25, result.get(0).commentsCount(), "Не совпадает число комментариев");
+        assertNull(result.get(1).lastBooking(), "У второй вещи нет прошлого бронирования");
+        assertTrue(result.get(1).comments().isEmpty(), "У второй вещи нет комментариев");
+        assertEquals(0, result.get(1).commentsCount(), "У второй вещи нет комментариев");
+        verify(bookingRepository, times(1)).findLastAndNextApprovedByItemIds(eq(List.of(1L, 2L)), any());
+        verify(commentRepository, times(1)).findLatestDtoByItemIdIn(List.of(1L, 2L), 10);
+        verify(itemRepository, times(1)).findCommentsCounts(List.of(1L, 2L));
     }
 
     @Test
-    void getByIdWithBookingsAndCommentsShouldReturnDtoWithNullBookingsWhenItNotFound() {
-        CommentDto commentDto = new CommentDto(1, "Comment", 1, "First User", LocalDateTime.now());
-        when(itemMapper.toItemWithBookingAndCommentsDto(any(Item.class), any(),
-                any(), anyList())).thenAnswer(arguments -> {
-                    Item item = arguments.getArgument(0);
-                    BookingDto last = arguments.getArgument(1);
-                    BookingDto next = arguments.getArgument(2);
-                    List<CommentDto> comments = arguments.getArgument(3);
-                    Long requestId = item.getRequest() == null ? null : item.getRequest().getId();
-
-                    return new ItemWithBookingAndCommentsDto(item.getId(), item.getName(), item.getDescription(),
-                            item.isAvailable(), requestId, last, next, comments);
-        });
-        when(itemRepository.findById(1)).thenReturn(Optional.of(items.getFirst()));
-        when(bookingRepository.findByItem_IdAndStartIsBeforeOrderByStartDesc(anyLong(), any()))
-                .thenReturn(null);
-        when(bookingRepository.findByItem_IdAndEndIsAfterOrderByEnd(anyLong(), any())).thenReturn(null);
-        when(commentRepository.findAllByItem_Id(anyLong())).thenReturn(List.of(new Comment()));
-        when(commentMapper.toCommentDto(any())).thenReturn(commentDto);
-
-        ItemWithBookingAndCommentsDto resultDto = itemService.getByIdWithBookingsAndComments(1);
+    void getAllByUserWithBookingsAndCommentsShouldSkipQueriesWhenPageEmpty() {
+        when(itemRepository.findDtoByOwnerId(2L, 20, 10)).thenReturn(List.of());
 
-        assertEquals(items.getFirst().getId(), resultDto.id(), "id DTO должен быть " + items.getFirst().getId());
-        assertNull(resultDto.lastBooking(), "DTO прошлого бронирования должно быть null");
-        assertNull(resultDto.nextBooking(), "DTO будущего бронирования должно быть null");
-        assertEquals(commentDto, resultDto.comments().getFirst(), "Не совпадают данные комментариев");
+        assertTrue(itemService.getAllByUserWithBookingsAndComments(2, 20, 10).isEmpty());
+        verifyNoInteractions(bookingRepository, commentRepository, bookingMapper, commentMapper);
+    }
 
-        verify(itemMapper, times(1)).toItemWithBookingAndCommentsDto(any(), any(), any(), anyList());
-        verify(itemRepository, times(1)).findById(1);
-        verify(bookingRepository, times(1)).findByItem_IdAndEndIsAfterOrderByEnd(anyLong(), any());
-        verify(bookingRepository, times(1)).findByItem_IdAndStartIsBeforeOrderByStartDesc(anyLong(), any());
-        verify(commentRepository, times(1)).findAllByItem_Id(1);
-        verify(commentMapper, times(1)).toCommentDto(any());
+    @Test
+    void getByIdWithBookingsAndCommentsShouldLoadDetailsOnCacheMiss() {
+        ItemWithBookingAndCommentsDto details = new ItemWithBookingAndCommentsDto(1L, "First item", "First item desc",
+                true, null, null, null, List.of(), 0);
+        when(itemDetailCache.get(eq(1L), any())).thenAnswer(invocation ->
+                invocation.<LongFunction<ItemWithBookingAndCommentsDto>>getArgument(1).apply(1L));
+        when(itemDetailLoader.load(1L)).thenReturn(details);
+
+        assertEquals(details, itemService.getByIdWithBookingsAndComments(1), "Не совпадают данные карточки");
+        verify(itemDetailLoader, times(1)).load(1L);
         verifyNoMoreInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository);
     }
 
@@ -224,6 +245,7 @@ class ItemServiceImplTest {
     void createShouldCreateItemWithNullRequest() {
         when(itemMapper.toItem(any())).thenReturn(items.getFirst());
         when(userService.getUserById(anyLong())).thenReturn(users.getFirst());
+        when(itemRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         itemService.create(1, itemsDto.getFirst());
 
@@ -232,6 +254,10 @@ class ItemServiceImplTest {
         assertEquals(users.getFirst().getId(), savedItem.getOwner().getId(), "id владельца не совпадает");
         assertEquals(items.getFirst().getId(), savedItem.getId(), "id предмета не совпадает");
         assertNull(savedItem.getRequest());
+        verify(eventPublisher, times(1)).publishEvent(
+                new ItemChangedEvent(1, 1, "First item", "First item desc", true));
+        verify(eventPublisher, times(1)).publishEvent(
+                new ItemCreatedEvent(1, 1, "First item", "First item desc", null));
         verify(itemMapper, times(1)).toItem(any());
         verify(userService, times(1)).getUserById(anyLong());
         verify(itemMapper,times(1)).toItemDto(any());
@@ -243,6 +269,7 @@ class ItemServiceImplTest {
         when(itemMapper.toItem(any())).thenReturn(items.getFirst());
         when(userService.getUserById(anyLong())).thenReturn(users.getFirst());
         when(itemRequestRepository.findById(1L)).thenReturn(Optional.of(requests.getFirst()));
+        when(itemRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         itemService.create(1, itemsDto.get(2));
 
@@ -251,6 +278,8 @@ class ItemServiceImplTest {
         assertEquals(users.getFirst().getId(), savedItem.getOwner().getId(), "id владельца не совпадает");
         assertEquals(items.getFirst().getId(), savedItem.getId(), "id предмета не совпадает");
         assertEquals(items.getFirst().getRequest().getId(), savedItem.getRequest().getId(), "id запроса не совпадает");
+        verify(eventPublisher, times(1)).publishEvent(new ItemCreatedEvent(1, 1, "First item", "First item desc",
+                requests.getFirst().getId()));
         verify(itemMapper, times(1)).toItem(any());
         verify(userService, times(1)).getUserById(anyLong());
         verify(itemMapper,times(1)).toItemDto(any());
@@ -264,11 +293,14 @@ class ItemServiceImplTest {
 
         itemService.update(2, 1, itemsDto.get(1));
 
+        verify(accessChecker, times(1)).checkItemOwner(1, 2);
         verify(itemRepository).save(itemArgumentCaptor.capture());
         Item savedItem = itemArgumentCaptor.getValue();
         assertEquals(items.get(1).getName(), savedItem.getName(), "Имя предмета не было изменено");
         assertEquals(items.get(1).getDescription(),savedItem.getDescription(), "Описание предмета не было изменено");
         assertFalse(items.get(1).isAvailable(), "Доступность предмета не была изменена");
+        verify(eventPublisher, times(1)).publishEvent(
+                new ItemChangedEvent(1, 2, "Second item", "Second item desc", false));
         verify(itemMapper,times(1)).toItemDto(any());
         verify(itemRepository, times(1)).findById(1L);
         verifyNoMoreInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository);
@@ -327,13 +359,65 @@ class ItemServiceImplTest {
 
     @Test
     void updateShouldThrowExceptionWhenInvokedForNotOwner() {
-        when(itemRepository.findById(1)).thenReturn(Optional.of(items.getFirst()));
+        doThrow(new AccessDeniedException("Пользователь 1 не является хозяином вещи"))
+                .when(accessChecker).checkItemOwner(1, 1);
 
-        AccessDeniedException exception = assertThrows(AccessDeniedException.class,
-                () -> itemService.update(1, 1, itemsDto.get(1)));
+        assertThrows(AccessDeniedException.class, () -> itemService.update(1, 1, itemsDto.get(1)));
 
-        verify(itemRepository, times(1)).findById(1L);
-        verifyNoMoreInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository);
+        verify(accessChecker, times(1)).checkItemOwner(1, 1);
+        verifyNoInteractions(eventPublisher, itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository);
+    }
+
+    @Test
+    void updateAllShouldApplyOwnerChangesAndReportFailuresPerItem() {
+        Item foreign = items.get(1);
+        when(itemRepository.findAllWithOwnerByIdIn(Set.of(1L, 2L, 5L))).thenReturn(List.of(items.getFirst(), foreign));
+        when(itemMapper.toItemDto(items.getFirst())).thenReturn(itemsDto.getFirst());
+
+        List<ItemUpdateResultDto> results = itemService.updateAll(2, List.of(
+                new ItemUpdateDto(1, null, null, false),
+                new ItemUpdateDto(2, "Чужая", null, null),
+                new ItemUpdateDto(5, "Нет такой", null, null),
+                new ItemUpdateDto(1, "Повтор", null, null)));
+
+        assertEquals(ItemUpdateResultDto.applied(itemsDto.getFirst()), results.get(0), "Изменение должно примениться");
+        assertEquals("Пользователь 2 не является хозяином вещи", results.get(1).error(), "Неверная ошибка доступа");
+        assertEquals("Вещь 5 не найдена", results.get(2).error(), "Неверная ошибка поиска");
+        assertEquals("Вещь 1 указана в запросе повторно", results.get(3).error(), "Неверная ошибка повтора");
+        assertFalse(items.getFirst().isAvailable(), "Доступность вещи не изменена");
+        assertEquals("First item", items.getFirst().getName(), "Имя вещи изменено повторной записью");
+        assertEquals("Second item", foreign.getName(), "Чужая вещь изменена");
+        verify(eventPublisher, times(1)).publishEvent(new ItemsChangedEvent(List.of(
+                new ItemChangedEvent(1, 2, "First item", "First item desc", false))));
+        verify(itemRepository, times(1)).findAllWithOwnerByIdIn(Set.of(1L, 2L, 5L));
+        verify(itemMapper, times(1)).toItemDto(items.getFirst());
+        verifyNoMoreInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository, eventPublisher);
+    }
+
+    @Test
+    void setAvailabilityForOwnerShouldUpdateChangedItemsAndPublishOneEvent() {
+        when(itemRepository.findDtoByOwnerIdAndAvailableNot(1, false)).thenReturn(List.of(itemsDto.get(2)));
+
+        OwnerItemsAvailabilityDto result = itemService.setAvailabilityForOwner(1, false);
+
+        assertEquals(new OwnerItemsAvailabilityDto(false, 1), result, "Неверный результат");
+        verify(userService, times(1)).getUserById(1);
+        verify(itemRepository, times(1)).findDtoByOwnerIdAndAvailableNot(1, false);
+        verify(itemRepository, times(1)).updateAvailableByOwnerId(1L, false);
+        verify(eventPublisher, times(1)).publishEvent(new ItemsChangedEvent(List.of(
+                new ItemChangedEvent(3, 1, "Third item", "Third item desc", false))));
+        verifyNoMoreInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository, eventPublisher);
+    }
+
+    @Test
+    void setAvailabilityForOwnerShouldNotUpdateWhenNothingChanges() {
+        when(itemRepository.findDtoByOwnerIdAndAvailableNot(1, false)).thenReturn(List.of());
+
+        OwnerItemsAvailabilityDto result = itemService.setAvailabilityForOwner(1, false);
+
+        assertEquals(new OwnerItemsAvailabilityDto(false, 0), result, "Неверный результат");
+        verify(itemRepository, times(1)).findDtoByOwnerIdAndAvailableNot(1, false);
+        verifyNoMoreInteractions(itemRepository, eventPublisher);
     }
 
     @Test
@@ -344,29 +428,81 @@ class ItemServiceImplTest {
 
         verify(itemRepository, times(1)).findById(1L);
         verify(itemRepository, times(1)).delete(items.getFirst());
+        verify(accessChecker, times(1)).evictItem(1);
+        verify(eventPublisher, times(1)).publishEvent(new ItemDeletedEvent(1, 2));
         verifyNoMoreInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository);
     }
 
+    @Test
+    void autocompleteShouldReturnSuggestionsFromIndex() {
+        List<ItemSuggestionDto> suggestions = List.of(new ItemSuggestionDto(1, "First item"));
+        when(itemAutocompleteIndex.suggest("fir", 5)).thenReturn(suggestions);
+
+        List<ItemSuggestionDto> result = itemService.autocomplete("fir", 5);
+
+        assertEquals(suggestions, result, "Полученые данные не соответствуют ожидаемым");
+        verify(itemAutocompleteIndex, times(1)).suggest("fir", 5);
+        verifyNoMoreInteractions(itemAutocompleteIndex);
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void autocompleteShouldReturnEmptyListWhenPrefixIsBlank() {
+        List<ItemSuggestionDto> result = itemService.autocomplete("  ", 5);
+
+        assertTrue(result.isEmpty(), "Список подсказок должен быть пустым");
+        verifyNoInteractions(itemAutocompleteIndex, itemRepository);
+    }
+
+    @Test
+    void searchByFacetsShouldLoadPageFoundInIndex() {
+        ItemFacetFilter filter = new ItemFacetFilter(null, true, null, null, true);
+        ItemFacetCountsDto counts = new ItemFacetCountsDto(2, 0, 1, 2, Map.of(1L, 2L));
+        when(itemFacetIndex.search(filter, 0, 10)).thenReturn(new ItemFacetPage(List.of(1L, 3L), 2, counts));
+        when(itemRepository.findDtoByIdIn(List.of(1L, 3L))).thenReturn(List.of(itemsDto.get(2), itemsDto.get(0)));
+
+        ItemFacetSearchDto result = itemService.searchByFacets(filter, 0, 10);
+
+        assertEquals(2, result.total(), "Неверное количество найденных вещей");
+        assertEquals(List.of(itemsDto.get(0), itemsDto.get(2)), result.items(), "Неверный порядок вещей");
+        assertEquals(counts, result.facets(), "Неверные количества по фасетам");
+        verify(itemFacetIndex, times(1)).search(filter, 0, 10);
+        verify(itemRepository, times(1)).findDtoByIdIn(List.of(1L, 3L));
+        verifyNoMoreInteractions(itemFacetIndex, itemRepository);
+    }
+
+    @Test
+    void searchByFacetsShouldNotQueryItemsWhenPageIsEmpty() {
+        ItemFacetFilter filter = new ItemFacetFilter(5L, null, null, null, null);
+        ItemFacetCountsDto counts = new ItemFacetCountsDto(0, 0, 0, 0, Map.of());
+        when(itemFacetIndex.search(filter, 0, 10)).thenReturn(new ItemFacetPage(List.of(), 0, counts));
+
+        ItemFacetSearchDto result = itemService.searchByFacets(filter, 0, 10);
+
+        assertTrue(result.items().isEmpty(), "Список вещей должен быть пустым");
+        verifyNoInteractions(itemRepository);
+    }
+
     @Test
     void searchAvailableShouldReturnItemDtoListWhenFoundData() {
-        when(itemRepository.search(anyString(), anyBoolean())).thenReturn(List.of(items.getFirst()));
-        when(itemMapper.toItemDto(any())).thenReturn(itemsDto.getFirst());
+        when(itemSearchCache.search(" First ", 0, 10)).thenReturn(List.of(itemsDto.getFirst()));
 
-        List<ItemDto> resultDtoList = itemService.searchAvailable("First");
+        List<ItemDto> resultDtoList = itemService.searchAvailable(" First ", 0, 10);
 
         assertEquals(1, resultDtoList.size(), "Размер спска должен бытьравен 1");
         assertEquals(itemsDto.getFirst(), resultDtoList.getFirst(), "Полученые данные не соответствуют ожидаемым");
-        verify(itemRepository, times(1)).search("First", true);
-        verify(itemMapper, times(1)).toItemDto(items.getFirst());
-        verifyNoMoreInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository);
+        verify(itemSearchCache, times(1)).search(" First ", 0, 10);
+        verifyNoMoreInteractions(itemSearchCache, itemMapper, itemRepository, bookingRepository, bookingMapper,
+                commentMapper, commentRepository);
     }
 
     @Test
-    void searchAvailableShouldReturnEmptyListWhenSearchStringIsEmpty() {
-        List<ItemDto> resultDtoList = itemService.searchAvailable("");
+    void searchAvailableShouldReturnEmptyListWhenSearchStringIsBlank() {
+        List<ItemDto> resultDtoList = itemService.searchAvailable("  ", 0, 10);
 
         assertTrue(resultDtoList.isEmpty());
-        verifyNoInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository);
+        verifyNoInteractions(itemSearchCache, itemMapper, itemRepository, bookingRepository, bookingMapper,
+                commentMapper, commentRepository);
     }
 
     @Test
@@ -385,7 +521,9 @@ class ItemServiceImplTest {
     void addCommentShouldAddCommentWhenInvoked() {
         when(userService.getUserById(1)).thenReturn(users.getFirst());
         when(itemRepository.findById(1)).thenReturn(Optional.of(items.getFirst()));
-        when(bookingRepository.findAllByBooker_IdAndEndIsBefore(anyLong(), any(), any())).thenReturn(List.of(bookings.getFirst()));
+        when(bookingRepository.existsByBooker_IdAndItem_IdAndStatusAndEndBefore(eq(1L), eq(1L),
+                eq(BookingStatus.APPROVED), any())).thenReturn(true);
+        when(commentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         itemService.addComment(1, 1, "Test comment");
 
@@ -394,10 +532,13 @@ class ItemServiceImplTest {
         assertEquals(items.getFirst().getId(), savedComment.getItem().getId(), "Неверный id предмета в сохраняемом комментарии");
         assertEquals(users.getFirst().getName(), savedComment.getAuthor().getName(), "Неверное имя автора в сохраняемом комментарии");
         assertEquals("Test comment", savedComment.getText(), "Неверный текст в сохраняемом комментарии");
+        verify(eventPublisher, times(1)).publishEvent(new CommentAddedEvent(0, 1));
 
         verify(userService, times(1)).getUserById(1);
         verify(itemRepository, times(1)).findById(1);
-        verify(bookingRepository, times(1)).findAllByBooker_IdAndEndIsBefore(anyLong(), any(), any());
+        verify(itemRepository, times(1)).incrementCommentsCount(1);
+        verify(bookingRepository, times(1)).existsByBooker_IdAndItem_IdAndStatusAndEndBefore(eq(1L), eq(1L),
+                eq(BookingStatus.APPROVED), any());
         verify(commentMapper, times(1)).toCommentDto(any());
         verifyNoMoreInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository);
     }
@@ -406,14 +547,100 @@ class ItemServiceImplTest {
     void addCommentShouldThrowExceptionWhenNoBookingsFound() {
         when(userService.getUserById(1)).thenReturn(users.getFirst());
         when(itemRepository.findById(2)).thenReturn(Optional.of(items.get(1)));
-        when(bookingRepository.findAllByBooker_IdAndEndIsBefore(anyLong(), any(), any())).thenReturn(List.of(bookings.getFirst()));
+        when(bookingRepository.existsByBooker_IdAndItem_IdAndStatusAndEndBefore(eq(1L), eq(2L),
+                eq(BookingStatus.APPROVED), any())).thenReturn(false);
 
         InvalidAddCommentRequestException exception = assertThrows(InvalidAddCommentRequestException.class,
                 () -> itemService.addComment(2, 1, "Test comment"));
 
         verify(userService, times(1)).getUserById(1);
         verify(itemRepository, times(1)).findById(2);
-        verify(bookingRepository, times(1)).findAllByBooker_IdAndEndIsBefore(anyLong(), any(), any());
+        verify(bookingRepository, times(1)).existsByBooker_IdAndItem_IdAndStatusAndEndBefore(eq(1L), eq(2L),
+                eq(BookingStatus.APPROVED), any());
         verifyNoMoreInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCommentsShouldReturnLatestCommentsWithNextCursor() {
+        LocalDateTime now = LocalDateTime.now();
+        List<CommentDto> comments = List.of(
+                new CommentDto(3, "Third", 1, "First user", now),
+                new CommentDto(2, "Second", 1, "First user", now.minusHours(1)),
+                new CommentDto(1, "First", 1, "First user", now.minusHours(2)));
+        when(commentRepository.findLatestDtoByItemId(1, 3)).thenReturn(comments);
+
+        CursorPage<CommentDto> page = itemService.getComments(1, null, 2);
+
+        assertEquals(comments.subList(0, 2), page.content(), "Страница должна содержать два последних отзыва");
+        assertEquals(new Cursor(now.minusHours(1), 2).encode(), page.nextCursor(),
+                "Курсор должен указывать на последний отзыв страницы");
+        verify(commentRepository, times(1)).findLatestDtoByItemId(1, 3);
+        verifyNoMoreInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository);
+    }
+
+    @Test
+    void getCommentsShouldContinueFromCursor() {
+        LocalDateTime created = LocalDateTime.of(2025, 1, 31, 18, 47);
+        List<CommentDto> comments = List.of(new CommentDto(1, "First", 1, "First user", created.minusDays(14)));
+        when(commentRepository.findDtoByItemIdBefore(1, created, 2, 11)).thenReturn(comments);
+
+        CursorPage<CommentDto> page = itemService.getComments(1, new Cursor(created, 2).encode(), 10);
+
+        assertEquals(comments, page.content(), "Страница должна содержать отзывы старше курсора");
+        assertNull(page.nextCursor(), "Для последней страницы курсор не нужен");
+        verify(commentRepository, times(1)).findDtoByItemIdBefore(1, created, 2, 11);
+        verifyNoMoreInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository);
+    }
+
+    @Test
+    void getCommentsShouldThrowExceptionWhenItemNotFound() {
+        when(commentRepository.findLatestDtoByItemId(5, 11)).thenReturn(List.of());
+        when(itemRepository.existsById(5L)).thenReturn(false);
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> itemService.getComments(5, null, 10));
+
+        assertEquals("Вещь 5 не найдена", exception.getMessage());
+        verify(commentRepository, times(1)).findLatestDtoByItemId(5, 11);
+        verify(itemRepository, times(1)).existsById(5L);
+        verifyNoMoreInteractions(itemMapper, itemRepository, bookingRepository, bookingMapper, commentMapper, commentRepository);
+    }
+
+    @Test
+    void getAvailabilityShouldReturnBookedDaysFromCalendar() {
+        LocalDate from = LocalDate.of(2026, 11, 1);
+        LocalDate to = LocalDate.of(2026, 11, 10);
+        BitSet booked = new BitSet();
+        booked.set(2, 4);
+        when(itemAvailabilityCalendar.bookedDays(1, from, to)).thenReturn(booked);
+
+        ItemAvailabilityDto availability = itemService.getAvailability(1, from, to);
+
+        assertFalse(availability.available(), "Период с занятыми днями отмечен свободным");
+        assertEquals(List.of(LocalDate.of(2026, 11, 3), LocalDate.of(2026, 11, 4)), availability.bookedDays(),
+                "Неверный список занятых дней");
+        verify(itemAvailabilityCalendar, times(1)).bookedDays(1, from, to);
+        verifyNoMoreInteractions(itemAvailabilityCalendar, itemRepository, bookingRepository);
+    }
+
+    @Test
+    void getAvailabilityShouldReturnAvailableWhenNoBookedDays() {
+        LocalDate day = LocalDate.of(2026, 11, 1);
+        when(itemAvailabilityCalendar.bookedDays(1, day, day)).thenReturn(new BitSet());
+
+        ItemAvailabilityDto availability = itemService.getAvailability(1, day, day);
+
+        assertTrue(availability.available(), "Свободный период отмечен занятым");
+        assertTrue(availability.bookedDays().isEmpty(), "Список занятых дней должен быть пустым");
+    }
+
+    @Test
+    void getAvailabilityShouldThrowExceptionWhenPeriodInvalid() {
+        LocalDate from = LocalDate.of(2026, 11, 10);
+
+        assertThrows(InvalidBookingDateException.class,
+                () -> itemService.getAvailability(1, from, from.minusDays(1)));
+        assertThrows(InvalidBookingDateException.class,
+                () -> itemService.getAvailability(1, from, from.plusYears(2)));
+        verifyNoInteractions(itemAvailabilityCalendar);
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item.autocomplete;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAutocompleteIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemAutocompleteIndex(itemRepository, 3);
+        when(itemRepository.findPopularity()).thenReturn(List.of(
+                new ItemPopularity(1, "Дрель ударная", true, 2),
+                new ItemPopularity(2, "Дрель аккумуляторная", true, 5),
+                new ItemPopularity(3, "Дровокол", true, 0),
+                new ItemPopularity(4, "Дрель сломанная", false, 10),
+                new ItemPopularity(5, "Ударный гайковёрт", true, 1)
+        ));
+        index.rebuild();
+    }
+
+    private static List<Long> ids(List<ItemSuggestionDto> suggestions) {
+        return suggestions.stream()
+                .map(ItemSuggestionDto::id)
+                .toList();
+    }
+
+    @Test
+    void suggestShouldRankAvailableItemsByPopularity() {
+        assertEquals(List.of(2L, 1L, 3L), ids(index.suggest("Др", 10)), "Неверный порядок подсказок");
+        assertEquals(List.of(2L, 1L), ids(index.suggest("дрель", 10)), "Неверный набор подсказок");
+        assertEquals(List.of(2L), ids(index.suggest("дрель", 1)), "Не учтён размер выдачи");
+        verify(itemRepository, times(1)).findPopularity();
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    @Test
+    void suggestShouldMatchBeginningOfAnyWord() {
+        assertEquals(List.of(1L, 5L), ids(index.suggest("удар", 10)), "Не найдены вещи по второму слову");
+        assertEquals(List.of(1L), ids(index.suggest("  дрель   уд ", 10)), "Не найдена вещь по двум словам");
+        assertTrue(index.suggest("рель", 10).isEmpty(), "Префикс должен совпадать с началом слова");
+    }
+
+    @Test
+    void onItemChangedShouldAddRenameAndHideItems() {
+        index.onItemChanged(new ItemChangedEvent(6, 1, "Дрель новая", null, true));
+        index.onItemChanged(new ItemChangedEvent(4, 1, "Дрель починенная", null, true));
+        index.onItemChanged(new ItemChangedEvent(2, 1, "Шуруповёрт", null, true));
+        index.onItemChanged(new ItemChangedEvent(3, 1, "Дровокол", null, false));
+
+        assertEquals(List.of(4L, 1L, 6L), ids(index.suggest("др", 10)), "Изменения вещей не учтены");
+        assertEquals(List.of(2L), ids(index.suggest("шуруп", 10)), "Новое название не найдено");
+    }
+
+    @Test
+    void onItemDeletedShouldRemoveItem() {
+        index.onItemDeleted(new ItemDeletedEvent(2, 1));
+
+        assertEquals(List.of(1L, 3L), ids(index.suggest("др", 10)), "Удалённая вещь осталась в подсказках");
+    }
+
+    @Test
+    void rebuildShouldKeepChangesAppliedWhileReadingFromDatabase() {
+        when(itemRepository.findPopularity()).thenAnswer(invocation -> {
+            // События, пришедшие после чтения из БД, но до замены индекса
+            index.onItemChanged(new ItemChangedEvent(6, 1, "Дрель новая", null, true));
+            index.onItemDeleted(new ItemDeletedEvent(2, 1));
+            return List.of(
+                    new ItemPopularity(1, "Дрель ударная", true, 2),
+                    new ItemPopularity(2, "Дрель аккумуляторная", true, 5));
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(1L, 6L), ids(index.suggest("др", 10)), "Изменения во время перестроения потеряны");
+    }
+
+    @Test
+    void onBookingStatusChangedShouldUpdatePopularity() {
+        LocalDateTime start = LocalDateTime.now();
+        for (int i = 0; i < 4; i++) {
+            index.onBookingStatusChanged(new BookingStatusChangedEvent(10 + i, 1, start, start.plusDays(1),
+                    BookingStatus.WAITING, BookingStatus.APPROVED));
+        }
+        assertEquals(List.of(1L, 2L, 3L), ids(index.suggest("др", 10)), "Популярность не увеличилась");
+
+        index.onBookingStatusChanged(new BookingStatusChangedEvent(20, 1, start, start.plusDays(1),
+                null, BookingStatus.WAITING));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.suggest("др", 10)), "Популярность изменилась ошибочно");
+
+        for (int i = 0; i < 2; i++) {
+            index.onBookingStatusChanged(new BookingStatusChangedEvent(10 + i, 1, start, start.plusDays(1),
+                    BookingStatus.APPROVED, BookingStatus.CANCELED));
+        }
+        assertEquals(List.of(2L, 1L, 3L), ids(index.suggest("др", 10)), "Популярность не уменьшилась");
+    }
+}
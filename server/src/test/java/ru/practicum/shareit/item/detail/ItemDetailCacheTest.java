@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item.detail;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemDetailCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private ItemDetailCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemDetailCache(meterRegistry, 100);
+        loads = new AtomicInteger();
+    }
+
+    private LongFunction<ItemWithBookingAndCommentsDto> loader(BookingDto nextBooking) {
+        return itemId -> {
+            loads.incrementAndGet();
+            return new ItemWithBookingAndCommentsDto(itemId, "Дрель", "Ударная", true, null, null, nextBooking,
+                    List.of(), 0);
+        };
+    }
+
+    private static BookingDto bookingStartingAt(LocalDateTime start) {
+        return new BookingDto(1, start, start.plusDays(1), null, null, BookingStatus.APPROVED);
+    }
+
+    @Test
+    void getShouldLoadOnceAndServeRepeatedRequestsFromCache() {
+        ItemWithBookingAndCommentsDto loaded = cache.get(1, loader(null));
+        ItemWithBookingAndCommentsDto cached = cache.get(1, loader(null));
+
+        assertSame(loaded, cached, "Повторный запрос должен отдаваться из кэша");
+        assertEquals(1, loads.get(), "Карточка должна собираться один раз");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "shareit.item.details")
+                .tag("result", "hit").functionCounter().count(), "Неверное число попаданий");
+    }
+
+    @Test
+    void getShouldKeepEntryUntilNextBookingStarts() {
+        cache.get(1, loader(bookingStartingAt(LocalDateTime.now().plusDays(1))));
+        cache.get(1, loader(null));
+        cache.get(2, loader(bookingStartingAt(LocalDateTime.now().minusSeconds(1))));
+        cache.get(2, loader(null));
+
+        assertEquals(3, loads.get(), "Карточка с начавшимся следующим бронированием должна собираться заново");
+    }
+
+    @Test
+    void eventsShouldInvalidateOnlyAffectedItems() {
+        cache.get(1, loader(null));
+        cache.get(2, loader(null));
+        cache.get(3, loader(null));
+
+        cache.onItemChanged(new ItemChangedEvent(1, 1, "Дрель", null, true));
+        cache.onCommentAdded(new CommentAddedEvent(5, 2));
+        cache.onBookingStatusChanged(new BookingStatusChangedEvent(7, 3, LocalDateTime.now(),
+                LocalDateTime.now().plusDays(1), null, BookingStatus.WAITING));
+        cache.get(1, loader(null));
+        cache.get(2, loader(null));
+        cache.get(3, loader(null));
+
+        assertEquals(5, loads.get(), "Сбрасываться должны только затронутые карточки");
+    }
+
+    @Test
+    void onBookingStatusChangedShouldInvalidateWhenApprovedBookingsChange() {
+        cache.get(1, loader(null));
+
+        cache.onBookingStatusChanged(new BookingStatusChangedEvent(7, 1, LocalDateTime.now(),
+                LocalDateTime.now().plusDays(1), BookingStatus.WAITING, BookingStatus.APPROVED));
+        cache.get(1, loader(null));
+        cache.onBookingStatusChanged(new BookingStatusChangedEvent(7, 1, LocalDateTime.now(),
+                LocalDateTime.now().plusDays(1), BookingStatus.APPROVED, BookingStatus.CANCELED));
+        cache.get(1, loader(null));
+
+        assertEquals(3, loads.get(), "Изменение подтверждённых бронирований должно сбрасывать карточку");
+    }
+
+    @Test
+    void onUserChangedShouldInvalidateAllItems() {
+        cache.get(1, loader(null));
+        cache.get(2, loader(null));
+
+        cache.onUserChanged(new UserChangedEvent(1));
+        cache.get(1, loader(null));
+        cache.get(2, loader(null));
+
+        assertEquals(4, loads.get(), "Изменение пользователя должно сбрасывать все карточки");
+    }
+
+    @Test
+    void getShouldNotKeepEntryLoadedConcurrentlyWithInvalidation() {
+        cache.get(1, itemId -> {
+            cache.onItemChanged(new ItemChangedEvent(1, 1, "Дрель", null, true));
+            return loader(null).apply(itemId);
+        });
+        cache.get(1, loader(null));
+
+        assertEquals(2, loads.get(), "Карточка, собранная во время сброса, не должна оставаться в кэше");
+    }
+}
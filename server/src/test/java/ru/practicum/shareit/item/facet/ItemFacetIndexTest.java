@@ -0,0 +1,191 @@
+package ru.practicum.shareit.item.facet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemFacetCountsDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemFacetIndexTest {
+    private static final ItemFacetFilter NO_FILTER = new ItemFacetFilter(null, null, null, null, null);
+
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private CommentRepository commentRepository;
+
+    private ItemFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemFacetIndex(itemRepository, bookingRepository, commentRepository, Duration.ofDays(7));
+        when(itemRepository.findFacetSources()).thenReturn(List.of(
+                new ItemFacetSource(1, 10, true),
+                new ItemFacetSource(2, 10, false),
+                new ItemFacetSource(3, 20, true),
+                new ItemFacetSource(4, 20, true)
+        ));
+        when(bookingRepository.findItemBookingIdsByStatus(BookingStatus.WAITING))
+                .thenReturn(List.of(new ItemBookingId(3, 21), new ItemBookingId(3, 23)));
+        when(commentRepository.findCommentedItemIds()).thenReturn(List.of(1L, 3L));
+        when(bookingRepository.findItemIdsWithApprovedBookingBetween(any(), any())).thenReturn(List.of(4L));
+        index.rebuild();
+    }
+
+    private List<Long> find(ItemFacetFilter filter) {
+        return index.search(filter, 0, 10).itemIds();
+    }
+
+    @Test
+    void searchShouldCountFacetValuesOfAllItemsWithoutFilter() {
+        ItemFacetPage page = index.search(NO_FILTER, 0, 10);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), page.itemIds(), "Неверный список вещей");
+        assertEquals(4, page.total(), "Неверное количество вещей");
+        assertEquals(new ItemFacetCountsDto(3, 1, 1, 2, Map.of(10L, 2L, 20L, 2L)), page.counts(),
+                "Неверные количества по фасетам");
+    }
+
+    @Test
+    void searchShouldIntersectFilters() {
+        assertEquals(List.of(1L, 3L), find(new ItemFacetFilter(null, true, null, null, true)),
+                "Неверный результат для доступных вещей с отзывами");
+        assertEquals(List.of(3L), find(new ItemFacetFilter(20L, null, null, false, null)),
+                "Неверный результат для вещей владельца без ближайших бронирований");
+        assertEquals(List.of(1L, 2L), find(new ItemFacetFilter(10L, null, false, null, null)),
+                "Неверный результат для вещей владельца без запросов");
+        assertTrue(find(new ItemFacetFilter(30L, null, null, null, null)).isEmpty(),
+                "У владельца без вещей найдены вещи");
+    }
+
+    @Test
+    void searchShouldCountFacetsInsideFilteredItems() {
+        ItemFacetPage page = index.search(new ItemFacetFilter(null, true, null, null, null), 0, 10);
+
+        assertEquals(new ItemFacetCountsDto(3, 1, 1, 2, Map.of(10L, 1L, 20L, 2L)), page.counts(),
+                "Неверные количества по фасетам");
+    }
+
+    @Test
+    void searchShouldCountOwnersOfSmallResultByItems() {
+        ItemFacetPage page = index.search(new ItemFacetFilter(null, null, true, null, null), 0, 10);
+
+        assertEquals(Map.of(20L, 1L), page.counts().owners(), "Неверные количества по владельцам");
+        assertEquals(Map.of(20L, 2L), index.search(new ItemFacetFilter(20L, null, null, null, null), 0, 10)
+                .counts().owners(), "Неверное количество для выбранного владельца");
+    }
+
+    @Test
+    void onItemChangedShouldSkipItemsWithIdsBeyondBitmapRange() {
+        index.onItemChanged(new ItemChangedEvent(3_000_000_000L, 10, "Дрель", "Ударная", true));
+        index.onItemDeleted(new ItemDeletedEvent(3_000_000_000L, 10));
+
+        assertEquals(4, index.search(NO_FILTER, 0, 10).total(), "Вещь с большим id попала в фасеты");
+    }
+
+    @Test
+    void onItemChangedShouldMoveItemToNewOwner() {
+        index.onItemChanged(new ItemChangedEvent(1, 20, "Дрель", "Ударная", true));
+
+        assertEquals(List.of(2L), find(new ItemFacetFilter(10L, null, null, null, null)),
+                "Вещь осталась у прежнего владельца");
+    }
+
+    @Test
+    void searchShouldReturnRequestedPage() {
+        ItemFacetPage page = index.search(NO_FILTER, 1, 2);
+
+        assertEquals(List.of(2L, 3L), page.itemIds(), "Неверная страница");
+        assertEquals(4, page.total(), "Количество вещей не должно зависеть от страницы");
+        assertTrue(index.search(NO_FILTER, 10, 2).itemIds().isEmpty(), "Страница за пределами выборки не пуста");
+    }
+
+    @Test
+    void eventsShouldUpdateFacetsIncrementally() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(bookingRepository.existsApprovedOverlap(eq(4L), any(), any(), anyLong())).thenReturn(false);
+
+        index.onItemChanged(new ItemChangedEvent(5, 30, "Дрель", "Ударная", true));
+        index.onItemChanged(new ItemChangedEvent(2, 10, "Отвёртка", "Крестовая", true));
+        index.onItemDeleted(new ItemDeletedEvent(1, 10));
+        index.onCommentAdded(new CommentAddedEvent(7, 4));
+        index.onBookingStatusChanged(new BookingStatusChangedEvent(20, 4, start, start.plusDays(1),
+                null, BookingStatus.WAITING));
+        index.onBookingStatusChanged(new BookingStatusChangedEvent(21, 3, start, start.plusDays(1),
+                BookingStatus.WAITING, BookingStatus.APPROVED));
+        index.onBookingStatusChanged(new BookingStatusChangedEvent(22, 4, start, start.plusDays(1),
+                BookingStatus.APPROVED, BookingStatus.CANCELED));
+
+        ItemFacetPage page = index.search(NO_FILTER, 0, 10);
+        assertEquals(List.of(2L, 3L, 4L, 5L), page.itemIds(), "Неверный список вещей");
+        assertEquals(new ItemFacetCountsDto(4, 2, 1, 2, Map.of(20L, 2L, 10L, 1L, 30L, 1L)), page.counts(),
+                "Неверные количества по фасетам");
+        assertEquals(List.of(3L), find(new ItemFacetFilter(null, null, null, true, null)),
+                "Фасет ближайших бронирований не обновлён");
+
+        index.onBookingStatusChanged(new BookingStatusChangedEvent(23, 3, start, start.plusDays(1),
+                BookingStatus.WAITING, BookingStatus.REJECTED));
+        assertEquals(List.of(4L), find(new ItemFacetFilter(null, null, true, null, null)),
+                "Запрос не снят после решения по последнему бронированию");
+    }
+
+    @Test
+    void rebuildShouldKeepChangesAppliedWhileReadingFromDatabase() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(itemRepository.findFacetSources()).thenAnswer(invocation -> {
+            // События, пришедшие после чтения из БД, но до замены карт
+            index.onItemChanged(new ItemChangedEvent(5, 30, "Дрель", "Ударная", true));
+            index.onItemDeleted(new ItemDeletedEvent(1, 10));
+            return List.of(
+                    new ItemFacetSource(1, 10, true),
+                    new ItemFacetSource(3, 20, true));
+        });
+        when(bookingRepository.findItemBookingIdsByStatus(BookingStatus.WAITING)).thenAnswer(invocation -> {
+            // Бронирование уже учтено в БД, событие о нём повторится на новых картах
+            index.onBookingStatusChanged(new BookingStatusChangedEvent(24, 3, start, start.plusDays(1),
+                    null, BookingStatus.WAITING));
+            return List.of(new ItemBookingId(3, 24));
+        });
+
+        index.rebuild();
+        index.onBookingStatusChanged(new BookingStatusChangedEvent(24, 3, start, start.plusDays(1),
+                BookingStatus.WAITING, BookingStatus.REJECTED));
+
+        assertEquals(List.of(3L, 5L), find(NO_FILTER), "Изменения во время перестроения потеряны");
+        assertEquals(List.of(), find(new ItemFacetFilter(null, null, true, null, null)),
+                "Повторно применённое бронирование посчитано дважды");
+    }
+
+    @Test
+    void refreshBookedSoonShouldReplaceFacetFromDatabase() {
+        when(bookingRepository.findItemIdsWithApprovedBookingBetween(any(), any())).thenReturn(List.of(1L, 2L));
+
+        index.refreshBookedSoon();
+
+        assertEquals(List.of(1L, 2L), find(new ItemFacetFilter(null, null, null, true, null)),
+                "Фасет ближайших бронирований не пересчитан");
+    }
+}
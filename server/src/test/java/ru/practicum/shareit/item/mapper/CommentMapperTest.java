@@ -17,7 +17,7 @@ class CommentMapperTest {
     void toCommentDtoShouldMapCommentToDto() {
         User user = new User(1, "First user", "first@mail.ru");
         Item item = new Item(1, "First item", "First item desc",
-                true, user, null);
+                true, user, null, 0);
         Comment comment = new Comment();
         comment.setId(1);
         comment.setText("Test text");
@@ -23,9 +23,9 @@ class ItemMapperTest {
     private final ItemRequest itemRequest = new ItemRequest(1, "Need item",
             LocalDateTime.now().minusHours(1), requester);
     private final Item item = new Item(1, "First item", "First item desc",
-            true, user, itemRequest);
+            true, user, itemRequest, 5);
     private final Item itemNoRequest = new Item(1, "First item", "First item desc",
-            true, user, null);
+            true, user, null, 0);
 
 
     @Test
@@ -44,6 +44,21 @@ class ItemMapperTest {
                 "Возвращаемое значение должно быть null");
     }
 
+    @Test
+    void itemDtoToItemWithBookingAndCommentsDtoShouldMapItemDtoFields() {
+        ItemDto itemDto = new ItemDto(4L, "Item", "Item desc", true, 7L);
+
+        ItemWithBookingAndCommentsDto mappedDto = itemMapper.itemDtoToItemWithBookingAndCommentsDto(itemDto,
+                null, null, List.of(), 3);
+
+        assertEquals(itemDto.id(), mappedDto.id(), "id не совпадает");
+        assertEquals(itemDto.name(), mappedDto.name(), "Имя не совпадает");
+        assertEquals(itemDto.requestId(), mappedDto.requestId(), "id запроса не совпадает");
+        assertNull(mappedDto.lastBooking(), "Прошлое бронирование должно быть null");
+        assertTrue(mappedDto.comments().isEmpty(), "Список комментариев должен быть пустым");
+        assertEquals(3, mappedDto.commentsCount(), "Число комментариев не совпадает");
+    }
+
     @Test
     void toItemDtoShouldMapItemToDtoWhenRequestIsNotNull() {
         ItemDto mappedItemDto = itemMapper.toItemDto(item);
@@ -97,6 +112,7 @@ class ItemMapperTest {
         assertEquals(item.isAvailable(), mappedDto.available(), "Доступность не совпадает");
         assertEquals(item.getRequest().getId(), mappedDto.requestId(), "id запроса не совпадает");
         assertEquals(lastBooking, mappedDto.lastBooking(), "Прошлое бронирование не совпадает");
+        assertEquals(item.getCommentsCount(), mappedDto.commentsCount(), "Число комментариев не совпадает");
         assertEquals(nextBooking, mappedDto.nextBooking(), "Следующее бронирование не совпадает");
         assertEquals(comments.getFirst(), mappedDto.comments().getFirst(), "Комментарий не совпадает");
     }
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FullTextItemSearchEngineTest {
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Captor
+    private ArgumentCaptor<MapSqlParameterSource> parametersCaptor;
+    @Captor
+    private ArgumentCaptor<PreparedStatementCreator> statementCaptor;
+    @Captor
+    private ArgumentCaptor<RowCallbackHandler> rowHandlerCaptor;
+
+    private final List<ItemDto> items = List.of(new ItemDto(1L, "Дрель", "Ударная дрель", true, null));
+
+    @BeforeEach
+    void setUp() {
+        when(namedParameterJdbcTemplate.getJdbcTemplate()).thenReturn(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchShouldQuerySearchVectorWhenDatabaseIsPostgres() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(namedParameterJdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(items);
+        FullTextItemSearchEngine engine = new FullTextItemSearchEngine(namedParameterJdbcTemplate, itemRepository);
+
+        List<ItemDto> result = engine.search("дрель bosch", 20, 5);
+
+        assertEquals(items, result, "Возвращённые данные не соответствуют ожидаемым");
+        verify(namedParameterJdbcTemplate).query(contains("search_vector @@"), parametersCaptor.capture(),
+                any(RowMapper.class));
+        assertEquals("дрель bosch", parametersCaptor.getValue().getValue("text"), "Неверный текст запроса");
+        assertEquals(20, parametersCaptor.getValue().getValue("from"), "Неверное смещение");
+        assertEquals(5, parametersCaptor.getValue().getValue("size"), "Неверный размер страницы");
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchShouldFallBackToSubstringSearchWhenDatabaseIsNotPostgres() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        when(itemRepository.searchAvailable("дрель", 0, 10)).thenReturn(items);
+        FullTextItemSearchEngine engine = new FullTextItemSearchEngine(namedParameterJdbcTemplate, itemRepository);
+
+        List<ItemDto> result = engine.search("дрель", 0, 10);
+
+        assertEquals(items, result, "Возвращённые данные не соответствуют ожидаемым");
+        verify(itemRepository, times(1)).searchAvailable("дрель", 0, 10);
+        verify(namedParameterJdbcTemplate, never()).query(anyString(), any(MapSqlParameterSource.class),
+                any(RowMapper.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamShouldReadSearchVectorInOneQueryWithFetchSizeWhenDatabaseIsPostgres() throws Exception {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        FullTextItemSearchEngine engine = new FullTextItemSearchEngine(namedParameterJdbcTemplate, itemRepository);
+        List<ItemDto> result = new ArrayList<>();
+
+        engine.stream("дрель", result::add);
+
+        verify(jdbcTemplate).query(statementCaptor.capture(), rowHandlerCaptor.capture());
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        when(connection.prepareStatement(sqlCaptor.capture())).thenReturn(statement);
+        statementCaptor.getValue().createPreparedStatement(connection);
+        assertTrue(sqlCaptor.getValue().contains("search_vector @@"), "Запрос не использует search_vector");
+        assertFalse(sqlCaptor.getValue().contains("limit"), "Результат читается страницами");
+        verify(statement).setString(1, "дрель");
+        verify(statement).setString(2, "дрель");
+        verify(statement).setFetchSize(ItemSearchEngine.STREAM_PAGE_SIZE);
+
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenReturn(1L);
+        when(resultSet.getString("name")).thenReturn("Дрель");
+        when(resultSet.getString("description")).thenReturn("Ударная дрель");
+        when(resultSet.getInt("available")).thenReturn(1);
+        rowHandlerCaptor.getValue().processRow(resultSet);
+        assertEquals(items, result, "Возвращённые данные не соответствуют ожидаемым");
+        verify(namedParameterJdbcTemplate, never()).query(anyString(), any(MapSqlParameterSource.class),
+                any(RowMapper.class));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamShouldFallBackToSubstringSearchWhenDatabaseIsNotPostgres() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        when(itemRepository.streamAvailable("дрель")).thenReturn(items.stream());
+        FullTextItemSearchEngine engine = new FullTextItemSearchEngine(namedParameterJdbcTemplate, itemRepository);
+        List<ItemDto> result = new ArrayList<>();
+
+        engine.stream("дрель", result::add);
+
+        assertEquals(items, result, "Возвращённые данные не соответствуют ожидаемым");
+        verify(jdbcTemplate, never()).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void matchesShouldCompareWordStemsWhenDatabaseIsPostgres() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        FullTextItemSearchEngine engine = new FullTextItemSearchEngine(namedParameterJdbcTemplate, itemRepository);
+
+        assertTrue(engine.matches("дрели bosch", "Дрель", null), "Не учтена словоформа");
+        assertTrue(engine.matches("перфоратор дрели", "Молоток", "Для дрелей"), "Не учтено описание");
+        assertTrue(engine.matches("палатками", "Палатку", null), "Не учтена основа короче слова запроса");
+        assertTrue(engine.matches("running shoes", "Run", null), "Не учтена основа короче слова запроса");
+        assertFalse(engine.matches("дрели", "Молоток", "Большой"), "Лишнее совпадение");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void matchesShouldCompareSubstringWhenDatabaseIsNotPostgres() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        FullTextItemSearchEngine engine = new FullTextItemSearchEngine(namedParameterJdbcTemplate, itemRepository);
+
+        assertTrue(engine.matches("дрел", "Дрель", null), "Подстрока не найдена");
+        assertFalse(engine.matches("дрели", "Дрель", null), "Лишнее совпадение");
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FuzzyItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    private FuzzyItemSearchEngine engine;
+
+    private final List<ItemDto> items = List.of(
+            new ItemDto(1L, "Дрель", "Ударная дрель Bosch", true, null),
+            new ItemDto(2L, "Дрелька", "Маленькая аккумуляторная", true, null),
+            new ItemDto(3L, "Отвёртка", "Крестовая", true, null),
+            new ItemDto(4L, "Перфоратор", "Мощнее, чем дрель", true, null)
+    );
+
+    @BeforeEach
+    void setUp() {
+        engine = new FuzzyItemSearchEngine(itemRepository);
+        when(itemRepository.findAllAvailableDto()).thenReturn(items);
+        engine.rebuild();
+    }
+
+    private void stubPage(List<Long> ids) {
+        // Порядок из БД не совпадает с порядком ранжирования
+        when(itemRepository.findDtoByIdIn(ids)).thenReturn(items.stream()
+                .filter(item -> ids.contains(item.id()))
+                .toList());
+    }
+
+    @Test
+    void searchShouldFindItemsDespiteTypos() {
+        stubPage(List.of(1L, 4L));
+
+        List<ItemDto> result = engine.search("дрелъ", 0, 10);
+
+        assertEquals(List.of(items.get(0), items.get(3)), result, "Не найдены вещи с опечаткой в запросе");
+        verify(itemRepository, times(1)).findDtoByIdIn(List.of(1L, 4L));
+    }
+
+    @Test
+    void searchShouldRankExactAndPrefixHitsBeforeTypos() {
+        stubPage(List.of(1L, 2L, 4L));
+
+        List<ItemDto> result = engine.search("дрел", 0, 10);
+
+        assertEquals(List.of(items.get(0), items.get(1), items.get(3)), result, "Неверный порядок результатов");
+    }
+
+    @Test
+    void searchShouldRequireEveryQueryWordAndSumTypos() {
+        stubPage(List.of(1L));
+
+        assertEquals(List.of(items.getFirst()), engine.search("ударная bosh", 0, 10), "Не найдена вещь по двум словам");
+        assertTrue(engine.search("ударная перфоратор", 0, 10).isEmpty(), "Найдена вещь без одного из слов");
+    }
+
+    @Test
+    void searchShouldNotAllowTyposInShortWords() {
+        assertTrue(engine.search("чам", 0, 10).isEmpty(), "Короткие слова должны искаться точно");
+        verify(itemRepository, never()).findDtoByIdIn(anyCollection());
+    }
+
+    @Test
+    void searchShouldReturnRequestedPage() {
+        stubPage(List.of(2L));
+
+        List<ItemDto> result = engine.search("дрель", 1, 1);
+
+        assertEquals(List.of(items.get(1)), result, "Неверная страница результатов");
+    }
+
+    @Test
+    void onItemChangedShouldUpdateIndex() {
+        engine.onItemChanged(new ItemChangedEvent(3, 1, "Шуруповёрт", "Крестовая бита", true));
+        engine.onItemChanged(new ItemChangedEvent(4, 1, "Перфоратор", "Мощнее, чем дрель", false));
+        engine.onItemDeleted(new ItemDeletedEvent(2, 1));
+        stubPage(List.of(1L));
+        stubPage(List.of(3L));
+
+        assertEquals(List.of(items.getFirst()), engine.search("дрель", 0, 10), "Индекс не обновлён");
+        assertEquals(List.of(items.get(2)), engine.search("шуруповерт", 0, 10), "Новое название не найдено");
+        assertTrue(engine.search("отвёртка", 0, 10).isEmpty(), "Старое название осталось в индексе");
+    }
+
+    @Test
+    void rebuildShouldKeepChangesAppliedWhileReadingFromDatabase() {
+        when(itemRepository.findAllAvailableDto()).thenAnswer(invocation -> {
+            engine.onItemDeleted(new ItemDeletedEvent(1, 1));
+            return items;
+        });
+
+        engine.rebuild();
+        stubPage(List.of(2L, 4L));
+
+        assertEquals(List.of(items.get(1), items.get(3)), engine.search("дрель", 0, 10),
+                "Удалённая во время перестроения вещь вернулась в индекс");
+    }
+
+    @Test
+    void matchesShouldApplyTypoToleranceToSingleItem() {
+        assertTrue(engine.matches("дрелъ ударная", "Дрель", "Ударная"), "Не учтена опечатка");
+        assertFalse(engine.matches("дрель перфоратор", "Дрель", "Ударная"), "Лишнее совпадение");
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchCacheTest {
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemSearchCache cache;
+
+    private final ItemDto drill = new ItemDto(1L, "Дрель", "Ударная", true, null);
+    private final ItemDto tent = new ItemDto(2L, "Палатка", "Двухместная", true, null);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(itemSearchEngine, meterRegistry, 1_000_000);
+        lenient().when(itemSearchEngine.search("дрель", 0, 10)).thenReturn(List.of(drill));
+        lenient().when(itemSearchEngine.search("дрель", 10, 10)).thenReturn(List.of());
+        lenient().when(itemSearchEngine.search("палатка", 0, 10)).thenReturn(List.of(tent));
+    }
+
+    @Test
+    void searchShouldCacheResultsByNormalizedTextAndPage() {
+        assertEquals(List.of(drill), cache.search("Дрель", 0, 10), "Неверный результат поиска");
+        assertEquals(List.of(drill), cache.search("  дрель ", 0, 10), "Неверный результат из кэша");
+        assertEquals(List.of(), cache.search("дрель", 10, 10), "Неверная страница");
+
+        verify(itemSearchEngine, times(1)).search("дрель", 0, 10);
+        verify(itemSearchEngine, times(1)).search("дрель", 10, 10);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "shareit.item.search")
+                .tag("result", "hit").functionCounter().count(), "Неверное число попаданий");
+        assertTrue(meterRegistry.get("shareit.item.search.cache.memory").gauge().value() > 0,
+                "Не учтена занятая память");
+    }
+
+    @Test
+    void onItemChangedShouldInvalidateAllPagesOfMatchingQueriesOnly() {
+        cache.search("дрель", 0, 10);
+        cache.search("дрель", 10, 10);
+        cache.search("палатка", 0, 10);
+        when(itemSearchEngine.matches("дрель", "Дрель новая", null)).thenReturn(true);
+        when(itemSearchEngine.matches("палатка", "Дрель новая", null)).thenReturn(false);
+
+        cache.onItemChanged(new ItemChangedEvent(3, 1, "Дрель новая", null, true));
+        cache.search("дрель", 0, 10);
+        cache.search("дрель", 10, 10);
+        cache.search("палатка", 0, 10);
+
+        verify(itemSearchEngine, times(2)).search("дрель", 0, 10);
+        verify(itemSearchEngine, times(2)).search("дрель", 10, 10);
+        verify(itemSearchEngine, times(1)).search("палатка", 0, 10);
+    }
+
+    @Test
+    void onItemChangedShouldInvalidateQueriesContainingItemThatNoLongerMatches() {
+        cache.search("дрель", 0, 10);
+        cache.search("палатка", 0, 10);
+
+        cache.onItemChanged(new ItemChangedEvent(1, 1, "Дрель", "Ударная", false));
+        cache.search("дрель", 0, 10);
+        cache.search("палатка", 0, 10);
+
+        verify(itemSearchEngine, times(2)).search("дрель", 0, 10);
+        verify(itemSearchEngine, times(1)).search("палатка", 0, 10);
+        verify(itemSearchEngine, never()).matches(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void onItemDeletedShouldInvalidateQueriesContainingItem() {
+        cache.search("дрель", 0, 10);
+        cache.search("палатка", 0, 10);
+
+        cache.onItemDeleted(new ItemDeletedEvent(2, 1));
+        cache.search("дрель", 0, 10);
+        cache.search("палатка", 0, 10);
+
+        verify(itemSearchEngine, times(1)).search("дрель", 0, 10);
+        verify(itemSearchEngine, times(2)).search("палатка", 0, 10);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.InvalidCursorException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorTest {
+    @Test
+    void decodeShouldRestoreEncodedCursor() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2025, 1, 17, 18, 47, 52, 690_000_000), 15L);
+
+        assertEquals(cursor, Cursor.decode(cursor.encode()), "Курсор после декодирования не совпадает с исходным");
+    }
+
+    @Test
+    void decodeShouldThrowExceptionWhenTokenIsNotBase64() {
+        assertThrows(InvalidCursorException.class, () -> Cursor.decode("not a cursor"));
+    }
+
+    @Test
+    void decodeShouldThrowExceptionWhenTokenHasWrongFormat() {
+        String token = new Cursor(LocalDateTime.now(), 1L).encode().substring(3);
+
+        assertThrows(InvalidCursorException.class, () -> Cursor.decode(token));
+    }
+}
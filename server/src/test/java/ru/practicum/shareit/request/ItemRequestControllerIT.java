@@ -5,14 +5,17 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.RequestBuilder;
 import ru.practicum.shareit.constants.AppConstants;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
 import ru.practicum.shareit.request.dto.NewItemRequestDto;
+import ru.practicum.shareit.streaming.NdjsonWriter;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -25,6 +28,7 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
 @WebMvcTest(controllers = ItemRequestController.class)
+@Import(NdjsonWriter.class)
 class ItemRequestControllerIT {
     @MockitoBean
     ItemRequestServiceImpl itemRequestService;
@@ -79,7 +83,7 @@ class ItemRequestControllerIT {
     @Test
     @DisplayName("getUserRequests должна вернуть все запросы указанного пользователя")
     void shouldGetAllRequestsByUserId() throws Exception {
-        when(itemRequestService.getAllForUser(2))
+        when(itemRequestService.getAllForUser(2, 0, 10))
                 .thenReturn(itemRequestWithAnswersDtos);
 
         RequestBuilder request = get("/requests")
@@ -97,7 +101,7 @@ class ItemRequestControllerIT {
                         .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))));
 
 
-        verify(itemRequestService, times(1)).getAllForUser(2);
+        verify(itemRequestService, times(1)).getAllForUser(2, 0, 10);
         verifyNoMoreInteractions(itemRequestService);
     }
 
@@ -105,16 +109,17 @@ class ItemRequestControllerIT {
     @DisplayName("getAllItemsRequests должна вернуть все запросы других пользователей")
     void shouldGetAllRequestsForOtherUserId() throws Exception {
 
-        when(itemRequestService.getAllForOtherUsers(2))
-                .thenReturn(itemRequestDtos);
+        when(itemRequestService.getAllForOtherUsers(2, "next", 2))
+                .thenReturn(new CursorPage<>(itemRequestDtos, "after"));
 
-        RequestBuilder request = get("/requests/all")
+        RequestBuilder request = get("/requests/all?cursor=next&size=2")
                 .characterEncoding(StandardCharsets.UTF_8)
                 .accept(MediaType.APPLICATION_JSON)
                 .header(AppConstants.USER_ID_HEADER, 2L);
 
         mvc.perform(request)
                 .andExpect(status().isOk())
+                .andExpect(header().string(AppConstants.NEXT_CURSOR_HEADER, "after"))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].description", is(itemRequestDtos.get(0).description())))
@@ -126,7 +131,7 @@ class ItemRequestControllerIT {
                 .andExpect(jsonPath("$[1].created", is(itemRequestDtos.get(1).created()
                         .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))));
 
-        verify(itemRequestService, times(1)).getAllForOtherUsers(2);
+        verify(itemRequestService, times(1)).getAllForOtherUsers(2, "next", 2);
         verifyNoMoreInteractions(itemRequestService);
     }
 
@@ -5,9 +5,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.constants.AppConstants;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
 import ru.practicum.shareit.request.dto.NewItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -44,13 +48,13 @@ class ItemRequestControllerTest {
                 List.of(new ItemRequestWithAnswersDto(1, "Request",
                         LocalDateTime.of(2025,3,15,12,34),
                         List.of()));
-        when(itemRequestService.getAllForUser(2)).thenReturn(expectedData);
+        when(itemRequestService.getAllForUser(2, 0, 10)).thenReturn(expectedData);
 
-        List<ItemRequestWithAnswersDto> result = itemRequestController.getUserRequests(2);
+        List<ItemRequestWithAnswersDto> result = itemRequestController.getUserRequests(0, 10, 2);
 
         assertEquals(expectedData.getFirst(), result.getFirst(),
                 "Возвращённые данные не соответсвуют ожидаемым");
-        verify(itemRequestService, times(1)).getAllForUser(2);
+        verify(itemRequestService, times(1)).getAllForUser(2, 0, 10);
         verifyNoMoreInteractions(itemRequestService);
     }
 
@@ -58,13 +62,27 @@ class ItemRequestControllerTest {
     void getAllItemsRequestsShouldReturnDataWhenInvoked() {
         List<ItemRequestDto> expectedData = List.of(new ItemRequestDto(1, "Request",
                 LocalDateTime.of(2025,3,15,12,34)));
-        when(itemRequestService.getAllForOtherUsers(3)).thenReturn(expectedData);
+        when(itemRequestService.getAllForOtherUsers(3, null, 10)).thenReturn(new CursorPage<>(expectedData, null));
 
-        List<ItemRequestDto> result = itemRequestController.getAllItemsRequests(3L);
+        List<ItemRequestDto> result = itemRequestController.getAllItemsRequests(null, 10, 3L).getBody();
 
         assertEquals(expectedData.getFirst(), result.getFirst(),
                 "Возвращённые данные не соответсвуют ожидаемым");
-        verify(itemRequestService, times(1)).getAllForOtherUsers(3);
+        verify(itemRequestService, times(1)).getAllForOtherUsers(3, null, 10);
+        verifyNoMoreInteractions(itemRequestService);
+    }
+
+    @Test
+    void getMatchesShouldReturnPageWithNextCursorHeader() {
+        List<RequestMatchDto> expectedData = List.of(new RequestMatchDto(5, 1, 10, "Дрель", 2, 1.0,
+                LocalDateTime.of(2025,3,15,12,34)));
+        when(itemRequestService.getMatches(3, null, 1)).thenReturn(new CursorPage<>(expectedData, "next"));
+
+        ResponseEntity<List<RequestMatchDto>> result = itemRequestController.getMatches(null, 1, 3L);
+
+        assertEquals(expectedData, result.getBody(), "Возвращённые данные не соответсвуют ожидаемым");
+        assertEquals("next", result.getHeaders().getFirst(AppConstants.NEXT_CURSOR_HEADER));
+        verify(itemRequestService, times(1)).getMatches(3, null, 1);
         verifyNoMoreInteractions(itemRequestService);
     }
 
@@ -0,0 +1,182 @@
+package ru.practicum.shareit.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.RequestAnswerDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.request.dedup.RecentItemRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.matching.OpenItemRequest;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ItemRequestServiceImplIT {
+    private final EntityManager manager;
+    private final ItemRequestServiceImpl itemRequestService;
+    private final ObjectMapper objectMapper;
+    private final ItemRequestRepository itemRequestRepository;
+
+    private ItemRequest addRequest(String description, LocalDateTime created) {
+        return addRequest(1L, description, created);
+    }
+
+    private ItemRequest addRequest(long requesterId, String description, LocalDateTime created) {
+        ItemRequest request = new ItemRequest(0, description, created, manager.find(User.class, requesterId));
+        manager.persist(request);
+        return request;
+    }
+
+    private Item addAnswer(ItemRequest request, String name) {
+        Item item = new Item(0, name, name + " desc", true, manager.find(User.class, 2L), request, 0);
+        manager.persist(item);
+        return item;
+    }
+
+    private void addMatch(ItemRequest request, Item item, LocalDateTime created) {
+        RequestMatch match = new RequestMatch();
+        match.setRequest(request);
+        match.setRequester(request.getRequester());
+        match.setItem(item);
+        match.setScore(1.0);
+        match.setCreated(created);
+        manager.persist(match);
+    }
+
+    private Statistics freshStatistics() {
+        manager.flush();
+        manager.clear();
+        Statistics statistics = manager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    @Test
+    @DisplayName("Должен отдавать страницу запросов пользователя с ответами двумя запросами к базе")
+    void shouldGetUserRequestsPageWithAnswersInTwoStatements() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        ItemRequest oldest = addRequest("Нужна дрель", now.minusDays(3));
+        ItemRequest middle = addRequest("Нужна пила", now.minusDays(2));
+        ItemRequest newest = addRequest("Нужна лестница", now.minusDays(1));
+        addAnswer(oldest, "Дрель");
+        addAnswer(middle, "Пила");
+        addAnswer(middle, "Ножовка");
+        Statistics statistics = freshStatistics();
+
+        List<ItemRequestWithAnswersDto> requests = itemRequestService.getAllForUser(1L, 0, 2);
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+        assertThat(requests.stream().map(ItemRequestWithAnswersDto::id).toList(),
+                equalTo(List.of(newest.getId(), middle.getId())));
+        assertThat(requests.get(0).items().size(), equalTo(0));
+        assertThat(requests.get(1).items().stream().map(RequestAnswerDto::getName).toList(),
+                equalTo(List.of("Пила", "Ножовка")));
+        assertThat(objectMapper.writeValueAsString(requests.get(1)), not(containsString("requestId")));
+
+        List<ItemRequestWithAnswersDto> nextPage = itemRequestService.getAllForUser(1L, 2, 2);
+
+        assertThat(nextPage.size(), equalTo(1));
+        assertThat(nextPage.getFirst().items().getFirst().getOwnerId(), equalTo(2L));
+    }
+
+    @Test
+    @DisplayName("Должен листать запросы других пользователей по курсору от новых к старым")
+    void shouldPageOtherUsersRequestsWithCursor() {
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        ItemRequest oldest = addRequest("Нужна дрель", created.minusHours(1));
+        ItemRequest first = addRequest("Нужна пила", created);
+        ItemRequest second = addRequest("Нужна лестница", created);
+        addRequest(2L, "Свой запрос", created.plusHours(1));
+        freshStatistics();
+
+        CursorPage<ItemRequestDto> firstPage = itemRequestService.getAllForOtherUsers(2L, null, 2);
+        CursorPage<ItemRequestDto> secondPage = itemRequestService.getAllForOtherUsers(2L, firstPage.nextCursor(), 2);
+
+        assertThat(firstPage.content().stream().map(ItemRequestDto::id).toList(),
+                equalTo(List.of(second.getId(), first.getId())));
+        assertThat(firstPage.nextCursor(), notNullValue());
+        assertThat(secondPage.content().stream().map(ItemRequestDto::id).toList(), equalTo(List.of(oldest.getId())));
+        assertThat(secondPage.nextCursor(), nullValue());
+    }
+
+    @Test
+    @DisplayName("Должен считать открытыми только запросы без ответов")
+    void shouldFindOnlyUnansweredRequestsAsOpen() {
+        ItemRequest open = addRequest("Нужна дрель", LocalDateTime.now());
+        ItemRequest answered = addRequest("Нужна пила", LocalDateTime.now());
+        addAnswer(answered, "Пила");
+        freshStatistics();
+
+        List<Long> openIds = itemRequestRepository.findOpen().stream()
+                .map(OpenItemRequest::id)
+                .toList();
+
+        assertThat(openIds.contains(open.getId()), equalTo(true));
+        assertThat(openIds.contains(answered.getId()), equalTo(false));
+    }
+
+    @Test
+    @DisplayName("Должен отдавать для поиска дубликатов только недавние запросы без ответов")
+    void shouldFindRecentUnansweredRequests() {
+        LocalDateTime now = LocalDateTime.now();
+        ItemRequest recent = addRequest("Нужна дрель", now.minusDays(1));
+        ItemRequest old = addRequest("Нужна дрель", now.minusDays(40));
+        ItemRequest answered = addRequest("Нужна пила", now.minusDays(1));
+        addAnswer(answered, "Пила");
+        freshStatistics();
+
+        List<Long> recentIds = itemRequestRepository.findOpenCreatedAfter(now.minusDays(30)).stream()
+                .map(RecentItemRequest::id)
+                .toList();
+
+        assertThat(recentIds.contains(recent.getId()), equalTo(true));
+        assertThat(recentIds.contains(old.getId()), equalTo(false));
+        assertThat(recentIds.contains(answered.getId()), equalTo(false));
+    }
+
+    @Test
+    @DisplayName("Должен листать совпадения пользователя по курсору от новых к старым")
+    void shouldPageMatchesWithCursor() {
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        ItemRequest request = addRequest("Нужна дрель", created);
+        ItemRequest otherRequest = addRequest(2L, "Нужна дрель", created);
+        Item drill = addAnswer(null, "Дрель");
+        Item hammerDrill = addAnswer(null, "Перфоратор");
+        addMatch(request, drill, created.plusHours(1));
+        addMatch(request, hammerDrill, created.plusHours(2));
+        addMatch(otherRequest, drill, created.plusHours(3));
+        freshStatistics();
+
+        CursorPage<RequestMatchDto> firstPage = itemRequestService.getMatches(1L, null, 1);
+        CursorPage<RequestMatchDto> secondPage = itemRequestService.getMatches(1L, firstPage.nextCursor(), 1);
+
+        assertThat(firstPage.content().getFirst().itemName(), equalTo("Перфоратор"));
+        assertThat(firstPage.content().getFirst().requestId(), equalTo(request.getId()));
+        assertThat(secondPage.content().getFirst().itemName(), equalTo("Дрель"));
+        assertThat(secondPage.nextCursor(), nullValue());
+    }
+}
@@ -8,13 +8,25 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.exception.AlreadyExistException;
+import ru.practicum.shareit.exception.InvalidCursorException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.RequestAnswerDto;
+import ru.practicum.shareit.item.dto.RequestAnswerWithRequestIdDto;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.request.dedup.DuplicateRequestPolicy;
+import ru.practicum.shareit.request.dedup.RequestDuplicate;
+import ru.practicum.shareit.request.dedup.RequestDuplicateDetector;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
 import ru.practicum.shareit.request.dto.NewItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.RequestMatchNotifier;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
@@ -53,6 +65,21 @@ class ItemRequestServiceImplTest {
         }
     }
 
+    static class RequestAnswerWithRequestIdDtoTestImpl extends RequestAnswerDtoTestImpl
+            implements RequestAnswerWithRequestIdDto {
+        private final long requestId;
+
+        RequestAnswerWithRequestIdDtoTestImpl(long requestId, long id, String name, long ownerId) {
+            super(id, name, ownerId);
+            this.requestId = requestId;
+        }
+
+        @Override
+        public long getRequestId() {
+            return requestId;
+        }
+    }
+
     @Mock
     ItemRequestRepository itemRequestRepository;
 
@@ -65,6 +92,18 @@ class ItemRequestServiceImplTest {
     @Mock
     ItemRepository itemRepository;
 
+    @Mock
+    RequestMatchRepository requestMatchRepository;
+
+    @Mock
+    RequestMatchNotifier requestMatchNotifier;
+
+    @Mock
+    RequestDuplicateDetector requestDuplicateDetector;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     ItemRequestServiceImpl itemRequestService;
 
@@ -103,8 +142,84 @@ class ItemRequestServiceImplTest {
                 .getUserById(1);
         verify(itemRequestRepository, times(1))
                 .save(any(ItemRequest.class));
+        verify(eventPublisher, times(1))
+                .publishEvent(new ItemRequestCreatedEvent(1, 1, "New request", itemRequestDto.created()));
+        verify(requestDuplicateDetector, times(1))
+                .findDuplicate(1, "New request");
+
+        Mockito.verifyNoMoreInteractions(itemRequestRepository, userService, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Должен создавать запрос, похожий на открытый запрос того же автора, и указывать похожий")
+    void shouldCreateDuplicateItemRequestAndReportDuplicate() {
+        when(userService.getUserById(1))
+                .thenReturn(new User(1, "Test user 1", "user@mail.ru"));
+        when(requestDuplicateDetector.findDuplicate(1, "Нужна дрель"))
+                .thenReturn(Optional.of(new RequestDuplicate(5, 0.9)));
+        when(requestDuplicateDetector.policy())
+                .thenReturn(DuplicateRequestPolicy.WARN);
+        when(itemRequestRepository.save(any(ItemRequest.class)))
+                .thenAnswer(argument -> {
+                    ItemRequest itemRequest = argument.getArgument(0, ItemRequest.class);
+                    itemRequest.setId(6);
+                    return itemRequest;
+                });
+        when(itemRequestMapper.toItemRequestDto(any(ItemRequest.class)))
+                .thenAnswer(argument -> {
+                    ItemRequest itemRequest = argument.getArgument(0, ItemRequest.class);
+                    return new ItemRequestDto(itemRequest.getId(), itemRequest.getDescription(),
+                            itemRequest.getCreated());
+                });
 
-        Mockito.verifyNoMoreInteractions(itemRequestRepository, userService);
+        ItemRequestDto itemRequestDto = itemRequestService.add(1, new NewItemRequestDto("Нужна дрель"));
+
+        assertEquals(6, itemRequestDto.id());
+        assertEquals(5L, itemRequestDto.duplicateOf());
+        verify(itemRequestRepository, times(1)).save(any(ItemRequest.class));
+        verify(eventPublisher, times(1)).publishEvent(any(ItemRequestCreatedEvent.class));
+        verifyNoMoreInteractions(itemRequestRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Должен отклонять запрос, похожий на открытый запрос того же автора")
+    void shouldReportDuplicateItemRequest() {
+        when(userService.getUserById(1))
+                .thenReturn(new User(1, "Test user 1", "user@mail.ru"));
+        when(requestDuplicateDetector.findDuplicate(1, "Нужна дрель"))
+                .thenReturn(Optional.of(new RequestDuplicate(5, 0.9)));
+        when(requestDuplicateDetector.policy())
+                .thenReturn(DuplicateRequestPolicy.REPORT);
+
+        AlreadyExistException exception = assertThrows(AlreadyExistException.class,
+                () -> itemRequestService.add(1, new NewItemRequestDto("Нужна дрель")));
+
+        assertEquals("Похожий запрос 5 уже создан", exception.getMessage());
+        verifyNoInteractions(itemRequestRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Должен возвращать похожий открытый запрос вместо создания нового")
+    void shouldMergeDuplicateItemRequest() {
+        ItemRequest existing = new ItemRequest(5, "Нужна дрель", LocalDateTime.now().minusDays(1),
+                new User(1, "Test user 1", "user@mail.ru"));
+        ItemRequestDto existingDto = new ItemRequestDto(5, "Нужна дрель", existing.getCreated());
+        when(userService.getUserById(1))
+                .thenReturn(existing.getRequester());
+        when(requestDuplicateDetector.findDuplicate(1, "Нужна дрель!"))
+                .thenReturn(Optional.of(new RequestDuplicate(5, 1.0)));
+        when(requestDuplicateDetector.policy())
+                .thenReturn(DuplicateRequestPolicy.MERGE);
+        when(itemRequestRepository.findById(5L))
+                .thenReturn(Optional.of(existing));
+        when(itemRequestMapper.toItemRequestDto(existing))
+                .thenReturn(existingDto);
+
+        assertEquals(existingDto, itemRequestService.add(1, new NewItemRequestDto("Нужна дрель!")));
+
+        verify(itemRequestRepository, times(1)).findById(5L);
+        verifyNoMoreInteractions(itemRequestRepository);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -120,65 +235,131 @@ class ItemRequestServiceImplTest {
     }
 
     @Test
-    @DisplayName("Должен вернуть все запросы для конкретного пользователя")
+    @DisplayName("Должен вернуть страницу запросов пользователя, выбрав ответы на них одним запросом")
     void shouldReturnAllItemRequestsFormUser() {
-        User requester = new User(1, "Test user 1", "user@mail.ru");
         LocalDateTime requestTime = LocalDateTime.now();
-        List<ItemRequest> itemRequests = List.of(
-                new ItemRequest(1, "First request", requestTime.minusHours(2), requester),
-                new ItemRequest(2, "Second request", requestTime.minusHours(1), requester)
+        List<ItemRequestDto> itemRequests = List.of(
+                new ItemRequestDto(2, "Second request", requestTime.minusHours(1)),
+                new ItemRequestDto(1, "First request", requestTime.minusHours(2))
         );
 
-        when(itemRequestRepository.findByRequester_id(Mockito.anyLong()))
+        when(itemRequestRepository.findDtoByRequesterId(1, 0, 10))
                 .thenReturn(itemRequests);
 
-        when(itemRequestMapper.toItemRequestWithAnswersDto(any(ItemRequest.class), anyList()))
-                .thenAnswer(arguments -> {
-                    ItemRequest request = arguments.getArgument(0, ItemRequest.class);
-                    List<RequestAnswerDto> items = arguments.getArgument(1);
+        when(itemRepository.findAnswersByRequestIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(new RequestAnswerWithRequestIdDtoTestImpl(1, 1, "Item 1", 5)));
 
-                    return new ItemRequestWithAnswersDto(request.getId(), request.getDescription(),
-                            request.getCreated(), items);
-                });
+        List<ItemRequestWithAnswersDto> serviceAnswer = itemRequestService.getAllForUser(1, 0, 10);
 
-        when(itemRepository.findByRequest_id(1))
-                .thenReturn(List.of(new RequestAnswerDtoTestImpl(1, "Item 1", 5)));
-        when(itemRepository.findByRequest_id(2)).thenReturn(List.of());
+        assertEquals(2, serviceAnswer.size());
+        assertEquals("Second request", serviceAnswer.get(0).description());
+        assertEquals("First request", serviceAnswer.get(1).description());
+        assertEquals(0, serviceAnswer.get(0).items().size());
+        assertEquals(1, serviceAnswer.get(1).items().size());
+        verify(itemRepository, times(1)).findAnswersByRequestIdIn(List.of(2L, 1L));
+        verifyNoMoreInteractions(itemRepository);
+    }
 
-        List<ItemRequestWithAnswersDto> serviceAnswer = itemRequestService.getAllForUser(1);
+    @Test
+    @DisplayName("Не должен искать ответы, если у пользователя нет запросов")
+    void shouldNotLoadAnswersWhenUserHasNoRequests() {
+        when(itemRequestRepository.findDtoByRequesterId(1, 0, 10))
+                .thenReturn(List.of());
 
-        assertEquals(2, serviceAnswer.size());
-        assertEquals("First request", serviceAnswer.get(0).description());
-        assertEquals("Second request", serviceAnswer.get(1).description());
-        assertEquals(1, serviceAnswer.get(0).items().size());
-        assertEquals(0, serviceAnswer.get(1).items().size());
+        assertTrue(itemRequestService.getAllForUser(1, 0, 10).isEmpty());
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
-    @DisplayName("Должен вернуть все запросы других пользователей")
-    void shouldReturnAllItemRequestsOtherUsers() {
-        User requester = new User(1, "Test user 1", "user@mail.ru");
+    @DisplayName("Должен вернуть первую страницу запросов других пользователей с курсором на следующую")
+    void shouldReturnFirstPageOfItemRequestsOtherUsers() {
         LocalDateTime requestTime = LocalDateTime.now();
-        List<ItemRequest> itemRequests = List.of(
-                new ItemRequest(1, "First request", requestTime.minusHours(2), requester),
-                new ItemRequest(2, "Second request", requestTime.minusHours(1), requester)
+        List<ItemRequestDto> itemRequests = List.of(
+                new ItemRequestDto(3, "Third request", requestTime.minusHours(1)),
+                new ItemRequestDto(2, "Second request", requestTime.minusHours(2)),
+                new ItemRequestDto(1, "First request", requestTime.minusHours(3))
         );
 
-        when(itemRequestRepository.findByRequester_idNot(Mockito.anyLong()))
+        when(itemRequestRepository.findLatestDtoByRequesterIdNot(5, 3))
                 .thenReturn(itemRequests);
 
-        when(itemRequestMapper.toItemRequestDto(any(ItemRequest.class)))
-                .thenAnswer(argument -> {
-                    ItemRequest itemRequest = argument.getArgument(0, ItemRequest.class);
-                    return new ItemRequestDto(itemRequest.getId(), itemRequest.getDescription(),
-                            itemRequest.getCreated());
-                });
+        CursorPage<ItemRequestDto> page = itemRequestService.getAllForOtherUsers(5, null, 2);
 
-        List<ItemRequestDto> serviceAnswer = itemRequestService.getAllForOtherUsers(5);
+        assertEquals(itemRequests.subList(0, 2), page.content());
+        assertEquals(new Cursor(requestTime.minusHours(2), 2).encode(), page.nextCursor(),
+                "Курсор должен указывать на последний запрос страницы");
+        verify(itemRequestRepository, times(1)).findLatestDtoByRequesterIdNot(5, 3);
+        verifyNoMoreInteractions(itemRequestRepository);
+    }
 
-        assertEquals(2, serviceAnswer.size());
-        assertEquals("First request", serviceAnswer.get(0).description());
-        assertEquals("Second request", serviceAnswer.get(1).description());
+    @Test
+    @DisplayName("Должен вернуть последнюю страницу запросов других пользователей без курсора")
+    void shouldReturnLastPageOfItemRequestsOtherUsers() {
+        LocalDateTime created = LocalDateTime.now().minusHours(2);
+        List<ItemRequestDto> itemRequests = List.of(new ItemRequestDto(1, "First request", created.minusHours(1)));
+
+        when(itemRequestRepository.findDtoByRequesterIdNotBefore(5, created, 2, 11))
+                .thenReturn(itemRequests);
+
+        CursorPage<ItemRequestDto> page = itemRequestService.getAllForOtherUsers(5, new Cursor(created, 2).encode(),
+                10);
+
+        assertEquals(itemRequests, page.content());
+        assertNull(page.nextCursor(), "Для последней страницы курсор не нужен");
+        verify(itemRequestRepository, times(1)).findDtoByRequesterIdNotBefore(5, created, 2, 11);
+        verifyNoMoreInteractions(itemRequestRepository);
+    }
+
+    @Test
+    @DisplayName("Не должен принимать некорректный курсор")
+    void shouldNotReturnItemRequestsOtherUsersWithInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> itemRequestService.getAllForOtherUsers(5, "не курсор", 10));
+        verifyNoInteractions(itemRequestRepository);
+    }
+
+    @Test
+    @DisplayName("Должен вернуть первую страницу совпадений пользователя с курсором на следующую")
+    void shouldReturnFirstPageOfMatches() {
+        LocalDateTime created = LocalDateTime.now().minusHours(1);
+        List<RequestMatchDto> matches = List.of(
+                new RequestMatchDto(7, 3, 10, "Дрель", 2, 1.0, created),
+                new RequestMatchDto(6, 2, 10, "Дрель", 2, 0.5, created));
+
+        when(requestMatchRepository.findLatestDtoByRequesterId(1, 2))
+                .thenReturn(matches);
+
+        CursorPage<RequestMatchDto> page = itemRequestService.getMatches(1, null, 1);
+
+        assertEquals(matches.subList(0, 1), page.content());
+        assertEquals(new Cursor(created, 7).encode(), page.nextCursor());
+        verify(requestMatchRepository, times(1)).findLatestDtoByRequesterId(1, 2);
+        verifyNoMoreInteractions(requestMatchRepository);
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @DisplayName("Не должен возвращать совпадения несуществующего пользователя")
+    void shouldNotReturnMatchesForUnknownUser() {
+        LocalDateTime created = LocalDateTime.now();
+        when(requestMatchRepository.findDtoByRequesterIdBefore(99, created, 7, 11))
+                .thenReturn(List.of());
+        when(userService.getUserById(99))
+                .thenThrow(new NotFoundException("Пользователь с id = 99 не найден"));
+
+        assertThrows(NotFoundException.class,
+                () -> itemRequestService.getMatches(99, new Cursor(created, 7).encode(), 10));
+        verify(requestMatchRepository, times(1)).findDtoByRequesterIdBefore(99, created, 7, 11);
+        verifyNoMoreInteractions(requestMatchRepository);
+    }
+
+    @Test
+    @DisplayName("Не должен подписывать на совпадения несуществующего пользователя")
+    void shouldNotSubscribeUnknownUserToMatches() {
+        when(userService.getUserById(99))
+                .thenThrow(new NotFoundException("Пользователь с id = 99 не найден"));
+
+        assertThrows(NotFoundException.class, () -> itemRequestService.subscribeToMatches(99));
+        verifyNoInteractions(requestMatchNotifier);
     }
 
     @Test
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.request.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashIndexTest {
+    private static final double THRESHOLD = 0.8;
+
+    private final MinHashIndex index = new MinHashIndex();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private Optional<RequestDuplicate> find(long requesterId, String description) {
+        return index.findDuplicate(requesterId, description, THRESHOLD, now.minusDays(30));
+    }
+
+    @Test
+    void shinglesShouldIgnoreCaseAndPunctuation() {
+        assertEquals(MinHashIndex.shingles("Нужна дрель, на выходные!"),
+                MinHashIndex.shingles("нужна ДРЕЛЬ на выходные"));
+        assertEquals(Set.of("ел"), MinHashIndex.shingles(" Ёл! "));
+        assertTrue(MinHashIndex.shingles("?!").isEmpty());
+    }
+
+    @Test
+    void signatureSimilarityShouldEstimateJaccard() {
+        double similar = MinHashIndex.similarity(MinHashIndex.signature("Нужна ударная дрель на выходные"),
+                MinHashIndex.signature("Нужна ударная дрель на выходных"));
+        double different = MinHashIndex.similarity(MinHashIndex.signature("Нужна дрель на выходные"),
+                MinHashIndex.signature("Нужна лестница на выходные"));
+
+        assertEquals(0.93, similar, 0.1);
+        assertEquals(0.43, different, 0.1);
+    }
+
+    @Test
+    void findDuplicateShouldReturnMostSimilarRequestOfSameRequester() {
+        index.put(1, 10, "Нужна ударная дрель на выходные", now);
+        index.put(2, 10, "Нужна ударная дрель на выходных", now);
+        index.put(3, 10, "Нужна лестница на выходные", now);
+        index.put(4, 20, "Нужна ударная дрель на выходные", now);
+
+        Optional<RequestDuplicate> duplicate = find(10, "нужна ударная дрель, на выходные");
+
+        assertEquals(1, duplicate.orElseThrow().requestId());
+        assertEquals(1.0, duplicate.orElseThrow().similarity());
+        assertTrue(find(10, "Нужна пила").isEmpty());
+        assertTrue(find(30, "Нужна ударная дрель на выходные").isEmpty(), "Запросы других авторов не дубликаты");
+    }
+
+    @Test
+    void findDuplicateShouldSkipRemovedAndOldRequests() {
+        index.put(1, 10, "Нужна дрель на выходные", now);
+        index.put(2, 10, "Нужна пила на выходные", now.minusDays(40));
+        index.put(3, 20, "Нужна лестница на выходные", now);
+
+        index.remove(1);
+        assertTrue(find(10, "Нужна дрель на выходные").isEmpty());
+        assertTrue(find(10, "Нужна пила на выходные").isEmpty(), "Запрос старше окна не должен учитываться");
+
+        index.removeCreatedBefore(now.minusDays(30));
+        index.removeByRequester(20);
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.request.dedup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.event.ItemCreatedEvent;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RequestDuplicateDetectorTest {
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
+    private RequestDuplicateDetector detector;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        detector = new RequestDuplicateDetector(itemRequestRepository, new SimpleMeterRegistry(),
+                DuplicateRequestPolicy.WARN, 0.8, Duration.ofDays(30));
+    }
+
+    @Test
+    void onRequestCreatedShouldIndexRequestWithItsCreationTime() {
+        detector.onRequestCreated(new ItemRequestCreatedEvent(1, 10, "Нужна дрель на выходные", now));
+        detector.onRequestCreated(new ItemRequestCreatedEvent(2, 20, "Нужна лестница на выходные",
+                now.minusDays(31)));
+
+        assertEquals(Optional.of(1L), detector.findDuplicate(10, "Нужна дрель на выходные")
+                .map(RequestDuplicate::requestId));
+        assertTrue(detector.findDuplicate(20, "Нужна лестница на выходные").isEmpty(),
+                "Запрос старше окна не должен считаться похожим");
+    }
+
+    @Test
+    void rebuildShouldKeepChangesAppliedWhileReadingFromDatabase() {
+        when(itemRequestRepository.findOpenCreatedAfter(any(LocalDateTime.class))).thenAnswer(invocation -> {
+            // События, пришедшие после чтения из БД, но до замены индекса
+            detector.onRequestCreated(new ItemRequestCreatedEvent(3, 30, "Нужна пила для дачи", now));
+            detector.onItemCreated(new ItemCreatedEvent(100, 40, "Дрель", null, 1L));
+            detector.onUserDeleted(new UserDeletedEvent(20));
+            return List.of(
+                    new RecentItemRequest(1, 10, "Нужна дрель на выходные", now.minusDays(1)),
+                    new RecentItemRequest(2, 20, "Нужна лестница на выходные", now.minusDays(1)));
+        });
+
+        detector.rebuild();
+
+        assertEquals(Optional.of(3L), detector.findDuplicate(30, "Нужна пила для дачи")
+                .map(RequestDuplicate::requestId), "Новый запрос потерян");
+        assertTrue(detector.findDuplicate(10, "Нужна дрель на выходные").isEmpty(),
+                "Запрос, на который ответили, остался в индексе");
+        assertTrue(detector.findDuplicate(20, "Нужна лестница на выходные").isEmpty(),
+                "Запрос удалённого пользователя остался в индексе");
+    }
+}
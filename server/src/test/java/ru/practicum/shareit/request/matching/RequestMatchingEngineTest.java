@@ -0,0 +1,142 @@
+package ru.practicum.shareit.request.matching;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.event.ItemCreatedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.RequestMatchRepository;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestMatchingEngineTest {
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private RequestMatchRepository requestMatchRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RequestMatchNotifier requestMatchNotifier;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<RequestMatch>> matchesCaptor;
+
+    private RequestMatchingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new RequestMatchingEngine(itemRequestRepository, itemRepository, requestMatchRepository,
+                userRepository, requestMatchNotifier, transactionManager, new SimpleMeterRegistry(), 0.5, 20);
+        when(itemRequestRepository.findOpen()).thenReturn(List.of(
+                new OpenItemRequest(1, 10, "Нужна дрель для ремонта"),
+                new OpenItemRequest(2, 20, "Ищу ударную дрель"),
+                new OpenItemRequest(3, 30, "Нужна лестница")
+        ));
+        engine.rebuild();
+    }
+
+    @Test
+    void matchShouldSkipOwnRequestsAndAnsweredRequest() {
+        assertEquals(List.of(new RequestMatchCandidate(2, 20, 1.0), new RequestMatchCandidate(1, 10, 0.5)),
+                engine.match(new ItemCreatedEvent(100, 30, "Дрель ударная", "Мощная", null)));
+        assertEquals(List.of(new RequestMatchCandidate(1, 10, 0.5)),
+                engine.match(new ItemCreatedEvent(100, 20, "Дрель ударная", "Мощная", null)));
+        assertEquals(List.of(new RequestMatchCandidate(1, 10, 0.5)),
+                engine.match(new ItemCreatedEvent(100, 30, "Дрель ударная", "Мощная", 2L)));
+    }
+
+    @Test
+    void onItemCreatedShouldRecordAndNotifyMatches() {
+        LocalDateTime created = LocalDateTime.now();
+        RequestMatchDto match = new RequestMatchDto(500, 2, 100, "Дрель ударная", 10, 1.0, created);
+        when(itemRepository.getReferenceById(100L)).thenReturn(new Item());
+        when(itemRequestRepository.getReferenceById(2L)).thenReturn(new ItemRequest());
+        User requester = new User(20, "Requester", "requester@mail.ru");
+        when(userRepository.getReferenceById(20L)).thenReturn(requester);
+        when(requestMatchRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<RequestMatch> matches = invocation.getArgument(0);
+            matches.getFirst().setId(500);
+            return matches;
+        });
+        when(requestMatchRepository.findDtoByIdIn(List.of(500L))).thenReturn(List.of(match));
+
+        engine.onItemCreated(new ItemCreatedEvent(100, 10, "Дрель ударная", null, null));
+
+        verify(requestMatchRepository, times(1)).saveAll(matchesCaptor.capture());
+        assertEquals(1, matchesCaptor.getValue().size());
+        assertEquals(1.0, matchesCaptor.getValue().getFirst().getScore());
+        assertEquals(requester, matchesCaptor.getValue().getFirst().getRequester());
+        verify(requestMatchNotifier, times(1)).notify(20, match);
+        verify(requestMatchRepository, times(1)).findDtoByIdIn(List.of(500L));
+        verifyNoMoreInteractions(requestMatchRepository, requestMatchNotifier);
+    }
+
+    @Test
+    void onItemCreatedShouldCloseAnsweredRequest() {
+        engine.onItemCreated(new ItemCreatedEvent(100, 10, "Лестница", "Стремянка", 3L));
+
+        assertTrue(engine.match(new ItemCreatedEvent(101, 10, "Лестница", null, null)).isEmpty(),
+                "Запрос, на который ответили, больше не должен подбираться");
+        verifyNoInteractions(requestMatchRepository, requestMatchNotifier);
+    }
+
+    @Test
+    void indexShouldFollowRequestAndUserEvents() {
+        engine.onRequestCreated(new ItemRequestCreatedEvent(4, 40, "Нужна пила", LocalDateTime.now()));
+        assertEquals(List.of(new RequestMatchCandidate(4, 40, 1.0)),
+                engine.match(new ItemCreatedEvent(100, 10, "Пила", null, null)));
+
+        engine.onUserDeleted(new UserDeletedEvent(40));
+        assertTrue(engine.match(new ItemCreatedEvent(100, 10, "Пила", null, null)).isEmpty());
+    }
+
+    @Test
+    void rebuildShouldKeepChangesAppliedWhileReadingFromDatabase() {
+        when(itemRequestRepository.findOpen()).thenAnswer(invocation -> {
+            // События, пришедшие после чтения из БД, но до замены индекса
+            engine.onRequestCreated(new ItemRequestCreatedEvent(4, 40, "Нужна пила", LocalDateTime.now()));
+            engine.onUserDeleted(new UserDeletedEvent(20));
+            return List.of(
+                    new OpenItemRequest(1, 10, "Нужна дрель для ремонта"),
+                    new OpenItemRequest(2, 20, "Ищу ударную дрель"));
+        });
+
+        engine.rebuild();
+
+        assertEquals(List.of(new RequestMatchCandidate(4, 40, 1.0)),
+                engine.match(new ItemCreatedEvent(100, 10, "Пила", null, null)), "Новый запрос потерян");
+        assertEquals(List.of(new RequestMatchCandidate(1, 10, 0.5)),
+                engine.match(new ItemCreatedEvent(100, 30, "Дрель ударная", null, null)),
+                "Запрос удалённого пользователя остался в индексе");
+    }
+}
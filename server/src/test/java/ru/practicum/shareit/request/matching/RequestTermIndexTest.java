@@ -0,0 +1,53 @@
+package ru.practicum.shareit.request.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTermIndexTest {
+    private final RequestTermIndex index = new RequestTermIndex();
+
+    @Test
+    void termsShouldDropStopWordsAndStripEndings() {
+        assertEquals(Set.of("дрел", "ремонт"), RequestTermIndex.terms("Нужна дрель для ремонта!"));
+        assertEquals(RequestTermIndex.terms("дрели"), RequestTermIndex.terms("Дрелью"));
+        assertEquals(Set.of("елк"), RequestTermIndex.terms("Ёлка"));
+    }
+
+    @Test
+    void matchShouldReturnRequestsAboveScoreByScoreDescending() {
+        index.put(1, 10, "Нужна дрель для ремонта");
+        index.put(2, 20, "Ищу ударную дрель");
+        index.put(3, 30, "Нужна лестница");
+
+        List<RequestMatchCandidate> candidates = index.match(0.5, "Дрель ударная", "Мощная, для бетона");
+
+        assertEquals(List.of(new RequestMatchCandidate(2, 20, 1.0), new RequestMatchCandidate(1, 10, 0.5)),
+                candidates);
+        assertTrue(index.match(0.6, "Дрель").isEmpty(), "Доля совпавших слов ниже порога");
+    }
+
+    @Test
+    void removeShouldDropRequestsFromIndex() {
+        index.put(1, 10, "Нужна дрель");
+        index.put(2, 10, "Нужна пила");
+        index.put(3, 20, "Нужна дрель");
+
+        index.remove(3);
+        assertEquals(List.of(new RequestMatchCandidate(1, 10, 1.0)), index.match(0.5, "Дрель"));
+
+        index.removeByRequester(10);
+        assertTrue(index.match(0.5, "Дрель", "Пила").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void putShouldSkipRequestsWithoutTerms() {
+        index.put(1, 10, "Нужна для");
+
+        assertEquals(0, index.size());
+    }
+}
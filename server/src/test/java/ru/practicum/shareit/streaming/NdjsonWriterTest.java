@@ -0,0 +1,60 @@
+package ru.practicum.shareit.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonWriterTest {
+    private final NdjsonWriter writer = new NdjsonWriter(new ObjectMapper(), 2);
+
+    @Test
+    @DisplayName("write должна писать каждую строку отдельным JSON-объектом")
+    void writeShouldEmitOneJsonObjectPerLine() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(response, sink -> {
+            sink.accept(new UserDto(1L, "Первый", "first@mail.ru"));
+            sink.accept(new UserDto(2L, "Второй", "second@mail.ru"));
+        });
+
+        assertTrue(response.getContentType().startsWith(MediaType.APPLICATION_NDJSON_VALUE));
+        assertEquals("{\"id\":1,\"name\":\"Первый\",\"email\":\"first@mail.ru\"}\n"
+                        + "{\"id\":2,\"name\":\"Второй\",\"email\":\"second@mail.ru\"}\n",
+                response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("write должна сбрасывать ответ клиенту, не дожидаясь конца выгрузки")
+    void writeShouldFlushBeforeSourceIsExhausted() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<Boolean> committed = new ArrayList<>();
+
+        writer.write(response, sink -> {
+            for (long id = 1; id <= 3; id++) {
+                sink.accept(new UserDto(id, "name", "mail"));
+                committed.add(response.isCommitted());
+            }
+        });
+
+        assertEquals(List.of(false, true, true), committed);
+    }
+
+    @Test
+    @DisplayName("write должна отдавать пустой ответ, если источник ничего не вернул")
+    void writeShouldEmitEmptyBodyWhenSourceIsEmpty() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(response, sink -> {
+        });
+
+        assertEquals("", response.getContentAsString());
+    }
+}
@@ -5,22 +5,27 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.RequestBuilder;
 import ru.practicum.shareit.constants.AppConstants;
+import ru.practicum.shareit.streaming.NdjsonWriter;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
 @WebMvcTest(controllers = UserController.class)
+@Import(NdjsonWriter.class)
 class UserControllerIT {
 
     @MockitoBean
@@ -63,6 +68,43 @@ class UserControllerIT {
         verifyNoMoreInteractions(userService);
     }
 
+    @Test
+    @DisplayName("getAllUsers должна отдавать пользователей построчно в формате NDJSON, если он запрошен")
+    void shouldStreamAllUsersAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDto> sink = invocation.getArgument(0);
+            users.forEach(sink);
+            return null;
+        }).when(userService).streamAll(any());
+
+        RequestBuilder request = get("/users")
+                .accept(MediaType.APPLICATION_NDJSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(users.get(0)) + "\n"
+                        + mapper.writeValueAsString(users.get(1)) + "\n"));
+
+        verify(userService, times(1)).streamAll(any());
+        verifyNoMoreInteractions(userService);
+    }
+
+    @Test
+    @DisplayName("getAllUsers без заголовка Accept должна возвращать обычный JSON-массив")
+    void shouldGetAllUsersAsJsonByDefault() throws Exception {
+        when(userService.getAll())
+                .thenReturn(users);
+
+        mvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$").isArray());
+
+        verify(userService, times(1)).getAll();
+        verifyNoMoreInteractions(userService);
+    }
+
     @Test
     @DisplayName("get должна вернуть пользователя по id")
     void shouldGetUserById() throws Exception {
@@ -7,9 +7,12 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.exception.AlreadyExistException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
 import java.lang.reflect.InvocationTargetException;
@@ -28,6 +31,9 @@ class UserServiceImplTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -124,7 +130,8 @@ class UserServiceImplTest {
         assertEquals(updatedUser.getName(), newUser.getName(), "Имя пользователя не обновлено");
         assertEquals(updatedUser.getEmail(), newUser.getEmail(), "Почта пользователя не обновлена");
         verify(userRepository, times(1)).findByEmail("newMail");
-        verifyNoMoreInteractions(userRepository);
+        verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(1L));
+        verifyNoMoreInteractions(userRepository, eventPublisher);
     }
 
     @Test
@@ -169,7 +176,8 @@ class UserServiceImplTest {
 
         verify(userRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).delete(user);
-        verifyNoMoreInteractions(userRepository, userMapper);
+        verify(eventPublisher, times(1)).publishEvent(new UserDeletedEvent(1L));
+        verifyNoMoreInteractions(userRepository, userMapper, eventPublisher);
     }
 
     @Test
@@ -1,8 +1,8 @@
 INSERT INTO users (id, name, email) VALUES (1, 'First user', 'first@mail.ru');
 INSERT INTO users (id, name, email) VALUES (2, 'Second user', 'second@mail.ru');
 
-INSERT INTO items (id, name, description, available, owner_id, request_id) VALUES
-    (1, 'First item', 'First item desc', TRUE, 2, NULL);
+INSERT INTO items (id, name, description, available, owner_id, request_id, comments_count) VALUES
+    (1, 'First item', 'First item desc', TRUE, 2, NULL, 2);
 
 INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) VALUES
     (1, {ts '2025-01-17 18:47:52.69'}, {ts '2025-01-27 18:47:52.69'}, 1, 1, 'APPROVED');
@@ -13,3 +13,8 @@ INSERT INTO comments (id, text, item_id, author_id, created) VALUES
     (1, 'First comment text', 1, 1,{ts '2025-01-17 18:47:52.69'});
 INSERT INTO comments (id, text, item_id, author_id, created) VALUES
     (2, 'Second comment text', 1, 1,{ts '2025-01-31 18:47:52.69'});
+
+ALTER TABLE users ALTER COLUMN id RESTART WITH 100;
+ALTER TABLE items ALTER COLUMN id RESTART WITH 100;
+ALTER TABLE bookings ALTER COLUMN id RESTART WITH 100;
+ALTER TABLE comments ALTER COLUMN id RESTART WITH 100;